@@ -0,0 +1,188 @@
+package com.voetsjoeba.nonogram.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a run of the benchmarks against a recorded baseline and reports the benchmarks that got slower. Both runs must have been
+ * written in JMH's CSV format (<tt>-rf csv</tt>). A benchmark counts as a regression if its score got worse by more than the threshold
+ * (10% by default) and by more than the combined error margins of both scores.
+ * 
+ * <p>Usage: <tt>BaselineComparison &lt;baseline.csv&gt; &lt;current.csv&gt; [threshold percentage]</tt>. Exits with status 1 if any
+ * regressions were found.</p>
+ * 
+ * <p>Scores are only comparable between runs on the same machine, so no baseline is shipped. If the baseline file doesn't exist yet,
+ * the current run is recorded as the baseline instead, and later runs are compared against it. Delete the baseline file to record a
+ * new one, e.g. after an intended slowdown.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class BaselineComparison {
+	
+	/**
+	 * Score of a single benchmark (with a particular set of parameters).
+	 */
+	private static class Score {
+		
+		public String mode;
+		public double score;
+		public double error;
+		public String unit;
+		
+		/**
+		 * Returns true if higher scores are better in this score's benchmark mode (i.e. for throughput).
+		 */
+		public boolean isHigherBetter(){
+			return mode.equals("thrpt");
+		}
+		
+	}
+	
+	public static void main(String[] args) throws IOException {
+		
+		if(args.length < 2){
+			System.err.println("Usage: BaselineComparison <baseline.csv> <current.csv> [threshold percentage]");
+			System.exit(2);
+		}
+		
+		double threshold = (args.length > 2 ? Double.parseDouble(args[2]) / 100.0 : 0.10);
+		
+		Map<String, Score> current = readScores(args[1]);
+		File baselineFile = new File(args[0]);
+		
+		if(!baselineFile.exists()){
+			Files.copy(new File(args[1]).toPath(), baselineFile.toPath());
+			System.out.println("No baseline found; recorded " + current.size() + " score(s) from " + args[1] + " as the baseline in " + args[0]);
+			System.exit(0);
+		}
+		
+		Map<String, Score> baseline = readScores(args[0]);
+		
+		int regressionCount = 0;
+		
+		for(Map.Entry<String, Score> entry : current.entrySet()){
+			
+			String benchmark = entry.getKey();
+			Score currentScore = entry.getValue();
+			Score baselineScore = baseline.get(benchmark);
+			
+			if(baselineScore == null){
+				System.out.println("NEW         " + benchmark + ": " + format(currentScore));
+				continue;
+			}
+			
+			// positive if the current score is worse
+			double difference = (currentScore.isHigherBetter() ? baselineScore.score - currentScore.score : currentScore.score - baselineScore.score);
+			double relativeDifference = difference / baselineScore.score;
+			
+			boolean regression = (relativeDifference > threshold && difference > baselineScore.error + currentScore.error);
+			if(regression) regressionCount++;
+			
+			System.out.println(String.format("%-11s %s: %s -> %s (%+.1f%% worse)", (regression ? "REGRESSION" : "ok"), benchmark, format(baselineScore), format(currentScore), relativeDifference * 100));
+			
+		}
+		
+		for(String benchmark : baseline.keySet()){
+			if(!current.containsKey(benchmark)) System.out.println("MISSING     " + benchmark);
+		}
+		
+		System.out.println(regressionCount + " regression(s) found");
+		System.exit(regressionCount > 0 ? 1 : 0);
+		
+	}
+	
+	private static String format(Score score){
+		return String.format("%.3f +/- %.3f %s", score.score, score.error, score.unit);
+	}
+	
+	/**
+	 * Reads the scores from a JMH CSV result file, keyed by the benchmark name followed by its parameter values.
+	 */
+	private static Map<String, Score> readScores(String fileName) throws IOException {
+		
+		Map<String, Score> scores = new LinkedHashMap<String, Score>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), "UTF-8"));
+		
+		try {
+			
+			String line = reader.readLine();
+			if(line == null) return scores;
+			
+			List<String> header = parseLine(line);
+			
+			while((line = reader.readLine()) != null){
+				
+				if(line.trim().length() == 0) continue;
+				
+				List<String> fields = parseLine(line);
+				StringBuilder key = new StringBuilder(fields.get(0));
+				
+				// parameter columns come after the fixed ones and are named "Param: <name>"
+				for(int i=7; i<fields.size() && i<header.size(); i++){
+					if(fields.get(i).length() > 0) key.append(" " + header.get(i).replace("Param: ", "") + "=" + fields.get(i));
+				}
+				
+				Score score = new Score();
+				score.mode = fields.get(1);
+				score.score = Double.parseDouble(fields.get(4));
+				score.error = (fields.get(5).equals("NaN") ? 0 : Double.parseDouble(fields.get(5)));
+				score.unit = fields.get(6);
+				
+				scores.put(key.toString(), score);
+				
+			}
+			
+		}
+		finally {
+			reader.close();
+		}
+		
+		return scores;
+		
+	}
+	
+	/**
+	 * Splits a CSV line into its fields, removing quotes.
+	 */
+	private static List<String> parseLine(String line){
+		
+		List<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		
+		for(int i=0; i<line.length(); i++){
+			
+			char c = line.charAt(i);
+			
+			if(c == '"'){
+				
+				if(quoted && i+1 < line.length() && line.charAt(i+1) == '"'){
+					field.append('"');
+					i++;
+				} else {
+					quoted = !quoted;
+				}
+				
+			} else if(c == ',' && !quoted){
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+			
+		}
+		
+		fields.add(field.toString());
+		return fields;
+		
+	}
+	
+}
@@ -0,0 +1,75 @@
+package com.voetsjoeba.nonogram.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.voetsjoeba.nonogram.algorithm.AssignmentGenerator;
+import com.voetsjoeba.nonogram.algorithm.ProgressiveExtractionCallback;
+import com.voetsjoeba.nonogram.structure.RowDecomposition;
+import com.voetsjoeba.nonogram.structure.api.Row;
+
+/**
+ * Measures the construction of {@link RowDecomposition}s and the generation of all assignments of a row by the 
+ * {@link AssignmentGenerator}, for all of the {@link LineFixtures}. Neither modifies the rows, so they are built only once.
+ * 
+ * @author Jeroen De Ridder
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dlog4j.configuration=benchmark-log4j.properties")
+public class DecompositionBenchmark {
+	
+	private List<Row> rows;
+	private RowDecomposition[] decompositions;
+	
+	@Setup
+	public void setup(){
+		
+		rows = LineFixtures.buildAll();
+		decompositions = new RowDecomposition[rows.size()];
+		
+		for(int i=0; i<rows.size(); i++){
+			decompositions[i] = new RowDecomposition(rows.get(i));
+		}
+		
+	}
+	
+	@Benchmark
+	public void constructDecomposition(Blackhole blackhole) {
+		for(Row row : rows){
+			blackhole.consume(new RowDecomposition(row));
+		}
+	}
+	
+	@Benchmark
+	public void generateAssignments(Blackhole blackhole) {
+		
+		AssignmentGenerator generator = new AssignmentGenerator();
+		
+		for(int i=0; i<rows.size(); i++){
+			
+			ProgressiveExtractionCallback callback = new ProgressiveExtractionCallback(decompositions[i]);
+			generator.generateAssignments(rows.get(i).getIncompleteRuns(), decompositions[i], callback);
+			
+			blackhole.consume(callback.getTotalGeneratedAssignments());
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,112 @@
+package com.voetsjoeba.nonogram.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
+import com.voetsjoeba.nonogram.structure.Orientation;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.StandardRow;
+import com.voetsjoeba.nonogram.structure.StandardSquare;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Square;
+
+/**
+ * Fixed set of partially solved lines that the line-level benchmarks run against. Each fixture is written as its comma-separated run 
+ * lengths, followed by a pipe and one character per square: <tt>.</tt> for unknown, <tt>x</tt> for filled and <tt>-</tt> for cleared.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class LineFixtures {
+	
+	public static final String[] FIXTURES = {
+		
+		// short lines
+		"3|.....",
+		"2,2|.....",
+		"1,1,1|.....",
+		"4|..x......",
+		"1,3|..-.x.....",
+		"3,1,2|...x..-..x..x",
+		
+		// medium lines, typical of 20-30 square puzzles
+		"2,3,1,4|....................",
+		"1,1,1,1,1,1|.........x..........",
+		"5,5|....-.......x.......",
+		"3,2,7,1|.........x.....xx....-.....",
+		"1,2,3,4,5|..............................",
+		
+		// long lines with few, small runs: costly to enumerate
+		"1,1|.............................................",
+		"1,1,1|.......................-.....................",
+		"2,1,2,1|...........x.......................x.........",
+		
+		// long lines with many runs
+		"1,7,5,7|.....xx.x.............-xxxxxxx....",
+		"3,1,1,2,1,4,2,3|.............................................",
+		"1,1,1,1,1,1,1,1,1,1|......x...............x.........x.......x....",
+		
+	};
+	
+	private LineFixtures(){
+		
+	}
+	
+	/**
+	 * Builds all fixture lines as fresh rows.
+	 */
+	public static List<Row> buildAll(){
+		
+		List<Row> rows = new ArrayList<Row>(FIXTURES.length);
+		for(String fixture : FIXTURES) rows.add(build(fixture));
+		
+		return rows;
+		
+	}
+	
+	/**
+	 * Builds a single row from its fixture string. The row's modification count is reset afterwards, so that solvers that only kick in
+	 * on unmodified rows (such as the exhaustive solver) run against it as well.
+	 */
+	public static Row build(String fixture){
+		
+		int separatorIndex = fixture.indexOf('|');
+		String[] runStrings = fixture.substring(0, separatorIndex).split(",");
+		String squareString = fixture.substring(separatorIndex + 1);
+		
+		int[] runLengths = new int[runStrings.length];
+		for(int i=0; i<runStrings.length; i++) runLengths[i] = Integer.parseInt(runStrings[i]);
+		
+		List<Square> squares = new ArrayList<Square>(squareString.length());
+		
+		try {
+			
+			for(int i=0; i<squareString.length(); i++){
+				
+				Square square = new StandardSquare(0, i);
+				char squareChar = squareString.charAt(i);
+				
+				if(squareChar == 'x'){
+					square.setState(SquareState.FILLED);
+				} else if(squareChar == '-'){
+					square.setState(SquareState.CLEAR);
+				}
+				
+				squares.add(square);
+				
+			}
+			
+		}
+		catch(ConflictingSquareStateException e) {
+			// fresh squares, can't happen
+			throw new RuntimeException(e);
+		}
+		
+		Row row = new StandardRow(Orientation.HORIZONTAL, 0, squares, runLengths);
+		row.resetModificationCount();
+		
+		return row;
+		
+	}
+	
+}
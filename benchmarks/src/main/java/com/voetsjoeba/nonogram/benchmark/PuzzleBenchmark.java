@@ -0,0 +1,75 @@
+package com.voetsjoeba.nonogram.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.voetsjoeba.nonogram.algorithm.Solver;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+/**
+ * Solves the bundled puzzles from start to finish. The puzzle is instantiated as part of each invocation; instantiation is cheap compared
+ * to solving, but {@link #createPuzzle()} measures it separately nonetheless.
+ * 
+ * @author Jeroen De Ridder
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Dlog4j.configuration=benchmark-log4j.properties")
+public class PuzzleBenchmark {
+	
+	private static final String PUZZLE_PACKAGE = "com.voetsjoeba.nonogram.puzzle";
+	
+	@Param({
+		"logicart3.DandyPuzzle",
+		"logicart3.MezzoBustoPuzzle",
+		"logicart3.SalperaPuzzle",
+		"logicart47.PianistaPuzzle",
+		"logicart47.PellicolaPuzzle",
+		"logicart47.SpiaggiaPuzzle",
+		"webpbn.SkidPuzzle",
+		"webpbn.SwingPuzzle",
+		"webpbn.BucksPuzzle",
+	})
+	public String puzzleName;
+	
+	private Class<?> puzzleClass;
+	
+	@Setup
+	public void setup() throws ClassNotFoundException {
+		puzzleClass = Class.forName(PUZZLE_PACKAGE + "." + puzzleName);
+	}
+	
+	@Benchmark
+	public Puzzle solve() throws Exception {
+		
+		Puzzle puzzle = (Puzzle) puzzleClass.newInstance();
+		new Solver(puzzle).solve();
+		
+		if(!puzzle.isComplete()){
+			throw new IllegalStateException(puzzleName + " was not solved completely");
+		}
+		
+		return puzzle;
+		
+	}
+	
+	@Benchmark
+	public Puzzle createPuzzle() throws Exception {
+		return (Puzzle) puzzleClass.newInstance();
+	}
+	
+}
@@ -0,0 +1,87 @@
+package com.voetsjoeba.nonogram.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.voetsjoeba.nonogram.algorithm.rowsolver.RowSolver;
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.structure.api.Row;
+
+/**
+ * Runs each of the line solvers against all of the {@link LineFixtures}. Since the solvers modify the rows they solve, every invocation
+ * builds the fixture rows anew; {@link #buildRows()} measures that cost separately so it can be subtracted.
+ * 
+ * @author Jeroen De Ridder
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dlog4j.configuration=benchmark-log4j.properties")
+public class RowSolverBenchmark {
+	
+	private static final String ROWSOLVER_PACKAGE = "com.voetsjoeba.nonogram.algorithm.rowsolver";
+	
+	@Param({
+		"ClearExcessSequencesSolver",
+		"SplitJoinSolver",
+		"OverlappingRowSolver",
+		"BitParallelOverlapSolver",
+		"MercuryBounceSolver",
+		"IdentifyUnknownRunsSolver",
+		"old.ConnectKnownIncompleteRunsSolver",
+		"old.ExpandWhitespaceSolver",
+		"old.ExpandKnownIncompleteRunsSolver",
+		"old.OldExamineSequencesSolver",
+		"ExhaustiveRowSolver",
+		"DynamicProgrammingRowSolver",
+	})
+	public String solverName;
+	
+	private Class<?> solverClass;
+	
+	@Setup
+	public void setup() throws ClassNotFoundException {
+		solverClass = Class.forName(ROWSOLVER_PACKAGE + "." + solverName);
+	}
+	
+	@Benchmark
+	public List<Row> solve() throws Exception {
+		
+		RowSolver solver = (RowSolver) solverClass.newInstance();
+		List<Row> rows = LineFixtures.buildAll();
+		
+		for(Row row : rows){
+			
+			try {
+				solver.solve(row);
+			}
+			catch(UnsolvablePuzzleException upex){
+				throw new IllegalStateException("Fixture " + row + " is unsolvable for " + solverName, upex);
+			}
+			
+		}
+		
+		return rows;
+		
+	}
+	
+	@Benchmark
+	public List<Row> buildRows() {
+		return LineFixtures.buildAll();
+	}
+	
+}
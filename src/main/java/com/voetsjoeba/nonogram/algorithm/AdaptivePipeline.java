@@ -0,0 +1,190 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.util.Arrays;
+
+import com.voetsjoeba.nonogram.structure.api.Row;
+
+/**
+ * Schedules the row solvers of a {@link Solver}'s pipeline based on how well they have been doing so far. Lines are divided into
+ * classes by their amount of runs, their fill ratio (the minimum length of a solution relative to the line's length) and their length,
+ * and for each class the yield of each row solver (deductions per nanosecond) is tracked. Within a class, row solvers are run in
+ * decreasing order of yield, and row solvers that have never made a deduction on that class after a fair amount of tries are skipped.
+ * 
+ * <p>Skipped row solvers are still given an occasional try, so that they can be picked up again if the lines of a class start to
+ * benefit from them later on in the solving process. Since the {@link Solver} falls back to an exhaustive line solver when the pipeline
+ * runs dry, skipping never loses any deductions; it only defers them.</p>
+ * 
+ * <p>Row solvers that haven't been tried often enough on a class yet keep their original position at the front of the pipeline.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class AdaptivePipeline {
+	
+	// amount of tries on a line class before a row solver's yield is trusted
+	private static final int MIN_SAMPLES = 16;
+	
+	// a row solver that is being skipped on a line class is still given a try every so many times
+	private static final int EXPLORATION_INTERVAL = 32;
+	
+	// amount of tries on a line class after which its pipeline order is determined again
+	private static final int REORDER_INTERVAL = 64;
+	
+	private static final int RUN_COUNT_CLASSES = 4;
+	private static final int FILL_RATIO_CLASSES = 4;
+	private static final int LENGTH_CLASSES = 4;
+	
+	private static final int CLASS_COUNT = RUN_COUNT_CLASSES * FILL_RATIO_CLASSES * LENGTH_CLASSES;
+	
+	private final int solverCount;
+	
+	// per line class and row solver
+	private final long[][] invocations;
+	private final long[][] deductions;
+	private final long[][] time;
+	private final int[][] skipped;
+	
+	// per line class; pipeline order and amount of tries since the order was last determined
+	private final int[][] orders;
+	private final int[] triesSinceReorder;
+	
+	/**
+	 * @param solverCount Amount of row solvers in the pipeline.
+	 */
+	public AdaptivePipeline(int solverCount){
+		
+		this.solverCount = solverCount;
+		
+		invocations = new long[CLASS_COUNT][solverCount];
+		deductions = new long[CLASS_COUNT][solverCount];
+		time = new long[CLASS_COUNT][solverCount];
+		skipped = new int[CLASS_COUNT][solverCount];
+		
+		orders = new int[CLASS_COUNT][solverCount];
+		triesSinceReorder = new int[CLASS_COUNT];
+		
+		reset();
+		
+	}
+	
+	/**
+	 * Forgets everything learned so far.
+	 */
+	public void reset(){
+		
+		for(int c=0; c<CLASS_COUNT; c++){
+			
+			Arrays.fill(invocations[c], 0);
+			Arrays.fill(deductions[c], 0);
+			Arrays.fill(time[c], 0);
+			Arrays.fill(skipped[c], 0);
+			
+			for(int i=0; i<solverCount; i++) orders[c][i] = i;
+			triesSinceReorder[c] = 0;
+			
+		}
+		
+	}
+	
+	/**
+	 * Returns the class of the provided line.
+	 */
+	public int classify(Row row){
+		
+		int runCount = row.getRunCount();
+		int length = row.getLength();
+		
+		int runCountClass = (runCount <= 1 ? 0 : runCount <= 3 ? 1 : runCount <= 7 ? 2 : 3);
+		int lengthClass = (length <= 10 ? 0 : length <= 25 ? 1 : length <= 50 ? 2 : 3);
+		int fillRatioClass = Math.min(FILL_RATIO_CLASSES - 1, row.getMinimumSolutionLength() * FILL_RATIO_CLASSES / Math.max(1, length));
+		
+		return (runCountClass * FILL_RATIO_CLASSES + fillRatioClass) * LENGTH_CLASSES + lengthClass;
+		
+	}
+	
+	/**
+	 * Returns the order in which the row solvers should be run on a line of the provided class, as indices into the pipeline. The
+	 * returned array must not be modified.
+	 */
+	public int[] getOrder(int lineClass){
+		
+		if(triesSinceReorder[lineClass] >= REORDER_INTERVAL){
+			reorder(lineClass);
+			triesSinceReorder[lineClass] = 0;
+		}
+		
+		return orders[lineClass];
+		
+	}
+	
+	/**
+	 * Returns whether the provided row solver should be run on a line of the provided class.
+	 */
+	public boolean shouldRun(int lineClass, int solver){
+		
+		if(invocations[lineClass][solver] < MIN_SAMPLES || deductions[lineClass][solver] > 0) return true;
+		
+		// unproductive so far; give it a try every once in a while anyway
+		return (skipped[lineClass][solver]++ % EXPLORATION_INTERVAL == EXPLORATION_INTERVAL - 1);
+		
+	}
+	
+	/**
+	 * Records a run of a row solver on a line of the provided class.
+	 * 
+	 * @param deductions Amount of deductions made by the row solver.
+	 * @param time Time taken by the row solver, in nanoseconds.
+	 */
+	public void record(int lineClass, int solver, long deductions, long time){
+		
+		this.invocations[lineClass][solver]++;
+		this.deductions[lineClass][solver] += deductions;
+		this.time[lineClass][solver] += time;
+		
+		triesSinceReorder[lineClass]++;
+		
+	}
+	
+	/**
+	 * Sorts the pipeline of a line class: row solvers that haven't been tried often enough come first (in their original order),
+	 * followed by the others in decreasing order of yield.
+	 */
+	private void reorder(int lineClass){
+		
+		int[] order = orders[lineClass];
+		
+		// insertion sort; the pipeline is short and mostly in order already
+		for(int i=1; i<solverCount; i++){
+			
+			int solver = order[i];
+			int j = i - 1;
+			
+			while(j >= 0 && compare(lineClass, solver, order[j]) < 0){
+				order[j + 1] = order[j];
+				j--;
+			}
+			
+			order[j + 1] = solver;
+			
+		}
+		
+	}
+	
+	private int compare(int lineClass, int solver1, int solver2){
+		
+		boolean sampled1 = (invocations[lineClass][solver1] >= MIN_SAMPLES);
+		boolean sampled2 = (invocations[lineClass][solver2] >= MIN_SAMPLES);
+		
+		if(!sampled1 || !sampled2){
+			if(sampled1 != sampled2) return (sampled1 ? 1 : -1);
+			return solver1 - solver2;
+		}
+		
+		double yield1 = deductions[lineClass][solver1] / (double) Math.max(1, time[lineClass][solver1]);
+		double yield2 = deductions[lineClass][solver2] / (double) Math.max(1, time[lineClass][solver2]);
+		
+		if(yield1 != yield2) return (yield1 > yield2 ? -1 : 1);
+		return solver1 - solver2;
+		
+	}
+	
+}
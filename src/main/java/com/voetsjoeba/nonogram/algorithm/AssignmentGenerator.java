@@ -5,16 +5,14 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.voetsjoeba.nonogram.exception.ConflictingSquareRunException;
 import com.voetsjoeba.nonogram.exception.InvalidRunConfigurationException;
-import com.voetsjoeba.nonogram.exception.SequenceLengthExceededException;
 import com.voetsjoeba.nonogram.structure.DecompositionRunInfo;
 import com.voetsjoeba.nonogram.structure.RowDecomposition;
 import com.voetsjoeba.nonogram.structure.api.Row;
 import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.assignment.AssignmentDecomposition;
+import com.voetsjoeba.nonogram.structure.assignment.AssignmentDeltaCallback;
 import com.voetsjoeba.nonogram.structure.assignment.AssignmentGenerationCallback;
-import com.voetsjoeba.nonogram.structure.assignment.AssignmentSlot;
 
 public class AssignmentGenerator {
 	
@@ -32,6 +30,14 @@ public class AssignmentGenerator {
 		generateAssignments(row.getRuns(), row.getDecomposition(), generationCallback);
 	}
 	
+	/**
+	 * Generates all possible assignments for <tt>row</tt>, reporting them as changes. Utility function; delegates to 
+	 * {@link #generateAssignments(List, RowDecomposition, AssignmentDeltaCallback)}.
+	 */
+	public void generateAssignments(Row row, AssignmentDeltaCallback deltaCallback){
+		generateAssignments(row.getRuns(), row.getDecomposition(), deltaCallback);
+	}
+	
 	/**
 	 * Generate all possible assignments of <tt>runs</tt> to <tt>sequences</tt>.
 	 */
@@ -53,307 +59,406 @@ public class AssignmentGenerator {
 	}
 	
 	/**
-	 * Recursively generates run assignments.
+	 * Generate all possible assignments of <tt>runs</tt> to <tt>sequences</tt>, reporting the placement of each run to <tt>deltaCallback</tt>
+	 * instead of handing it the working assignment.
+	 */
+	public void generateAssignments(List<Run> runs, RowDecomposition rowDecomposition, AssignmentDeltaCallback deltaCallback){
+		
+		AssignmentDecomposition workingDecomposition = new AssignmentDecomposition(rowDecomposition); // decomposition to work with during algorithm
+		generateAssignments(runs, workingDecomposition, 0, deltaCallback);
+		
+	}
+	
+	/**
+	 * Generates run assignments on <tt>workingAssignment</tt>. Despite its name, this no longer recurses; see 
+	 * {@link #generateAssignments(List, AssignmentDecomposition, int, AssignmentDeltaCallback)}.
 	 * 
 	 * @param runs
 	 * @param workingAssignment The assignment decomposition to work on. As results are generated, snapshots will be taken of this working assignment.
 	 * @param baseOffset Base offset at which to consider the decomposition. The decomposition must be treated as though everything before baseOffset is set in stone and cannot be changed.
-	 * @return the amount of run assignments generated
 	 */
 	public void generateAssignmentsRecursive(List<Run> runs, AssignmentDecomposition workingAssignment, int baseOffset, AssignmentGenerationCallback generationCallback){
+		generateAssignments(runs, workingAssignment, baseOffset, new WorkingAssignmentCallback(workingAssignment, generationCallback));
+	}
+	
+	/**
+	 * Generates run assignments, reporting each change to the working assignment to <tt>deltaCallback</tt>. Runs are placed depth-first, one after
+	 * the other; instead of recursing for each run, the state of each run being placed is kept on a stack of offsets indexed by run, so nothing is 
+	 * allocated while generating. Generation stops as soon as the callback is cancelled (see {@link AssignmentDeltaCallback#isCancelled()}), after 
+	 * reporting the removal of any runs still placed.
+	 * 
+	 * @param baseOffset Base offset at which to consider the decomposition. The decomposition must be treated as though everything before baseOffset is set in stone and cannot be changed.
+	 */
+	private void generateAssignments(List<Run> runList, AssignmentDecomposition workingAssignment, int baseOffset, AssignmentDeltaCallback deltaCallback){
 		
-		if(runs.size() == 0){
-			
-			// there are no more runs to assign. Since this function is only called recursively or with a non-zero starting list, 
-			// this means the "recursion parent"'s configuration is valid so far and the generation callback might have to be called.
-			
-			// first though, we need to verify whether the fixed assignments are ok up until the end of the sequence, because it's possible
-			// that we've ended our assignment before having used up all of the decomposition space (there may be more fixed assignments
-			// further down the road, which would mean that this assignment is invalid after all (since we ran out of runs to assign but there
-			// are still squares set further on in the decomposition))
-			
-			// so, validate the fixed slots up until the end of the sequence, and if it comes back OK, feed it to the generator callback
-			// (if there are no more slots left over, the for loop in validateFixedSlots will instantly return anyway, so no biggie)
-			
-			try {
-				workingAssignment.validateFixedSlots(baseOffset, workingAssignment.getTotalLength());
-				generationCallback.receiveGeneratedAssignment(workingAssignment);
-			}
-			catch(InvalidRunConfigurationException ircex){
-				// callback is not executed
-			}
-			
-			return;
-			
-		}
-		
-		// validate any fixed assignments slots before startOffset (because if any of them before startOffset are invalid, 
-		// then it's no use to keep generating assignments because any further assignment that is generated will also
-		// be invalid)
-		/*try {
-			workingAssignment.validateFixedSlots(0, startOffset); // TODO: use previousStartOffset so that you don't need to validate all the way from the start all the time
-		}
-		catch(InvalidRunConfigurationException ircex){
-			// 
-		}*/
-		
-		// if each run is assigned to its own sequence that happens to fit perfectly, then the minimal run assignment length
-		// is the sum of the run lengths without any additional 'whitespace'
-		//int minimalRunAssignmentLength = 0;
-		//for(Run run : runs) minimalRunAssignmentLength += run.getLength();
-		
-		//int availableDecompositionLength = workingAssignment.getTotalLength() - startOffset;
-		long runAssignmentsGenerated = 0;
-		
-		int runStartOffset; // index to start trying to position the run at
-		int runEndOffset; // last index to try positioning the run at
+		Run[] runs = runList.toArray(new Run[runList.size()]);
+		int runCount = runs.length;
 		
-		// if the next run in the list is completed, then you can update the startOffset to skip past it, because any 
-		// runs after it will necessarily have to come after those squares
+		// the run at level i of the stack is only placed while all runs before it are placed
+		int[] baseOffsets = new int[runCount + 1]; // offset from which each run may be placed; everything before it is the responsibility of the runs before it
+		int[] runOffsets = new int[runCount]; // position at which each run is currently placed
+		int[] endOffsets = new int[runCount]; // last position to try for each run (exclusive)
+		int[] reportedOffsets = new int[runCount]; // position of each run as last reported to the callback, or -1 if it isn't placed there
 		
-		// TODO: even for runs that are incomplete that have known squares, you can update startOffset to be the leftmost square for which the run
-		// will overlap with the known squares (or, scanning from the leftmost known square to the target starting point,
-		// if there are any filled squares with other runs along the way, you can offset back against them) 
+		baseOffsets[0] = baseOffset;
 		
-		Run subjectRun = runs.get(0); // run to be assigned
-		int subjectRunKnownSquareCount = subjectRun.getKnownSquareCount();
+		int level = 0; // index of the run being placed
+		boolean entering = true; // whether the run at the current level is to be placed anew, rather than moved on to its next position
 		
-		//if(subjectRun.isComplete()){
-		if(subjectRunKnownSquareCount > 0){ // i.e. subjectRun.hasKnownSquares()
+		while(level >= 0){
 			
-			// this run has known squares, so there are only a few possible positions to try for this run
-			// in particular, we only have to consider the positions inbetween the situations where the run is assigned to its leftmost positions
-			// (so that its starting index "reaches out" to the left of the known squares) and where it's assigned to its rightmost position
-			// (so that its starting index is the first known square).
-			
-			// so, let's find the first known square of the run so that we can also determine the leftmost and rightmost starting points
-			// mind you, along the way there can't be any other slots with other assigned runs or other fixed runs (because that would imply a different run order)
-			// fixed but non-fixed-run squares are allowed, since they could be part of the run
+			if(level == runCount){
+				
+				// there are no more runs to assign, so the configuration of the runs before is valid so far and the generation callback might have to be called.
+				
+				// first though, we need to verify whether the fixed assignments are ok up until the end of the sequence, because it's possible
+				// that we've ended our assignment before having used up all of the decomposition space (there may be more fixed assignments
+				// further down the road, which would mean that this assignment is invalid after all (since we ran out of runs to assign but there
+				// are still squares set further on in the decomposition))
+				
+				// so, validate the fixed slots up until the end of the sequence, and if it comes back OK, feed it to the generator callback
+				// (if there are no more slots left over, the for loop in validateFixedSlots will instantly return anyway, so no biggie)
+				
+				if(workingAssignment.findInvalidFixedSlot(baseOffsets[level], workingAssignment.getTotalLength()) < 0){
+					deltaCallback.receiveGeneratedAssignment();
+				}
+				
+				if(deltaCallback.isCancelled()){
+					cancel(runs, level, runOffsets, workingAssignment, deltaCallback);
+					return;
+				}
+				
+				level--;
+				entering = false;
+				continue;
+				
+			}
 			
-			int firstKnownSquareIndex = baseOffset; // starting index for finding the first known square of the run
+			Run subjectRun = runs[level]; // run to be assigned
+			int runOffset; // next position to try for the run
 			
-			while(true){
+			if(entering){
 				
-				AssignmentSlot assignmentSlot = workingAssignment.getSlotAt(firstKnownSquareIndex);
+				int runStartOffset; // index to start trying to position the run at
 				
-				Run fixedRun = assignmentSlot.getFixedRun();
-				Run assignedRun = assignmentSlot.getRun();
-				boolean fixed = assignmentSlot.isFixed();
+				// if the next run in the list is completed, then you can update the startOffset to skip past it, because any 
+				// runs after it will necessarily have to come after those squares
 				
-				if(fixedRun == subjectRun){
+				// TODO: even for runs that are incomplete that have known squares, you can update startOffset to be the leftmost square for which the run
+				// will overlap with the known squares (or, scanning from the leftmost known square to the target starting point,
+				// if there are any filled squares with other runs along the way, you can offset back against them) 
+				
+				int subjectRunKnownSquareCount = subjectRun.getKnownSquareCount();
+				
+				if(subjectRunKnownSquareCount > 0){ // i.e. subjectRun.hasKnownSquares()
 					
-					break; // found our square
+					// this run has known squares, so there are only a few possible positions to try for this run
+					// in particular, we only have to consider the positions inbetween the situations where the run is assigned to its leftmost positions
+					// (so that its starting index "reaches out" to the left of the known squares) and where it's assigned to its rightmost position
+					// (so that its starting index is the first known square).
 					
-				} else {
+					int firstKnownSquareIndex = findFirstKnownSquare(subjectRun, workingAssignment, baseOffsets[level]);
 					
-					// there's a square with a different fixed run inbetween the end of the previous run and the start of the successor run; not a valid option
-					// (no need to check whether fixedRun != subjectRun -- this is always true at this point, because otherwise the loop would've ended (see above))
-					if(fixedRun != null){
-						assert false : "Encountered a square with a different fixed run inbetween the end of the previous run and its successor run";
-						return;
+					if(firstKnownSquareIndex < 0){
+						// not a valid option; return control to the previous run
+						level--;
+						entering = false;
+						continue;
 					}
 					
-					if(assignedRun != null){
-						// there's square with a different assigned run inbetween the end of the previous run and its successor run; not a valid option 
-						// (not sure how this would happen -- this probably indicates a programming error)
-						assert false : "Encountered a square with a different assigned run inbetween the end of the previous run and its successor run";
-						return;
-					}
+					int remainingRunLength = subjectRun.getLength() - subjectRunKnownSquareCount;
+					
+					int leftmostStartOffset = firstKnownSquareIndex - remainingRunLength;
+					int rightmostStartOffset = firstKnownSquareIndex;
+					
+					runStartOffset = Math.max(baseOffsets[level], leftmostStartOffset); // make sure startOffset is at least leftmostStartOffset (i.e. make sure you don't try any positions that are impossible)
+					endOffsets[level] = rightmostStartOffset + 1; // the last (rightmost) position to try is always the one where the run starts at its first known square
+					
+					// TODO: isn't all the above also performed by the leftmost and rightmost start offset calculations?
+					
+				} else {
+					
+					DecompositionRunInfo runInfo = workingAssignment.getRowDecomposition().getRunInfo(subjectRun);
+					runStartOffset = Math.max(baseOffsets[level], runInfo.leftmostStartOffset);
+					endOffsets[level] = runInfo.rightmostStartOffset + 1; // +1 since endOffset is exclusive
 					
 				}
 				
-				firstKnownSquareIndex++;
+				runOffset = runStartOffset;
+				reportedOffsets[level] = -1;
+				
+			} else {
+				
+				// back from the next run; remove this one from its current position before trying the next one
+				
+				try {
+					workingAssignment.unassign(subjectRun, runOffsets[level]);
+				}
+				catch(InvalidRunConfigurationException ircex){
+					// shouldn't happen, the run assignment worked and the next runs should not update anything before
+					// their base offset so any run that was succesfully assigned should also be un-assignable
+					throw ircex;
+				}
+				
+				runOffset = runOffsets[level] + 1;
 				
 			}
 			
-			if(firstKnownSquareIndex == workingAssignment.getTotalLength()){
-				throw new RuntimeException("Run " + subjectRun + " is completed in the decomposition, but its squares could not be found");
-			}
-			
-			int remainingRunLength = subjectRun.getLength() - subjectRunKnownSquareCount;
-			
-			int leftmostStartOffset = firstKnownSquareIndex - remainingRunLength;
-			int rightmostStartOffset = firstKnownSquareIndex; // +1 since endOffset is exclusive
-			
-			runStartOffset = Math.max(baseOffset, leftmostStartOffset); // make sure startOffset is at least leftmostStartOffset (i.e. make sure you don't try any positions that are impossible)
-			runEndOffset = rightmostStartOffset + 1; // the last (rightmost) position to try is always the one where the run starts at its first known square
-			
-			// TODO: isn't all the above also performed by the leftmost and rightmost start offset calculations?
-			
-		} else {
-			
-			//runStartOffset = baseOffset; // we don't know anything about where the run is located, so let's start looking from the beginning
-			//runEndOffset = calculateEndOffset(workingAssignment, runs) + 1; // +1 since endOffset is exclusive
-			
-			DecompositionRunInfo runInfo = workingAssignment.getRowDecomposition().getRunInfo(subjectRun);
-			runStartOffset = Math.max(baseOffset, runInfo.leftmostStartOffset);
-			runEndOffset = runInfo.rightmostStartOffset + 1; // +1 since endOffset is exclusive
-			
-		}
-		
-		// assign the run to each candidate position in turn
-		
-		for(int runOffset=runStartOffset; runOffset < runEndOffset; runOffset++){
-			
-			boolean sequenceFilled = false;
-			
-			try {
-				sequenceFilled = workingAssignment.assign(subjectRun, runOffset);
-			}
-			catch(SequenceLengthExceededException sleex){
-				// invalid sequence position, try next one
-				continue;
-			}
-			catch(InvalidRunConfigurationException ircex){
-				// invalid sequence position, try next one
-				continue;
-			}
-			catch(ConflictingSquareRunException e) {
-				// invalid sequence position, try next one
-				continue;
-			}
-			
-			// if the assigned run did not completely fill up the sequence to which it was assigned, then it must leave a whitespace square
-			// and so add additional +1 needs to be added to newStartOffset. Otherwise, the next run assignment can start at the leftmost
-			// border of the next sequence and it would be wrong to add an extra whitespace square.
-			int newBaseOffset = runOffset + subjectRun.getLength();
-			if(!sequenceFilled) newBaseOffset++;
-			
-			// validate the assignment against any fixed assignment slots in the affected area (because if any of them
-			// are invalid, then it's no use to keep generating assignments because any further assignment that is
-			// generated will also be invalid)
-			
-			// we're responsible for the assignment of the slots from startOffset up to the newStartOffset.
-			// anything before startOffset will have been the responsibility of the recursion parent and may be assumed to
-			// be always valid, and anything after newStartOffset will be the responsibility of the next recursion child.
-			try {
-				workingAssignment.validateFixedSlots(baseOffset, newBaseOffset);
-			}
-			catch(InvalidRunConfigurationException ircex){
-				workingAssignment.unassign(subjectRun, runOffset);
-				continue;
-			}
-			
-			
-			// --------------------------------------------------------------------
-			// ***            AT THIS POINT, THE ASSIGNMENT IS VALID            ***
-			// --------------------------------------------------------------------
-			
-			
-			// if all squares to the right of the would-be-assigned run are known to be inconsistent, and the run itself also occupies only inconsistent squares,
-			// then stop building this assignment (because any runs assigned further to the right would be pointless since we already know that all of them will 
-			// be placed upon inconsistent squares)
-			//
-			// however, we still need to inform the callback of this partial assignment so that it can update the consistency information of the part of the
-			// assignment that isn't necessarily inconsistent (i.e. the part that we've already built up to this point). If we had continued building the assignment, 
-			// this would have happened when the assignment was complete (see the recursion end case code at the start of this function). Since we're aborting the 
-			// recursive build process early, though, we still need to inform the callback of the part of the assignment that we _don't_ know to be all-inconsistent. 
-			// That is, the part of the assignment that we built up to this point.
+			// move the run on to its next valid position. The callback is only told about a removal once the run is either placed at its
+			// next valid position (which it is then told about as a move), or not placed anymore at all
 			
-			// NOTE: THIS CHECK (AND ITS CORRESPONDING EARLY BAILOUT) MAY ONLY BE PERFORMED ONCE IT IS KNOWN THAT THE ASSIGNMENT IS VALID!
-			// The thing is, the early bailout involves updating the consistency information of a partial assignment. If you do this before knowing that the 
-			// assignment is (or rather will be) valid, you'll be updating with the wrong consistency information. When I first tried this I put this bailout early, 
-			// before other checks that asserted the validity of the assignment, and I've seen this happen. You would get a situation like this:
-			//
-			// 2,6,5|xx...................xxxxxx.........
-			//          IIIIIIIIIIIIIIIIII IIIIIIIIIIIIII
-			//
-			// .. where that single square that is valid amidst the invalid ones is a fixed square with unknown run. This assignment of the 6-run is perfectly valid,
-			// and the consequent 5-run assignments will not be performed because they're on all-inconsistent grounds. So far so good. 
-			//
-			// Consider now the next position of the 6-run:
-			// 
-			// 2,6,5|xx....................xxxxxx........
-			//          IIIIIIIIIIIIIIIIII IIIIIIIIIIIIII
-			//
-			// This assignment (and for that matter all further assignments of the 6-run) is invalid because the fixed square remains unassigned. However, if now you
-			// perform the early bailout before discarding this invalid run, you would cause the callback to update its consistency information about the partial 
-			// assignment that spans from the beginning of the sequence right up to the 6-run. Surprise! Since the fixed square is now unassigned, it has now been 
-			// marked as inconsistent, which is a contradiction. I added asserts to the code that sets a square as inconsistent to ensure this does not inadvertly
-			// happen again.
-			//
-			// Furthermore, it's important that you never attempt to assign a run beyond its last possible position, because it won't be detected that the position
-			// is invalid if all further squares are inconsistent. This is of course because those further assignments will not even be looked at due to them being
-			// on all-inconsistent grounds. Had the recursion continued as normal, it would have generated no assignments because none of the further runs would fit,
-			// but we bailed out early and told the callback "look at this (partial) assignment", implying that it is valid while in fact it was not.
-			//
-			// So, the function calculateEndOffset was introduced, which calculates the last possible position of a run, taking into account the separations between
-			// different sequences in the decomposition but not taking into account fixed squares (!). Now, you may wonder whether this could cause it to return an 
-			// invalid end offset due to a fixed square being mis-assigned -- and so did I initially. The answer is no, because we only skip completing the 
-			// assignment when all squares to the right of the run (and including the run) are inconsistent, and it is impossible for a fixed square to be 
-			// inconsistent.
-			//
-			// Therefore, calculateEndOffset will always return the correct value in those cases where we need it to (i.e. in those cases where we bail out early). 
-			// As illustrated above, this is important to make sure that we do not present partial assignments to the receiver that might later turn out to be 
-			// impossible had we continued building the assignment.
+			int newBaseOffset = -1; // base offset of the next run, or -1 if this run has no further positions
 			
-			//if(globalIndex + run.getLength() < totalLength){ // otherwise, for edge assignments the for loop wouldn't execute and allRightInconsistent would default to true (which is obviously wrong since there are no squares to be inconsistent)
-			
-			boolean allRightInconsistent = true;
-			//for(int i=globalIndex + run.getLength(); i<totalLength; i++){
-			for(int j=runOffset; j<workingAssignment.getTotalLength(); j++){
+			for(; runOffset < endOffsets[level]; runOffset++){
+				
+				int assignResult = workingAssignment.tryAssign(subjectRun, runOffset);
+				
+				if(assignResult == AssignmentDecomposition.NOT_ASSIGNED){
+					// invalid sequence position, try next one
+					continue;
+				}
+				
+				boolean sequenceFilled = (assignResult == AssignmentDecomposition.ASSIGNED_FILLING_SEQUENCE);
 				
-				/*LocalDecompositionIndex localIndex = workingAssignment.globalToLocal(j);
-					AssignmentSlot slot = slots[localIndex.sequenceIndex][localIndex.sequenceOffset];*/
-				AssignmentSlot slot = workingAssignment.getSlotAt(j);
+				// if the assigned run did not completely fill up the sequence to which it was assigned, then it must leave a whitespace square
+				// and so add additional +1 needs to be added to newStartOffset. Otherwise, the next run assignment can start at the leftmost
+				// border of the next sequence and it would be wrong to add an extra whitespace square.
+				int nextBaseOffset = runOffset + subjectRun.getLength();
+				if(!sequenceFilled) nextBaseOffset++;
 				
-				if(slot.isValid()){
-					allRightInconsistent = false;
+				// validate the assignment against any fixed assignment slots in the affected area (because if any of them
+				// are invalid, then it's no use to keep generating assignments because any further assignment that is
+				// generated will also be invalid)
+				
+				// we're responsible for the assignment of the slots from the base offset up to the next base offset.
+				// anything before the base offset will have been the responsibility of the previous runs and may be assumed to
+				// be always valid, and anything after the next base offset will be the responsibility of the next run.
+				if(workingAssignment.findInvalidFixedSlot(baseOffsets[level], nextBaseOffset) >= 0){
+					workingAssignment.unassign(subjectRun, runOffset);
+					continue;
+				}
+				
+				
+				// --------------------------------------------------------------------
+				// ***            AT THIS POINT, THE ASSIGNMENT IS VALID            ***
+				// --------------------------------------------------------------------
+				
+				
+				// if all squares to the right of the would-be-assigned run are known to be inconsistent, and the run itself also occupies only inconsistent squares,
+				// then stop building this assignment (because any runs assigned further to the right would be pointless since we already know that all of them will 
+				// be placed upon inconsistent squares)
+				//
+				// however, we still need to inform the callback of this partial assignment so that it can update the consistency information of the part of the
+				// assignment that isn't necessarily inconsistent (i.e. the part that we've already built up to this point). If we had continued building the assignment, 
+				// this would have happened when the assignment was complete (see the recursion end case code at the start of this function). Since we're aborting the 
+				// recursive build process early, though, we still need to inform the callback of the part of the assignment that we _don't_ know to be all-inconsistent. 
+				// That is, the part of the assignment that we built up to this point.
+				
+				// NOTE: THIS CHECK (AND ITS CORRESPONDING EARLY BAILOUT) MAY ONLY BE PERFORMED ONCE IT IS KNOWN THAT THE ASSIGNMENT IS VALID!
+				// The thing is, the early bailout involves updating the consistency information of a partial assignment. If you do this before knowing that the 
+				// assignment is (or rather will be) valid, you'll be updating with the wrong consistency information. When I first tried this I put this bailout early, 
+				// before other checks that asserted the validity of the assignment, and I've seen this happen. You would get a situation like this:
+				//
+				// 2,6,5|xx...................xxxxxx.........
+				//          IIIIIIIIIIIIIIIIII IIIIIIIIIIIIII
+				//
+				// .. where that single square that is valid amidst the invalid ones is a fixed square with unknown run. This assignment of the 6-run is perfectly valid,
+				// and the consequent 5-run assignments will not be performed because they're on all-inconsistent grounds. So far so good. 
+				//
+				// Consider now the next position of the 6-run:
+				// 
+				// 2,6,5|xx....................xxxxxx........
+				//          IIIIIIIIIIIIIIIIII IIIIIIIIIIIIII
+				//
+				// This assignment (and for that matter all further assignments of the 6-run) is invalid because the fixed square remains unassigned. However, if now you
+				// perform the early bailout before discarding this invalid run, you would cause the callback to update its consistency information about the partial 
+				// assignment that spans from the beginning of the sequence right up to the 6-run. Surprise! Since the fixed square is now unassigned, it has now been 
+				// marked as inconsistent, which is a contradiction. I added asserts to the code that sets a square as inconsistent to ensure this does not inadvertly
+				// happen again.
+				//
+				// Furthermore, it's important that you never attempt to assign a run beyond its last possible position, because it won't be detected that the position
+				// is invalid if all further squares are inconsistent. This is of course because those further assignments will not even be looked at due to them being
+				// on all-inconsistent grounds. Had the recursion continued as normal, it would have generated no assignments because none of the further runs would fit,
+				// but we bailed out early and told the callback "look at this (partial) assignment", implying that it is valid while in fact it was not.
+				//
+				// So, the function calculateEndOffset was introduced, which calculates the last possible position of a run, taking into account the separations between
+				// different sequences in the decomposition but not taking into account fixed squares (!). Now, you may wonder whether this could cause it to return an 
+				// invalid end offset due to a fixed square being mis-assigned -- and so did I initially. The answer is no, because we only skip completing the 
+				// assignment when all squares to the right of the run (and including the run) are inconsistent, and it is impossible for a fixed square to be 
+				// inconsistent.
+				//
+				// Therefore, calculateEndOffset will always return the correct value in those cases where we need it to (i.e. in those cases where we bail out early). 
+				// As illustrated above, this is important to make sure that we do not present partial assignments to the receiver that might later turn out to be 
+				// impossible had we continued building the assignment.
+				
+				boolean allRightInconsistent = true;
+				for(int j=runOffset; j<workingAssignment.getTotalLength(); j++){
+					
+					if(deltaCallback.isConsistent(j)){
+						allRightInconsistent = false;
+						break;
+					}
+					
+				}
+				
+				if(allRightInconsistent){
+					
+					// unassign the run so we can continue with the previous one
+					workingAssignment.unassign(subjectRun, runOffset);
+					
+					// no further consistency information -- manually inform the callback of the partial assignment
+					if(reportedOffsets[level] >= 0) deltaCallback.runUnassigned(level, subjectRun, reportedOffsets[level]);
+					reportedOffsets[level] = -1;
+					
+					// endIndex argument is exclusive, i.e. update the consistency of everything right up until the run that would get assigned on all-inconsistent ground
+					deltaCallback.receivePartialAssignment(runOffset);
+					
+					if(deltaCallback.isCancelled()){
+						cancel(runs, level, runOffsets, workingAssignment, deltaCallback);
+						return;
+					}
+					
+					// (!) not continue; continue would mean trying the next position for this run, but we already know that no position for this run will ever get assigned because it's on all-inconsistent grounds
+					// so instead of trying the next position, we should just return control to the previous run
 					break;
+					
 				}
 				
+				if(reportedOffsets[level] >= 0){
+					deltaCallback.runMoved(level, subjectRun, reportedOffsets[level], runOffset);
+				} else {
+					deltaCallback.runAssigned(level, subjectRun, runOffset);
+				}
+				
+				reportedOffsets[level] = runOffset;
+				newBaseOffset = nextBaseOffset;
+				break;
+				
 			}
 			
-			if(allRightInconsistent){
+			if(newBaseOffset >= 0){
+				
+				// on to the next run
+				runOffsets[level] = runOffset;
+				baseOffsets[level + 1] = newBaseOffset;
+				level++;
+				entering = true;
+				
+			} else {
 				
-				// unassign the run so we can continue with the parent
-				workingAssignment.unassign(subjectRun, runOffset);
+				// evidently, there are no further valid placements for subjectRun; return control to the previous run
+				if(reportedOffsets[level] >= 0) deltaCallback.runUnassigned(level, subjectRun, reportedOffsets[level]);
+				level--;
+				entering = false;
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Returns the index of the first square of <tt>subjectRun</tt> that is known, scanning from <tt>baseOffset</tt>; or -1 if another run is 
+	 * encountered first.
+	 */
+	private int findFirstKnownSquare(Run subjectRun, AssignmentDecomposition workingAssignment, int baseOffset){
+		
+		// mind you, along the way there can't be any other slots with other assigned runs or other fixed runs (because that would imply a different run order)
+		// fixed but non-fixed-run squares are allowed, since they could be part of the run
+		
+		int firstKnownSquareIndex = baseOffset; // starting index for finding the first known square of the run
+		
+		while(true){
+			
+			Run fixedRun = workingAssignment.getFixedRunAt(firstKnownSquareIndex);
+			Run assignedRun = workingAssignment.getRunAt(firstKnownSquareIndex);
+			
+			if(fixedRun == subjectRun){
 				
-				//throw new NoFurtherConsistencyInformationException("Not assigning run; all further squares are known to be inconsistent and cannot create useful information");
+				break; // found our square
 				
-				// no further consistency information -- manually inform the callback of the partial assignment
+			} else {
 				
-				// endIndex argument is exclusive, i.e. update the consistency of everything right up until the run that would get assigned on all-inconsistent ground
-				generationCallback.receivePartialAssignment(workingAssignment, 0, runOffset);
+				// there's a square with a different fixed run inbetween the end of the previous run and the start of the successor run; not a valid option
+				// (no need to check whether fixedRun != subjectRun -- this is always true at this point, because otherwise the loop would've ended (see above))
+				if(fixedRun != null){
+					assert false : "Encountered a square with a different fixed run inbetween the end of the previous run and its successor run";
+					return -1;
+				}
 				
-				// (!) not continue; continue would mean trying the next position for this run, but we already know that no position for this run will ever get assigned because it's on all-inconsistent grounds
-				// so instead of trying the next position, we should just return control to the parent recursive call
-				return;
+				if(assignedRun != null){
+					// there's square with a different assigned run inbetween the end of the previous run and its successor run; not a valid option 
+					// (not sure how this would happen -- this probably indicates a programming error)
+					assert false : "Encountered a square with a different assigned run inbetween the end of the previous run and its successor run";
+					return -1;
+				}
 				
 			}
 			
-			//}
+			firstKnownSquareIndex++;
 			
+		}
+		
+		if(firstKnownSquareIndex == workingAssignment.getTotalLength()){
+			throw new RuntimeException("Run " + subjectRun + " is completed in the decomposition, but its squares could not be found");
+		}
+		
+		return firstKnownSquareIndex;
+		
+	}
+	
+	/**
+	 * Stops generating assignments: removes the runs before <tt>level</tt>, which are all still placed, and reports their removal to the callback.
+	 */
+	private void cancel(Run[] runs, int level, int[] runOffsets, AssignmentDecomposition workingAssignment, AssignmentDeltaCallback deltaCallback){
+		
+		for(int i=level-1; i>=0; i--){
+			workingAssignment.unassign(runs[i], runOffsets[i]);
+			deltaCallback.runUnassigned(i, runs[i], runOffsets[i]);
+		}
+		
+	}
+	
+	/**
+	 * Adapts an {@link AssignmentGenerationCallback} to the changes reported by the generator, by handing it the working assignment itself.
+	 */
+	private static class WorkingAssignmentCallback implements AssignmentDeltaCallback {
+		
+		private final AssignmentDecomposition workingAssignment;
+		private final AssignmentGenerationCallback generationCallback;
+		
+		public WorkingAssignmentCallback(AssignmentDecomposition workingAssignment, AssignmentGenerationCallback generationCallback){
+			this.workingAssignment = workingAssignment;
+			this.generationCallback = generationCallback;
+		}
+		
+		public void runAssigned(int runIndex, Run run, int offset) {
+			// the working assignment is kept up to date by the generator
+		}
+		
+		public void runMoved(int runIndex, Run run, int oldOffset, int newOffset) {
 			
-			// recursion, maestro
-			/*try {*/
-			generateAssignmentsRecursive(runs.subList(1, runs.size()), workingAssignment, newBaseOffset, generationCallback);
-			//runAssignmentsGenerated += validChildAssignments;
-			/*}
-			catch(TerminateAssignmentGenerationException tagex){
-				// callback requested termination
-				throw tagex;
-			}*/
-			
-			try {
-				workingAssignment.unassign(subjectRun, runOffset);
-			}
-			catch(InvalidRunConfigurationException ircex){
-				// shouldn't happen, the run assignment worked and the recursive call should not update anything before
-				// its startOffset so any run that was succesfully assigned should also be un-assignable
-				throw ircex;
-			}
+		}
+		
+		public void runUnassigned(int runIndex, Run run, int offset) {
 			
 		}
 		
-		if(runAssignmentsGenerated == 0){
-			// evidently, there are no valid placements for subjectRun
-			// TODO: does anything need to be done here? don't think so, I think it's only an error if the entire recursion
-			// tree returns 0 -- it's perfectly valid for a subtree returns no valid placements. It's only a problem if 
-			// the entire tree returns no valid placements.
+		public void receiveGeneratedAssignment() {
+			generationCallback.receiveGeneratedAssignment(workingAssignment);
 		}
 		
-		//return;
+		public void receivePartialAssignment(int endIndex) {
+			generationCallback.receivePartialAssignment(workingAssignment, 0, endIndex);
+		}
+		
+		public boolean isConsistent(int squareIndex) {
+			return workingAssignment.isValid(squareIndex);
+		}
+		
+		public boolean isCancelled() {
+			return false;
+		}
 		
 	}
 	
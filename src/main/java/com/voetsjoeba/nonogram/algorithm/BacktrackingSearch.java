@@ -0,0 +1,208 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.voetsjoeba.nonogram.algorithm.rowsolver.LineSolutionCache;
+import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
+import com.voetsjoeba.nonogram.exception.InconsistentDecompositionException;
+import com.voetsjoeba.nonogram.exception.InvalidRunConfigurationException;
+import com.voetsjoeba.nonogram.exception.SequenceLengthExceededException;
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+/**
+ * Resolves squares of a {@link Puzzle} that can no longer be deduced by logic alone by guessing their state and propagating the
+ * consequences of the guess.
+ * 
+ * <p>Each guess is evaluated on a copy of the puzzle (see {@link Puzzle#copy()}), which is solved by a separate {@link Solver} that
+ * itself also falls back on searching when it gets stuck. If the guess leads to a conflict, the square's state must be the opposite
+ * of the guess, which is then set on the original puzzle so that the original solver can continue its logic loop from there. If the
+ * guess leads to a complete solution instead, the solution is transferred to the original puzzle as a whole.</p>
+ * 
+ * <p>The square to guess is the unknown square with the most known squares in its row and column, as those are the guesses most
+ * likely to run into a conflict quickly. The state that is guessed first is {@link SquareState#FILLED} if the square's row and column
+ * are mostly filled, and {@link SquareState#CLEAR} otherwise.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class BacktrackingSearch {
+	
+	private static final Logger log = LoggerFactory.getLogger(BacktrackingSearch.class);
+	
+	private Puzzle puzzle;
+	private LineSolutionCache lineSolutionCache;
+	
+	private int guessCount = 0;
+	private int refutedGuessCount = 0;
+	
+	public BacktrackingSearch(Puzzle puzzle){
+		this.puzzle = puzzle;
+	}
+	
+	/**
+	 * Guesses the state of a single unknown square and updates the puzzle with the outcome of that guess. Returns true if any squares
+	 * were updated, or false if there are no unknown squares left to guess.
+	 * 
+	 * @throws UnsolvablePuzzleException if the puzzle turns out to have no solution.
+	 */
+	public boolean resolveGuess() throws UnsolvablePuzzleException {
+		
+		Square square = selectSquare(puzzle);
+		if(square == null) return false;
+		
+		SquareState guess = selectState(puzzle, square);
+		guessCount++;
+		
+		log.debug("Guessing square({},{}) to be {}", new Object[]{square.getColumn(), square.getRow(), guess});
+		
+		Puzzle branch = puzzle.copy();
+		Solver branchSolver = new Solver(branch);
+		branchSolver.setSearchEnabled(true);
+		branchSolver.setLineSolutionCache(lineSolutionCache);
+		
+		try {
+			
+			branch.getSquare(square.getColumn(), square.getRow()).setState(guess);
+			branchSolver.solve();
+			
+			if(branch.isComplete() && NonogramUtils.isSolved(branch)){
+				applySolution(branch);
+				return true;
+			}
+			
+		}
+		catch(ConflictingSquareStateException e) {
+			// can't happen, the square was unknown in the original puzzle
+			throw new RuntimeException(e);
+		}
+		catch(UnsolvablePuzzleException e) {
+			log.debug("Guess refuted: {}", e.getMessage());
+		}
+		catch(InconsistentDecompositionException e) {
+			log.debug("Guess refuted: {}", e.getMessage());
+		}
+		catch(InvalidRunConfigurationException e) {
+			log.debug("Guess refuted: {}", e.getMessage());
+		}
+		catch(SequenceLengthExceededException e) {
+			log.debug("Guess refuted: {}", e.getMessage());
+		}
+		
+		// the guess leads to a conflict (or to an invalid solution), so the square must have the opposite state
+		refutedGuessCount++;
+		
+		SquareState opposite = (guess == SquareState.FILLED ? SquareState.CLEAR : SquareState.FILLED);
+		NonogramUtils.setSquareState(square, opposite, null);
+		
+		return true;
+		
+	}
+	
+	/**
+	 * Returns the unknown square of the puzzle whose row and column have the most known squares, or null if all squares are known.
+	 */
+	static Square selectSquare(Puzzle puzzle){
+		
+		Square bestSquare = null;
+		int bestScore = -1;
+		
+		List<Row> columns = puzzle.getColumns();
+		
+		for(Row row : puzzle.getRows()){
+			
+			if(row.isCompleted()) continue;
+			
+			for(int i=0; i<row.getLength(); i++){
+				
+				Square square = row.getSquare(i);
+				if(square.isStateKnown()) continue;
+				
+				int score = row.getKnownSquareCount() + columns.get(i).getKnownSquareCount();
+				if(score > bestScore){
+					bestSquare = square;
+					bestScore = score;
+				}
+				
+			}
+			
+		}
+		
+		return bestSquare;
+		
+	}
+	
+	/**
+	 * Returns the state to be guessed first for the provided square; {@link SquareState#FILLED} if the runs of the square's row and
+	 * column cover more than half of their squares, {@link SquareState#CLEAR} otherwise.
+	 */
+	static SquareState selectState(Puzzle puzzle, Square square){
+		
+		Row row = puzzle.getRow(square.getRow());
+		Row column = puzzle.getColumn(square.getColumn());
+		
+		int runSquares = getRunSquareCount(row) + getRunSquareCount(column);
+		int totalSquares = row.getLength() + column.getLength();
+		
+		return (2 * runSquares > totalSquares ? SquareState.FILLED : SquareState.CLEAR);
+		
+	}
+	
+	private static int getRunSquareCount(Row row){
+		
+		int runSquares = 0;
+		for(Run run : row.getRuns()) runSquares += run.getLength();
+		
+		return runSquares;
+		
+	}
+	
+	/**
+	 * Copies the states of all squares in the provided (solved) branch that are still unknown in the original puzzle.
+	 */
+	private void applySolution(Puzzle branch){
+		
+		for(Row row : branch.getRows()){
+			
+			for(int i=0; i<row.getLength(); i++){
+				
+				Square square = puzzle.getSquare(i, row.getIndex());
+				if(square.isStateKnown()) continue;
+				
+				NonogramUtils.setSquareState(square, row.getSquare(i).getState(), null);
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Returns the amount of guesses made so far.
+	 */
+	public int getGuessCount() {
+		return guessCount;
+	}
+	
+	/**
+	 * Returns the amount of guesses made so far that led to a conflict.
+	 */
+	public int getRefutedGuessCount() {
+		return refutedGuessCount;
+	}
+	
+	/**
+	 * Sets the cache for the solvers that solve the guesses to share (see {@link Solver#setLineSolutionCache(LineSolutionCache)}).
+	 */
+	public void setLineSolutionCache(LineSolutionCache lineSolutionCache) {
+		this.lineSolutionCache = lineSolutionCache;
+	}
+	
+}
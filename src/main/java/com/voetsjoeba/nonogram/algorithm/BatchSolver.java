@@ -0,0 +1,168 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.voetsjoeba.nonogram.algorithm.rowsolver.ExhaustiveRowSolver;
+import com.voetsjoeba.nonogram.algorithm.rowsolver.LineSolutionCache;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+/**
+ * Solves a collection of {@link Puzzle}s concurrently on a fixed-size pool of worker threads. Each puzzle is solved by its own
+ * {@link Solver}; since solvers share no state, the puzzles are solved completely independently of each other.
+ * 
+ * <p>Note that the provided puzzles are solved in-place, so the same puzzle instance must not be passed more than once.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class BatchSolver {
+	
+	private static final Logger log = LoggerFactory.getLogger(BatchSolver.class);
+	
+	private int threadCount;
+	private boolean searchEnabled = true;
+	private boolean enumerationEnabled = false;
+	private LineSolutionCache lineSolutionCache;
+	
+	/**
+	 * Creates a batch solver that uses one worker thread per available processor.
+	 */
+	public BatchSolver(){
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * @param threadCount The amount of worker threads to solve puzzles on.
+	 * @throws IllegalArgumentException if threadCount is not strictly positive.
+	 */
+	public BatchSolver(int threadCount){
+		
+		if(threadCount <= 0){
+			throw new IllegalArgumentException("Thread count must be strictly positive; got " + threadCount);
+		}
+		
+		this.threadCount = threadCount;
+		
+	}
+	
+	/**
+	 * Solves the provided puzzles and returns the outcome for each of them, in the same order as they were provided. A puzzle for which the
+	 * solver fails does not affect the solving of the other puzzles; the failure is recorded in its result instead.
+	 * 
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the puzzles to be solved.
+	 */
+	public List<BatchSolverResult> solve(Collection<? extends Puzzle> puzzles) throws InterruptedException {
+		
+		List<Callable<BatchSolverResult>> tasks = new ArrayList<Callable<BatchSolverResult>>(puzzles.size());
+		for(Puzzle puzzle : puzzles){
+			tasks.add(new SolverTask(puzzle));
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, Math.max(tasks.size(), 1)));
+		List<BatchSolverResult> results = new ArrayList<BatchSolverResult>(tasks.size());
+		
+		long timerStart = System.currentTimeMillis();
+		
+		try {
+			
+			for(Future<BatchSolverResult> future : executor.invokeAll(tasks)){
+				
+				try {
+					results.add(future.get());
+				}
+				catch(ExecutionException e) {
+					// can't happen, SolverTask catches everything the solver throws
+					throw new RuntimeException(e.getCause());
+				}
+				
+			}
+			
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		
+		long timerEnd = System.currentTimeMillis();
+		
+		int completedCount = 0;
+		for(BatchSolverResult result : results) if(result.isCompleted()) completedCount++;
+		
+		log.info("Batch done; completed {}/{} puzzles in {} ms.", new Object[]{completedCount, results.size(), timerEnd - timerStart});
+		
+		return results;
+		
+	}
+	
+	/**
+	 * Sets whether the solvers in this batch should resort to guessing squares when they get stuck (see {@link Solver#setSearchEnabled(boolean)}).
+	 */
+	public void setSearchEnabled(boolean searchEnabled) {
+		this.searchEnabled = searchEnabled;
+	}
+	
+	/**
+	 * Sets whether the solvers in this batch should fall back on enumerating all solutions of a row ({@link ExhaustiveRowSolver}) rather
+	 * than on the default exhaustive solver when the logic solvers get stuck. Disabled by default.
+	 */
+	public void setEnumerationEnabled(boolean enumerationEnabled) {
+		this.enumerationEnabled = enumerationEnabled;
+	}
+	
+	/**
+	 * Sets a cache of line solving outcomes for all solvers in this batch to share (see {@link Solver#setLineSolutionCache(LineSolutionCache)}),
+	 * or null to disable caching (the default).
+	 */
+	public void setLineSolutionCache(LineSolutionCache lineSolutionCache) {
+		this.lineSolutionCache = lineSolutionCache;
+	}
+	
+	public int getThreadCount() {
+		return threadCount;
+	}
+	
+	/**
+	 * Solves a single puzzle of the batch and records its outcome.
+	 */
+	private class SolverTask implements Callable<BatchSolverResult> {
+		
+		private Puzzle puzzle;
+		
+		public SolverTask(Puzzle puzzle){
+			this.puzzle = puzzle;
+		}
+		
+		public BatchSolverResult call() {
+			
+			Solver solver = new Solver(puzzle);
+			solver.setSearchEnabled(searchEnabled);
+			if(enumerationEnabled) solver.setExhaustiveSolver(new ExhaustiveRowSolver());
+			solver.setLineSolutionCache(lineSolutionCache);
+			
+			RuntimeException exception = null;
+			long timerStart = System.nanoTime();
+			
+			try {
+				solver.solve();
+			}
+			catch(RuntimeException e) {
+				exception = e;
+			}
+			
+			long timerEnd = System.nanoTime();
+			
+			return new BatchSolverResult(puzzle, solver, exception, timerEnd - timerStart);
+			
+		}
+		
+	}
+	
+}
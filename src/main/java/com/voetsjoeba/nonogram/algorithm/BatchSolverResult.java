@@ -0,0 +1,122 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+/**
+ * Outcome of solving a single {@link Puzzle} as part of a batch (see {@link BatchSolver}).
+ * 
+ * @author Jeroen De Ridder
+ */
+public class BatchSolverResult {
+	
+	private final Puzzle puzzle;
+	private final boolean completed;
+	private final RuntimeException exception;
+	private final long solvingTime;
+	
+	private final int rowsChecked;
+	private final int exhaustiveRowsChecked;
+	private final long exhaustiveAssignmentsGenerated;
+	
+	/**
+	 * @param puzzle The puzzle that was solved.
+	 * @param solver The solver that solved it; its statistics are copied into this result.
+	 * @param exception The exception that aborted the solver, or null if it finished normally.
+	 * @param solvingTime The time it took to solve the puzzle, in nanoseconds.
+	 */
+	public BatchSolverResult(Puzzle puzzle, Solver solver, RuntimeException exception, long solvingTime){
+		
+		this.puzzle = puzzle;
+		this.completed = puzzle.isComplete();
+		this.exception = exception;
+		this.solvingTime = solvingTime;
+		
+		this.rowsChecked = solver.getRowsChecked();
+		this.exhaustiveRowsChecked = solver.getExhaustiveRowsChecked();
+		this.exhaustiveAssignmentsGenerated = solver.getExhaustiveAssignmentsGenerated();
+		
+	}
+	
+	/**
+	 * Creates the result of a puzzle that could not be created in the first place, e.g. because its runs don't fit its rows.
+	 * @param exception The exception that prevented the puzzle from being created.
+	 */
+	public BatchSolverResult(RuntimeException exception){
+		
+		this.puzzle = null;
+		this.completed = false;
+		this.exception = exception;
+		this.solvingTime = 0;
+		
+		this.rowsChecked = 0;
+		this.exhaustiveRowsChecked = 0;
+		this.exhaustiveAssignmentsGenerated = 0;
+		
+	}
+	
+	/**
+	 * Returns the puzzle this result applies to, or null if it could not be created. Its squares hold the state the solver left them in.
+	 */
+	public Puzzle getPuzzle() {
+		return puzzle;
+	}
+	
+	/**
+	 * Returns true if all of the puzzle's squares are known, false otherwise.
+	 */
+	public boolean isCompleted() {
+		return completed;
+	}
+	
+	/**
+	 * Returns the exception that aborted the solving process (typically an {@link com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException}),
+	 * or null if the solver finished normally.
+	 */
+	public RuntimeException getException() {
+		return exception;
+	}
+	
+	/**
+	 * Returns true if the solver was aborted by an exception, false otherwise.
+	 */
+	public boolean isFailed() {
+		return (exception != null);
+	}
+	
+	/**
+	 * Returns the time it took to solve the puzzle, in nanoseconds.
+	 */
+	public long getSolvingTime() {
+		return solvingTime;
+	}
+	
+	/**
+	 * Returns the amount of times a row was run through the logic solvers (see {@link Solver#getRowsChecked()}).
+	 */
+	public int getRowsChecked() {
+		return rowsChecked;
+	}
+	
+	/**
+	 * Returns the amount of times a row was run through the exhaustive solver (see {@link Solver#getExhaustiveRowsChecked()}).
+	 */
+	public int getExhaustiveRowsChecked() {
+		return exhaustiveRowsChecked;
+	}
+	
+	/**
+	 * Returns the amount of assignments generated by the exhaustive solver (see {@link Solver#getExhaustiveAssignmentsGenerated()}).
+	 */
+	public long getExhaustiveAssignmentsGenerated() {
+		return exhaustiveAssignmentsGenerated;
+	}
+	
+	@Override
+	public String toString() {
+		
+		String outcome = (exception != null ? "failed (" + exception.getMessage() + ")" : (completed ? "completed" : "incomplete"));
+		return outcome + " in " + (solvingTime / 1000000) + " ms";
+		
+	}
+	
+}
@@ -0,0 +1,126 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.structure.SquareState;
+
+/**
+ * Describes why a {@link Solver} ran into a conflict (see {@link Solver#setValidationEnabled(boolean)}): the line and solver at which the
+ * conflict occurred, and the deductions that led up to it. A deduction leads up to the conflict if it was made in the conflicting line, or if
+ * it was made in some line before a deduction leading up to the conflict was made in that same line.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class ConflictExplanation {
+	
+	private final String line;
+	private final String solver;
+	private final int column;
+	private final int row;
+	private final List<Deduction> deductions;
+	
+	/**
+	 * @param line Description of the line in which the conflict occurred, or null if it didn't occur in a single line.
+	 * @param solver Name of the solver that ran into the conflict.
+	 * @param column Column of the square that received conflicting states, or -1 if the conflict wasn't about a single square.
+	 * @param row Row of the square that received conflicting states, or -1 if the conflict wasn't about a single square.
+	 * @param deductions The deductions that led up to the conflict, in the order they were made.
+	 */
+	public ConflictExplanation(String line, String solver, int column, int row, List<Deduction> deductions){
+		this.line = line;
+		this.solver = solver;
+		this.column = column;
+		this.row = row;
+		this.deductions = Collections.unmodifiableList(deductions);
+	}
+	
+	public String getLine() {
+		return line;
+	}
+	
+	public String getSolver() {
+		return solver;
+	}
+	
+	public int getColumn() {
+		return column;
+	}
+	
+	public int getRow() {
+		return row;
+	}
+	
+	public List<Deduction> getDeductions() {
+		return deductions;
+	}
+	
+	public String toString(){
+		
+		StringBuffer stringBuffer = new StringBuffer("Conflict");
+		
+		if(column >= 0) stringBuffer.append(" at square(" + column + "," + row + ")");
+		if(line != null) stringBuffer.append(" in line " + line);
+		stringBuffer.append(" found by " + solver + " after " + deductions.size() + " deduction(s):");
+		
+		for(Deduction deduction : deductions){
+			stringBuffer.append("\n  " + deduction);
+		}
+		
+		return stringBuffer.toString();
+		
+	}
+	
+	/**
+	 * A single square state set while solving.
+	 */
+	public static class Deduction {
+		
+		private final int column;
+		private final int row;
+		private final SquareState state;
+		private final String line;
+		private final String solver;
+		
+		/**
+		 * @param line Description of the line that was being solved when the state was set, or null if none was.
+		 * @param solver Name of the solver that set the state, or null if the state was known before solving started.
+		 */
+		public Deduction(int column, int row, SquareState state, String line, String solver){
+			this.column = column;
+			this.row = row;
+			this.state = state;
+			this.line = line;
+			this.solver = solver;
+		}
+		
+		public int getColumn() {
+			return column;
+		}
+		
+		public int getRow() {
+			return row;
+		}
+		
+		public SquareState getState() {
+			return state;
+		}
+		
+		public String getLine() {
+			return line;
+		}
+		
+		public String getSolver() {
+			return solver;
+		}
+		
+		public String toString(){
+			
+			if(solver == null) return "square(" + column + "," + row + ") given as " + state;
+			return "square(" + column + "," + row + ") " + state + " by " + solver + (line == null ? "" : " in line " + line);
+			
+		}
+		
+	}
+	
+}
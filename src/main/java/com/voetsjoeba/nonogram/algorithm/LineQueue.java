@@ -0,0 +1,162 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Priority queue of lines (rows and columns), identified by an index in the range [0, capacity). Each line is in the queue at most once,
+ * and its priority is stored alongside it rather than evaluated whenever it is compared, so it can be updated in place (see
+ * {@link #offer(int, int, int)}) when the line changes while it's queued.
+ * 
+ * <p>Lines are ordered by their modification count first (higher is better) and their overlap score second (lower is better), which is the
+ * same ordering as the {@link RowChangecountOverlapComparator}.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class LineQueue {
+	
+	// binary heap of line indices; heapPositions holds the position of each line in the heap, or -1 if it's not queued
+	private final int[] heap;
+	private final int[] heapPositions;
+	private int size;
+	
+	private final int[] modificationCounts;
+	private final int[] overlapScores;
+	
+	public LineQueue(int capacity){
+		
+		heap = new int[capacity];
+		heapPositions = new int[capacity];
+		modificationCounts = new int[capacity];
+		overlapScores = new int[capacity];
+		
+		Arrays.fill(heapPositions, -1);
+		size = 0;
+		
+	}
+	
+	/**
+	 * Adds a line to the queue with the given priority, or updates its priority if it is already queued.
+	 */
+	public void offer(int line, int modificationCount, int overlapScore){
+		
+		modificationCounts[line] = modificationCount;
+		overlapScores[line] = overlapScore;
+		
+		int position = heapPositions[line];
+		
+		if(position < 0){
+			
+			heap[size] = line;
+			heapPositions[line] = size;
+			size++;
+			
+			siftUp(size - 1);
+			
+		} else {
+			
+			siftUp(position);
+			siftDown(heapPositions[line]);
+			
+		}
+		
+	}
+	
+	/**
+	 * Removes and returns the line with the highest priority, or -1 if the queue is empty.
+	 */
+	public int poll(){
+		
+		if(size == 0) return -1;
+		
+		int line = heap[0];
+		heapPositions[line] = -1;
+		size--;
+		
+		if(size > 0){
+			heap[0] = heap[size];
+			heapPositions[heap[0]] = 0;
+			siftDown(0);
+		}
+		
+		return line;
+		
+	}
+	
+	public boolean contains(int line){
+		return (heapPositions[line] >= 0);
+	}
+	
+	public boolean isEmpty(){
+		return (size == 0);
+	}
+	
+	public int size(){
+		return size;
+	}
+	
+	public void clear(){
+		for(int i=0; i<size; i++) heapPositions[heap[i]] = -1;
+		size = 0;
+	}
+	
+	/**
+	 * Returns true if line <tt>a</tt> should be taken from the queue before line <tt>b</tt>.
+	 */
+	private boolean precedes(int a, int b){
+		
+		if(modificationCounts[a] != modificationCounts[b]){
+			return (modificationCounts[a] > modificationCounts[b]);
+		}
+		
+		return (overlapScores[a] < overlapScores[b]);
+		
+	}
+	
+	private void siftUp(int position){
+		
+		int line = heap[position];
+		
+		while(position > 0){
+			
+			int parentPosition = (position - 1) / 2;
+			int parent = heap[parentPosition];
+			
+			if(!precedes(line, parent)) break;
+			
+			heap[position] = parent;
+			heapPositions[parent] = position;
+			position = parentPosition;
+			
+		}
+		
+		heap[position] = line;
+		heapPositions[line] = position;
+		
+	}
+	
+	private void siftDown(int position){
+		
+		int line = heap[position];
+		
+		while(true){
+			
+			int childPosition = 2*position + 1;
+			if(childPosition >= size) break;
+			
+			if(childPosition + 1 < size && precedes(heap[childPosition + 1], heap[childPosition])) childPosition++;
+			
+			int child = heap[childPosition];
+			if(!precedes(child, line)) break;
+			
+			heap[position] = child;
+			heapPositions[child] = position;
+			position = childPosition;
+			
+		}
+		
+		heap[position] = line;
+		heapPositions[line] = position;
+		
+	}
+	
+}
@@ -0,0 +1,459 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.voetsjoeba.nonogram.algorithm.rowsolver.LineSolutionCache;
+import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
+import com.voetsjoeba.nonogram.exception.InconsistentDecompositionException;
+import com.voetsjoeba.nonogram.exception.InvalidRunConfigurationException;
+import com.voetsjoeba.nonogram.exception.SequenceLengthExceededException;
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.StandardPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+/**
+ * Resolves squares of a {@link Puzzle} that can no longer be deduced by line logic alone by probing them: both states of an unknown
+ * square are tried on a copy of the puzzle (see {@link Puzzle#copy()}), each of which is then solved as far as possible by a
+ * {@link Solver} that doesn't search. If one of the states leads to a conflict, the square must have the other state. If neither does,
+ * any square that ends up with the same state in both copies must have that state as well. Should solving a copy fail for any other
+ * reason, that probe is considered inconclusive.
+ * 
+ * <p>Unlike the {@link BacktrackingSearch}, probing never goes more than one guess deep, so whatever it finds holds for every solution
+ * of the puzzle. Squares are probed in the same order as the backtracking search would guess them, and probing stops as soon as some
+ * squares were resolved, so that the logic solvers can continue from there.</p>
+ * 
+ * <p>On a single thread, all probes share one copy of a {@link StandardPuzzle}, which is restored to a checkpoint after each of them
+ * (see {@link StandardPuzzle#checkpoint()}). The probes aren't made on the original puzzle itself, as its listeners (such as its solver)
+ * would be told about the probes' changes, which restoring a checkpoint doesn't take back.</p>
+ * 
+ * <p>Probes are independent of each other, so they can be run on several threads at once (see {@link #Prober(Puzzle, int)}); each probe
+ * then gets a copy of its own, made on the calling thread, since the original puzzle must not be accessed concurrently. With <tt>n</tt>
+ * threads, squares are probed <tt>n</tt> at a time, and the outcome of all of them is applied. The threads are kept for as long as the
+ * prober is used (see {@link #shutdown()}).</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class Prober {
+	
+	private static final Logger log = LoggerFactory.getLogger(Prober.class);
+	
+	private Puzzle puzzle;
+	private int threadCount;
+	private LineSolutionCache lineSolutionCache;
+	private ExecutorService executor;
+	
+	private int probeCount = 0;
+	
+	public Prober(Puzzle puzzle){
+		this(puzzle, 1);
+	}
+	
+	/**
+	 * @param puzzle The puzzle to probe.
+	 * @param threadCount The amount of threads to run probes on.
+	 * @throws IllegalArgumentException if threadCount is not strictly positive.
+	 */
+	public Prober(Puzzle puzzle, int threadCount){
+		
+		if(threadCount <= 0){
+			throw new IllegalArgumentException("Thread count must be strictly positive; got " + threadCount);
+		}
+		
+		this.puzzle = puzzle;
+		this.threadCount = threadCount;
+		
+	}
+	
+	/**
+	 * Probes unknown squares until some squares could be resolved, and sets their states on the puzzle. Returns the amount of squares
+	 * that were resolved, or 0 if probing didn't turn up anything.
+	 * 
+	 * @throws UnsolvablePuzzleException if both states of a square lead to a conflict.
+	 */
+	public int probe() throws UnsolvablePuzzleException {
+		
+		List<Square> candidates = getCandidates();
+		
+		if(threadCount == 1 && puzzle instanceof StandardPuzzle){
+			return probe(candidates, (StandardPuzzle) puzzle.copy());
+		}
+		
+		if(executor == null && threadCount > 1){
+			executor = Executors.newFixedThreadPool(threadCount, new ProbeThreadFactory());
+		}
+		
+		for(int start = 0; start < candidates.size(); start += threadCount){
+			
+			List<Square> batch = candidates.subList(start, Math.min(start + threadCount, candidates.size()));
+			
+			// the copies are made up front, as the original puzzle is not safe to read from several threads at once
+			List<ProbeTask> tasks = new ArrayList<ProbeTask>(2 * batch.size());
+			for(Square square : batch){
+				tasks.add(new ProbeTask(puzzle.copy(), square, SquareState.FILLED, lineSolutionCache));
+				tasks.add(new ProbeTask(puzzle.copy(), square, SquareState.CLEAR, lineSolutionCache));
+			}
+			
+			run(tasks);
+			probeCount += batch.size();
+			
+			int resolvedCount = 0;
+			for(int i=0; i<batch.size(); i++){
+				resolvedCount += apply(batch.get(i), tasks.get(2 * i), tasks.get(2 * i + 1));
+			}
+			
+			if(resolvedCount > 0){
+				log.debug("Probing resolved {} square(s) after {} probe(s)", resolvedCount, start + batch.size());
+				return resolvedCount;
+			}
+			
+		}
+		
+		return 0;
+		
+	}
+	
+	/**
+	 * Probes the provided candidates one by one on <tt>branch</tt>, a copy of the puzzle, which is restored after each probe.
+	 */
+	private int probe(List<Square> candidates, StandardPuzzle branch) throws UnsolvablePuzzleException {
+		
+		for(int i=0; i<candidates.size(); i++){
+			
+			Square square = candidates.get(i);
+			
+			ProbeTask filledProbe = new ProbeTask(branch, square, SquareState.FILLED, lineSolutionCache);
+			ProbeTask clearProbe = new ProbeTask(branch, square, SquareState.CLEAR, lineSolutionCache);
+			
+			run(filledProbe, branch);
+			run(clearProbe, branch);
+			probeCount++;
+			
+			int resolvedCount = apply(square, filledProbe, clearProbe);
+			
+			if(resolvedCount > 0){
+				log.debug("Probing resolved {} square(s) after {} probe(s)", resolvedCount, i + 1);
+				return resolvedCount;
+			}
+			
+		}
+		
+		return 0;
+		
+	}
+	
+	/**
+	 * Returns the unknown squares of the puzzle, those whose row and column have the most known squares first.
+	 */
+	private List<Square> getCandidates(){
+		
+		List<Square> candidates = new ArrayList<Square>();
+		final List<Row> rows = puzzle.getRows();
+		final List<Row> columns = puzzle.getColumns();
+		
+		for(Row row : rows){
+			
+			if(row.isCompleted()) continue;
+			
+			for(int i=0; i<row.getLength(); i++){
+				Square square = row.getSquare(i);
+				if(!square.isStateKnown()) candidates.add(square);
+			}
+			
+		}
+		
+		// the known square counts are looked up up front, as they are computed rather than stored
+		final int[] rowScores = new int[rows.size()];
+		final int[] columnScores = new int[columns.size()];
+		for(int i=0; i<rowScores.length; i++) rowScores[i] = rows.get(i).getKnownSquareCount();
+		for(int i=0; i<columnScores.length; i++) columnScores[i] = columns.get(i).getKnownSquareCount();
+		
+		Collections.sort(candidates, new Comparator<Square>(){
+			public int compare(Square square1, Square square2) {
+				int score1 = rowScores[square1.getRow()] + columnScores[square1.getColumn()];
+				int score2 = rowScores[square2.getRow()] + columnScores[square2.getColumn()];
+				return score2 - score1;
+			}
+		});
+		
+		return candidates;
+		
+	}
+	
+	/**
+	 * Runs the provided probe on <tt>branch</tt>, and restores the branch afterwards.
+	 */
+	private void run(ProbeTask task, StandardPuzzle branch){
+		
+		int checkpoint = branch.checkpoint();
+		
+		try {
+			task.call();
+		}
+		finally {
+			branch.restore(checkpoint);
+			branch.release(checkpoint);
+		}
+		
+	}
+	
+	/**
+	 * Runs the provided probes, on the executor if there is one, and waits for them to finish.
+	 */
+	private void run(List<ProbeTask> tasks){
+		
+		if(executor == null){
+			for(ProbeTask task : tasks) task.call();
+			return;
+		}
+		
+		try {
+			
+			for(Future<Object> future : executor.invokeAll(tasks)){
+				future.get();
+			}
+			
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		catch(ExecutionException e) {
+			// can't happen, ProbeTask catches everything that signals a conflict
+			throw new RuntimeException(e.getCause());
+		}
+		
+	}
+	
+	/**
+	 * Applies the outcome of probing both states of a square to the puzzle, and returns the amount of squares that were resolved.
+	 * 
+	 * @param filledProbe The probe in which the square was filled.
+	 * @param clearProbe The probe in which the square was cleared.
+	 */
+	private int apply(Square square, ProbeTask filledProbe, ProbeTask clearProbe) throws UnsolvablePuzzleException {
+		
+		if(filledProbe.isConflicting() && clearProbe.isConflicting()){
+			throw new UnsolvablePuzzleException("Both states of square(" + square.getColumn() + "," + square.getRow() + ") lead to a conflict");
+		}
+		
+		if(filledProbe.isConflicting() || clearProbe.isConflicting()){
+			
+			SquareState state = (filledProbe.isConflicting() ? SquareState.CLEAR : SquareState.FILLED);
+			log.debug("Probing square({},{}) leaves it {}", new Object[]{square.getColumn(), square.getRow(), state});
+			
+			return setState(square, state);
+			
+		}
+		
+		SquareState[] filledOutcome = filledProbe.getOutcome();
+		SquareState[] clearOutcome = clearProbe.getOutcome();
+		if(filledOutcome == null || clearOutcome == null) return 0;
+		
+		// neither state leads to a conflict; keep whatever both agree on
+		int resolvedCount = 0;
+		int width = puzzle.getColumns().size();
+		
+		for(Row row : puzzle.getRows()){
+			
+			if(row.isCompleted()) continue;
+			
+			for(int i=0; i<row.getLength(); i++){
+				
+				SquareState filledState = filledOutcome[row.getIndex() * width + i];
+				SquareState clearState = clearOutcome[row.getIndex() * width + i];
+				
+				if(filledState != null && filledState == clearState){
+					resolvedCount += setState(row.getSquare(i), filledState);
+				}
+				
+			}
+			
+		}
+		
+		return resolvedCount;
+		
+	}
+	
+	/**
+	 * Sets the state of a square if it is still unknown, and returns 1 if it was.
+	 */
+	private int setState(Square square, SquareState state) throws UnsolvablePuzzleException {
+		
+		if(square.isStateKnown()){
+			if(square.getState() != state) throw new UnsolvablePuzzleException("Probes disagree on the state of square(" + square.getColumn() + "," + square.getRow() + ")");
+			return 0;
+		}
+		
+		NonogramUtils.setSquareState(square, state, null);
+		return 1;
+		
+	}
+	
+	/**
+	 * Returns the amount of squares probed so far.
+	 */
+	public int getProbeCount() {
+		return probeCount;
+	}
+	
+	public int getThreadCount() {
+		return threadCount;
+	}
+	
+	/**
+	 * Stops the threads that probes are run on, if any. The prober can still be used afterwards; the threads are started again when needed.
+	 */
+	public void shutdown() {
+		
+		if(executor != null){
+			executor.shutdownNow();
+			executor = null;
+		}
+		
+	}
+	
+	/**
+	 * Sets the cache for the solvers that solve the probes to share (see {@link Solver#setLineSolutionCache(LineSolutionCache)}).
+	 */
+	public void setLineSolutionCache(LineSolutionCache lineSolutionCache) {
+		this.lineSolutionCache = lineSolutionCache;
+	}
+	
+	/**
+	 * Creates the threads that probes are run on. They don't keep the virtual machine alive, in case the prober isn't shut down.
+	 */
+	private static class ProbeThreadFactory implements ThreadFactory {
+		
+		private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+		
+		public Thread newThread(Runnable runnable) {
+			
+			Thread thread = threadFactory.newThread(runnable);
+			thread.setDaemon(true);
+			
+			return thread;
+			
+		}
+		
+	}
+	
+	/**
+	 * Sets a square of a copy of the puzzle to a given state and solves the copy as far as possible without searching. Records the states
+	 * of the squares of the copy afterwards, so that the copy can be reused.
+	 */
+	private static class ProbeTask implements Callable<Object> {
+		
+		private Puzzle branch;
+		private Square square;
+		private SquareState state;
+		private LineSolutionCache lineSolutionCache;
+		
+		private boolean conflicting = false;
+		private boolean inconclusive = false;
+		private SquareState[] outcome;
+		
+		public ProbeTask(Puzzle branch, Square square, SquareState state, LineSolutionCache lineSolutionCache){
+			this.branch = branch;
+			this.square = square;
+			this.state = state;
+			this.lineSolutionCache = lineSolutionCache;
+		}
+		
+		public Object call() {
+			
+			Solver branchSolver = new Solver(branch);
+			branchSolver.setSearchEnabled(false);
+			branchSolver.setLineSolutionCache(lineSolutionCache);
+			
+			try {
+				
+				branch.getSquare(square.getColumn(), square.getRow()).setState(state);
+				branchSolver.solve();
+				
+				// a completely filled in copy can still be invalid
+				if(branch.isComplete() && !NonogramUtils.isSolved(branch)){
+					conflicting = true;
+				} else {
+					outcome = getStates(branch);
+				}
+				
+			}
+			catch(ConflictingSquareStateException e) {
+				// can't happen, the square was unknown in the original puzzle
+				throw new RuntimeException(e);
+			}
+			catch(UnsolvablePuzzleException e) {
+				conflicting = true;
+			}
+			catch(InconsistentDecompositionException e) {
+				conflicting = true;
+			}
+			catch(InvalidRunConfigurationException e) {
+				conflicting = true;
+			}
+			catch(SequenceLengthExceededException e) {
+				conflicting = true;
+			}
+			catch(RuntimeException e) {
+				log.debug("Probing square({},{}) as {} failed: {}", new Object[]{square.getColumn(), square.getRow(), state, e});
+				inconclusive = true;
+			}
+			finally {
+				// the copy may be probed again later on, by a solver of its own
+				branchSolver.unregisterListeners();
+			}
+			
+			return null;
+			
+		}
+		
+		/**
+		 * Returns the states of all squares of the provided puzzle, row by row.
+		 */
+		private static SquareState[] getStates(Puzzle puzzle){
+			
+			int width = puzzle.getColumns().size();
+			SquareState[] states = new SquareState[puzzle.getSquareCount()];
+			
+			for(Row row : puzzle.getRows()){
+				for(int i=0; i<width; i++) states[row.getIndex() * width + i] = row.getSquare(i).getState();
+			}
+			
+			return states;
+			
+		}
+		
+		/**
+		 * Returns whether the probe ran into a conflict.
+		 */
+		public boolean isConflicting() {
+			return conflicting;
+		}
+		
+		/**
+		 * Returns the states of the squares of the copy as far as it could be solved, row by row, or null if the probe ran into a conflict or
+		 * failed otherwise.
+		 */
+		public SquareState[] getOutcome() {
+			return (conflicting || inconclusive ? null : outcome);
+		}
+		
+	}
+	
+}
@@ -3,30 +3,40 @@ package com.voetsjoeba.nonogram.algorithm;
 import com.voetsjoeba.nonogram.exception.ConflictingSquareRunException;
 import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
 import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
+import com.voetsjoeba.nonogram.structure.Orientation;
 import com.voetsjoeba.nonogram.structure.RowDecomposition;
 import com.voetsjoeba.nonogram.structure.SquareState;
 import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.api.Square;
-import com.voetsjoeba.nonogram.structure.assignment.AssignmentDecomposition;
-import com.voetsjoeba.nonogram.structure.assignment.AssignmentGenerationCallback;
-import com.voetsjoeba.nonogram.structure.assignment.AssignmentSlot;
+import com.voetsjoeba.nonogram.structure.assignment.AssignmentDeltaCallback;
 
 /**
  * Progressively compares each generated assignment with the previously generated assignment and decides for each square
  * whether it is either always cleared, always filled or always filled with the same run applied.
  * 
+ * <p>The runs placed at each square are tracked from the changes reported by the generator; since the previous assignment was
+ * already taken into account, only the squares whose run changed since then need to be compared for each assignment.</p>
+ * 
  * @author Jeroen De Ridder
  */
-public class ProgressiveExtractionCallback implements AssignmentGenerationCallback {
+public class ProgressiveExtractionCallback implements AssignmentDeltaCallback {
 	
 	protected ConsistencySlot[] consistencySlots;
 	protected RowDecomposition rowDecomposition;
 	
 	protected long totalGeneratedAssignments = 0;
 	protected int consistentSlotCount;
+	protected int informativeSlotCount; // amount of slots that may still yield information (see ConsistencySlot#informative)
+	protected Orientation orientation;
+	
+	protected Run[] assignedRuns; // run currently placed at each square, or null
+	protected boolean[] dirty; // whether the run at each square changed since its consistency information was last updated
+	protected int[] dirtySquares; // indices of the dirty squares
+	protected int dirtySquareCount = 0;
 	
 	public ProgressiveExtractionCallback(RowDecomposition templateDecomposition) {
 		this.rowDecomposition = templateDecomposition;
+		this.orientation = templateDecomposition.getRow().getOrientation();
 		initSlots();
 	}
 	
@@ -42,10 +52,53 @@ public class ProgressiveExtractionCallback implements AssignmentGenerationCallba
 		}
 		
 		consistentSlotCount = squareCount;
+		informativeSlotCount = squareCount;
+		
+		assignedRuns = new Run[squareCount];
+		dirty = new boolean[squareCount];
+		dirtySquares = new int[squareCount];
 		
 	}
 	
-	public void receiveGeneratedAssignment(AssignmentDecomposition workingAssignment) {
+	public void runAssigned(int runIndex, Run run, int offset) {
+		setRun(offset, offset + run.getLength(), run);
+	}
+	
+	public void runMoved(int runIndex, Run run, int oldOffset, int newOffset) {
+		
+		int length = run.getLength();
+		
+		// only the squares covered by one position but not the other change
+		setRun(oldOffset, Math.min(oldOffset + length, newOffset), null);
+		setRun(Math.max(oldOffset, newOffset + length), oldOffset + length, null);
+		setRun(newOffset, Math.min(newOffset + length, oldOffset), run);
+		setRun(Math.max(newOffset, oldOffset + length), newOffset + length, run);
+		
+	}
+	
+	public void runUnassigned(int runIndex, Run run, int offset) {
+		setRun(offset, offset + run.getLength(), null);
+	}
+	
+	/**
+	 * Places <tt>run</tt> (or no run, if null) at squares <tt>startIndex</tt> (inclusive) through <tt>endIndex</tt> (exclusive), and marks them dirty.
+	 */
+	protected void setRun(int startIndex, int endIndex, Run run){
+		
+		for(int squareIndex=startIndex; squareIndex<endIndex; squareIndex++){
+			
+			assignedRuns[squareIndex] = run;
+			
+			if(!dirty[squareIndex]){
+				dirty[squareIndex] = true;
+				dirtySquares[dirtySquareCount++] = squareIndex;
+			}
+			
+		}
+		
+	}
+	
+	public void receiveGeneratedAssignment() {
 		
 		totalGeneratedAssignments++;
 		
@@ -53,9 +106,9 @@ public class ProgressiveExtractionCallback implements AssignmentGenerationCallba
 			
 			// set initial values
 			
-			for(int squareIndex=0; squareIndex < workingAssignment.getTotalLength(); squareIndex++){
+			for(int squareIndex=0; squareIndex < assignedRuns.length; squareIndex++){
 				
-				Run assignedRun = workingAssignment.getSlotAt(squareIndex).getRun();
+				Run assignedRun = assignedRuns[squareIndex];
 				ConsistencySlot ex = consistencySlots[squareIndex];
 				
 				ex.allClear = (assignedRun == null);
@@ -64,98 +117,126 @@ public class ProgressiveExtractionCallback implements AssignmentGenerationCallba
 				ex.sameRun = assignedRun;
 				ex.allSameRun = (ex.sameRun != null);
 				
+				dirty[squareIndex] = false;
+				updateInformative(ex);
+				
 			}
 			
+			dirtySquareCount = 0;
+			
 		} else {
 			
-			// update each slot's info
-			updateConsistencyInformation(workingAssignment, 0, workingAssignment.getTotalLength());
+			// update the info of each slot that changed since the previous assignment
+			updateConsistencyInformation(assignedRuns.length);
 			
 		}
 		
 		
 	}
 	
-	public void receivePartialAssignment(AssignmentDecomposition partialAssignment, int startIndex, int endIndex) {
-		updateConsistencyInformation(partialAssignment, startIndex, endIndex);
+	public void receivePartialAssignment(int endIndex) {
+		updateConsistencyInformation(endIndex);
+	}
+	
+	public boolean isConsistent(int squareIndex) {
+		return consistencySlots[squareIndex].consistent;
+	}
+	
+	/**
+	 * Generation is cancelled once no square can yield any further information (see {@link ConsistencySlot#informative}); the information
+	 * gathered up to that point is the same as what all assignments would yield.
+	 */
+	public boolean isCancelled() {
+		return (informativeSlotCount == 0);
 	}
 	
 	/**
-	 * Updates the consistency information of squares <tt>startIndex</tt> (inclusive) through <tt>endIndex</tt> (exclusive) in <tt>assignment</tt>.
-	 * @param assignment
-	 * @param startIndex
+	 * Updates the consistency information of the dirty squares before <tt>endIndex</tt> (exclusive) with the runs currently placed at them. Squares 
+	 * that aren't dirty still hold the run they held when their information was last updated, so they don't need to be looked at again.
 	 * @param endIndex
 	 */
-	protected void updateConsistencyInformation(AssignmentDecomposition assignment, int startIndex, int endIndex){
+	protected void updateConsistencyInformation(int endIndex){
 		
-		// update each slot's info
-		for(int squareIndex=startIndex; squareIndex<endIndex; squareIndex++){
-			
-			Run assignedRun = assignment.getSlotAt(squareIndex).getRun();
-			ConsistencySlot ex = consistencySlots[squareIndex];
-			
-			if(!ex.consistent) continue; // skip any disabled slots
-			
-			//ex.allClear = ex.allClear && (assignedRun == null);
-			//ex.allFilled = ex.allFilled && (assignedRun != null);
-			
-			//if(ex.sameRun == null) ex.sameRun = assignedRun; // initial value
-			//ex.allSameRun = ex.allSameRun && (assignedRun != null && assignedRun == ex.sameRun);
-			
-			boolean newAllClear = ex.allClear && (assignedRun == null);
-			boolean newAllFilled = ex.allFilled && (assignedRun != null);
-			boolean newAllSameRun = ex.allSameRun && (assignedRun != null && assignedRun == ex.sameRun);
-			
-			if(newAllClear != ex.allClear){
-				// this square will not be cleared in all solutions (even though it was in the first), so don't bother looking at it further because it 
-				// won't bring you any useful info
-				ex.consistent = false;
-			}
-			
-			if(newAllFilled != ex.allFilled){
-				// this square will not be filled in all solutions (even though it was in the first), so don't bother looking at it further because it 
-				// won't bring you any useful info
-				ex.consistent = false;
-			}
-			
-			// allSameRun can be false but still have the square deliver useful information (if they're all filled but with different runs),
-			// so don't check it here
+		int remainingDirtySquareCount = 0;
+		
+		for(int i=0; i<dirtySquareCount; i++){
 			
-			ex.allClear = newAllClear;
-			ex.allFilled = newAllFilled;
-			ex.allSameRun = newAllSameRun;
+			int squareIndex = dirtySquares[i];
 			
-			// if this slot got disabled, register it
-			if(!ex.consistent){
-				
-				// tell the generation algorithm that this square is inconsistent
-				AssignmentSlot assignmentSlot = assignment.getSlotAt(squareIndex);
-				
-				// obviously, fixed slots can never be inconsistent (because that's the whole reason they're fixed)
-				// if we're trying to set a fixed slot as inconsistent, something is wrong with your algorithm
-				/*if(assignmentSlot.isFixed()){
-					throw new RuntimeException("Cannot mark a fixed slot as inconsistent.");
-				}*/
-				if(assignmentSlot.isFixed()){
-					assert false : "Attempting to mark a fixed slot as inconsistent -- this is most likely an algorithm error";
-				}
-				
-				assignmentSlot.setValid(false);
-				
-				/*enabledSlotCount--;
-				
-				// if there are no more candidate slots, terminate assignment generation
-				if(enabledSlotCount == 0){
-					throw new TerminateAssignmentGenerationException("All slots change across solutions, terminating assignment generation");
-				}*/
-				
+			if(squareIndex >= endIndex){
+				// not part of the assignment yet, keep it dirty
+				dirtySquares[remainingDirtySquareCount++] = squareIndex;
+				continue;
 			}
 			
-			assert !(ex.allClear && ex.allFilled) : "A square was both always cleared and always filled after generation solutions -- this is probably a programming error";
-			assert !ex.allSameRun || ex.allFilled : "All squares have the same run assigned, but allgedly not all squares even have runs assigned -- this is probably a programming error"; // a => b <=> not(a) v b
+			dirty[squareIndex] = false;
+			updateConsistencyInformation(squareIndex, assignedRuns[squareIndex]);
 			
 		}
 		
+		dirtySquareCount = remainingDirtySquareCount;
+		
+	}
+	
+	/**
+	 * Updates the consistency information of square <tt>squareIndex</tt> with an assignment that places <tt>assignedRun</tt> (or no run, if null) there.
+	 */
+	protected void updateConsistencyInformation(int squareIndex, Run assignedRun){
+		
+		ConsistencySlot ex = consistencySlots[squareIndex];
+		
+		if(!ex.consistent) return; // skip any disabled slots
+		
+		boolean newAllClear = ex.allClear && (assignedRun == null);
+		boolean newAllFilled = ex.allFilled && (assignedRun != null);
+		boolean newAllSameRun = ex.allSameRun && (assignedRun != null && assignedRun == ex.sameRun);
+		
+		if(newAllClear != ex.allClear){
+			// this square will not be cleared in all solutions (even though it was in the first), so don't bother looking at it further because it 
+			// won't bring you any useful info
+			ex.consistent = false;
+		}
+		
+		if(newAllFilled != ex.allFilled){
+			// this square will not be filled in all solutions (even though it was in the first), so don't bother looking at it further because it 
+			// won't bring you any useful info
+			ex.consistent = false;
+		}
+		
+		// allSameRun can be false but still have the square deliver useful information (if they're all filled but with different runs),
+		// so don't check it here
+		
+		ex.allClear = newAllClear;
+		ex.allFilled = newAllFilled;
+		ex.allSameRun = newAllSameRun;
+		
+		// obviously, fixed (i.e. filled) squares can never be inconsistent (because that's the whole reason they're fixed)
+		// if we're marking a fixed square as inconsistent, something is wrong with your algorithm
+		if(!ex.consistent){
+			consistentSlotCount--;
+			assert ex.square.getState() != SquareState.FILLED : "Attempting to mark a fixed slot as inconsistent -- this is most likely an algorithm error";
+		}
+		
+		assert !(ex.allClear && ex.allFilled) : "A square was both always cleared and always filled after generation solutions -- this is probably a programming error";
+		assert !ex.allSameRun || ex.allFilled : "All squares have the same run assigned, but allgedly not all squares even have runs assigned -- this is probably a programming error"; // a => b <=> not(a) v b
+		
+		updateInformative(ex);
+		
+	}
+	
+	/**
+	 * Marks the provided slot as no longer informative if further assignments can't change what is learnt about its square.
+	 */
+	protected void updateInformative(ConsistencySlot ex){
+		
+		if(!ex.informative) return;
+		
+		// an inconsistent square stays inconsistent, and a filled square only has its run left to learn (if all assignments agree on it)
+		if(!ex.consistent || (ex.square.isFilled() && (!ex.allSameRun || ex.square.hasRun(orientation)))){
+			ex.informative = false;
+			informativeSlotCount--;
+		}
+		
 	}
 	
 	/**
@@ -229,6 +310,12 @@ public class ProgressiveExtractionCallback implements AssignmentGenerationCallba
 		 */
 		public boolean consistent = true;
 		
+		/**
+		 * Whether further assignments may still change what is learnt about this square. A square stops being informative once it is 
+		 * inconsistent, or once it is known to be filled and either its run is known too or the assignments so far disagree on it.
+		 */
+		public boolean informative = true;
+		
 		@Override
 		public String toString() {
 			return "(C=" + (allClear ? "1" : "0") + ",F=" + (allFilled ? "1" : "0") + ",SR=" + (allSameRun ? "1" : "0")+")";
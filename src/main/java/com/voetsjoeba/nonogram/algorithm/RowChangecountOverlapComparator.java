@@ -1,11 +1,9 @@
 package com.voetsjoeba.nonogram.algorithm;
 
 import java.util.Comparator;
-import java.util.List;
 
 import com.voetsjoeba.nonogram.structure.RowDecomposition;
 import com.voetsjoeba.nonogram.structure.api.Row;
-import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.util.NonogramUtils;
 
 /**
@@ -31,20 +29,8 @@ public class RowChangecountOverlapComparator implements Comparator<Row> {
 			
 		} else {
 			
-			List<Run> runs1 = o1.getIncompleteRuns();
-			List<Run> runs2 = o2.getIncompleteRuns();
-			
-			RowDecomposition decomp1 = o1.getDecomposition();
-			RowDecomposition decomp2 = o2.getDecomposition();
-			
-			int knownSquareCount1 = decomp1.getKnownSquareCount();
-			int knownSquareCount2 = decomp2.getKnownSquareCount();
-			
-			int minAssignmentLength1 = NonogramUtils.getMinimumRunAssignmentLength(runs1, true) + knownSquareCount1*knownSquareCount1; // heuristic approximation
-			int minAssignmentLength2 = NonogramUtils.getMinimumRunAssignmentLength(runs2, true) + knownSquareCount2*knownSquareCount2;
-			
-			int diff1 = decomp1.getTotalLength() - minAssignmentLength1;
-			int diff2 = decomp2.getTotalLength() - minAssignmentLength2;
+			int diff1 = getOverlapScore(o1);
+			int diff2 = getOverlapScore(o2);
 			
 			// the smaller the difference, the better
 			
@@ -60,4 +46,18 @@ public class RowChangecountOverlapComparator implements Comparator<Row> {
 		
 	}
 	
+	/**
+	 * Returns the (rough) overlap score of a row, i.e. the difference between the length of its decomposition and the minimum length 
+	 * its incomplete runs need. Rows with a smaller score are preferred when their modification counts are equal.
+	 */
+	public int getOverlapScore(Row row) {
+		
+		RowDecomposition decomposition = row.getDecomposition();
+		int knownSquareCount = decomposition.getKnownSquareCount();
+		
+		int minAssignmentLength = NonogramUtils.getMinimumRunAssignmentLength(row.getIncompleteRuns(), true) + knownSquareCount*knownSquareCount; // heuristic approximation
+		return decomposition.getTotalLength() - minAssignmentLength;
+		
+	}
+	
 }
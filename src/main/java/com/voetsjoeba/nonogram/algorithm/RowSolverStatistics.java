@@ -0,0 +1,82 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+/**
+ * Performance counters of a single row solver in a {@link Solver}'s pipeline; collected only if the solver's statistics are enabled
+ * (see {@link Solver#setStatisticsEnabled(boolean)}). The counters may be read from other threads (e.g. through JMX) while the solver
+ * is running.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class RowSolverStatistics implements RowSolverStatisticsMBean {
+	
+	private final String solverName;
+	
+	private long invocations;
+	private long wallTime;
+	private long cpuTime;
+	private long squaresDeduced;
+	private long conflicts;
+	
+	public RowSolverStatistics(String solverName){
+		this.solverName = solverName;
+	}
+	
+	/**
+	 * Records a single run of the row solver.
+	 * 
+	 * @param wallTime Wall clock time taken, in nanoseconds.
+	 * @param cpuTime CPU time taken, in nanoseconds, or -1 if not measured.
+	 * @param squaresDeduced Amount of squares set during the run.
+	 * @param conflict Whether the run ended in a conflict.
+	 */
+	synchronized void record(long wallTime, long cpuTime, int squaresDeduced, boolean conflict){
+		
+		invocations++;
+		this.wallTime += wallTime;
+		this.cpuTime = (cpuTime < 0 || this.cpuTime < 0 ? -1 : this.cpuTime + cpuTime);
+		this.squaresDeduced += squaresDeduced;
+		if(conflict) conflicts++;
+		
+	}
+	
+	public String getSolverName() {
+		return solverName;
+	}
+	
+	public synchronized long getInvocations() {
+		return invocations;
+	}
+	
+	public synchronized long getWallTime() {
+		return wallTime;
+	}
+	
+	public synchronized long getCpuTime() {
+		return cpuTime;
+	}
+	
+	public synchronized long getSquaresDeduced() {
+		return squaresDeduced;
+	}
+	
+	public synchronized long getConflicts() {
+		return conflicts;
+	}
+	
+	public synchronized double getSquaresPerMillisecond() {
+		return (wallTime > 0 ? squaresDeduced / (wallTime / 1000000.0) : 0);
+	}
+	
+	public synchronized void reset() {
+		invocations = 0;
+		wallTime = 0;
+		cpuTime = 0;
+		squaresDeduced = 0;
+		conflicts = 0;
+	}
+	
+	public synchronized String toString(){
+		return solverName + ": " + invocations + " invocation(s), " + (wallTime / 1000) + " us wall, " + (cpuTime < 0 ? "n/a" : (cpuTime / 1000) + " us") + " cpu, " + squaresDeduced + " square(s), " + conflicts + " conflict(s)";
+	}
+	
+}
@@ -0,0 +1,52 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+/**
+ * Management interface of the {@link RowSolverStatistics}, through which they are exported as a JMX MBean (see
+ * {@link Solver#registerStatisticsMBeans(javax.management.MBeanServer, String)}).
+ * 
+ * @author Jeroen De Ridder
+ */
+public interface RowSolverStatisticsMBean {
+	
+	/**
+	 * Returns the name of the row solver.
+	 */
+	public String getSolverName();
+	
+	/**
+	 * Returns the amount of times the row solver was run on a row.
+	 */
+	public long getInvocations();
+	
+	/**
+	 * Returns the total wall clock time spent in the row solver, in nanoseconds.
+	 */
+	public long getWallTime();
+	
+	/**
+	 * Returns the total CPU time spent in the row solver, in nanoseconds, or -1 if the JVM does not measure thread CPU time.
+	 */
+	public long getCpuTime();
+	
+	/**
+	 * Returns the amount of squares whose state was set while the row solver was running (including squares set as a consequence
+	 * of its deductions, e.g. squares around a completed run).
+	 */
+	public long getSquaresDeduced();
+	
+	/**
+	 * Returns the amount of times the row solver ran into a conflict.
+	 */
+	public long getConflicts();
+	
+	/**
+	 * Returns the amount of squares deduced per millisecond of wall clock time spent in the row solver.
+	 */
+	public double getSquaresPerMillisecond();
+	
+	/**
+	 * Resets all counters to zero.
+	 */
+	public void reset();
+	
+}
@@ -0,0 +1,67 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+/**
+ * Outcome of counting the solutions of a {@link Puzzle} (see {@link SolutionCounter#countSolutions(Puzzle, int)}).
+ * 
+ * @author Jeroen De Ridder
+ */
+public class SolutionCount {
+	
+	private final int count;
+	private final int limit;
+	private final List<Puzzle> solutions;
+	
+	/**
+	 * @param count The amount of solutions found.
+	 * @param limit The amount of solutions at which counting would stop.
+	 * @param solutions The first (at most) two solutions found.
+	 */
+	public SolutionCount(int count, int limit, List<Puzzle> solutions){
+		this.count = count;
+		this.limit = limit;
+		this.solutions = Collections.unmodifiableList(solutions);
+	}
+	
+	/**
+	 * Returns the amount of solutions found. If the limit was reached (see {@link #isLimitReached()}), the puzzle may have more.
+	 */
+	public int getCount() {
+		return count;
+	}
+	
+	public int getLimit() {
+		return limit;
+	}
+	
+	/**
+	 * Returns true if counting stopped at the limit, i.e. if there may be more solutions than were counted.
+	 */
+	public boolean isLimitReached() {
+		return (count >= limit);
+	}
+	
+	/**
+	 * Returns true if the puzzle has exactly one solution. Requires a limit of at least 2 to tell.
+	 */
+	public boolean isUnique() {
+		return (count == 1 && !isLimitReached());
+	}
+	
+	/**
+	 * Returns copies of the puzzle holding the first two solutions found (or fewer, if there are fewer); if there are two, they show
+	 * the puzzle to be ambiguous.
+	 */
+	public List<Puzzle> getSolutions() {
+		return solutions;
+	}
+	
+	public String toString(){
+		return count + (isLimitReached() ? " or more" : "") + " solution(s)";
+	}
+	
+}
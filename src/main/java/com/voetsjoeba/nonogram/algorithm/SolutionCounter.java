@@ -0,0 +1,149 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.voetsjoeba.nonogram.algorithm.rowsolver.LineSolutionCache;
+import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
+import com.voetsjoeba.nonogram.exception.InconsistentDecompositionException;
+import com.voetsjoeba.nonogram.exception.InvalidRunConfigurationException;
+import com.voetsjoeba.nonogram.exception.SequenceLengthExceededException;
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+/**
+ * Counts the solutions of a {@link Puzzle}, up to a limit (see {@link #countSolutions(Puzzle, int)}), e.g. to check that a puzzle has a
+ * unique solution.
+ * 
+ * <p>The solutions are counted by a depth-first search over copies of the puzzle (see {@link Puzzle#copy()}). Each copy is first solved as
+ * far as possible by a {@link Solver} that doesn't search itself; if that runs into a conflict, the copy has no solutions. Otherwise, an unknown
+ * square is selected in the same way as the {@link BacktrackingSearch} would, and both of its states are tried on a copy of their own. Each
+ * copy is solved in place, so that every branch takes a single copy. All solvers share a {@link LineSolutionCache}, as sibling copies differ
+ * in few squares.</p>
+ * 
+ * <p>The puzzle itself is left untouched.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class SolutionCounter {
+	
+	private static final Logger log = LoggerFactory.getLogger(SolutionCounter.class);
+	
+	private static final int CACHE_CAPACITY = 1 << 16;
+	
+	private SolutionCounter(){
+		
+	}
+	
+	/**
+	 * Counts the solutions of the provided puzzle, stopping as soon as <tt>limit</tt> solutions have been found. To check whether a puzzle has a
+	 * unique solution, a limit of 2 suffices.
+	 * 
+	 * @throws IllegalArgumentException if limit is not strictly positive.
+	 */
+	public static SolutionCount countSolutions(Puzzle puzzle, int limit){
+		
+		if(limit <= 0){
+			throw new IllegalArgumentException("Limit must be strictly positive; got " + limit);
+		}
+		
+		LineSolutionCache cache = new LineSolutionCache(CACHE_CAPACITY);
+		List<Puzzle> solutions = new ArrayList<Puzzle>(2);
+		int solutionCount = 0;
+		int branchCount = 0;
+		
+		// copies of the puzzle yet to be counted, the next one first
+		LinkedList<Puzzle> branches = new LinkedList<Puzzle>();
+		branches.add(puzzle.copy());
+		
+		while(!branches.isEmpty() && solutionCount < limit){
+			
+			Puzzle branch = branches.removeFirst();
+			branchCount++;
+			
+			if(!propagate(branch, cache)) continue;
+			
+			if(branch.isComplete()){
+				
+				if(NonogramUtils.isSolved(branch)){
+					solutionCount++;
+					if(solutions.size() < 2) solutions.add(branch);
+				}
+				
+				continue;
+				
+			}
+			
+			Square square = BacktrackingSearch.selectSquare(branch);
+			SquareState first = BacktrackingSearch.selectState(branch, square);
+			SquareState second = (first == SquareState.FILLED ? SquareState.CLEAR : SquareState.FILLED);
+			
+			branches.addFirst(guess(branch, square, second));
+			branches.addFirst(guess(branch, square, first));
+			
+		}
+		
+		log.debug("Found {} solution(s) in {} branch(es)", solutionCount, branchCount);
+		
+		return new SolutionCount(solutionCount, limit, solutions);
+		
+	}
+	
+	/**
+	 * Solves the provided branch as far as possible without searching. Returns false if that leads to a conflict, in which case the branch has
+	 * no solutions.
+	 */
+	private static boolean propagate(Puzzle branch, LineSolutionCache cache){
+		
+		Solver solver = new Solver(branch);
+		solver.setSearchEnabled(false);
+		solver.setLineSolutionCache(cache);
+		
+		try {
+			solver.solve();
+			return true;
+		}
+		catch(UnsolvablePuzzleException e) {
+			return false;
+		}
+		catch(InconsistentDecompositionException e) {
+			return false;
+		}
+		catch(InvalidRunConfigurationException e) {
+			return false;
+		}
+		catch(SequenceLengthExceededException e) {
+			return false;
+		}
+		
+	}
+	
+	/**
+	 * Returns a copy of the provided branch in which the provided (unknown) square has the given state. The copy is the one that is solved
+	 * by {@link #propagate(Puzzle, LineSolutionCache)} later on; the solved branch itself can't be reused, as its solver remains registered
+	 * with its squares.
+	 */
+	private static Puzzle guess(Puzzle branch, Square square, SquareState state){
+		
+		Puzzle guess = branch.copy();
+		
+		try {
+			guess.getSquare(square.getColumn(), square.getRow()).setState(state);
+		}
+		catch(ConflictingSquareStateException e) {
+			// can't happen, the square is unknown in the branch
+			throw new RuntimeException(e);
+		}
+		
+		return guess;
+		
+	}
+	
+}
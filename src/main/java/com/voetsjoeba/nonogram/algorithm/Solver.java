@@ -1,24 +1,34 @@
 package com.voetsjoeba.nonogram.algorithm;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.voetsjoeba.nonogram.algorithm.rowsolver.BitParallelOverlapSolver;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.ClearExcessSequencesSolver;
+import com.voetsjoeba.nonogram.algorithm.rowsolver.DynamicProgrammingRowSolver;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.ExhaustiveRowSolver;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.IdentifyUnknownRunsSolver;
+import com.voetsjoeba.nonogram.algorithm.rowsolver.LineSolutionCache;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.MercuryBounceSolver;
-import com.voetsjoeba.nonogram.algorithm.rowsolver.OverlappingRowSolver;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.RowSolver;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.SplitJoinSolver;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.old.ConnectKnownIncompleteRunsSolver;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.old.ExpandKnownIncompleteRunsSolver;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.old.ExpandWhitespaceSolver;
 import com.voetsjoeba.nonogram.algorithm.rowsolver.old.OldExamineSequencesSolver;
+import com.voetsjoeba.nonogram.algorithm.trace.TraceWriter;
 import com.voetsjoeba.nonogram.event.SquareRunSetEvent;
 import com.voetsjoeba.nonogram.event.SquareRunSetListener;
 import com.voetsjoeba.nonogram.event.SquareStateSetEvent;
@@ -35,7 +45,7 @@ import com.voetsjoeba.nonogram.structure.api.Row;
 import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.api.Sequence;
 import com.voetsjoeba.nonogram.structure.api.Square;
-import com.voetsjoeba.nonogram.ui.StandardUiField;
+import com.voetsjoeba.nonogram.ui.UiField;
 import com.voetsjoeba.nonogram.util.NonogramUtils;
 
 /**
@@ -50,16 +60,55 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 	private Puzzle puzzle;
 	private List<Row> rows;
 	private List<Row> columns;
-	private StandardUiField uiField;
+	private UiField uiField;
+	
+	// lines waiting to be checked, and lines whose squares changed since their priority was last determined; rows are indexed first, then columns
+	private LineQueue lineQueue;
+	private BitSet dirtyLines;
+	private RowChangecountOverlapComparator lineComparator;
 	
-	private PriorityQueue<Row> rowQueue;
 	private List<RowSolver> rowSolvers;
 	private RowSolver exhaustiveSolver;
+	private BacktrackingSearch search;
 	
+	private boolean searchEnabled = true;
+	private boolean probingEnabled = false;
+	private int probingThreadCount = 1;
+	private Prober prober;
+	private LineSolutionCache lineSolutionCache;
 	private boolean demonstrateProgress = false;
 	private int progressDemonstrationTimeout = 25;
 	
-	public static Puzzle staticPuzzle;
+	private int rowsChecked = 0;
+	private int exhaustiveRowsChecked = 0;
+	private long solvingTime = 0;
+	
+	// trace to record deductions to (can be null), and the id of the solver that is currently running (see startTrace())
+	private TraceWriter traceWriter;
+	private int activeSolver = -1;
+	
+	// performance counters of the row solvers followed by the exhaustive solver, and the amount of squares set so far (see squareStateSet)
+	private boolean statisticsEnabled = false;
+	private List<RowSolverStatistics> statistics;
+	private long squaresSet = 0;
+	private ThreadMXBean threadMXBean;
+	
+	// schedules the row solvers by their yield so far (can be null), and the amount of runs assigned to squares so far (see runSet)
+	private AdaptivePipeline adaptivePipeline;
+	private long runsSet = 0;
+	
+	// lines on which row solvers were skipped since they were last checked by all of them, and lines that are queued to be checked by all of them
+	private BitSet skippedLines;
+	private BitSet fullyCheckedLines;
+	
+	// line that is currently being solved (or -1), and for each square (row by row) the line and solver that set its state, and the value of
+	// squaresSet when it did so (see setValidationEnabled)
+	private boolean validationEnabled = false;
+	private int activeLine = -1;
+	private int[] deductionLines;
+	private int[] deductionSolvers;
+	private long[] deductionSteps;
+	private ConflictExplanation conflictExplanation;
 	
 	public Solver(Puzzle puzzle){
 		this(puzzle, null);
@@ -70,7 +119,7 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 	 * @param puzzle The {@link Puzzle} to be solved.
 	 * @param uiField Reference to a GUI panel to be updated when a square's status is changed by the solver (can be null).
 	 */
-	public Solver(Puzzle puzzle, StandardUiField uiField){
+	public Solver(Puzzle puzzle, UiField uiField){
 		
 		this.puzzle = puzzle;
 		this.rows = puzzle.getRows();
@@ -83,12 +132,30 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 	
 	private void init(){
 		
-		rowQueue = new PriorityQueue<Row>(rows.size()*columns.size(), new RowChangecountOverlapComparator());
+		lineQueue = new LineQueue(rows.size() + columns.size());
+		dirtyLines = new BitSet(rows.size() + columns.size());
+		lineComparator = new RowChangecountOverlapComparator();
 		rowSolvers = new ArrayList<RowSolver>();
 		
-		exhaustiveSolver = new ExhaustiveRowSolver();
+		// infer as much information as possible before resorting to the exhaustive solver
+		rowSolvers.add(new ClearExcessSequencesSolver());
+		rowSolvers.add(new SplitJoinSolver());
+		rowSolvers.add(new BitParallelOverlapSolver());
+		rowSolvers.add(new ConnectKnownIncompleteRunsSolver());
+		rowSolvers.add(new MercuryBounceSolver());
+		rowSolvers.add(new ExpandWhitespaceSolver());
+		rowSolvers.add(new IdentifyUnknownRunsSolver());
+		rowSolvers.add(new ExpandKnownIncompleteRunsSolver());
+		rowSolvers.add(new OldExamineSequencesSolver());
+		
+		//rowSolvers.add(new ExhaustiveRowSolver());
 		
-		staticPuzzle = puzzle;
+		exhaustiveSolver = new DynamicProgrammingRowSolver();
+		search = new BacktrackingSearch(puzzle);
+		
+		statistics = new ArrayList<RowSolverStatistics>();
+		for(RowSolver rowSolver : rowSolvers) statistics.add(new RowSolverStatistics(rowSolver.getClass().getSimpleName()));
+		statistics.add(new RowSolverStatistics(exhaustiveSolver.getClass().getSimpleName()));
 		
 	}
 	
@@ -98,40 +165,83 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 	 */
 	public void solve() throws UnsolvablePuzzleException {
 		
-		registerListeners();
+		if(!validationEnabled){
+			
+			try {
+				solvePuzzle();
+			}
+			finally {
+				// the prober's threads are only needed while solving
+				if(prober != null) prober.shutdown();
+			}
+			
+			return;
+			
+		}
 		
-		rowSolvers.clear();
+		conflictExplanation = null;
+		NonogramUtils.checkRuns(puzzle);
+		startDeductions();
 		
-		// infer as much information as possible before resorting to the exhaustive solver
-		rowSolvers.add(new ClearExcessSequencesSolver());
-		rowSolvers.add(new SplitJoinSolver());
-		rowSolvers.add(new OverlappingRowSolver());
-		rowSolvers.add(new ConnectKnownIncompleteRunsSolver());
-		rowSolvers.add(new MercuryBounceSolver());
-		rowSolvers.add(new ExpandWhitespaceSolver());
-		rowSolvers.add(new IdentifyUnknownRunsSolver());
-		rowSolvers.add(new ExpandKnownIncompleteRunsSolver());
-		rowSolvers.add(new OldExamineSequencesSolver());
+		try {
+			solvePuzzle();
+		}
+		catch(UnsolvablePuzzleException upex){
+			conflictExplanation = explainConflict(upex);
+			throw new UnsolvablePuzzleException(conflictExplanation.toString(), upex);
+		}
+		finally {
+			activeLine = -1;
+			if(prober != null) prober.shutdown();
+		}
 		
-		//rowSolvers.add(new ExhaustiveRowSolver());
+	}
+	
+	private void solvePuzzle() throws UnsolvablePuzzleException {
+		
+		registerListeners();
+		
+		if(traceWriter != null) startTrace();
+		if(statisticsEnabled) startStatistics();
 		
 		// start solving please
 		
-		int rowsChecked = 0;
+		rowsChecked = 0;
+		exhaustiveRowsChecked = 0;
 		Row nextRow = null;
 		
 		long timerStart = System.currentTimeMillis();
 		
-		rowQueue.clear();
-		for(Row row : rows) if(row.getRunCount() > 0) rowQueue.add(row);
-		for(Row column : columns) if(column.getRunCount() > 0) rowQueue.add(column);
+		clearQueue();
+		try {
+			for(Row row : rows) if(row.getRunCount() > 0) enqueue(row);
+			for(Row column : columns) if(column.getRunCount() > 0) enqueue(column);
+		}
+		catch(InconsistentDecompositionException idex){
+			// conflicting clues may leave a line without room for its runs before any deductions are made
+			throw new UnsolvablePuzzleException(idex);
+		}
 		
 		while(true){
 			
 			// solve by logic as far as possible
 			while(true){
 				
-				nextRow = rowQueue.poll();
+				try {
+					nextRow = dequeue();
+				}
+				catch(InconsistentDecompositionException idex){
+					// the queue ordering requires the rows' decompositions, which can't be built if a row can no longer contain its runs
+					throw new UnsolvablePuzzleException(idex);
+				}
+				
+				if(nextRow == null && adaptivePipeline != null && !skippedLines.isEmpty()){
+					
+					// before resorting to the exhaustive solver, give the lines on which row solvers were skipped a full check
+					requeueSkippedLines();
+					continue;
+					
+				}
 				
 				if(nextRow == null){
 					
@@ -149,6 +259,7 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 					}
 					
 					rowsChecked++;
+					if(uiField != null) uiField.repaint();
 					
 				}
 				
@@ -165,7 +276,7 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 			List<Row> allRows = new ArrayList<Row>(rows.size() * columns.size());
 			for(Row row : rows) if(!row.isCompleted()) allRows.add(row);
 			for(Row column : columns) if(!column.isCompleted()) allRows.add(column);
-			Collections.sort(allRows, new RowChangecountOverlapComparator());
+			Collections.sort(allRows, lineComparator);
 			
 			int totalSquaresFoundExhaustive = 0; // total amount of squares found by the exhaustive solver
 			
@@ -174,7 +285,18 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 				if(uiField != null) uiField.setHighlightedRow(row);
 				
 				int squaresKnownBefore = row.getKnownSquareCount();
-				exhaustiveSolver.solve(row);
+				activeSolver = rowSolvers.size();
+				activeLine = getLineIndex(row);
+				
+				if(statisticsEnabled){
+					solveMeasured(exhaustiveSolver, statistics.get(rowSolvers.size()), row);
+				} else {
+					exhaustiveSolver.solve(row);
+				}
+				
+				activeSolver = -1;
+				activeLine = -1;
+				exhaustiveRowsChecked++;
 				int squaresKnownAfter = row.getKnownSquareCount();
 				
 				totalSquaresFoundExhaustive += squaresKnownAfter - squaresKnownBefore;
@@ -187,15 +309,57 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 				
 			}
 			
+			if(totalSquaresFoundExhaustive <= 0 && probingEnabled){
+				
+				// exhaustive solver couldn't find anything either; see whether probing some squares turns up anything before guessing
+				log.debug("Resorting to probing at {}/{} squares solved", puzzle.getKnownSquareCount(), totalSquareCount);
+				
+				if(prober == null || prober.getThreadCount() != probingThreadCount){
+					if(prober != null) prober.shutdown();
+					prober = new Prober(puzzle, probingThreadCount);
+					prober.setLineSolutionCache(lineSolutionCache);
+				}
+				
+				activeSolver = rowSolvers.size() + 2;
+				int squaresProbed = prober.probe();
+				activeSolver = -1;
+				
+				if(squaresProbed > 0) continue;
+				
+			}
+			
 			if(totalSquaresFoundExhaustive <= 0){
-				// exhaustive solver couldn't find anything either, unsolvable puzzle
+				
+				// exhaustive solver couldn't find anything either; guess a square and continue the logic loop from there
+				if(searchEnabled){
+					
+					log.debug("Resorting to search at {}/{} squares solved", puzzle.getKnownSquareCount(), totalSquareCount);
+					
+					activeSolver = rowSolvers.size() + 1;
+					boolean guessResolved = search.resolveGuess();
+					activeSolver = -1;
+					
+					if(guessResolved){
+						
+						// if the guess produced a full solution, there's nothing left for the logic solvers to do
+						if(!puzzle.isComplete()) continue;
+						
+						clearQueue();
+						
+					}
+					
+				}
+				
 				break;
+				
 			}
 			
 			
 		}
 		
 		long timerEnd = System.currentTimeMillis();
+		solvingTime = timerEnd - timerStart;
+		
 		if(uiField != null) uiField.setHighlightedRow(null);
 		
 		int squaresKnown = puzzle.getKnownSquareCount();
@@ -203,10 +367,15 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 		boolean puzzleCompleted = (squaresKnown == totalSquareCount);
 		
 		log.info("Done; solved {}/{} squares in {} ms with {} solving operations.", new Object[]{squaresKnown, totalSquareCount, timerEnd - timerStart, rowsChecked});
+		if(search.getGuessCount() > 0) log.info("Search made {} guess(es), {} of which were refuted.", search.getGuessCount(), search.getRefutedGuessCount());
 		
 		for(RowSolver rowSolver : rowSolvers) rowSolver.solvingFinished(puzzleCompleted);
 		exhaustiveSolver.solvingFinished(puzzleCompleted);
 		
+		if(statisticsEnabled){
+			for(RowSolverStatistics solverStatistics : statistics) log.info("{}", solverStatistics);
+		}
+		
 	}
 	
 	/**
@@ -221,11 +390,49 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 			System.currentTimeMillis();
 		}
 		
-		for(RowSolver rowSolver : rowSolvers){
+		activeLine = getLineIndex(row);
+		
+		int lineClass = (adaptivePipeline == null ? -1 : adaptivePipeline.classify(row));
+		int[] order = (adaptivePipeline == null ? null : adaptivePipeline.getOrder(lineClass));
+		
+		boolean skippingAllowed = false;
+		
+		if(adaptivePipeline != null){
+			int line = getLineIndex(row);
+			skippingAllowed = !fullyCheckedLines.get(line);
+			fullyCheckedLines.clear(line);
+		}
+		
+		for(int k=0; k<rowSolvers.size(); k++){
+			
 			if(row.isCompleted()) break;
-			rowSolver.solve(row);
+			
+			int i = (order == null ? k : order[k]);
+			if(skippingAllowed && !adaptivePipeline.shouldRun(lineClass, i)){
+				skippedLines.set(getLineIndex(row));
+				continue;
+			}
+			
+			activeSolver = i;
+			
+			long deductionsBefore = squaresSet + runsSet;
+			long timeBefore = (adaptivePipeline == null ? 0 : System.nanoTime());
+			
+			if(statisticsEnabled){
+				solveMeasured(rowSolvers.get(i), statistics.get(i), row);
+			} else {
+				rowSolvers.get(i).solve(row);
+			}
+			
+			if(adaptivePipeline != null){
+				adaptivePipeline.record(lineClass, i, squaresSet + runsSet - deductionsBefore, System.nanoTime() - timeBefore);
+			}
+			
 		}
 		
+		activeSolver = -1;
+		activeLine = -1;
+		
 		//System.currentTimeMillis(); // just to have sth to break on
 		
 		/*try { 
@@ -426,50 +633,293 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 	}*/
 	
 	/**
-	 * Adds an updated square's row and column back into the checklist.
+	 * Marks an updated square's row and column as dirty. Dirty lines are only (re)prioritized in the queue when the next line is taken from 
+	 * it (see {@link #dequeue()}), so that a line's priority (which requires its decomposition) is determined once per batch of changes 
+	 * rather than once per square.
 	 */
 	private void squareUpdated(Square square){
 		
-		// IMPORTANT: get root level rows and columns! (not views)
-		Row row = rows.get(square.getRow());
-		Row column = columns.get(square.getColumn());
+		dirtyLines.set(square.getRow());
+		dirtyLines.set(rows.size() + square.getColumn());
 		
-		/*synchronized(checkList){
-			if(!row.isCompleted()) checkList.add(row);
-			if(!column.isCompleted()) checkList.add(column);
-		}*/
+		if(demonstrateProgress){
+			
+			try {
+				Thread.sleep(progressDemonstrationTimeout);
+			}
+			catch(Exception ex){
+				
+			}
+			
+			if(uiField != null) uiField.repaint();
+			
+		}
 		
-		//boolean queueUpdated = false;
+	}
+	
+	/**
+	 * Adds all incomplete dirty lines to the queue, or updates their priority if they are already queued. Dirty lines that are already 
+	 * completed aren't queued, but checked to hold exactly their runs instead.
+	 * 
+	 * @throws UnsolvablePuzzleException if a line was completed with squares that don't match its runs.
+	 */
+	private void flushDirtyLines() throws UnsolvablePuzzleException {
 		
-		if(!row.isCompleted() && !rowQueue.contains(row)){
-			//if(solverRunning){
-			rowQueue.add(row);
-			/*} else {
-				check(row);
-			}*/
+		for(int i=dirtyLines.nextSetBit(0); i>=0; i=dirtyLines.nextSetBit(i+1)){
+			
+			Row line = getLine(i);
+			
+			if(!line.isCompleted()){
+				enqueue(line);
+			} else if(!NonogramUtils.isSolved(line)){
+				throw new UnsolvablePuzzleException("Line " + line + " was completed with squares that don't match its runs");
+			}
+			
 		}
 		
-		if(!column.isCompleted() && !rowQueue.contains(column)){
-			//if(solverRunning){
-			rowQueue.add(column);
-			/*} else {
-				check(column);
-			}*/
+		dirtyLines.clear();
+		
+	}
+	
+	/**
+	 * Adds a line to the queue with its current priority, or updates its priority if it's already queued.
+	 */
+	private void enqueue(Row line){
+		lineQueue.offer(getLineIndex(line), line.getModificationCount(), lineComparator.getOverlapScore(line));
+	}
+	
+	/**
+	 * Adds the dirty lines to the queue and takes the next line from it. Returns null if the queue is empty.
+	 */
+	private Row dequeue() throws UnsolvablePuzzleException {
+		
+		flushDirtyLines();
+		
+		int lineIndex = lineQueue.poll();
+		return (lineIndex < 0 ? null : getLine(lineIndex));
+		
+	}
+	
+	private void clearQueue(){
+		
+		lineQueue.clear();
+		dirtyLines.clear();
+		
+		if(adaptivePipeline != null){
+			skippedLines.clear();
+			fullyCheckedLines.clear();
 		}
 		
-		if(demonstrateProgress){
+	}
+	
+	private int getLineIndex(Row line){
+		return (line.getOrientation() == Orientation.HORIZONTAL ? line.getIndex() : rows.size() + line.getIndex());
+	}
+	
+	private Row getLine(int lineIndex){
+		return (lineIndex < rows.size() ? rows.get(lineIndex) : columns.get(lineIndex - rows.size()));
+	}
+	
+	/**
+	 * Writes the header of the trace. The ids of the row solvers are their positions in the list of row solvers; the exhaustive 
+	 * solver and the search come right after them.
+	 */
+	private void startTrace(){
+		traceWriter.start(columns.size(), rows.size(), getSolverNames());
+	}
+	
+	/**
+	 * Returns the names of the solvers by their ids (see {@link #startTrace()}).
+	 */
+	private String[] getSolverNames(){
+		
+		String[] solverNames = new String[rowSolvers.size() + 3];
+		
+		for(int i=0; i<rowSolvers.size(); i++) solverNames[i] = rowSolvers.get(i).getClass().getSimpleName();
+		solverNames[rowSolvers.size()] = exhaustiveSolver.getClass().getSimpleName();
+		solverNames[rowSolvers.size() + 1] = BacktrackingSearch.class.getSimpleName();
+		solverNames[rowSolvers.size() + 2] = Prober.class.getSimpleName();
+		
+		return solverNames;
+		
+	}
+	
+	/**
+	 * Starts keeping track of which line and solver set each square's state. Squares that are already known are considered given.
+	 */
+	private void startDeductions(){
+		
+		int squareCount = rows.size() * columns.size();
+		
+		deductionLines = new int[squareCount];
+		deductionSolvers = new int[squareCount];
+		deductionSteps = new long[squareCount];
+		
+		for(int i=0; i<squareCount; i++){
 			
-			try {
-				Thread.sleep(progressDemonstrationTimeout);
+			Square square = rows.get(i / columns.size()).getSquare(i % columns.size());
+			
+			deductionLines[i] = -1;
+			deductionSolvers[i] = -1;
+			deductionSteps[i] = (square.isStateKnown() ? -1 : Long.MAX_VALUE);
+			
+		}
+		
+	}
+	
+	/**
+	 * Collects the deductions that led up to a conflict. Starting from the line in which the conflict occurred (and the square that received
+	 * conflicting states, if any), the deductions made in a line before the latest deduction of interest in that line are followed back to the
+	 * lines they were made in, and so on.
+	 */
+	private ConflictExplanation explainConflict(UnsolvablePuzzleException upex){
+		
+		int column = -1;
+		int row = -1;
+		
+		for(Throwable cause = upex; cause != null; cause = cause.getCause()){
+			if(cause instanceof ConflictingSquareStateException){
+				column = ((ConflictingSquareStateException) cause).getColumn();
+				row = ((ConflictingSquareStateException) cause).getRow();
+				break;
 			}
-			catch(Exception ex){
+		}
+		
+		int lineCount = rows.size() + columns.size();
+		
+		// latest deduction of interest in each line, i.e. deductions made in that line before it are of interest as well
+		long[] lineBounds = new long[lineCount];
+		long[] explainedBounds = new long[lineCount];
+		for(int i=0; i<lineCount; i++){
+			lineBounds[i] = -1;
+			explainedBounds[i] = -1;
+		}
+		
+		BitSet included = new BitSet(deductionSteps.length);
+		BitSet pendingLines = new BitSet(lineCount);
+		
+		if(activeLine >= 0){
+			lineBounds[activeLine] = Long.MAX_VALUE;
+			pendingLines.set(activeLine);
+		}
+		
+		if(row >= 0){
+			includeDeduction(row * columns.size() + column, included, lineBounds, pendingLines);
+		}
+		
+		for(int line = pendingLines.nextSetBit(0); line >= 0; line = pendingLines.nextSetBit(0)){
+			
+			pendingLines.clear(line);
+			if(lineBounds[line] <= explainedBounds[line]) continue;
+			explainedBounds[line] = lineBounds[line];
+			
+			Row lineRow = getLine(line);
+			for(int i=0; i<lineRow.getLength(); i++){
+				
+				Square square = lineRow.getSquare(i);
+				int squareIndex = square.getRow() * columns.size() + square.getColumn();
 				
+				if(deductionSteps[squareIndex] < explainedBounds[line]){
+					includeDeduction(squareIndex, included, lineBounds, pendingLines);
+				}
+				
+			}
+			
+		}
+		
+		// list the deductions in the order they were made
+		List<Integer> squareIndices = new ArrayList<Integer>(included.cardinality());
+		for(int i = included.nextSetBit(0); i >= 0; i = included.nextSetBit(i + 1)) squareIndices.add(i);
+		
+		Collections.sort(squareIndices, new Comparator<Integer>(){
+			public int compare(Integer index1, Integer index2) {
+				long step1 = deductionSteps[index1];
+				long step2 = deductionSteps[index2];
+				return (step1 < step2 ? -1 : (step1 == step2 ? 0 : 1));
 			}
+		});
+		
+		String[] solverNames = getSolverNames();
+		List<ConflictExplanation.Deduction> deductions = new ArrayList<ConflictExplanation.Deduction>(squareIndices.size());
+		
+		for(int squareIndex : squareIndices){
 			
+			Square square = rows.get(squareIndex / columns.size()).getSquare(squareIndex % columns.size());
+			String solverName = (deductionSteps[squareIndex] < 0 ? null : (deductionSolvers[squareIndex] < 0 ? "Solver" : solverNames[deductionSolvers[squareIndex]]));
+			String lineName = (deductionLines[squareIndex] < 0 ? null : getLine(deductionLines[squareIndex]).toString());
+			
+			deductions.add(new ConflictExplanation.Deduction(square.getColumn(), square.getRow(), square.getState(), lineName, solverName));
+			
+		}
+		
+		String solverName = (activeSolver < 0 ? "Solver" : solverNames[activeSolver]);
+		String lineName = (activeLine < 0 ? null : getLine(activeLine).toString());
+		
+		return new ConflictExplanation(lineName, solverName, column, row, deductions);
+		
+	}
+	
+	/**
+	 * Marks the deduction of a square's state as leading up to the conflict, and the line it was made in as needing explanation up to it.
+	 */
+	private void includeDeduction(int squareIndex, BitSet included, long[] lineBounds, BitSet pendingLines){
+		
+		if(deductionSteps[squareIndex] == Long.MAX_VALUE || included.get(squareIndex)) return;
+		included.set(squareIndex);
+		
+		int line = deductionLines[squareIndex];
+		if(line >= 0 && deductionSteps[squareIndex] > lineBounds[line]){
+			lineBounds[line] = deductionSteps[squareIndex];
+			pendingLines.set(line);
+		}
+		
+	}
+	
+	/**
+	 * Queues the lines on which row solvers were skipped to be checked by all row solvers.
+	 */
+	private void requeueSkippedLines(){
+		
+		for(int line = skippedLines.nextSetBit(0); line >= 0; line = skippedLines.nextSetBit(line + 1)){
+			fullyCheckedLines.set(line);
+			enqueue(getLine(line));
 		}
 		
-		if(uiField != null){
-			uiField.repaint();
+		skippedLines.clear();
+		
+	}
+	
+	private void startStatistics(){
+		
+		for(RowSolverStatistics solverStatistics : statistics) solverStatistics.reset();
+		
+		threadMXBean = ManagementFactory.getThreadMXBean();
+		if(!threadMXBean.isCurrentThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) threadMXBean = null;
+		
+	}
+	
+	/**
+	 * Runs a row solver on a row and records its performance counters.
+	 */
+	private void solveMeasured(RowSolver rowSolver, RowSolverStatistics solverStatistics, Row row) throws UnsolvablePuzzleException {
+		
+		long squaresSetBefore = squaresSet;
+		long cpuTimeBefore = (threadMXBean == null ? -1 : threadMXBean.getCurrentThreadCpuTime());
+		long wallTimeBefore = System.nanoTime();
+		
+		boolean conflict = true;
+		
+		try {
+			rowSolver.solve(row);
+			conflict = false;
+		}
+		finally {
+			
+			long wallTime = System.nanoTime() - wallTimeBefore;
+			long cpuTime = (threadMXBean == null ? -1 : threadMXBean.getCurrentThreadCpuTime() - cpuTimeBefore);
+			
+			solverStatistics.record(wallTime, cpuTime, (int) (squaresSet - squaresSetBefore), conflict);
+			
 		}
 		
 	}
@@ -480,6 +930,13 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 		Run run = square.getRun(e.getOrientation());
 		Row row = run.getRow();
 		
+		runsSet++;
+		
+		// record the deduction before any of its consequences below
+		if(traceWriter != null){
+			traceWriter.record(getLineIndex(row), activeSolver, row.getSquareIndex(square), SquareState.FILLED, row.getRuns().indexOf(run));
+		}
+		
 		// check if the run was completed
 		
 		if(run.isComplete()){
@@ -524,8 +981,21 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 	}
 	
 	public void squareStateSet(SquareStateSetEvent e) {
+		
 		Square square = e.getSource();
+		if(traceWriter != null) traceWriter.record(square.getRow(), activeSolver, square.getColumn(), square.getState(), -1);
+		
+		if(deductionSteps != null){
+			int squareIndex = square.getRow() * columns.size() + square.getColumn();
+			deductionLines[squareIndex] = activeLine;
+			deductionSolvers[squareIndex] = activeSolver;
+			deductionSteps[squareIndex] = squaresSet;
+		}
+		
+		squaresSet++;
+		
 		squareUpdated(square);
+		
 	}
 	
 	private void registerListeners(){
@@ -542,6 +1012,24 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 		
 	}
 	
+	/**
+	 * Stops listening to the squares of the puzzle, so that the solver no longer reacts to changes made to it afterwards; e.g. when the puzzle
+	 * is restored to a checkpoint and solved again by another solver (see {@link Prober}).
+	 */
+	void unregisterListeners(){
+		
+		for(Row row : rows){
+			
+			for(int i=0; i<row.getLength(); i++){
+				Square square = row.getSquare(i);
+				square.removeRunSetListener(this);
+				square.removeStateSetListener(this);
+			}
+			
+		}
+		
+	}
+	
 	/**
 	 * Clears all squares in the provided row, starting at startIndex (inclusive) up to endIndex (inclusive).
 	 * @throws UnsolvablePuzzleException 
@@ -767,4 +1255,226 @@ public class Solver implements SquareRunSetListener, SquareStateSetListener {
 		this.demonstrateProgress = demonstrateProgress;
 	}
 	
+	/**
+	 * Sets whether the row solvers should be scheduled adaptively, i.e. reordered and skipped according to how many deductions they
+	 * have been making on similar lines so far (see {@link AdaptivePipeline}). When disabled (the default), all row solvers are run on
+	 * every line in their fixed order. What was learned is kept across calls to {@link #solve()}.
+	 */
+	public void setAdaptivePipelineEnabled(boolean adaptivePipelineEnabled) {
+		
+		if(adaptivePipelineEnabled == (adaptivePipeline != null)) return;
+		
+		if(adaptivePipelineEnabled){
+			adaptivePipeline = new AdaptivePipeline(rowSolvers.size());
+			skippedLines = new BitSet(rows.size() + columns.size());
+			fullyCheckedLines = new BitSet(rows.size() + columns.size());
+		} else {
+			adaptivePipeline = null;
+		}
+		
+	}
+	
+	public boolean isAdaptivePipelineEnabled() {
+		return adaptivePipeline != null;
+	}
+	
+	/**
+	 * Sets whether the solver should probe squares (see {@link Prober}) when the exhaustive solver can't find anything anymore, before
+	 * resorting to search. Disabled by default.
+	 */
+	public void setProbingEnabled(boolean probingEnabled) {
+		this.probingEnabled = probingEnabled;
+	}
+	
+	public boolean isProbingEnabled() {
+		return probingEnabled;
+	}
+	
+	/**
+	 * Sets the amount of threads to run probes on (1 by default).
+	 * @throws IllegalArgumentException if probingThreadCount is not strictly positive.
+	 */
+	public void setProbingThreadCount(int probingThreadCount){
+		
+		if(probingThreadCount <= 0){
+			throw new IllegalArgumentException("Thread count must be strictly positive; got " + probingThreadCount);
+		}
+		
+		this.probingThreadCount = probingThreadCount;
+		
+	}
+	
+	public int getProbingThreadCount() {
+		return probingThreadCount;
+	}
+	
+	/**
+	 * Returns the amount of squares probed so far, or 0 if probing is disabled.
+	 */
+	public int getProbeCount() {
+		return (prober == null ? 0 : prober.getProbeCount());
+	}
+	
+	/**
+	 * Sets whether or not the solver should resort to guessing squares (see {@link BacktrackingSearch}) when neither the logic solvers 
+	 * nor the exhaustive solver can find any further squares. Enabled by default.
+	 */
+	public void setSearchEnabled(boolean searchEnabled) {
+		this.searchEnabled = searchEnabled;
+	}
+	
+	public boolean isSearchEnabled() {
+		return searchEnabled;
+	}
+	
+	/**
+	 * Sets the solver to resort to when the logic solvers cannot find any further squares. Defaults to a {@link DynamicProgrammingRowSolver}; 
+	 * an {@link ExhaustiveRowSolver} yields the same squares by enumerating all solutions of a row, and can be used to cross-check it.
+	 */
+	public void setExhaustiveSolver(RowSolver exhaustiveSolver) {
+		this.exhaustiveSolver = exhaustiveSolver;
+		this.statistics.set(rowSolvers.size(), new RowSolverStatistics(exhaustiveSolver.getClass().getSimpleName()));
+	}
+	
+	public RowSolver getExhaustiveSolver() {
+		return exhaustiveSolver;
+	}
+	
+	/**
+	 * Sets the cache in which the exhaustive solver keeps the outcome of each line it solves, or null to disable caching (the default). The
+	 * cache is also used by the solvers that probing and searching run on copies of the puzzle, and can be shared with other solvers. Only
+	 * applies if the exhaustive solver is a {@link DynamicProgrammingRowSolver}; to use a cache with a different exhaustive solver, set it
+	 * after setting the exhaustive solver.
+	 */
+	public void setLineSolutionCache(LineSolutionCache lineSolutionCache) {
+		
+		this.lineSolutionCache = lineSolutionCache;
+		
+		if(exhaustiveSolver instanceof DynamicProgrammingRowSolver){
+			((DynamicProgrammingRowSolver) exhaustiveSolver).setCache(lineSolutionCache);
+		}
+		
+		search.setLineSolutionCache(lineSolutionCache);
+		if(prober != null) prober.setLineSolutionCache(lineSolutionCache);
+		
+	}
+	
+	public LineSolutionCache getLineSolutionCache() {
+		return lineSolutionCache;
+	}
+	
+	/**
+	 * Sets the trace to record all deductions made by the next call to {@link #solve()} to, or null to disable tracing (the default). 
+	 * The header of the trace is written when solving starts; the caller is responsible for closing the trace afterwards.
+	 */
+	public void setTraceWriter(TraceWriter traceWriter) {
+		this.traceWriter = traceWriter;
+	}
+	
+	public TraceWriter getTraceWriter() {
+		return traceWriter;
+	}
+	
+	/**
+	 * Sets whether the solver should validate the puzzle while solving it. If so, the runs of the puzzle are checked for obvious 
+	 * inconsistencies before solving starts (see {@link NonogramUtils#checkRuns(Puzzle)}), and the solver keeps track of which line and 
+	 * solver set the state of each square, so that it can explain any conflict it runs into (see {@link #getConflictExplanation()}). 
+	 * The explanation is also used as the message of the {@link UnsolvablePuzzleException} thrown. Disabled by default.
+	 */
+	public void setValidationEnabled(boolean validationEnabled) {
+		this.validationEnabled = validationEnabled;
+	}
+	
+	public boolean isValidationEnabled() {
+		return validationEnabled;
+	}
+	
+	/**
+	 * Returns the explanation of the conflict that made the last call to {@link #solve()} fail, or null if it didn't fail or validation 
+	 * is disabled (see {@link #setValidationEnabled(boolean)}).
+	 */
+	public ConflictExplanation getConflictExplanation() {
+		return conflictExplanation;
+	}
+	
+	/**
+	 * Sets whether the solver should collect performance counters for each of its row solvers (see {@link #getStatistics()}). Disabled 
+	 * by default, as measuring the time spent in each row solver takes a noticeable amount of time by itself.
+	 */
+	public void setStatisticsEnabled(boolean statisticsEnabled) {
+		this.statisticsEnabled = statisticsEnabled;
+	}
+	
+	public boolean isStatisticsEnabled() {
+		return statisticsEnabled;
+	}
+	
+	/**
+	 * Returns the performance counters of the row solvers during the last call to {@link #solve()}, in pipeline order, followed by those of
+	 * the exhaustive solver. Only filled in if statistics are enabled (see {@link #setStatisticsEnabled(boolean)}).
+	 */
+	public List<RowSolverStatistics> getStatistics() {
+		return Collections.unmodifiableList(statistics);
+	}
+	
+	/**
+	 * Registers the performance counters of the row solvers with an MBean server, as <tt>com.voetsjoeba.nonogram:type=RowSolverStatistics,
+	 * puzzle=&lt;puzzleName&gt;,solver=&lt;solver name&gt;</tt>. Since the counters are updated in place, they can be monitored while the 
+	 * puzzle is being solved.
+	 * 
+	 * @return the names under which the counters were registered, to unregister them later on.
+	 * @throws JMException if any of the counters could not be registered.
+	 */
+	public List<ObjectName> registerStatisticsMBeans(MBeanServer server, String puzzleName) throws JMException {
+		
+		List<ObjectName> names = new ArrayList<ObjectName>();
+		
+		for(RowSolverStatistics solverStatistics : statistics){
+			
+			ObjectName name = new ObjectName("com.voetsjoeba.nonogram:type=RowSolverStatistics,puzzle=" + ObjectName.quote(puzzleName) + ",solver=" + solverStatistics.getSolverName());
+			
+			server.registerMBean(solverStatistics, name);
+			names.add(name);
+			
+		}
+		
+		return names;
+		
+	}
+	
+	/**
+	 * Returns the amount of times a row was run through the logic solvers during the last call to {@link #solve()}.
+	 */
+	public int getRowsChecked() {
+		return rowsChecked;
+	}
+	
+	/**
+	 * Returns the amount of times a row was run through the exhaustive solver during the last call to {@link #solve()}.
+	 */
+	public int getExhaustiveRowsChecked() {
+		return exhaustiveRowsChecked;
+	}
+	
+	/**
+	 * Returns the amount of assignments generated by the exhaustive solver so far, or 0 if the exhaustive solver does not enumerate
+	 * assignments (see {@link ExhaustiveRowSolver}).
+	 */
+	public long getExhaustiveAssignmentsGenerated() {
+		
+		if(exhaustiveSolver instanceof ExhaustiveRowSolver){
+			return ((ExhaustiveRowSolver) exhaustiveSolver).getTotalAssignmentsGenerated();
+		}
+		
+		return 0;
+		
+	}
+	
+	/**
+	 * Returns the time the last call to {@link #solve()} took to complete, in milliseconds. Only available if it completed normally.
+	 */
+	public long getSolvingTime() {
+		return solvingTime;
+	}
+	
 }
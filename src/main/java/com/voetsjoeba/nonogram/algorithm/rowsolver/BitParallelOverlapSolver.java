@@ -0,0 +1,256 @@
+package com.voetsjoeba.nonogram.algorithm.rowsolver;
+
+import java.util.List;
+
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+/**
+ * Performs the same deductions as the {@link OverlappingRowSolver} for rows of up to 64 squares, but represents the row as bit masks (one bit
+ * per square) rather than walking its decomposition. Rows that are longer are passed on to a fallback solver.
+ * 
+ * <p>The positions at which each run fits (no cleared squares or squares of other runs underneath it, no filled squares directly next to it) are
+ * found for all offsets at once by shifting and masking. The runs are then settled as far to the left as possible, taking care that each filled
+ * square ends up covered by some run, and likewise as far to the right as possible. Squares on which the leftmost and rightmost positions
+ * of a run overlap are filled and assigned that run; squares that no run can reach are cleared.</p>
+ * 
+ * <p>Since the leftmost and rightmost positions take all filled squares into account, they can be tighter than those of the row decomposition,
+ * in which case this solver deduces more squares than the {@link OverlappingRowSolver} does.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class BitParallelOverlapSolver extends AbstractRowSolver {
+	
+	/**
+	 * The maximum length of a row this solver handles by itself.
+	 */
+	public static final int MAX_LENGTH = 64;
+	
+	private RowSolver fallbackSolver;
+	
+	/**
+	 * Creates a solver that passes rows longer than {@link #MAX_LENGTH} on to an {@link OverlappingRowSolver}.
+	 */
+	public BitParallelOverlapSolver() {
+		this(new OverlappingRowSolver());
+	}
+	
+	/**
+	 * @param fallbackSolver The solver to pass rows longer than {@link #MAX_LENGTH} on to.
+	 */
+	public BitParallelOverlapSolver(RowSolver fallbackSolver) {
+		this.fallbackSolver = fallbackSolver;
+	}
+	
+	public void solve(Row row) throws UnsolvablePuzzleException {
+		
+		int length = row.getLength();
+		
+		if(length > MAX_LENGTH){
+			fallbackSolver.solve(row);
+			return;
+		}
+		
+		List<Run> runs = row.getRuns();
+		int runCount = runs.size();
+		
+		// bit i of each mask stands for square i
+		long filled = 0;
+		long cleared = 0;
+		long assigned = 0; // squares that have a run assigned
+		long[] runSquares = new long[runCount]; // squares assigned to each run
+		
+		int[] runLengths = new int[runCount];
+		for(int j=0; j<runCount; j++){
+			
+			Run run = runs.get(j);
+			runLengths[j] = run.getLength();
+			
+			for(Square square : run.getKnownSquares()){
+				runSquares[j] |= 1L << row.getSquareIndex(square);
+			}
+			
+			assigned |= runSquares[j];
+			
+		}
+		
+		for(int i=0; i<length; i++){
+			
+			Square square = row.getSquare(i);
+			
+			if(square.isFilled()){
+				filled |= 1L << i;
+			} else if(square.isCleared()){
+				cleared |= 1L << i;
+			}
+			
+		}
+		
+		int[] leftmostStarts = settleLeft(runLengths, filled, cleared, assigned, runSquares, length);
+		
+		// settling right is settling left on the mirrored row
+		int[] mirroredLengths = new int[runCount];
+		long[] mirroredRunSquares = new long[runCount];
+		for(int j=0; j<runCount; j++){
+			mirroredLengths[j] = runLengths[runCount - 1 - j];
+			mirroredRunSquares[j] = mirror(runSquares[runCount - 1 - j], length);
+		}
+		
+		int[] mirroredStarts = settleLeft(mirroredLengths, mirror(filled, length), mirror(cleared, length), mirror(assigned, length), mirroredRunSquares, length);
+		
+		if(leftmostStarts == null || mirroredStarts == null){
+			throw new UnsolvablePuzzleException("Runs of row " + row + " cannot be positioned");
+		}
+		
+		long reachable = 0;
+		
+		for(int j=0; j<runCount; j++){
+			
+			int leftmostStart = leftmostStarts[j];
+			int rightmostStart = length - mirroredStarts[runCount - 1 - j] - runLengths[j];
+			
+			reachable |= range(leftmostStart, rightmostStart + runLengths[j]);
+			
+			// squares that run j covers in both positions
+			for(int i=rightmostStart; i < leftmostStart + runLengths[j]; i++){
+				NonogramUtils.setSquareState(row.getSquare(i), SquareState.FILLED, runs.get(j));
+			}
+			
+		}
+		
+		long unreachable = ~reachable & ~cleared & range(0, length);
+		
+		while(unreachable != 0){
+			
+			int i = Long.numberOfTrailingZeros(unreachable);
+			NonogramUtils.setSquareState(row.getSquare(i), SquareState.CLEAR, null);
+			unreachable &= unreachable - 1;
+			
+		}
+		
+	}
+	
+	/**
+	 * Returns the leftmost start offset of each run such that all runs fit and every filled square is covered by a run, or null if there is
+	 * no such placement.
+	 */
+	private static int[] settleLeft(int[] runLengths, long filled, long cleared, long assigned, long[] runSquares, int length){
+		
+		int runCount = runLengths.length;
+		
+		// offsets at which each run can start, disregarding the other runs
+		long[] fits = new long[runCount];
+		for(int j=0; j<runCount; j++){
+			fits[j] = getFits(runLengths[j], filled, cleared | (assigned & ~runSquares[j]), runSquares[j], length);
+		}
+		
+		int[] starts = new int[runCount];
+		int[] minStarts = new int[runCount];
+		int j = 0;
+		
+		while(true){
+			
+			int runEnd = (j == 0 ? 0 : starts[j-1] + runLengths[j-1]); // offset just after the previous run
+			
+			if(j == runCount){
+				
+				// all runs are placed; filled squares after the last run must be covered by it
+				long uncovered = filled & ~range(0, runEnd);
+				if(uncovered == 0) return starts;
+				if(runCount == 0) return null;
+				
+				j--;
+				minStarts[j] = highestBit(uncovered) - runLengths[j] + 1;
+				continue;
+				
+			}
+			
+			int offset = (j == 0 ? 0 : runEnd + 1);
+			int from = Math.max(offset, minStarts[j]);
+			
+			long candidates = (from < MAX_LENGTH ? fits[j] & (-1L << from) : 0);
+			if(candidates == 0) return null;
+			
+			int start = Long.numberOfTrailingZeros(candidates);
+			
+			// filled squares skipped over can't be covered by a run further on, so the previous run has to move up to cover the last of them
+			long skipped = filled & range(offset, start);
+			
+			if(skipped != 0){
+				
+				if(j == 0) return null;
+				
+				j--;
+				minStarts[j] = highestBit(skipped) - runLengths[j] + 1;
+				continue;
+				
+			}
+			
+			starts[j] = start;
+			j++;
+			
+		}
+		
+	}
+	
+	/**
+	 * Returns the offsets at which a run of the provided length can start without covering blocked squares, without touching filled squares on
+	 * either side, and covering all of <tt>runSquares</tt>.
+	 */
+	private static long getFits(int runLength, long filled, long blocked, long runSquares, int length){
+		
+		// bit i of free is set if squares i through i+span-1 are all free; doubling span each step
+		long free = ~blocked & range(0, length);
+		int span = 1;
+		
+		while(span < runLength){
+			int step = Math.min(span, runLength - span);
+			free &= free >>> step;
+			span += step;
+		}
+		
+		long fits = free & ~(filled << 1);
+		if(runLength < MAX_LENGTH) fits &= ~(filled >>> runLength);
+		
+		if(runSquares != 0){
+			int first = Long.numberOfTrailingZeros(runSquares);
+			int last = highestBit(runSquares);
+			fits &= range(Math.max(last - runLength + 1, 0), first + 1);
+		}
+		
+		return fits;
+		
+	}
+	
+	/**
+	 * Returns a mask of bits <tt>from</tt> (inclusive) to <tt>to</tt> (exclusive).
+	 */
+	private static long range(int from, int to){
+		
+		if(from >= to) return 0;
+		
+		long upTo = (to >= MAX_LENGTH ? -1L : (1L << to) - 1);
+		return upTo & (-1L << from);
+		
+	}
+	
+	private static int highestBit(long mask){
+		return MAX_LENGTH - 1 - Long.numberOfLeadingZeros(mask);
+	}
+	
+	/**
+	 * Mirrors the first <tt>length</tt> bits of a mask, so that bit i ends up at bit length-1-i.
+	 */
+	private static long mirror(long mask, int length){
+		return (length == 0 ? 0 : Long.reverse(mask) >>> (MAX_LENGTH - length));
+	}
+	
+	public void solvingFinished(boolean complete) {
+		fallbackSolver.solvingFinished(complete);
+	}
+	
+}
@@ -0,0 +1,326 @@
+package com.voetsjoeba.nonogram.algorithm.rowsolver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.structure.Orientation;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+/**
+ * Deduces the same information as the {@link ExhaustiveRowSolver} (i.e. which squares are cleared, filled or filled with the same run in all
+ * possible solutions of a row), but without enumerating the solutions. Instead, it determines for each prefix of the row which amounts of runs
+ * it can hold (working left to right), and for each suffix of the row which amounts of runs it can hold (working right to left). A square
+ * can then be cleared in some solution if there is a way to split the runs across the prefix before it and the suffix after it, and a run can
+ * be positioned at some offset in a solution if the runs before it fit the prefix before it and the runs after it fit the suffix after it.
+ * 
+ * <p>This takes time proportional to the length of the row times its amount of runs, as opposed to the amount of possible solutions for the
+ * exhaustive solver.</p>
+ * 
+ * <p>Unlike the exhaustive solver, this solver works directly on the row rather than on its decomposition; completed runs are simply treated as
+ * runs whose squares are all fixed.</p>
+ * 
+ * <p>Optionally, the outcomes are kept in a {@link LineSolutionCache}, so that lines with the same runs and square states as a line solved
+ * earlier on (in any puzzle) needn't be solved again. Lines without any solutions are not cached.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class DynamicProgrammingRowSolver extends AbstractRowSolver {
+	
+	private static final Logger log = LoggerFactory.getLogger(DynamicProgrammingRowSolver.class);
+	
+	// outcome of solving a square (see LineSolutionCache); either nothing, cleared, filled, or filled with run (value - FILLED_RUN)
+	private static final char UNKNOWN = 0;
+	private static final char CLEAR = 1;
+	private static final char FILLED = 2;
+	private static final char FILLED_RUN = 3;
+	
+	protected long totalRowsSolved = 0;
+	protected long cachedRowsSolved = 0;
+	
+	private LineSolutionCache cache;
+	
+	public DynamicProgrammingRowSolver() {
+		
+	}
+	
+	/**
+	 * @param cache Cache to look up and store outcomes in (can be null).
+	 */
+	public DynamicProgrammingRowSolver(LineSolutionCache cache) {
+		this.cache = cache;
+	}
+	
+	public void solve(Row row) throws UnsolvablePuzzleException {
+		
+		if(row.getModificationCount() > 0) return; // use this solver only if previous solvers were unable to deduce any information
+		
+		int length = row.getLength();
+		List<Run> runs = row.getRuns();
+		int runCount = runs.size();
+		Orientation orientation = row.getOrientation();
+		
+		Map<Run, Integer> runPositions = new HashMap<Run, Integer>();
+		for(int j=0; j<runCount; j++) runPositions.put(runs.get(j), j);
+		
+		// current state of the squares; fixedRuns holds the position of the run assigned to each square (or -1 if no run is assigned)
+		boolean[] filled = new boolean[length];
+		boolean[] cleared = new boolean[length];
+		int[] fixedRuns = new int[length];
+		
+		for(int i=0; i<length; i++){
+			
+			Square square = row.getSquare(i);
+			Run run = square.getRun(orientation);
+			
+			filled[i] = square.isFilled();
+			cleared[i] = square.isCleared();
+			fixedRuns[i] = (run == null ? -1 : runPositions.get(run));
+			
+		}
+		
+		int[] runLengths = new int[runCount];
+		for(int j=0; j<runCount; j++) runLengths[j] = runs.get(j).getLength();
+		
+		String key = null;
+		char[] outcome = null;
+		
+		if(cache != null){
+			key = createKey(runLengths, filled, cleared, fixedRuns);
+			outcome = cache.get(key);
+		}
+		
+		if(outcome == null){
+			
+			outcome = solve(row, runLengths, filled, cleared, fixedRuns);
+			if(cache != null) cache.put(key, outcome);
+			
+		} else {
+			cachedRowsSolved++;
+		}
+		
+		totalRowsSolved++;
+		
+		// apply the squares that are in the same state in all solutions
+		for(int i=0; i<length; i++){
+			
+			Square square = row.getSquare(i);
+			
+			if(outcome[i] == CLEAR){
+				NonogramUtils.setSquareState(square, SquareState.CLEAR, null);
+			} else if(outcome[i] >= FILLED){
+				NonogramUtils.setSquareState(square, SquareState.FILLED, (outcome[i] >= FILLED_RUN ? runs.get(outcome[i] - FILLED_RUN) : null));
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Returns a key that identifies the provided run lengths and square states (see {@link LineSolutionCache}).
+	 */
+	private static String createKey(int[] runLengths, boolean[] filled, boolean[] cleared, int[] fixedRuns){
+		
+		StringBuilder key = new StringBuilder(runLengths.length + filled.length + 1);
+		
+		key.append((char) runLengths.length);
+		for(int runLength : runLengths) key.append((char) runLength);
+		
+		for(int i=0; i<filled.length; i++){
+			
+			if(fixedRuns[i] >= 0){
+				key.append((char) (FILLED_RUN + fixedRuns[i]));
+			} else {
+				key.append(filled[i] ? FILLED : cleared[i] ? CLEAR : UNKNOWN);
+			}
+			
+		}
+		
+		return key.toString();
+		
+	}
+	
+	/**
+	 * Determines which squares are in the same state in all solutions of the row, and returns the outcome for each square.
+	 * @throws UnsolvablePuzzleException if the row has no solutions.
+	 */
+	private char[] solve(Row row, int[] runLengths, boolean[] filled, boolean[] cleared, int[] fixedRuns) throws UnsolvablePuzzleException {
+		
+		int length = filled.length;
+		int runCount = runLengths.length;
+		
+		// blocked[j][i] holds the amount of squares amongst the first i squares that cannot be part of run j (because they are cleared or
+		// have a different run assigned), so that checking whether run j can be placed somewhere takes constant time
+		int[][] blocked = new int[runCount][length + 1];
+		
+		for(int i=0; i<length; i++){
+			for(int j=0; j<runCount; j++){
+				boolean blocking = cleared[i] || (fixedRuns[i] >= 0 && fixedRuns[i] != j);
+				blocked[j][i+1] = blocked[j][i] + (blocking ? 1 : 0);
+			}
+		}
+		
+		// forward[i][j]: whether the first i squares can hold exactly the first j runs
+		boolean[][] forward = new boolean[length + 1][runCount + 1];
+		forward[0][0] = true;
+		
+		for(int i=1; i<=length; i++){
+			for(int j=0; j<=runCount; j++){
+				
+				// either square i-1 is cleared ...
+				boolean possible = (!filled[i-1] && forward[i-1][j]);
+				
+				// ... or it is the last square of run j-1
+				if(!possible && j > 0){
+					
+					int start = i - runLengths[j-1];
+					
+					if(start >= 0 && blocked[j-1][i] - blocked[j-1][start] == 0){
+						possible = (start == 0 ? forward[0][j-1] : (!filled[start-1] && forward[start-1][j-1]));
+					}
+					
+				}
+				
+				forward[i][j] = possible;
+				
+			}
+		}
+		
+		if(!forward[length][runCount]){
+			throw new UnsolvablePuzzleException("No possible run assignments for row " + row);
+		}
+		
+		// backward[i][j]: whether the squares from i onwards can hold exactly the runs from j onwards
+		boolean[][] backward = new boolean[length + 1][runCount + 1];
+		backward[length][runCount] = true;
+		
+		for(int i=length-1; i>=0; i--){
+			for(int j=runCount; j>=0; j--){
+				
+				// either square i is cleared ...
+				boolean possible = (!filled[i] && backward[i+1][j]);
+				
+				// ... or it is the first square of run j
+				if(!possible && j < runCount){
+					
+					int end = i + runLengths[j]; // exclusive
+					
+					if(end <= length && blocked[j][end] - blocked[j][i] == 0){
+						possible = (end == length ? backward[length][j+1] : (!filled[end] && backward[end+1][j+1]));
+					}
+					
+				}
+				
+				backward[i][j] = possible;
+				
+			}
+		}
+		
+		// determine which squares can be cleared in some solution
+		boolean[] clearPossible = new boolean[length];
+		
+		for(int i=0; i<length; i++){
+			
+			if(filled[i]) continue;
+			
+			for(int j=0; j<=runCount; j++){
+				if(forward[i][j] && backward[i+1][j]){
+					clearPossible[i] = true;
+					break;
+				}
+			}
+			
+		}
+		
+		// determine for each square the amount of runs that can cover it in some solution, and the last such run
+		int[] possibleRunCounts = new int[length];
+		int[] possibleRuns = new int[length];
+		int[] coverage = new int[length + 1];
+		
+		for(int j=0; j<runCount; j++){
+			
+			int runLength = runLengths[j];
+			for(int i=0; i<=length; i++) coverage[i] = 0;
+			
+			for(int start=0; start + runLength <= length; start++){
+				
+				int end = start + runLength; // exclusive
+				if(blocked[j][end] - blocked[j][start] != 0) continue;
+				
+				boolean leftPossible = (start == 0 ? j == 0 : (!filled[start-1] && forward[start-1][j]));
+				boolean rightPossible = (end == length ? j == runCount - 1 : (!filled[end] && backward[end+1][j+1]));
+				
+				if(leftPossible && rightPossible){
+					coverage[start]++;
+					coverage[end]--;
+				}
+				
+			}
+			
+			int covered = 0;
+			for(int i=0; i<length; i++){
+				
+				covered += coverage[i];
+				
+				if(covered > 0){
+					possibleRunCounts[i]++;
+					possibleRuns[i] = j;
+				}
+				
+			}
+			
+		}
+		
+		char[] outcome = new char[length];
+		
+		for(int i=0; i<length; i++){
+			
+			if(possibleRunCounts[i] == 0){
+				outcome[i] = CLEAR;
+			} else if(!clearPossible[i]){
+				outcome[i] = (possibleRunCounts[i] == 1 ? (char) (FILLED_RUN + possibleRuns[i]) : FILLED);
+			} else {
+				outcome[i] = UNKNOWN;
+			}
+			
+		}
+		
+		return outcome;
+		
+	}
+	
+	/**
+	 * Sets the cache to look up and store outcomes in, or null to disable caching (the default).
+	 */
+	public void setCache(LineSolutionCache cache) {
+		this.cache = cache;
+	}
+	
+	public LineSolutionCache getCache() {
+		return cache;
+	}
+	
+	public long getTotalRowsSolved() {
+		return totalRowsSolved;
+	}
+	
+	/**
+	 * Returns the amount of rows whose outcome was found in the cache.
+	 */
+	public long getCachedRowsSolved() {
+		return cachedRowsSolved;
+	}
+	
+	public void solvingFinished(boolean complete) {
+		log.info("Solved {} row(s) by dynamic programming, {} of which from cache", totalRowsSolved, cachedRowsSolved);
+	}
+	
+}
@@ -11,6 +11,7 @@ import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
 import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
 import com.voetsjoeba.nonogram.structure.RowDecomposition;
 import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.assignment.AssignmentDeltaCallback;
 
 /**
  * Exhaustively tries all possible solutions to a row. This solver employs a recursive assignment generator that 
@@ -22,6 +23,9 @@ import com.voetsjoeba.nonogram.structure.api.Row;
  * <p>Assignments are constructed recursively by choosing a position for each of the remaining runs in the row
  * decomposition. At each level in the recursion tree, a run is positioned across its possible locations.</p>
  * 
+ * <p>The callback function is only told which runs moved between consecutive assignments (see {@link AssignmentDeltaCallback}), 
+ * and only compares the squares that changed.</p>
+ * 
  * <p>After all assignments have been generated, the consistency information recorded by the callback function are 
  * applied to the row.</p>
  * 
@@ -32,12 +36,13 @@ import com.voetsjoeba.nonogram.structure.api.Row;
  *     <li>If at any point during the construction of an assignment it is observed that a square that needs to have
  *     a run assigned (as evidenced by the fact that it is filled) is in fact not filled, further construction of
  *     that assignment is aborted.</li>
- *     <li>During construction of the assignments, each slot in the working decomposition maintains a flag whether
- *     the corresponding square is known to be consistent. If at some point all slots to the right of a positioned
+ *     <li>During construction of the assignments, the callback function keeps track of whether each square is
+ *     known to be consistent. If at some point all slots to the right of a positioned
  *     run are known to be inconsistent, then further placement of runs is aborted since none of them would
  *     contribute any new information about the consistency status of their squares (because at that point we know 
  *     all of them are already inconsistent).<br/>This allows the generator to quickly skip over large lines with
  *     small runs such as 1,1 in a 45-square row.</li>
+ *     <li>Once no square can yield any further information, generation stops altogether.</li>
  * </ul>
  * 
  * @author Jeroen De Ridder
@@ -0,0 +1,89 @@
+package com.voetsjoeba.nonogram.algorithm.rowsolver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of line solving outcomes, keyed by a line's run lengths and the current state of its squares (see
+ * {@link DynamicProgrammingRowSolver#setCache(LineSolutionCache)}). When full, the least recently used outcome is evicted.
+ * 
+ * <p>Since the outcome of solving a line only depends on its runs and squares, a single cache can be shared by any amount of solvers and
+ * puzzles, including solvers running on different threads (e.g. in a {@link com.voetsjoeba.nonogram.algorithm.BatchSolver}); all
+ * methods are synchronized.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class LineSolutionCache {
+	
+	private final int capacity;
+	private final Map<String, char[]> outcomes;
+	
+	private long hitCount = 0;
+	private long missCount = 0;
+	
+	/**
+	 * @param capacity The maximum amount of outcomes to keep.
+	 * @throws IllegalArgumentException if capacity is not strictly positive.
+	 */
+	public LineSolutionCache(final int capacity){
+		
+		if(capacity <= 0){
+			throw new IllegalArgumentException("Capacity must be strictly positive; got " + capacity);
+		}
+		
+		this.capacity = capacity;
+		this.outcomes = new LinkedHashMap<String, char[]>(16, 0.75f, true){
+			protected boolean removeEldestEntry(Map.Entry<String, char[]> eldest) {
+				return size() > capacity;
+			}
+		};
+		
+	}
+	
+	/**
+	 * Returns the outcome stored for the provided key, or null if there is none. The returned array must not be modified.
+	 */
+	public synchronized char[] get(String key){
+		
+		char[] outcome = outcomes.get(key);
+		
+		if(outcome == null){
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		
+		return outcome;
+		
+	}
+	
+	/**
+	 * Stores the outcome for the provided key. The outcome array must not be modified afterwards.
+	 */
+	public synchronized void put(String key, char[] outcome){
+		outcomes.put(key, outcome);
+	}
+	
+	public synchronized void clear(){
+		outcomes.clear();
+		hitCount = 0;
+		missCount = 0;
+	}
+	
+	public synchronized int size(){
+		return outcomes.size();
+	}
+	
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+	
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+	
+}
@@ -0,0 +1,155 @@
+package com.voetsjoeba.nonogram.algorithm.trace;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import com.voetsjoeba.nonogram.structure.SquareState;
+
+/**
+ * Reads a trace written by a {@link TraceWriter}. The header is read upon construction; the records can then be read one at a time
+ * by calling {@link #next()}.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class TraceReader {
+	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+	private boolean endOfChannel = false;
+	
+	private int width;
+	private int height;
+	private String[] solverNames;
+	
+	/**
+	 * @throws IOException if the header cannot be read, or the channel does not contain a trace.
+	 */
+	public TraceReader(ReadableByteChannel channel) throws IOException {
+		
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		buffer.flip(); // start out empty
+		
+		readHeader();
+		
+	}
+	
+	private void readHeader() throws IOException {
+		
+		require(16);
+		
+		if(buffer.getInt() != TraceWriter.MAGIC){
+			throw new IOException("Not a solving trace");
+		}
+		
+		short version = buffer.getShort();
+		if(version != TraceWriter.VERSION){
+			throw new IOException("Unsupported trace version " + version);
+		}
+		
+		width = buffer.getInt();
+		height = buffer.getInt();
+		
+		solverNames = new String[buffer.getShort()];
+		
+		for(int i=0; i<solverNames.length; i++){
+			
+			require(2);
+			int nameLength = buffer.getShort();
+			
+			require(nameLength);
+			byte[] nameBytes = new byte[nameLength];
+			buffer.get(nameBytes);
+			
+			solverNames[i] = new String(nameBytes, "UTF-8");
+			
+		}
+		
+	}
+	
+	/**
+	 * Reads the next record, or returns null if the end of the trace has been reached.
+	 * @throws IOException if the trace cannot be read or ends halfway through a record.
+	 */
+	public TraceRecord next() throws IOException {
+		
+		if(!fill(TraceWriter.RECORD_SIZE)){
+			
+			if(buffer.hasRemaining()){
+				throw new EOFException("Trace ends halfway through a record");
+			}
+			
+			return null;
+			
+		}
+		
+		int line = buffer.getInt();
+		int solver = buffer.getShort();
+		int square = buffer.getShort();
+		byte state = buffer.get();
+		int run = buffer.getShort();
+		
+		if(state != TraceWriter.STATE_CLEAR && state != TraceWriter.STATE_FILLED){
+			throw new IOException("Invalid square state " + state + " in trace");
+		}
+		
+		return new TraceRecord(line, solver, square, (state == TraceWriter.STATE_FILLED ? SquareState.FILLED : SquareState.CLEAR), run);
+		
+	}
+	
+	/**
+	 * Makes sure at least <tt>count</tt> bytes are available in the buffer.
+	 * @throws EOFException if the channel ends before that.
+	 */
+	private void require(int count) throws IOException {
+		if(!fill(count)) throw new EOFException("Unexpected end of trace");
+	}
+	
+	/**
+	 * Reads from the channel until at least <tt>count</tt> bytes are available in the buffer. Returns false if the channel ends before that.
+	 */
+	private boolean fill(int count) throws IOException {
+		
+		if(buffer.remaining() >= count) return true;
+		
+		buffer.compact();
+		
+		while(buffer.position() < count && !endOfChannel){
+			if(channel.read(buffer) < 0) endOfChannel = true;
+		}
+		
+		buffer.flip();
+		return (buffer.remaining() >= count);
+		
+	}
+	
+	/**
+	 * Returns the amount of columns of the traced puzzle.
+	 */
+	public int getWidth() {
+		return width;
+	}
+	
+	/**
+	 * Returns the amount of rows of the traced puzzle.
+	 */
+	public int getHeight() {
+		return height;
+	}
+	
+	/**
+	 * Returns the names of the solvers that made the deductions, by solver id.
+	 */
+	public String[] getSolverNames() {
+		return solverNames.clone();
+	}
+	
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+}
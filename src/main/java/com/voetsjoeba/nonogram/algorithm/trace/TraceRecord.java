@@ -0,0 +1,62 @@
+package com.voetsjoeba.nonogram.algorithm.trace;
+
+import com.voetsjoeba.nonogram.structure.SquareState;
+
+/**
+ * Single deduction read from a trace (see {@link TraceWriter#record(int, int, int, SquareState, int)}).
+ * 
+ * @author Jeroen De Ridder
+ */
+public class TraceRecord {
+	
+	private final int line;
+	private final int solver;
+	private final int square;
+	private final SquareState state;
+	private final int run;
+	
+	public TraceRecord(int line, int solver, int square, SquareState state, int run){
+		this.line = line;
+		this.solver = solver;
+		this.square = square;
+		this.state = state;
+		this.run = run;
+	}
+	
+	/**
+	 * Returns the id of the line through which the square is addressed; rows come first, then columns.
+	 */
+	public int getLine() {
+		return line;
+	}
+	
+	/**
+	 * Returns the id of the solver that made the deduction, or -1 if it wasn't made by any solver in particular.
+	 */
+	public int getSolver() {
+		return solver;
+	}
+	
+	/**
+	 * Returns the index of the square within its line.
+	 */
+	public int getSquare() {
+		return square;
+	}
+	
+	public SquareState getState() {
+		return state;
+	}
+	
+	/**
+	 * Returns the position of the run assigned to the square within its line's runs, or -1 if only the state was set.
+	 */
+	public int getRun() {
+		return run;
+	}
+	
+	public String toString(){
+		return "(line=" + line + ",solver=" + solver + ",square=" + square + "," + state + (run >= 0 ? ",run=" + run : "") + ")";
+	}
+	
+}
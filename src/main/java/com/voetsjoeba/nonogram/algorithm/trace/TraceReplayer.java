@@ -0,0 +1,117 @@
+package com.voetsjoeba.nonogram.algorithm.trace;
+
+import java.io.IOException;
+
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+/**
+ * Re-applies the deductions of a trace to a puzzle, without running any solvers. Replaying the trace of a solve on a fresh copy of the
+ * same puzzle ends up in the same state as the original solve did.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class TraceReplayer {
+	
+	private final Puzzle puzzle;
+	
+	private long replayedCount = 0;
+	private long[] solverCounts = new long[0];
+	
+	public TraceReplayer(Puzzle puzzle){
+		this.puzzle = puzzle;
+	}
+	
+	/**
+	 * Applies all remaining records of the trace to the puzzle.
+	 * 
+	 * @return the amount of records applied.
+	 * @throws IOException if the trace cannot be read, or if it doesn't match the puzzle's dimensions.
+	 * @throws UnsolvablePuzzleException if a record conflicts with the state of the puzzle.
+	 */
+	public long replay(TraceReader reader) throws IOException, UnsolvablePuzzleException {
+		
+		int height = puzzle.getRows().size();
+		int width = puzzle.getColumns().size();
+		
+		if(reader.getWidth() != width || reader.getHeight() != height){
+			throw new IOException("Trace of a " + reader.getWidth() + "x" + reader.getHeight() + " puzzle does not match " + width + "x" + height + " puzzle");
+		}
+		
+		solverCounts = new long[reader.getSolverNames().length];
+		long count = 0;
+		
+		TraceRecord record;
+		while((record = reader.next()) != null){
+			
+			apply(record);
+			
+			int solver = record.getSolver();
+			if(solver >= 0 && solver < solverCounts.length) solverCounts[solver]++;
+			
+			count++;
+			
+		}
+		
+		replayedCount += count;
+		return count;
+		
+	}
+	
+	/**
+	 * Applies a single record to the puzzle.
+	 * @throws IOException if the record refers to a line, square or run that doesn't exist.
+	 */
+	public void apply(TraceRecord record) throws IOException, UnsolvablePuzzleException {
+		
+		int height = puzzle.getRows().size();
+		int lineCount = height + puzzle.getColumns().size();
+		
+		int lineIndex = record.getLine();
+		if(lineIndex < 0 || lineIndex >= lineCount){
+			throw new IOException("Invalid line " + lineIndex + " in trace record " + record);
+		}
+		
+		Row line = (lineIndex < height ? puzzle.getRow(lineIndex) : puzzle.getColumn(lineIndex - height));
+		
+		int squareIndex = record.getSquare();
+		if(squareIndex < 0 || squareIndex >= line.getLength()){
+			throw new IOException("Invalid square in trace record " + record);
+		}
+		
+		Square square = line.getSquare(squareIndex);
+		Run run = null;
+		
+		if(record.getRun() >= 0){
+			
+			if(record.getRun() >= line.getRunCount()){
+				throw new IOException("Invalid run in trace record " + record);
+			}
+			
+			run = line.getRuns().get(record.getRun());
+			
+		}
+		
+		NonogramUtils.setSquareState(square, record.getState(), run);
+		
+	}
+	
+	/**
+	 * Returns the total amount of records applied so far.
+	 */
+	public long getReplayedCount() {
+		return replayedCount;
+	}
+	
+	/**
+	 * Returns the amount of records applied by the last call to {@link #replay(TraceReader)}, by solver id.
+	 */
+	public long[] getSolverCounts() {
+		return solverCounts.clone();
+	}
+	
+}
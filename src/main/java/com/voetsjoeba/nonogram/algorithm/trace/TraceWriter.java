@@ -0,0 +1,168 @@
+package com.voetsjoeba.nonogram.algorithm.trace;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import com.voetsjoeba.nonogram.structure.SquareState;
+
+/**
+ * Writes a binary trace of the deductions made while solving a puzzle, so that they can be inspected or replayed later on (see
+ * {@link TraceReader} and {@link TraceReplayer}).
+ * 
+ * <p>A trace starts with a header holding the dimensions of the puzzle and the names of the solvers that made the deductions, followed
+ * by one fixed-size record per deduction (see {@link TraceRecord}). Records are gathered in a buffer and written to the underlying
+ * channel in blocks.</p>
+ * 
+ * <p>Errors that occur while writing records are not thrown right away, since deductions are recorded from within square listeners;
+ * instead, the first error is kept and thrown by {@link #close()}. Records written after an error are discarded.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class TraceWriter {
+	
+	static final int MAGIC = 0x4E475452; // "NGTR"
+	static final short VERSION = 1;
+	
+	// line (int), solver (short), square (short), state (byte), run (short)
+	static final int RECORD_SIZE = 11;
+	
+	static final byte STATE_CLEAR = 0;
+	static final byte STATE_FILLED = 1;
+	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+	
+	private boolean started = false;
+	private long recordCount = 0;
+	private IOException error;
+	
+	public TraceWriter(WritableByteChannel channel){
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	}
+	
+	/**
+	 * Writes the trace header. Must be called once, before any deductions are recorded.
+	 * 
+	 * @param width The amount of columns of the puzzle.
+	 * @param height The amount of rows of the puzzle.
+	 * @param solverNames Names of the solvers, by solver id.
+	 * @throws IllegalStateException if the header has already been written.
+	 */
+	public void start(int width, int height, String[] solverNames){
+		
+		if(started){
+			throw new IllegalStateException("Trace header has already been written");
+		}
+		
+		started = true;
+		
+		try {
+			
+			buffer.putInt(MAGIC);
+			buffer.putShort(VERSION);
+			buffer.putInt(width);
+			buffer.putInt(height);
+			buffer.putShort((short) solverNames.length);
+			
+			for(String solverName : solverNames){
+				
+				byte[] nameBytes = solverName.getBytes("UTF-8");
+				if(buffer.remaining() < 2 + nameBytes.length) flush();
+				
+				buffer.putShort((short) nameBytes.length);
+				buffer.put(nameBytes);
+				
+			}
+			
+		}
+		catch(UnsupportedEncodingException ueex){
+			throw new RuntimeException(ueex); // UTF-8 is always supported
+		}
+		catch(IOException ioex){
+			error = ioex;
+		}
+		
+	}
+	
+	/**
+	 * Records a single deduction.
+	 * 
+	 * @param line Id of the line through which the square is addressed; rows come first, then columns (i.e. column <tt>i</tt> has id
+	 *             <tt>height + i</tt>).
+	 * @param solver Id of the solver that made the deduction, or -1 if it wasn't made by any solver in particular.
+	 * @param square Index of the square within the line.
+	 * @param state The new state of the square.
+	 * @param run Position of the run that was assigned to the square within the line's runs, or -1 if only the state was set.
+	 * @throws IllegalStateException if the header hasn't been written yet.
+	 */
+	public void record(int line, int solver, int square, SquareState state, int run){
+		
+		if(!started){
+			throw new IllegalStateException("Trace header has not been written yet");
+		}
+		
+		if(error != null) return;
+		
+		try {
+			
+			if(buffer.remaining() < RECORD_SIZE) flush();
+			
+			buffer.putInt(line);
+			buffer.putShort((short) solver);
+			buffer.putShort((short) square);
+			buffer.put(state == SquareState.FILLED ? STATE_FILLED : STATE_CLEAR);
+			buffer.putShort((short) run);
+			
+			recordCount++;
+			
+		}
+		catch(IOException ioex){
+			error = ioex;
+		}
+		
+	}
+	
+	/**
+	 * Writes out the buffered data.
+	 */
+	private void flush() throws IOException {
+		
+		buffer.flip();
+		while(buffer.hasRemaining()) channel.write(buffer);
+		buffer.clear();
+		
+	}
+	
+	/**
+	 * Returns the amount of deductions recorded so far.
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+	
+	/**
+	 * Writes out any buffered records and closes the underlying channel.
+	 * @throws IOException if an error occurred while writing the trace, either now or earlier on.
+	 */
+	public void close() throws IOException {
+		
+		try {
+			if(error == null) flush();
+		}
+		catch(IOException ioex){
+			error = ioex;
+		}
+		finally {
+			channel.close();
+		}
+		
+		if(error != null) throw error;
+		
+	}
+	
+}
@@ -0,0 +1,41 @@
+package com.voetsjoeba.nonogram.cli;
+
+import com.voetsjoeba.nonogram.algorithm.BatchSolverResult;
+
+/**
+ * Provides functionality common to all result writers.
+ * 
+ * @author Jeroen De Ridder
+ */
+public abstract class AbstractResultWriter implements ResultWriter {
+	
+	/**
+	 * Returns a short description of the outcome of a result: "completed", "incomplete" or "failed".
+	 */
+	protected String getStatus(BatchSolverResult result){
+		
+		if(result.isFailed()) return "failed";
+		return (result.isCompleted() ? "completed" : "incomplete");
+		
+	}
+	
+	/**
+	 * Returns the message of the exception that aborted the solver, or null if it finished normally.
+	 */
+	protected String getError(BatchSolverResult result){
+		
+		if(!result.isFailed()) return null;
+		
+		RuntimeException exception = result.getException();
+		return (exception.getMessage() == null ? exception.getClass().getName() : exception.getMessage());
+		
+	}
+	
+	/**
+	 * Returns the solving time of a result in milliseconds, with microsecond precision.
+	 */
+	protected String getSolvingTime(BatchSolverResult result){
+		return String.valueOf(result.getSolvingTime() / 1000 / 1000.0);
+	}
+	
+}
@@ -0,0 +1,309 @@
+package com.voetsjoeba.nonogram.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.algorithm.BatchSolver;
+import com.voetsjoeba.nonogram.algorithm.BatchSolverResult;
+import com.voetsjoeba.nonogram.exception.InvalidRunConfigurationException;
+import com.voetsjoeba.nonogram.puzzle.io.PuzzleDefinition;
+import com.voetsjoeba.nonogram.puzzle.io.PuzzleReaderCallback;
+import com.voetsjoeba.nonogram.puzzle.io.PuzzleReaders;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+/**
+ * Command-line entry point that solves a batch of puzzles without any GUI and writes the results to standard output in a machine-readable
+ * format. Log output goes to standard error, so that it does not mix with the results.
+ * 
+ * <p>Puzzles are specified either as puzzle files in any of the formats supported by {@link PuzzleReaders}, or by class name, either fully
+ * qualified or relative to the <tt>com.voetsjoeba.nonogram.puzzle</tt> package (e.g. <tt>webpbn.SwingPuzzle</tt>). Puzzle files are read
+ * as a stream and solved in chunks, so that large collections of puzzles need not fit in memory at once.</p>
+ * 
+ * <p>The process exits with status 0 if all puzzles were solved completely, 1 if any of them could not be read or solved completely and
+ * 2 if the arguments are invalid.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class BatchRunner {
+	
+	private static final String PUZZLE_PACKAGE = "com.voetsjoeba.nonogram.puzzle";
+	
+	private static final String USAGE = "Usage: BatchRunner [-format json|csv] [-threads <count>] [-nosearch] [-enumerate] [-compact] <puzzle file or class>...";
+	
+	private ResultWriter resultWriter = new JsonResultWriter();
+	private BatchSolver batchSolver;
+	private boolean compact = false;
+	
+	private List<String> sources = new ArrayList<String>();
+	
+	// puzzles waiting to be solved as part of the next chunk
+	private List<String> pendingNames = new ArrayList<String>();
+	private List<Puzzle> pendingPuzzles = new ArrayList<Puzzle>();
+	
+	private PrintStream out = System.out;
+	private boolean allCompleted = true;
+	
+	public static void main(String[] args) throws InterruptedException {
+		
+		BatchRunner runner = new BatchRunner();
+		
+		try {
+			runner.parseArguments(args);
+		}
+		catch(IllegalArgumentException iaex){
+			System.err.println(iaex.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		
+		boolean allCompleted = runner.run();
+		System.exit(allCompleted ? 0 : 1);
+		
+	}
+	
+	/**
+	 * Processes the command-line arguments.
+	 * @throws IllegalArgumentException if the arguments are invalid or a puzzle cannot be found.
+	 */
+	protected void parseArguments(String[] args){
+		
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		boolean searchEnabled = true;
+		boolean enumerationEnabled = false;
+		
+		for(int i=0; i<args.length; i++){
+			
+			String arg = args[i];
+			
+			if(arg.equals("-format")){
+				
+				String format = getValue(args, ++i, arg);
+				
+				if(format.equals("json")){
+					resultWriter = new JsonResultWriter();
+				} else if(format.equals("csv")){
+					resultWriter = new CsvResultWriter();
+				} else {
+					throw new IllegalArgumentException("Unknown output format '" + format + "'");
+				}
+				
+			} else if(arg.equals("-threads")){
+				
+				String value = getValue(args, ++i, arg);
+				
+				try {
+					threadCount = Integer.parseInt(value);
+				}
+				catch(NumberFormatException nfex){
+					throw new IllegalArgumentException("Invalid thread count '" + value + "'");
+				}
+				
+			} else if(arg.equals("-nosearch")){
+				searchEnabled = false;
+			} else if(arg.equals("-enumerate")){
+				enumerationEnabled = true;
+			} else if(arg.equals("-compact")){
+				compact = true;
+			} else if(arg.startsWith("-")){
+				throw new IllegalArgumentException("Unknown option '" + arg + "'");
+			} else {
+				
+				if(PuzzleReaders.isPuzzleFile(arg)){
+					if(!new File(arg).isFile()) throw new IllegalArgumentException("No such puzzle file '" + arg + "'");
+				} else {
+					getPuzzleClass(arg);
+				}
+				
+				sources.add(arg);
+				
+			}
+			
+		}
+		
+		if(sources.isEmpty()){
+			throw new IllegalArgumentException("No puzzles specified");
+		}
+		
+		// only build the batch solver once all options are known, so that their order doesn't matter
+		batchSolver = new BatchSolver(threadCount);
+		batchSolver.setSearchEnabled(searchEnabled);
+		batchSolver.setEnumerationEnabled(enumerationEnabled);
+		
+	}
+	
+	private String getValue(String[] args, int index, String option){
+		
+		if(index >= args.length){
+			throw new IllegalArgumentException("Missing value for option " + option);
+		}
+		
+		return args[index];
+		
+	}
+	
+	/**
+	 * Returns the puzzle class with the provided name.
+	 * @throws IllegalArgumentException if no such puzzle class exists.
+	 */
+	protected Class<?> getPuzzleClass(String className){
+		
+		Class<?> puzzleClass;
+		
+		try {
+			puzzleClass = Class.forName(className);
+		}
+		catch(ClassNotFoundException cnfex){
+			
+			try {
+				puzzleClass = Class.forName(PUZZLE_PACKAGE + "." + className);
+			}
+			catch(ClassNotFoundException cnfex2){
+				throw new IllegalArgumentException("No such puzzle class or file '" + className + "'");
+			}
+			
+		}
+		
+		if(!Puzzle.class.isAssignableFrom(puzzleClass)){
+			throw new IllegalArgumentException("Class " + puzzleClass.getName() + " is not a puzzle");
+		}
+		
+		return puzzleClass;
+		
+	}
+	
+	/**
+	 * Instantiates the puzzle class with the provided name.
+	 * @throws IllegalArgumentException if no such puzzle class exists or it cannot be instantiated.
+	 */
+	protected Puzzle loadPuzzle(String className){
+		
+		Class<?> puzzleClass = getPuzzleClass(className);
+		
+		try {
+			return (Puzzle) puzzleClass.newInstance();
+		}
+		catch(Exception ex){
+			throw new IllegalArgumentException("Unable to instantiate puzzle class " + puzzleClass.getName() + ": " + ex);
+		}
+		
+	}
+	
+	/**
+	 * Solves the puzzles and writes their results to standard output.
+	 * @return true if all puzzles were read and solved completely, false otherwise.
+	 */
+	protected boolean run() throws InterruptedException {
+		
+		resultWriter.start(out);
+		
+		for(String source : sources){
+			
+			if(PuzzleReaders.isPuzzleFile(source)){
+				
+				try {
+					
+					PuzzleReaders.read(new File(source), new PuzzleReaderCallback(){
+						public void puzzleRead(PuzzleDefinition definition) {
+							
+							Puzzle puzzle;
+							
+							try {
+								puzzle = (compact ? definition.toCompactPuzzle() : definition.toStandardPuzzle());
+							}
+							catch(InvalidRunConfigurationException ircex){
+								// one puzzle with runs that don't fit shouldn't abort the rest of the batch
+								addFailure(definition.getName(), ircex);
+								return;
+							}
+							
+							addPuzzle(definition.getName(), puzzle);
+							
+						}
+					});
+					
+				}
+				catch(IOException ioex){
+					System.err.println("Unable to read puzzles from " + source + ": " + ioex.getMessage());
+					allCompleted = false;
+				}
+				
+			} else {
+				addPuzzle(source, loadPuzzle(source));
+			}
+			
+			if(Thread.interrupted()) throw new InterruptedException();
+			
+		}
+		
+		solvePending();
+		resultWriter.finish(out);
+		out.flush();
+		
+		return allCompleted;
+		
+	}
+	
+	/**
+	 * Queues a puzzle for solving, and solves the queued puzzles once enough of them have accumulated to keep all worker threads busy.
+	 */
+	private void addPuzzle(String name, Puzzle puzzle){
+		
+		pendingNames.add(name);
+		pendingPuzzles.add(puzzle);
+		
+		if(pendingPuzzles.size() >= batchSolver.getThreadCount() * 16){
+			solvePendingFromCallback();
+		}
+		
+	}
+	
+	/**
+	 * Writes a failed result for a puzzle that could not be created, after the results of the puzzles queued before it.
+	 */
+	private void addFailure(String name, RuntimeException exception){
+		
+		solvePendingFromCallback();
+		
+		resultWriter.writeResult(name, new BatchSolverResult(exception), out);
+		allCompleted = false;
+		
+	}
+	
+	private void solvePendingFromCallback(){
+		
+		try {
+			solvePending();
+		}
+		catch(InterruptedException iex){
+			// can't propagate through the reader callback; restore the flag and let run() bail out
+			Thread.currentThread().interrupt();
+		}
+		
+	}
+	
+	private void solvePending() throws InterruptedException {
+		
+		if(pendingPuzzles.isEmpty()) return;
+		
+		List<BatchSolverResult> results = batchSolver.solve(pendingPuzzles);
+		
+		for(int i=0; i<results.size(); i++){
+			
+			BatchSolverResult result = results.get(i);
+			resultWriter.writeResult(pendingNames.get(i), result, out);
+			
+			allCompleted = allCompleted && result.isCompleted() && !result.isFailed();
+			
+		}
+		
+		out.flush();
+		
+		pendingNames.clear();
+		pendingPuzzles.clear();
+		
+	}
+	
+}
@@ -0,0 +1,44 @@
+package com.voetsjoeba.nonogram.cli;
+
+import java.io.PrintStream;
+
+import org.apache.commons.lang.StringEscapeUtils;
+
+import com.voetsjoeba.nonogram.algorithm.BatchSolverResult;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+/**
+ * Writes results as comma-separated values, preceded by a header line. Each puzzle gets its own line.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class CsvResultWriter extends AbstractResultWriter {
+	
+	public void start(PrintStream out) {
+		out.println("puzzle,width,height,status,solveTimeMs,rowsChecked,exhaustiveRowsChecked,exhaustiveAssignmentsGenerated,squaresKnown,squareCount,error");
+	}
+	
+	public void writeResult(String puzzleName, BatchSolverResult result, PrintStream out) {
+		
+		Puzzle puzzle = result.getPuzzle();
+		String error = getError(result);
+		
+		out.print(StringEscapeUtils.escapeCsv(puzzleName) + ",");
+		out.print((puzzle == null ? "" : puzzle.getColumns().size()) + ",");
+		out.print((puzzle == null ? "" : puzzle.getRows().size()) + ",");
+		out.print(getStatus(result) + ",");
+		out.print(getSolvingTime(result) + ",");
+		out.print(result.getRowsChecked() + ",");
+		out.print(result.getExhaustiveRowsChecked() + ",");
+		out.print(result.getExhaustiveAssignmentsGenerated() + ",");
+		out.print((puzzle == null ? "" : puzzle.getKnownSquareCount()) + ",");
+		out.print((puzzle == null ? "" : puzzle.getSquareCount()) + ",");
+		out.println(error == null ? "" : StringEscapeUtils.escapeCsv(error));
+		
+	}
+	
+	public void finish(PrintStream out) {
+		
+	}
+	
+}
@@ -0,0 +1,94 @@
+package com.voetsjoeba.nonogram.cli;
+
+import java.io.PrintStream;
+
+import com.voetsjoeba.nonogram.algorithm.BatchSolverResult;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+/**
+ * Writes results as a JSON array containing one object per puzzle.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class JsonResultWriter extends AbstractResultWriter {
+	
+	private boolean firstResult;
+	
+	public void start(PrintStream out) {
+		out.print("[");
+		firstResult = true;
+	}
+	
+	public void writeResult(String puzzleName, BatchSolverResult result, PrintStream out) {
+		
+		Puzzle puzzle = result.getPuzzle();
+		
+		out.println(firstResult ? "" : ",");
+		firstResult = false;
+		
+		out.print("  {");
+		out.print("\"puzzle\": " + quote(puzzleName) + ", ");
+		out.print("\"width\": " + (puzzle == null ? "null" : puzzle.getColumns().size()) + ", ");
+		out.print("\"height\": " + (puzzle == null ? "null" : puzzle.getRows().size()) + ", ");
+		out.print("\"status\": " + quote(getStatus(result)) + ", ");
+		out.print("\"solveTimeMs\": " + getSolvingTime(result) + ", ");
+		out.print("\"rowsChecked\": " + result.getRowsChecked() + ", ");
+		out.print("\"exhaustiveRowsChecked\": " + result.getExhaustiveRowsChecked() + ", ");
+		out.print("\"exhaustiveAssignmentsGenerated\": " + result.getExhaustiveAssignmentsGenerated() + ", ");
+		out.print("\"squaresKnown\": " + (puzzle == null ? "null" : puzzle.getKnownSquareCount()) + ", ");
+		out.print("\"squareCount\": " + (puzzle == null ? "null" : puzzle.getSquareCount()) + ", ");
+		out.print("\"error\": " + quote(getError(result)));
+		out.print("}");
+		
+	}
+	
+	public void finish(PrintStream out) {
+		out.println(firstResult ? "]" : "\n]");
+	}
+	
+	/**
+	 * Returns the provided string as a JSON string literal, or null if the string is null.
+	 */
+	protected String quote(String value){
+		
+		if(value == null) return "null";
+		
+		StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+		
+		for(int i=0; i<value.length(); i++){
+			
+			char c = value.charAt(i);
+			
+			switch(c){
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					if(c < 0x20){
+						sb.append(String.format("\\u%04x", (int) c));
+					} else {
+						sb.append(c);
+					}
+			}
+			
+		}
+		
+		sb.append('"');
+		return sb.toString();
+		
+	}
+	
+}
@@ -0,0 +1,33 @@
+package com.voetsjoeba.nonogram.cli;
+
+import java.io.PrintStream;
+
+import com.voetsjoeba.nonogram.algorithm.BatchSolverResult;
+
+/**
+ * Writes the outcome of a batch of solved puzzles in some machine-readable format. Results are written one at a time as they become
+ * available, enclosed by a call to {@link #start(PrintStream)} and a call to {@link #finish(PrintStream)}.
+ * 
+ * @author Jeroen De Ridder
+ */
+public interface ResultWriter {
+	
+	/**
+	 * Writes whatever needs to precede the results (e.g. a header line).
+	 */
+	public void start(PrintStream out);
+	
+	/**
+	 * Writes a single result.
+	 * @param puzzleName The name of the solved puzzle.
+	 * @param result The outcome of solving the puzzle.
+	 * @param out The stream to write to.
+	 */
+	public void writeResult(String puzzleName, BatchSolverResult result, PrintStream out);
+	
+	/**
+	 * Writes whatever needs to follow the results.
+	 */
+	public void finish(PrintStream out);
+	
+}
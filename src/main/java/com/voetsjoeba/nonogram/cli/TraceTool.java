@@ -0,0 +1,141 @@
+package com.voetsjoeba.nonogram.cli;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.algorithm.Solver;
+import com.voetsjoeba.nonogram.algorithm.trace.TraceReader;
+import com.voetsjoeba.nonogram.algorithm.trace.TraceReplayer;
+import com.voetsjoeba.nonogram.algorithm.trace.TraceWriter;
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.puzzle.io.PuzzleDefinition;
+import com.voetsjoeba.nonogram.puzzle.io.PuzzleReaderCallback;
+import com.voetsjoeba.nonogram.puzzle.io.PuzzleReaders;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+/**
+ * Command-line tool that records the deductions made while solving a puzzle to a trace file, or replays a trace file onto a fresh
+ * copy of the puzzle without running any solvers (see {@link TraceWriter} and {@link TraceReplayer}). In both cases, the amount of
+ * deductions per solver is written to standard output.
+ * 
+ * <p>Puzzles are specified the same way as for the {@link BatchRunner}; of a puzzle file, only the first puzzle is used.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class TraceTool {
+	
+	private static final String USAGE = "Usage: TraceTool record|replay <puzzle file or class> <trace file>";
+	
+	public static void main(String[] args) throws IOException {
+		
+		if(args.length != 3 || !(args[0].equals("record") || args[0].equals("replay"))){
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		
+		Puzzle puzzle;
+		
+		try {
+			puzzle = loadPuzzle(args[1]);
+		}
+		catch(IllegalArgumentException iaex){
+			System.err.println(iaex.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+			return;
+		}
+		
+		File traceFile = new File(args[2]);
+		
+		try {
+			if(args[0].equals("record")){
+				record(puzzle, traceFile);
+			} else {
+				replay(puzzle, traceFile);
+			}
+		}
+		catch(UnsolvablePuzzleException upex){
+			System.err.println("Puzzle is unsolvable: " + upex.getMessage());
+			System.exit(1);
+		}
+		
+		System.exit(puzzle.isComplete() ? 0 : 1);
+		
+	}
+	
+	/**
+	 * Loads the puzzle with the provided class name, or the first puzzle in the provided puzzle file.
+	 * @throws IllegalArgumentException if no such puzzle exists.
+	 */
+	private static Puzzle loadPuzzle(String source) throws IOException {
+		
+		if(!PuzzleReaders.isPuzzleFile(source)){
+			return new BatchRunner().loadPuzzle(source);
+		}
+		
+		final List<Puzzle> puzzles = new ArrayList<Puzzle>();
+		
+		PuzzleReaders.read(new File(source), new PuzzleReaderCallback(){
+			public void puzzleRead(PuzzleDefinition definition) {
+				if(puzzles.isEmpty()) puzzles.add(definition.toStandardPuzzle());
+			}
+		});
+		
+		if(puzzles.isEmpty()){
+			throw new IllegalArgumentException("No puzzles in file '" + source + "'");
+		}
+		
+		return puzzles.get(0);
+		
+	}
+	
+	private static void record(Puzzle puzzle, File traceFile) throws IOException, UnsolvablePuzzleException {
+		
+		TraceWriter traceWriter = new TraceWriter(new FileOutputStream(traceFile).getChannel());
+		
+		Solver solver = new Solver(puzzle);
+		solver.setTraceWriter(traceWriter);
+		
+		try {
+			solver.solve();
+		}
+		finally {
+			traceWriter.close();
+		}
+		
+		System.out.println("Recorded " + traceWriter.getRecordCount() + " deduction(s) in " + solver.getSolvingTime() + " ms");
+		
+	}
+	
+	private static void replay(Puzzle puzzle, File traceFile) throws IOException, UnsolvablePuzzleException {
+		
+		TraceReader traceReader = new TraceReader(new FileInputStream(traceFile).getChannel());
+		TraceReplayer replayer = new TraceReplayer(puzzle);
+		
+		long startTime = System.currentTimeMillis();
+		
+		try {
+			replayer.replay(traceReader);
+		}
+		finally {
+			traceReader.close();
+		}
+		
+		long replayTime = System.currentTimeMillis() - startTime;
+		
+		System.out.println("Replayed " + replayer.getReplayedCount() + " deduction(s) in " + replayTime + " ms; " + puzzle.getKnownSquareCount() + "/" + puzzle.getSquareCount() + " squares known");
+		
+		String[] solverNames = traceReader.getSolverNames();
+		long[] solverCounts = replayer.getSolverCounts();
+		
+		for(int i=0; i<solverNames.length; i++){
+			System.out.println("  " + solverNames[i] + ": " + solverCounts[i]);
+		}
+		
+	}
+	
+}
@@ -9,6 +9,10 @@ import com.voetsjoeba.nonogram.structure.StandardSquare;
  */
 public class ConflictingSquareStateException extends Exception {
 
+	// position of the conflicting square, if known
+	private int column = -1;
+	private int row = -1;
+
 	public ConflictingSquareStateException() {
 		super();
 	}
@@ -25,4 +29,28 @@ public class ConflictingSquareStateException extends Exception {
 		super(cause);
 	}
 	
+	/**
+	 * @param column The column of the conflicting square.
+	 * @param row The row of the conflicting square.
+	 */
+	public ConflictingSquareStateException(String message, int column, int row) {
+		super(message);
+		this.column = column;
+		this.row = row;
+	}
+	
+	/**
+	 * Returns the column of the conflicting square, or -1 if it is not known.
+	 */
+	public int getColumn() {
+		return column;
+	}
+	
+	/**
+	 * Returns the row of the conflicting square, or -1 if it is not known.
+	 */
+	public int getRow() {
+		return row;
+	}
+	
 }
@@ -0,0 +1,25 @@
+package com.voetsjoeba.nonogram.exception;
+
+import java.io.IOException;
+
+/**
+ * Indicates that a puzzle file does not conform to the format it is read as.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class PuzzleFormatException extends IOException {
+	
+	public PuzzleFormatException() {
+		super();
+	}
+	
+	public PuzzleFormatException(String message, Throwable cause) {
+		super(message);
+		initCause(cause);
+	}
+	
+	public PuzzleFormatException(String message) {
+		super(message);
+	}
+	
+}
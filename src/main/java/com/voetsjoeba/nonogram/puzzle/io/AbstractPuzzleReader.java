@@ -0,0 +1,67 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.exception.PuzzleFormatException;
+
+/**
+ * Provides functionality common to the line-based puzzle readers.
+ * 
+ * @author Jeroen De Ridder
+ */
+public abstract class AbstractPuzzleReader implements PuzzleReader {
+	
+	protected LineNumberReader createReader(InputStream in) throws IOException {
+		return new LineNumberReader(new InputStreamReader(in, "UTF-8"));
+	}
+	
+	/**
+	 * Parses a single clue consisting of run lengths separated by commas and/or whitespace. A blank clue or a clue consisting of a single 0 
+	 * yields an empty array.
+	 * @throws PuzzleFormatException if the clue contains anything other than non-negative run lengths.
+	 */
+	protected int[] parseClue(String clue, String name, int lineNumber) throws PuzzleFormatException {
+		
+		clue = clue.trim();
+		if(clue.length() == 0) return new int[0];
+		
+		String[] parts = clue.split("[\\s,]+");
+		int[] runLengths = new int[parts.length];
+		int runCount = 0;
+		
+		for(String part : parts){
+			
+			int runLength;
+			
+			try {
+				runLength = Integer.parseInt(part);
+			}
+			catch(NumberFormatException nfex){
+				throw new PuzzleFormatException(name + ":" + lineNumber + ": invalid run length '" + part + "'", nfex);
+			}
+			
+			if(runLength < 0){
+				throw new PuzzleFormatException(name + ":" + lineNumber + ": negative run length " + runLength);
+			}
+			
+			if(runLength > 0) runLengths[runCount++] = runLength;
+			
+		}
+		
+		if(runCount == runLengths.length) return runLengths;
+		
+		int[] result = new int[runCount];
+		System.arraycopy(runLengths, 0, result, 0, runCount);
+		return result;
+		
+	}
+	
+	protected int[][] toArray(List<int[]> clues){
+		return clues.toArray(new int[clues.size()][]);
+	}
+	
+}
@@ -0,0 +1,76 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.LineNumberReader;
+
+import com.voetsjoeba.nonogram.exception.PuzzleFormatException;
+
+/**
+ * Reads puzzles in the <tt>.cwd</tt> format, which holds a single puzzle per file. The file starts with the height and the width of the
+ * puzzle on lines of their own, followed by one line per row and then one line per column, each holding its whitespace-separated run
+ * lengths. Blank lines are ignored; rows without runs are written as a single 0:
+ * 
+ * <pre>
+ * 2
+ * 3
+ * 3
+ * 1 1
+ * 
+ * 2
+ * 1
+ * 2
+ * </pre>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class CwdPuzzleReader extends AbstractPuzzleReader {
+	
+	public void read(InputStream in, String name, PuzzleReaderCallback callback) throws IOException {
+		
+		LineNumberReader reader = createReader(in);
+		
+		int height = parseDimension(reader, name);
+		int width = parseDimension(reader, name);
+		
+		int[][] rowRuns = new int[height][];
+		for(int i=0; i<height; i++) rowRuns[i] = parseClue(nextLine(reader, name), name, reader.getLineNumber());
+		
+		int[][] columnRuns = new int[width][];
+		for(int i=0; i<width; i++) columnRuns[i] = parseClue(nextLine(reader, name), name, reader.getLineNumber());
+		
+		callback.puzzleRead(new PuzzleDefinition(name, rowRuns, columnRuns));
+		
+	}
+	
+	/**
+	 * Returns the next non-blank line.
+	 * @throws PuzzleFormatException if the end of the stream is reached.
+	 */
+	private String nextLine(LineNumberReader reader, String name) throws IOException {
+		
+		String line;
+		
+		do {
+			line = reader.readLine();
+			if(line == null) throw new PuzzleFormatException(name + ": unexpected end of file");
+		} while(line.trim().length() == 0);
+		
+		return line;
+		
+	}
+	
+	private int parseDimension(LineNumberReader reader, String name) throws IOException {
+		
+		String value = nextLine(reader, name).trim();
+		
+		try {
+			return Integer.parseInt(value);
+		}
+		catch(NumberFormatException nfex){
+			throw new PuzzleFormatException(name + ":" + reader.getLineNumber() + ": invalid dimension '" + value + "'", nfex);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,127 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.LineNumberReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.exception.PuzzleFormatException;
+
+/**
+ * Reads puzzles in the <tt>.non</tt> format, which holds a single puzzle per file. The file consists of keyword lines, of which only
+ * <tt>title</tt>, <tt>width</tt>, <tt>height</tt>, <tt>rows</tt> and <tt>columns</tt> are used; all other keywords (<tt>goal</tt>,
+ * <tt>copyright</tt>, ...) are ignored. The <tt>rows</tt> and <tt>columns</tt> keywords are followed by one line per row or column,
+ * each holding its comma-separated run lengths:
+ * 
+ * <pre>
+ * title "Example"
+ * width 3
+ * height 2
+ * 
+ * rows
+ * 3
+ * 1,1
+ * 
+ * columns
+ * 2
+ * 1
+ * 2
+ * </pre>
+ * 
+ * <p>If the width and height are specified before the clues, exactly that many clue lines are read (so that blank lines denote empty 
+ * rows); otherwise the clues extend up to the next blank line.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class NonPuzzleReader extends AbstractPuzzleReader {
+	
+	public void read(InputStream in, String name, PuzzleReaderCallback callback) throws IOException {
+		
+		LineNumberReader reader = createReader(in);
+		
+		String title = null;
+		int width = -1;
+		int height = -1;
+		int[][] rowRuns = null;
+		int[][] columnRuns = null;
+		
+		String line;
+		
+		while((line = reader.readLine()) != null){
+			
+			line = line.trim();
+			if(line.length() == 0 || line.startsWith("#")) continue;
+			
+			String[] parts = line.split("\\s+", 2);
+			String keyword = parts[0].toLowerCase();
+			String value = (parts.length > 1 ? parts[1].trim() : "");
+			
+			if(keyword.equals("title")){
+				title = unquote(value);
+			} else if(keyword.equals("width")){
+				width = parseDimension(value, name, reader.getLineNumber());
+			} else if(keyword.equals("height")){
+				height = parseDimension(value, name, reader.getLineNumber());
+			} else if(keyword.equals("rows") || keyword.equals("columns")){
+				
+				boolean rows = keyword.equals("rows");
+				int expectedCount = (rows ? height : width);
+				
+				List<int[]> clues = new ArrayList<int[]>();
+				
+				while(expectedCount < 0 || clues.size() < expectedCount){
+					
+					line = reader.readLine();
+					if(line == null) break;
+					
+					if(expectedCount < 0 && line.trim().length() == 0) break;
+					
+					clues.add(parseClue(line, name, reader.getLineNumber()));
+					
+				}
+				
+				if(rows){
+					rowRuns = toArray(clues);
+				} else {
+					columnRuns = toArray(clues);
+				}
+				
+			}
+			
+		}
+		
+		if(rowRuns == null || columnRuns == null){
+			throw new PuzzleFormatException(name + ": missing " + (rowRuns == null ? "rows" : "columns"));
+		}
+		
+		if((height >= 0 && rowRuns.length != height) || (width >= 0 && columnRuns.length != width)){
+			throw new PuzzleFormatException(name + ": expected " + width + "x" + height + " clues, found " + columnRuns.length + "x" + rowRuns.length);
+		}
+		
+		callback.puzzleRead(new PuzzleDefinition(title == null ? name : title, rowRuns, columnRuns));
+		
+	}
+	
+	private int parseDimension(String value, String name, int lineNumber) throws PuzzleFormatException {
+		
+		try {
+			return Integer.parseInt(value);
+		}
+		catch(NumberFormatException nfex){
+			throw new PuzzleFormatException(name + ":" + lineNumber + ": invalid dimension '" + value + "'", nfex);
+		}
+		
+	}
+	
+	private String unquote(String value){
+		
+		if(value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")){
+			return value.substring(1, value.length() - 1);
+		}
+		
+		return value;
+		
+	}
+	
+}
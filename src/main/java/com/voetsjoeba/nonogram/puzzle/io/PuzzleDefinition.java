@@ -0,0 +1,70 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+import com.voetsjoeba.nonogram.structure.StandardPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.structure.compact.CompactPuzzle;
+
+/**
+ * The clues of a puzzle as read from a file, from which any number of {@link Puzzle}s can be created. Rows without any runs have
+ * an empty array of run lengths.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class PuzzleDefinition {
+	
+	private final String name;
+	private final int[][] rowRuns;
+	private final int[][] columnRuns;
+	
+	/**
+	 * @param name A name that identifies the puzzle (e.g. its title, or the file it was read from).
+	 * @param rowRuns The run lengths of each row, from top to bottom.
+	 * @param columnRuns The run lengths of each column, from left to right.
+	 */
+	public PuzzleDefinition(String name, int[][] rowRuns, int[][] columnRuns){
+		
+		this.name = name;
+		this.rowRuns = rowRuns;
+		this.columnRuns = columnRuns;
+		
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public int[][] getRowRuns() {
+		return rowRuns;
+	}
+	
+	public int[][] getColumnRuns() {
+		return columnRuns;
+	}
+	
+	public int getWidth(){
+		return columnRuns.length;
+	}
+	
+	public int getHeight(){
+		return rowRuns.length;
+	}
+	
+	/**
+	 * Creates a new, unsolved {@link StandardPuzzle} from this definition.
+	 */
+	public StandardPuzzle toStandardPuzzle(){
+		return new StandardPuzzle(rowRuns, columnRuns);
+	}
+	
+	/**
+	 * Creates a new, unsolved {@link CompactPuzzle} from this definition.
+	 */
+	public CompactPuzzle toCompactPuzzle(){
+		return new CompactPuzzle(rowRuns, columnRuns);
+	}
+	
+	public String toString(){
+		return name + " (" + getWidth() + "x" + getHeight() + ")";
+	}
+	
+}
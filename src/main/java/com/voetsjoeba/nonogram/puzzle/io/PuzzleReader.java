@@ -0,0 +1,27 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.voetsjoeba.nonogram.exception.PuzzleFormatException;
+
+/**
+ * Reads puzzles in a particular file format. Readers parse their input as a stream and hand each puzzle to a callback as soon as it
+ * has been read, so that arbitrarily large collections of puzzles can be processed without holding all of them in memory.
+ * 
+ * @author Jeroen De Ridder
+ */
+public interface PuzzleReader {
+	
+	/**
+	 * Reads all puzzles from the provided stream. The stream is read up to its end, but not closed.
+	 * 
+	 * @param in The stream to read from.
+	 * @param name The name of the stream (typically a file name); used to name puzzles that don't have a title of their own.
+	 * @param callback The callback to pass each puzzle to.
+	 * @throws PuzzleFormatException if the input does not conform to the format of this reader.
+	 * @throws IOException if reading from the stream fails.
+	 */
+	public void read(InputStream in, String name, PuzzleReaderCallback callback) throws IOException;
+	
+}
@@ -0,0 +1,12 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+/**
+ * Receives the puzzles read by a {@link PuzzleReader}, one at a time and as soon as each one has been read.
+ * 
+ * @author Jeroen De Ridder
+ */
+public interface PuzzleReaderCallback {
+	
+	public void puzzleRead(PuzzleDefinition definition);
+	
+}
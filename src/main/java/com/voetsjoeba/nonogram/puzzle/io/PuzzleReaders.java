@@ -0,0 +1,75 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.voetsjoeba.nonogram.exception.PuzzleFormatException;
+
+/**
+ * Utility methods for reading puzzle files, picking the appropriate {@link PuzzleReader} based on the file extension:
+ * 
+ * <ul>
+ *     <li><tt>.xml</tt>, <tt>.pbn</tt>: {@link XmlPuzzleReader}</li>
+ *     <li><tt>.non</tt>: {@link NonPuzzleReader}</li>
+ *     <li><tt>.cwd</tt>: {@link CwdPuzzleReader}</li>
+ *     <li><tt>.zip</tt>: {@link ZipPuzzleReader}</li>
+ * </ul>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class PuzzleReaders {
+	
+	private PuzzleReaders(){
+		
+	}
+	
+	/**
+	 * Returns a reader for the format implied by the extension of the provided file name, or null if the extension is unknown.
+	 */
+	public static PuzzleReader getReader(String fileName){
+		
+		String lowerCaseName = fileName.toLowerCase();
+		
+		if(lowerCaseName.endsWith(".xml") || lowerCaseName.endsWith(".pbn")) return new XmlPuzzleReader();
+		if(lowerCaseName.endsWith(".non")) return new NonPuzzleReader();
+		if(lowerCaseName.endsWith(".cwd")) return new CwdPuzzleReader();
+		if(lowerCaseName.endsWith(".zip")) return new ZipPuzzleReader();
+		
+		return null;
+		
+	}
+	
+	/**
+	 * Returns true if the provided file name has an extension that can be read by one of the puzzle readers.
+	 */
+	public static boolean isPuzzleFile(String fileName){
+		return (getReader(fileName) != null);
+	}
+	
+	/**
+	 * Reads all puzzles in the provided file and passes them to the callback one by one.
+	 * @throws PuzzleFormatException if the file's extension is unknown or its contents do not conform to its format.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static void read(File file, PuzzleReaderCallback callback) throws IOException {
+		
+		PuzzleReader reader = getReader(file.getName());
+		if(reader == null){
+			throw new PuzzleFormatException("Unknown puzzle file format: " + file);
+		}
+		
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		
+		try {
+			reader.read(in, file.getName(), callback);
+		}
+		finally {
+			in.close();
+		}
+		
+	}
+	
+}
@@ -0,0 +1,235 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.voetsjoeba.nonogram.exception.PuzzleFormatException;
+
+/**
+ * Reads puzzles in the XML format used by webpbn, which can hold any number of puzzles per file:
+ * 
+ * <pre>
+ * &lt;puzzleset&gt;
+ *   &lt;puzzle type="grid" defaultcolor="black"&gt;
+ *     &lt;title&gt;Example&lt;/title&gt;
+ *     &lt;clue type="columns"&gt;
+ *       &lt;line&gt;&lt;count&gt;2&lt;/count&gt;&lt;/line&gt;
+ *       ...
+ *     &lt;/clue&gt;
+ *     &lt;clue type="rows"&gt;
+ *       ...
+ *     &lt;/clue&gt;
+ *   &lt;/puzzle&gt;
+ * &lt;/puzzleset&gt;
+ * </pre>
+ * 
+ * <p>The file is parsed with SAX, so each puzzle is passed to the callback as soon as its closing tag has been read. Only black-and-white
+ * grid puzzles are supported; elements other than the clues, the title and the id are ignored. External DTDs are never loaded.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class XmlPuzzleReader implements PuzzleReader {
+	
+	private final SAXParserFactory parserFactory;
+	
+	public XmlPuzzleReader(){
+		parserFactory = SAXParserFactory.newInstance();
+		parserFactory.setNamespaceAware(false);
+		parserFactory.setValidating(false);
+	}
+	
+	public void read(InputStream in, String name, PuzzleReaderCallback callback) throws IOException {
+		
+		PuzzleHandler handler = new PuzzleHandler(name, callback);
+		
+		try {
+			SAXParser parser = parserFactory.newSAXParser();
+			parser.parse(new InputSource(in), handler);
+		}
+		catch(ParserConfigurationException pcex){
+			throw new RuntimeException(pcex);
+		}
+		catch(SAXParseException spex){
+			throw new PuzzleFormatException(name + ":" + spex.getLineNumber() + ": " + spex.getMessage(), spex);
+		}
+		catch(SAXException saxex){
+			
+			if(saxex.getException() instanceof IOException){
+				throw (IOException) saxex.getException();
+			}
+			
+			throw new PuzzleFormatException(name + ": " + saxex.getMessage(), saxex);
+			
+		}
+		
+	}
+	
+	/**
+	 * SAX handler that collects the clues of the puzzle currently being parsed.
+	 */
+	private static class PuzzleHandler extends DefaultHandler {
+		
+		private final String name;
+		private final PuzzleReaderCallback callback;
+		
+		private Locator locator;
+		private int puzzleCount = 0;
+		
+		// state of the puzzle currently being parsed
+		private String title;
+		private String id;
+		private String defaultColor;
+		private List<int[]> rowRuns;
+		private List<int[]> columnRuns;
+		
+		private List<int[]> currentClue; // either rowRuns or columnRuns, or null if not inside a clue element
+		private List<Integer> currentLine;
+		private StringBuilder text = new StringBuilder();
+		
+		public PuzzleHandler(String name, PuzzleReaderCallback callback){
+			this.name = name;
+			this.callback = callback;
+		}
+		
+		@Override
+		public void setDocumentLocator(Locator locator) {
+			this.locator = locator;
+		}
+		
+		@Override
+		public InputSource resolveEntity(String publicId, String systemId) {
+			// don't fetch the webpbn DTD (or any other external entity) over the network
+			return new InputSource(new StringReader(""));
+		}
+		
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+			
+			text.setLength(0);
+			
+			if(qName.equals("puzzle")){
+				
+				String type = attributes.getValue("type");
+				if(type != null && !type.equals("grid")){
+					throw error("unsupported puzzle type '" + type + "'");
+				}
+				
+				title = null;
+				id = null;
+				defaultColor = attributes.getValue("defaultcolor");
+				if(defaultColor == null) defaultColor = "black";
+				
+				rowRuns = null;
+				columnRuns = null;
+				
+			} else if(qName.equals("clue")){
+				
+				String type = attributes.getValue("type");
+				currentClue = new ArrayList<int[]>();
+				
+				if("rows".equals(type)){
+					rowRuns = currentClue;
+				} else if("columns".equals(type)){
+					columnRuns = currentClue;
+				} else {
+					throw error("invalid clue type '" + type + "'");
+				}
+				
+			} else if(qName.equals("line") && currentClue != null){
+				
+				currentLine = new ArrayList<Integer>();
+				
+			} else if(qName.equals("count") && currentLine != null){
+				
+				String color = attributes.getValue("color");
+				if(color != null && !color.equals(defaultColor)){
+					throw error("multi-colored puzzles are not supported");
+				}
+				
+			}
+			
+		}
+		
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			text.append(ch, start, length);
+		}
+		
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			
+			if(qName.equals("count") && currentLine != null){
+				
+				String value = text.toString().trim();
+				
+				try {
+					int runLength = Integer.parseInt(value);
+					if(runLength < 0) throw error("negative run length " + runLength);
+					if(runLength > 0) currentLine.add(runLength);
+				}
+				catch(NumberFormatException nfex){
+					throw error("invalid run length '" + value + "'");
+				}
+				
+			} else if(qName.equals("line") && currentLine != null){
+				
+				int[] runLengths = new int[currentLine.size()];
+				for(int i=0; i<runLengths.length; i++) runLengths[i] = currentLine.get(i);
+				
+				currentClue.add(runLengths);
+				currentLine = null;
+				
+			} else if(qName.equals("clue")){
+				
+				currentClue = null;
+				
+			} else if(qName.equals("title")){
+				
+				title = text.toString().trim();
+				
+			} else if(qName.equals("id")){
+				
+				id = text.toString().trim();
+				
+			} else if(qName.equals("puzzle")){
+				
+				puzzleCount++;
+				
+				if(rowRuns == null || columnRuns == null){
+					throw error("missing " + (rowRuns == null ? "row" : "column") + " clues");
+				}
+				
+				String puzzleName = (title != null && title.length() > 0 ? title : (id != null && id.length() > 0 ? id : name + "#" + puzzleCount));
+				callback.puzzleRead(new PuzzleDefinition(puzzleName, rowRuns.toArray(new int[rowRuns.size()][]), columnRuns.toArray(new int[columnRuns.size()][])));
+				
+				// release the clues, they may be large
+				rowRuns = null;
+				columnRuns = null;
+				
+			}
+			
+			text.setLength(0);
+			
+		}
+		
+		private SAXException error(String message){
+			return new SAXParseException(message, locator);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,43 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads collections of puzzles stored in a zip archive. Each entry of the archive is read with the reader that corresponds to its 
+ * extension (see {@link PuzzleReaders#getReader(String)}); entries with an unknown extension are skipped. The archive is read as a
+ * stream, one entry at a time.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class ZipPuzzleReader implements PuzzleReader {
+	
+	public void read(InputStream in, String name, PuzzleReaderCallback callback) throws IOException {
+		
+		ZipInputStream zipStream = new ZipInputStream(in);
+		ZipEntry entry;
+		
+		while((entry = zipStream.getNextEntry()) != null){
+			
+			if(entry.isDirectory()) continue;
+			
+			PuzzleReader reader = PuzzleReaders.getReader(entry.getName());
+			if(reader == null || reader instanceof ZipPuzzleReader) continue;
+			
+			// some parsers close their input when done; that must not close the archive
+			reader.read(new FilterInputStream(zipStream){
+				public void close() {
+					
+				}
+			}, name + "!" + entry.getName(), callback);
+			
+			zipStream.closeEntry();
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,437 @@
+package com.voetsjoeba.nonogram.structure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.exception.ConflictingSquareRunException;
+import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
+import com.voetsjoeba.nonogram.exception.InvalidRunConfigurationException;
+import com.voetsjoeba.nonogram.exception.NoIncompleteRunsException;
+import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+/**
+ * Provides common functionality for rows; everything that only depends on the row's runs and on its {@link Row#getSquare(int)}
+ * implementation. Subclasses determine how squares are stored and create the row's runs by calling {@link #initRuns(int[])}
+ * once they are fully constructed.
+ * 
+ * @author Jeroen De Ridder
+ */
+public abstract class AbstractRow implements Row {
+	
+	protected int index;
+	protected Orientation orientation;
+	protected int modificationCount = 0;
+	
+	protected int minRunLength;
+	protected int maxRunLength;
+	
+	protected List<Run> runs;
+	protected RowDecomposition decomposition;
+	
+	// last decomposition made, from which the next one is derived (see invalidateDecomposition(int))
+	private RowDecomposition previousDecomposition;
+	private int changedFrom = -1;
+	private int changedTo = -1;
+	
+	// unmodifiable lists of the incomplete and unknown runs, handed out by getIncompleteRuns() and getUnknownRuns(). runs only ever become 
+	// complete or known, never the other way around (save for reverting changes, see invalidateDerivedState()), so these remain valid until 
+	// one of the runs they contain does
+	private List<Run> incompleteRuns;
+	private List<Run> unknownRuns;
+	
+	protected AbstractRow(Orientation orientation, int index){
+		this.index = index;
+		this.orientation = orientation;
+	}
+	
+	/**
+	 * Creates the {@link Run} with the provided index and length for this row.
+	 */
+	protected abstract Run createRun(int index, int length);
+	
+	/**
+	 * @param runLengths
+	 * @throws InvalidRunConfigurationException if the minimum required solution length imposed by the runs exceeds the amount of available squares
+	 */
+	protected void initRuns(int[] runLengths){
+		
+		runs = new ArrayList<Run>();
+		
+		for(int i=0; i<runLengths.length; i++){
+			
+			int runLength = runLengths[i];
+			if(runLength <= 0) continue;
+			
+			Run newRun = createRun(i, runLength);
+			runs.add(newRun);
+			
+		}
+		
+		if(runs.size() <= 0){
+			
+			// no runs, clear the row
+			try {
+				clearSquares(0, getLength()-1);
+			}
+			catch(ConflictingSquareStateException e) {
+				// shouldn't happen, no squares should have had their state set yet
+				throw new RuntimeException(e);
+			}
+			
+		} else {
+			validateRuns();
+			calculateMaxMinRunLengths();
+		}
+		
+	}
+	
+	/**
+	 * Recomputes the row decomposition after a (structural) change. If only squares have changed since the last decomposition was made
+	 * (see {@link #invalidateDecomposition(int)}), the new decomposition is derived from the previous one.
+	 */
+	protected void updateDecomposition(){
+		
+		if(previousDecomposition != null && changedFrom >= 0){
+			decomposition = previousDecomposition.update(changedFrom, changedTo);
+		} else {
+			decomposition = new RowDecomposition(this);
+		}
+		
+		previousDecomposition = null;
+		changedFrom = -1;
+		changedTo = -1;
+		
+	}
+	
+	/**
+	 * Invalidates the decomposition after the square at <tt>squareIndex</tt> has changed state or has been assigned a run. The next decomposition
+	 * will be derived from the current one.
+	 */
+	protected void invalidateDecomposition(int squareIndex){
+		
+		if(decomposition != null){
+			previousDecomposition = decomposition;
+			decomposition = null;
+		}
+		
+		if(changedFrom < 0 || squareIndex < changedFrom) changedFrom = squareIndex;
+		if(changedTo < 0 || squareIndex > changedTo) changedTo = squareIndex;
+		
+	}
+	
+	/**
+	 * Invalidates the decomposition after a change that affects the entire row (i.e. one of its runs being completed). The next decomposition
+	 * will be built from scratch.
+	 */
+	protected void invalidateDecomposition(){
+		decomposition = null;
+		previousDecomposition = null;
+		changedFrom = -1;
+		changedTo = -1;
+	}
+	
+	/**
+	 * Discards the decomposition and the lists of incomplete and unknown runs, after squares of this row have reverted to an earlier state.
+	 */
+	protected void invalidateDerivedState(){
+		invalidateDecomposition();
+		incompleteRuns = null;
+		unknownRuns = null;
+	}
+	
+	public int getModificationCount() {
+		return modificationCount;
+	}
+	
+	public void resetModificationCount() {
+		modificationCount = 0;
+	}
+	
+	public int getRunIndex(Run run){
+		
+		if(!runs.contains(run)){
+			throw new IllegalArgumentException("Row " + this + " does not contain run " + run);
+		}
+		
+		return run.getIndex();
+		
+	}
+	
+	public List<Run> getRuns(){
+		return runs;
+	}
+	
+	public Run getRun(int index){
+		return runs.get(index);
+	}
+	
+	public Run getFirstRun(){
+		return getRun(0);
+	}
+	
+	public Run getLastRun(){
+		return getRun(runs.size()-1);
+	}
+	
+	public RowDecomposition getDecomposition() {
+		if(decomposition == null) updateDecomposition();
+		return decomposition;
+	}
+	
+	/**
+	 * Ensures that a fit of this row's runs to its squares can exist.
+	 * @throws InvalidRunConfigurationException if the minimum required solution length imposed by the runs exceeds the amount of available squares
+	 */
+	private void validateRuns() throws InvalidRunConfigurationException {
+		
+		int minLength = getMinimumSolutionLength();
+		
+		if(minLength > getLength()){
+			throw new InvalidRunConfigurationException("Minimum required run length "+minLength+" exceeds row length "+getLength());
+		}
+		
+	}
+	
+	/**
+	 * Calculates and saves the maximum and minimum lengths of the runs present in this row.
+	 */
+	private void calculateMaxMinRunLengths(){
+		
+		maxRunLength = 0;
+		minRunLength = 0;
+		
+		for(Run run : runs){
+			
+			int runLength = run.getLength();
+			
+			if(runLength > maxRunLength){
+				maxRunLength = runLength;
+			}
+			
+			if(minRunLength <= 0){
+				// first value
+				minRunLength = runLength;
+			} else if(runLength < minRunLength){
+				minRunLength = runLength;
+			}
+			
+		}
+		
+	}
+	
+	public int getMinimumSolutionLength(){
+		return NonogramUtils.getMinimumRunAssignmentLength(runs);
+	}
+	
+	public int getIndex() {
+		return index;
+	}
+	
+	public Orientation getOrientation() {
+		return orientation;
+	}
+	
+	/**
+	 * Compares two squares in this row by their index.
+	 * @throws IllegalArgumentException if either square does not belong to this row.
+	 */
+	public int compare(Square square1, Square square2) {
+		
+		int square1Index = getSquareIndex(square1);
+		int square2Index = getSquareIndex(square2);
+		return Integer.valueOf(square1Index).compareTo(square2Index);
+		
+	}
+	
+	public int getMaximumRunLength(){
+		return maxRunLength;
+	}
+	
+	public int getMinimumRunLength(){
+		return minRunLength;
+	}
+	
+	public int getMaximumIncompleteRunLength() {
+		
+		List<Run> incompleteRuns = getIncompleteRuns();
+		if(incompleteRuns.size() <= 0) throw new NoIncompleteRunsException("Cannot take maximum incomplete run length; no incomplete runs");
+		
+		int maxIncompleteRunLength = 0;
+		for(Run run : incompleteRuns){
+			
+			int runLength = run.getLength();
+			if(runLength > maxIncompleteRunLength) maxIncompleteRunLength = runLength;
+			
+		}
+		
+		return maxIncompleteRunLength;
+		
+	}
+	
+	public int getMinimumIncompleteRunLength() {
+		
+		List<Run> incompleteRuns = getIncompleteRuns();
+		if(incompleteRuns.size() <= 0) throw new NoIncompleteRunsException("Cannot take minimum incomplete run length; no incomplete runs");
+		
+		int minIncompleteRunLength = -1; // marker value indicating "no value set yet" (assuming that no runs exist with negative lengths)
+		for(Run run : incompleteRuns){
+			
+			int runLength = run.getLength();
+			if(minIncompleteRunLength == -1 || runLength < minIncompleteRunLength) minIncompleteRunLength = runLength;
+			
+		}
+		
+		return minIncompleteRunLength;
+		
+	}
+	
+	public List<Run> getRuns(int from, int to){
+		return runs.subList(from, to + 1); // subList's "to" argument is exclusive
+	}
+	
+	public int getRunCount(){
+		return runs.size();
+	}
+	
+	public List<Run> getRunsBefore(int runIndex){
+		return getRunsBefore(runIndex, false);
+	}
+	
+	public List<Run> getRunsBefore(int runIndex, boolean inclusive){
+		return getRuns(0, inclusive ? runIndex : runIndex - 1);
+	}
+	
+	public List<Run> getRunsAfter(int runIndex){
+		return getRunsAfter(runIndex, false);
+	}
+	
+	public List<Run> getRunsAfter(int runIndex, boolean inclusive){
+		return getRuns(inclusive ? runIndex : runIndex + 1, runs.size() - 1);
+	}
+	
+	public List<Run> getIncompleteRuns(int minLength){
+		
+		List<Run> incompleteRuns = getIncompleteRuns();
+		if(minLength <= 0) return incompleteRuns;
+		
+		List<Run> result = new ArrayList<Run>(incompleteRuns.size());
+		
+		for(Run run : incompleteRuns){
+			if(run.getLength() >= minLength) result.add(run);
+		}
+		
+		return result;
+		
+	}
+	
+	public List<Run> getIncompleteRuns(){
+		
+		boolean valid = (incompleteRuns != null);
+		
+		if(valid){
+			for(Run run : incompleteRuns){
+				if(run.isComplete()){
+					valid = false;
+					break;
+				}
+			}
+		}
+		
+		if(!valid){
+			
+			List<Run> result = new ArrayList<Run>(runs.size());
+			
+			for(Run run : runs){
+				if(!run.isComplete()) result.add(run);
+			}
+			
+			incompleteRuns = Collections.unmodifiableList(result);
+			
+		}
+		
+		return incompleteRuns;
+		
+	}
+	
+	public List<Run> getUnknownRuns(int minLength){
+		
+		List<Run> unknownRuns = getUnknownRuns();
+		if(minLength <= 0) return unknownRuns;
+		
+		List<Run> result = new ArrayList<Run>(unknownRuns.size());
+		
+		for(Run run : unknownRuns){
+			if(run.getLength() >= minLength) result.add(run);
+		}
+		
+		return result;
+		
+	}
+	
+	public List<Run> getUnknownRuns(){
+		
+		boolean valid = (unknownRuns != null);
+		
+		if(valid){
+			for(Run run : unknownRuns){
+				if(run.hasKnownSquares()){
+					valid = false;
+					break;
+				}
+			}
+		}
+		
+		if(!valid){
+			
+			List<Run> result = new ArrayList<Run>(runs.size());
+			
+			for(Run run : runs){
+				if(!run.hasKnownSquares()) result.add(run);
+			}
+			
+			unknownRuns = Collections.unmodifiableList(result);
+			
+		}
+		
+		return unknownRuns;
+		
+	}
+	
+	public String toString() {
+		return "("+index+","+orientation+")";
+	}
+	
+	public void clearSquares(int startIndex, int endIndex) throws ConflictingSquareStateException {
+		setSquareStates(startIndex, endIndex, SquareState.CLEAR);
+	}
+	
+	public void fillSquares(int startIndex, int endIndex) throws ConflictingSquareStateException {
+		setSquareStates(startIndex, endIndex, SquareState.FILLED);
+	}
+	
+	/**
+	 * Helper method; sets all squares from <tt>startIndex</tt> up to and including <tt>endIndex</tt> to state <tt>squareState</tt>. Does not assign a run to any of the filled squares.
+	 * 
+	 * @throws ConflictingSquareStateException if filling the squares causes any of them to raise an {@link ConflictingSquareStateException}.
+	 */
+	protected void setSquareStates(int startIndex, int endIndex, SquareState squareState) throws ConflictingSquareStateException {
+		for(int c = startIndex; c <= endIndex; c++){
+			getSquare(c).setState(squareState);
+		}
+	}
+	
+	public void fillSquares(int startIndex, int endIndex, Run run) throws ConflictingSquareStateException, ConflictingSquareRunException, RunLengthExceededException {
+		
+		for(int c=startIndex; c<=endIndex; c++){
+			getSquare(c).setState(SquareState.FILLED);
+			getSquare(c).setRun(run);
+		}
+		
+	}
+	
+}
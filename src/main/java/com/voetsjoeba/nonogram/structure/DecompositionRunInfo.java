@@ -26,6 +26,11 @@ public class DecompositionRunInfo {
 	 */
 	public int leftmostStartOffset;
 	
+	/**
+	 * The amount of known squares of the run at the time the decomposition was made.
+	 */
+	public final int knownSquareCount;
+	
 	/**
 	 * Index of first sequence that can contain this run
 	 */
@@ -38,6 +43,7 @@ public class DecompositionRunInfo {
 	
 	public DecompositionRunInfo(Run run) {
 		this.run = run;
+		this.knownSquareCount = run.getKnownSquareCount();
 	}
 	
 	@Override
@@ -25,6 +25,10 @@ import com.voetsjoeba.nonogram.util.NonogramUtils;
  * <p>Additionally, calculates the rightmost possible starting index within the decomposition for each incomplete run. This information is calculated here once
  * because it frequently accessed by some solvers.</p>
  * 
+ * <p>Decompositions are never changed after they are made (save for {@link #clearAndRemoveSequence(int)}); instead, a row that has changed since its last
+ * decomposition was made obtains a new one by calling {@link #update(int, int)}, which takes over all sequences and run information that are unaffected 
+ * by the change.</p>
+ * 
  * <p>The following conditions are assumed by the decomposer:
  * <ul>
  *     <li>Each run with known squares must be contiguous, i.e. there can be no runs with known squares but gaps inbetween them.</li>
@@ -41,6 +45,8 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 	private final Map<Run, DecompositionRunInfo> runInfo;
 	private int totalLength;
 	
+	private boolean modified = false; // whether sequences were removed after construction, see clearAndRemoveSequence
+	
 	public RowDecomposition(Row row) {
 		
 		this.row = row;
@@ -63,8 +69,164 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 		
 	}
 	
+	/**
+	 * Constructs the decomposition of <tt>previous</tt>'s row after the squares from <tt>fromIndex</tt> up to and including <tt>toIndex</tt> have changed,
+	 * taking over everything from <tt>previous</tt> that is unaffected by the change. See {@link #update(int, int)}.
+	 */
+	private RowDecomposition(RowDecomposition previous, int fromIndex, int toIndex) {
+		
+		this.row = previous.row;
+		this.sequences = new ArrayList<Sequence>();
+		this.runInfo = new HashMap<Run, DecompositionRunInfo>();
+		
+		int rowLength = row.getLength();
+		
+		// squares only ever become cleared, so the changed squares are contained within the stretches of non-cleared squares around them. widen
+		// the changed area to these stretches, and to any of the previous sequences that it overlaps (since those may have been split up since)
+		int left = fromIndex;
+		int right = toIndex;
+		
+		while(left > 0 && !row.getSquare(left - 1).isCleared()) left--;
+		while(right < rowLength - 1 && !row.getSquare(right + 1).isCleared()) right++;
+		
+		int previousCount = previous.sequences.size();
+		int firstChangedSequence = previousCount; // index of the first previous sequence within the changed area
+		int lastChangedSequence = previousCount - 1; // index of the last previous sequence within the changed area
+		
+		for(int i=0; i<previousCount; i++){
+			
+			Sequence sequence = previous.sequences.get(i);
+			
+			int sequenceStart = sequence.getFirstSquareRowIndex();
+			int sequenceEnd = sequenceStart + sequence.getLength() - 1;
+			
+			if(sequenceEnd < left){
+				continue;
+			}
+			
+			if(sequenceStart > right){
+				lastChangedSequence = i - 1;
+				break;
+			}
+			
+			if(i < firstChangedSequence) firstChangedSequence = i;
+			left = Math.min(left, sequenceStart);
+			right = Math.max(right, sequenceEnd);
+			
+		}
+		
+		if(firstChangedSequence > lastChangedSequence) firstChangedSequence = lastChangedSequence + 1; // no previous sequences in the changed area
+		
+		try {
+			sequences.addAll(previous.sequences.subList(0, firstChangedSequence));
+			sequences.addAll(extractSequences(left, right));
+			sequences.addAll(previous.sequences.subList(lastChangedSequence + 1, previousCount));
+		}
+		catch(ConflictingSquareStateException e) {
+			throw new InconsistentDecompositionException("Conflicting square states in the changed area of " + row, e);
+		}
+		
+		totalLength = 0;
+		for(Sequence sequence : sequences) totalLength += sequence.getLength();
+		
+		// can only happen if the row is in a conflicting state (e.g. while evaluating a wrong guess)
+		if(totalLength <= 0){
+			throw new InconsistentDecompositionException("No sequences left to contain the incomplete runs of " + row);
+		}
+		
+		for(Run run : row.getIncompleteRuns()){
+			runInfo.put(run, new DecompositionRunInfo(run));
+		}
+		
+		List<Run> runs = NonogramUtils.getWorkingRuns(row);
+		
+		// the leftmost positions of runs that lie entirely within the unchanged sequences before the changed area are unaffected by the change, as long 
+		// as their own known squares haven't changed; they keep the same global indices as well. the leftmost sweep can be resumed after the last of them.
+		int leftRunIndex = 0;
+		int leftInsertionIndex = 0;
+		
+		while(leftRunIndex < runs.size()){
+			
+			Run run = runs.get(leftRunIndex);
+			DecompositionRunInfo previousInfo = previous.runInfo.get(run);
+			
+			if(previousInfo == null || previousInfo.knownSquareCount != run.getKnownSquareCount()) break;
+			
+			int lastSquareIndex = previousInfo.leftmostStartOffset + run.getLength() - 1;
+			LocalDecompositionIndex lastSquareLocal = previous.globalToLocal(lastSquareIndex);
+			if(lastSquareLocal.sequenceIndex >= firstChangedSequence) break;
+			
+			runInfo.get(run).leftmostStartOffset = previousInfo.leftmostStartOffset;
+			
+			// same insertion index as after placing the run in the sweep: skip the separator square, unless the run ends at the end of its sequence
+			leftInsertionIndex = lastSquareIndex + 1;
+			if(lastSquareLocal.sequenceOffset < getSequenceLength(lastSquareLocal.sequenceIndex) - 1) leftInsertionIndex++;
+			
+			leftRunIndex++;
+			
+		}
+		
+		// same for the rightmost positions of the runs that lie entirely within the unchanged sequences after the changed area, except that their global 
+		// indices have shifted by the difference in length of the changed area
+		int shift = totalLength - previous.totalLength;
+		
+		int rightRunIndex = runs.size() - 1;
+		int rightInsertionIndex = totalLength - 1;
+		
+		while(rightRunIndex >= 0){
+			
+			Run run = runs.get(rightRunIndex);
+			DecompositionRunInfo previousInfo = previous.runInfo.get(run);
+			
+			if(previousInfo == null || previousInfo.knownSquareCount != run.getKnownSquareCount()) break;
+			
+			LocalDecompositionIndex firstSquareLocal = previous.globalToLocal(previousInfo.rightmostStartOffset);
+			if(firstSquareLocal.sequenceIndex <= lastChangedSequence) break;
+			
+			int firstSquareIndex = previousInfo.rightmostStartOffset + shift;
+			runInfo.get(run).rightmostStartOffset = firstSquareIndex;
+			
+			rightInsertionIndex = firstSquareIndex - 1;
+			if(firstSquareLocal.sequenceOffset > 0) rightInsertionIndex--;
+			
+			rightRunIndex--;
+			
+		}
+		
+		calculateRightmostStartIndices(runs, rightRunIndex, rightInsertionIndex);
+		calculateLeftmostStartIndices(runs, leftRunIndex, leftInsertionIndex);
+		
+	}
+	
+	/**
+	 * Returns the decomposition of this decomposition's row after the squares from <tt>fromIndex</tt> up to and including <tt>toIndex</tt> have changed 
+	 * state or have been assigned a run. Sequences outside of the changed area are taken over from this decomposition, and the left- and rightmost start 
+	 * offsets are only recalculated for the runs that may have been affected by the change.
+	 * 
+	 * <p>Only valid as long as no runs have been completed since this decomposition was made; completing a run affects the sequences and run information
+	 * of the entire row. This decomposition itself remains unchanged.</p>
+	 * 
+	 * @param fromIndex Row index of the first changed square.
+	 * @param toIndex Row index of the last changed square.
+	 */
+	public RowDecomposition update(int fromIndex, int toIndex){
+		
+		// only decompositions with incomplete runs hold any information worth taking over
+		if(modified || runInfo.size() <= 0 || row.getIncompleteRuns().size() <= 0){
+			return new RowDecomposition(row);
+		}
+		
+		return new RowDecomposition(this, fromIndex, toIndex);
+		
+	}
+	
 	private void calculateRunInformation(){
 		
+		// can only happen if the row is in a conflicting state (e.g. while evaluating a wrong guess)
+		if(totalLength <= 0){
+			throw new InconsistentDecompositionException("No sequences left to contain the incomplete runs of " + row);
+		}
+		
 		// create entries for incomplete runs
 		for(Run run : row.getIncompleteRuns()){
 			runInfo.put(run, new DecompositionRunInfo(run));
@@ -82,10 +244,27 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 	 */
 	private void constructDecomposition() throws ConflictingSquareStateException {
 		
+		sequences.addAll(extractSequences(0, row.getLength() - 1));
+		
+		// calculate final total length
+		totalLength = 0;
+		for(Sequence sequence : sequences) totalLength += sequence.getLength();
+		
+	}
+	
+	/**
+	 * Extracts the sequences of non-cleared squares that are not completely filled from the squares of the row from <tt>startIndex</tt> up to 
+	 * and including <tt>endIndex</tt>. The squares at either end of this area must be preceded (resp. followed) by a cleared square or the edge of the row.
+	 * @throws ConflictingSquareStateException 
+	 */
+	private List<Sequence> extractSequences(int startIndex, int endIndex) throws ConflictingSquareStateException {
+		
+		List<Sequence> sequences = new ArrayList<Sequence>();
+		
 		// split row into sequences
 		
-		int i = 0;
-		while(i < row.getLength()){
+		int i = startIndex;
+		while(i <= endIndex){
 			
 			Square square = row.getSquare(i);
 			
@@ -95,7 +274,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 			if(square.isCleared()){
 				
 				// run a cleared sequence
-				for(; j < row.getLength(); j++){
+				for(; j <= endIndex; j++){
 					
 					Square scannedSquare = row.getSquare(j);
 					
@@ -112,7 +291,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 				//boolean allFilled = true;
 				
 				// run a non-cleared sequence
-				for(; j < row.getLength(); j++){
+				for(; j <= endIndex; j++){
 					
 					Square scannedSquare = row.getSquare(j);
 					
@@ -197,9 +376,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 			
 		}
 		
-		// calculate final total length
-		totalLength = 0;
-		for(Sequence sequence : sequences) totalLength += sequence.getLength();
+		return sequences;
 		
 	}
 	
@@ -253,15 +430,23 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 		// results (besides, they're on the edge of the row, so they can ignored regardless)
 		List<Run> runs = NonogramUtils.getWorkingRuns(row);
 		
+		calculateRightmostStartIndices(runs, runs.size() - 1, totalLength - 1);
+		
+	}
+	
+	/**
+	 * Calculates the rightmost start index of the runs in <tt>runs</tt> up to and including the one at <tt>currentRunIndex</tt>, starting 
+	 * with <tt>globalInsertionIndex</tt> as the global decomposition index of the point to insert the run at <tt>currentRunIndex</tt>.
+	 */
+	private void calculateRightmostStartIndices(List<Run> runs, int currentRunIndex, int globalInsertionIndex) {
+		
 		// working from right to left, fill up the sequences with our incomplete runs. After each run has been placed, write its corresponding start index, apply
 		// a separator whitespace square and continue with the next run (unless of course there are no more runs).
 		// if the edge of a sequence is reached, no extra whitespace square is needed because there will already be one in the final row (due to the nature
 		// of the decomposition).
 		
-		int runCount = runs.size();
-		
-		int globalInsertionIndex = totalLength - 1; // global decomposition index of the point to insert the next run
-		int currentRunIndex = runCount - 1; // index of the currently to-be-assigned run
+		// globalInsertionIndex: global decomposition index of the point to insert the next run
+		// currentRunIndex: index of the currently to-be-assigned run
 		
 		while(currentRunIndex >= 0){ // while not all runs have been placed
 			
@@ -270,7 +455,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 			if(currentRun.hasKnownSquares()){
 				
 				// grab the local index of the current global insertion pointer
-				LocalDecompositionIndex currentLocal = globalToLocal(globalInsertionIndex);
+				LocalDecompositionIndex currentLocal = getPlacementIndex(currentRun, globalInsertionIndex);
 				
 				if(currentRun.isComplete()){
 					
@@ -307,7 +492,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 						// update the local index of the insertion pointer because we need this later (technically we could 
 						// update this by just subtracting 1 from the sequence index and maxing the offset, but local indices
 						// were read-only structs at the time of writing)
-						currentLocal = globalToLocal(globalInsertionIndex);
+						currentLocal = getPlacementIndex(currentRun, globalInsertionIndex);
 						
 					}
 					
@@ -317,7 +502,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 					int sequenceIndex = currentLocal.sequenceIndex;
 					while(true){
 						
-						Sequence sequence = getSequence(sequenceIndex);
+						Sequence sequence = getPlacementSequence(currentRun, sequenceIndex);
 						
 						Square lastSequenceSquare = sequence.getLastSquare();
 						int lastSequenceSquareAbsoluteIndex = row.getSquareIndex(lastSequenceSquare);
@@ -357,13 +542,13 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 				
 				// skip to the run's last known square
 				int lastKnownSquareGlobalIndex = globalInsertionIndex;
-				while(!lastSquare.equals(getSquare(lastKnownSquareGlobalIndex))){
+				while(!lastSquare.equals(getPlacementSquare(currentRun, lastKnownSquareGlobalIndex))){
 					lastKnownSquareGlobalIndex--;
 				}
 				
 				// at this point, lastKnownSquareGlobalIndex points at the last known square (in global decomposition space)
 				// let's find the sequence and offset where it's at
-				LocalDecompositionIndex lastKnownSquareLocal = globalToLocal(lastKnownSquareGlobalIndex);
+				LocalDecompositionIndex lastKnownSquareLocal = getPlacementIndex(currentRun, lastKnownSquareGlobalIndex);
 				
 				// find the remaining amount of squares left to be assigned to the run
 				int remainingRunLength = currentRun.getLength() - currentRun.getKnownSquareCount();
@@ -395,7 +580,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 			}
 			
 			// get current insertion local index (i.e. sequence index and offset within that sequence)
-			LocalDecompositionIndex localIndex = globalToLocal(globalInsertionIndex);
+			LocalDecompositionIndex localIndex = getPlacementIndex(currentRun, globalInsertionIndex);
 			int sequenceOffset = localIndex.sequenceOffset;
 			int sequenceSpaceLeft = sequenceOffset + 1; // amount of space left in the target sequence before assigning the run
 			
@@ -461,6 +646,42 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 		
 	}
 	
+	/**
+	 * Returns the local index of the provided global index, at which <tt>run</tt> is being placed while calculating start offsets.
+	 * @throws InconsistentDecompositionException if the index lies outside of the decomposition, i.e. the runs don't fit it.
+	 */
+	private LocalDecompositionIndex getPlacementIndex(Run run, int globalIndex){
+		checkPlacementIndex(run, globalIndex, getTotalLength());
+		return globalToLocal(globalIndex);
+	}
+	
+	/**
+	 * Returns the square at the provided global index, at which <tt>run</tt> is being placed while calculating start offsets.
+	 * @throws InconsistentDecompositionException if the index lies outside of the decomposition, i.e. the runs don't fit it.
+	 */
+	private Square getPlacementSquare(Run run, int globalIndex){
+		checkPlacementIndex(run, globalIndex, getTotalLength());
+		return getSquare(globalIndex);
+	}
+	
+	/**
+	 * Returns the sequence at the provided index, in which <tt>run</tt> is being placed while calculating start offsets.
+	 * @throws InconsistentDecompositionException if there is no such sequence, i.e. the runs don't fit the decomposition.
+	 */
+	private Sequence getPlacementSequence(Run run, int sequenceIndex){
+		checkPlacementIndex(run, sequenceIndex, getSequenceCount());
+		return getSequence(sequenceIndex);
+	}
+	
+	/**
+	 * Placing runs can only run out of the decomposition if the row is in a conflicting state (e.g. while evaluating a wrong guess).
+	 */
+	private void checkPlacementIndex(Run run, int index, int count){
+		if(index < 0 || index >= count){
+			throw new InconsistentDecompositionException("No room left to place run " + run + " in " + row);
+		}
+	}
+	
 	/**
 	 * For each incomplete run, calculates its leftmost start index.
 	 */
@@ -473,6 +694,16 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 		// results (besides, they're on the edge of the row, so they can ignored regardless)
 		List<Run> runs = NonogramUtils.getWorkingRuns(row);
 		
+		calculateLeftmostStartIndices(runs, 0, 0);
+		
+	}
+	
+	/**
+	 * Calculates the leftmost start index of the runs in <tt>runs</tt> starting from the one at <tt>currentRunIndex</tt>, starting with 
+	 * <tt>globalInsertionIndex</tt> as the global decomposition index of the point to insert the run at <tt>currentRunIndex</tt>.
+	 */
+	private void calculateLeftmostStartIndices(List<Run> runs, int currentRunIndex, int globalInsertionIndex) {
+		
 		// working from left to right, fill up the sequences with our incomplete runs. After each run has been placed, write its corresponding start index, 
 		// apply a separator whitespace square (if needed) and continue with the next run (unless of course there are no more runs).
 		// if the edge of a sequence is reached, no extra whitespace square is needed because there will already be one in the final row (due to the nature
@@ -480,8 +711,8 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 		
 		int runCount = runs.size();
 		
-		int globalInsertionIndex = 0; // global decomposition index of the point to insert the next run
-		int currentRunIndex = 0; // index of the currently to-be-assigned run
+		// globalInsertionIndex: global decomposition index of the point to insert the next run
+		// currentRunIndex: index of the currently to-be-assigned run
 		
 		while(currentRunIndex < runCount){ // while not all runs have been placed
 			
@@ -490,7 +721,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 			if(currentRun.hasKnownSquares()){
 				
 				// grab the local index of the current global insertion pointer
-				LocalDecompositionIndex currentLocal = globalToLocal(globalInsertionIndex);
+				LocalDecompositionIndex currentLocal = getPlacementIndex(currentRun, globalInsertionIndex);
 				
 				if(currentRun.isComplete()){
 					
@@ -528,7 +759,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 						// update the local index of the insertion pointer because we need this later (technically we could 
 						// update this by just adding 1 to the sequence index and 0'ing the offset, but local indices
 						// were read-only structs at the time of writing)
-						currentLocal = globalToLocal(globalInsertionIndex);
+						currentLocal = getPlacementIndex(currentRun, globalInsertionIndex);
 						assert currentLocal.sequenceOffset == 0 : "Misaligned global insertion pointer; expected 0, found " + currentLocal.sequenceOffset + ". This indicates a wrong change to globalInsertionIndex to skip a sequence, please review code.";
 						
 					}
@@ -539,7 +770,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 					int sequenceIndex = currentLocal.sequenceIndex;
 					while(true){
 						
-						Sequence sequence = getSequence(sequenceIndex);
+						Sequence sequence = getPlacementSequence(currentRun, sequenceIndex);
 						
 						Square firstSequenceSquare = sequence.getFirstSquare();
 						int firstSequenceSquareAbsoluteIndex = row.getSquareIndex(firstSequenceSquare);
@@ -580,13 +811,13 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 				
 				// skip to the run's first known square
 				int firstKnownSquareGlobalIndex = globalInsertionIndex;
-				while(!firstSquare.equals(getSquare(firstKnownSquareGlobalIndex))){
+				while(!firstSquare.equals(getPlacementSquare(currentRun, firstKnownSquareGlobalIndex))){
 					firstKnownSquareGlobalIndex++;
 				}
 				
 				// at this point, firstKnownSquareGlobalIndex points at the first known square (in global decomposition space)
 				// let's find the sequence and offset where it's at
-				LocalDecompositionIndex firstKnownSquareLocal = globalToLocal(firstKnownSquareGlobalIndex);
+				LocalDecompositionIndex firstKnownSquareLocal = getPlacementIndex(currentRun, firstKnownSquareGlobalIndex);
 				
 				// find the remaining amount of squares left to be assigned to the run
 				int remainingRunLength = currentRun.getLength() - currentRun.getKnownSquareCount();
@@ -638,7 +869,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 			}
 			
 			// get current insertion local index (i.e. sequence index and offset within that sequence)
-			LocalDecompositionIndex localIndex = globalToLocal(globalInsertionIndex);
+			LocalDecompositionIndex localIndex = getPlacementIndex(currentRun, globalInsertionIndex);
 			int sequenceOffset = localIndex.sequenceOffset;
 			int sequenceLength = getSequenceLength(localIndex.sequenceIndex);
 			int sequenceSpaceLeft = sequenceLength - sequenceOffset; // amount of space left in the target sequence before assigning the run
@@ -868,6 +1099,7 @@ public class RowDecomposition extends AbstractDecomposition implements Iterable<
 		
 		Sequence removedSequence = sequences.remove(i);
 		totalLength -= removedSequence.getLength();
+		modified = true;
 		
 		removedSequence.clear();
 		
@@ -4,8 +4,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import com.voetsjoeba.nonogram.exception.ConflictingSquareRunException;
+import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
+import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
 import com.voetsjoeba.nonogram.structure.api.Puzzle;
 import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.api.Square;
 
 /**
@@ -21,6 +25,8 @@ public class StandardPuzzle implements Puzzle {
 	private List<Row> rows;
 	private List<Row> columns;
 	
+	private UndoTrail trail;
+	
 	public StandardPuzzle(int[][] rowRuns, int[][] columnRuns){
 		
 		this.rowRuns = rowRuns;
@@ -35,6 +41,8 @@ public class StandardPuzzle implements Puzzle {
 		int rowCount = rowRuns.length;
 		int columnCount = columnRuns.length;
 		
+		trail = new UndoTrail();
+		
 		rows = new ArrayList<Row>(rowCount);
 		for(int i=0; i<rowCount; i++){
 			
@@ -42,10 +50,12 @@ public class StandardPuzzle implements Puzzle {
 			List<Square> squares = new ArrayList<Square>(columnCount);
 			for(int j=0; j<columnCount; j++){
 				StandardSquare s = new StandardSquare(i, j);
+				s.setTrail(trail);
 				squares.add(s);
 			}
 			
-			Row row = new StandardRow(Orientation.HORIZONTAL, i, squares, rowRuns[i]);
+			StandardRow row = new StandardRow(Orientation.HORIZONTAL, i, squares, rowRuns[i]);
+			row.setTrail(trail);
 			rows.add(row);
 			
 		}
@@ -61,13 +71,58 @@ public class StandardPuzzle implements Puzzle {
 				squares.add(row.getSquare(i));
 			}
 			
-			Row column = new StandardRow(Orientation.VERTICAL, i, squares, columnRuns[i]);
+			StandardRow column = new StandardRow(Orientation.VERTICAL, i, squares, columnRuns[i]);
+			column.setTrail(trail);
 			columns.add(column);
 			
 		}
 		
 	}
 	
+	/**
+	 * Makes a checkpoint to which the puzzle can later be restored (see {@link #restore(int)}), and returns it. Checkpoints can be nested;
+	 * as long as there are any, all changes to the puzzle are logged so that they can be reverted. Checkpoints that are no longer needed
+	 * should be released (see {@link #release(int)}) to stop the logging.
+	 */
+	public int checkpoint(){
+		return trail.checkpoint();
+	}
+	
+	/**
+	 * Restores the states and runs of all squares, and the known squares of all runs and rows, to what they were at the provided checkpoint;
+	 * decompositions are rebuilt when next asked for. Takes time proportional to the amount of changes made since the checkpoint.
+	 * 
+	 * <p>Listeners are not notified of the reverted changes, so anything that keeps track of the puzzle's state through them (such as a
+	 * solver) must be told separately. The checkpoint remains valid; checkpoints made after it are released.</p>
+	 * 
+	 * @throws IllegalArgumentException if the checkpoint is not valid.
+	 */
+	public void restore(int checkpoint){
+		trail.restore(checkpoint);
+	}
+	
+	/**
+	 * Releases the provided checkpoint and any checkpoints made after it, keeping all changes made since.
+	 * @throws IllegalArgumentException if the checkpoint is not valid.
+	 */
+	public void release(int checkpoint){
+		trail.release(checkpoint);
+	}
+	
+	/**
+	 * Returns the run lengths of each row, as provided at construction time.
+	 */
+	public int[][] getRowRuns() {
+		return rowRuns;
+	}
+	
+	/**
+	 * Returns the run lengths of each column, as provided at construction time.
+	 */
+	public int[][] getColumnRuns() {
+		return columnRuns;
+	}
+	
 	public List<Row> getRows() {
 		return Collections.unmodifiableList(rows);
 	}
@@ -155,4 +210,62 @@ public class StandardPuzzle implements Puzzle {
 		return (getRows().size() * getColumns().size());
 	}
 	
+	public Puzzle copy() {
+		
+		StandardPuzzle copy = new StandardPuzzle(rowRuns, columnRuns);
+		
+		try {
+			
+			// states first; runs can only be set on squares that are already filled
+			for(Row row : rows){
+				for(int i=0; i<row.getLength(); i++){
+					SquareState state = row.getSquare(i).getState();
+					if(state != null) copy.getSquare(i, row.getIndex()).setState(state);
+				}
+			}
+			
+			copyRuns(rows, copy.rows);
+			copyRuns(columns, copy.columns);
+			
+		}
+		catch(ConflictingSquareStateException e) {
+			throw new RuntimeException(e); // can't happen, the copy starts out empty
+		}
+		catch(ConflictingSquareRunException e) {
+			throw new RuntimeException(e);
+		}
+		catch(RunLengthExceededException e) {
+			throw new RuntimeException(e);
+		}
+		
+		return copy;
+		
+	}
+	
+	/**
+	 * Assigns the runs known in <tt>sourceRows</tt> to the corresponding squares of <tt>targetRows</tt>.
+	 */
+	private static void copyRuns(List<Row> sourceRows, List<Row> targetRows) throws RunLengthExceededException, ConflictingSquareRunException {
+		
+		for(int r=0; r<sourceRows.size(); r++){
+			
+			Row sourceRow = sourceRows.get(r);
+			Row targetRow = targetRows.get(r);
+			List<Run> sourceRuns = sourceRow.getRuns();
+			
+			for(int i=0; i<sourceRuns.size(); i++){
+				
+				Run run = sourceRuns.get(i);
+				Run targetRun = targetRow.getRun(i);
+				
+				for(Square square : run.getKnownSquares()){
+					targetRow.getSquare(sourceRow.getSquareIndex(square)).setRun(targetRun);
+				}
+				
+			}
+			
+		}
+		
+	}
+	
 }
@@ -1,18 +1,11 @@
 package com.voetsjoeba.nonogram.structure;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 import com.voetsjoeba.nonogram.event.SquareRunSetEvent;
 import com.voetsjoeba.nonogram.event.SquareRunSetListener;
 import com.voetsjoeba.nonogram.event.SquareStateSetEvent;
 import com.voetsjoeba.nonogram.event.SquareStateSetListener;
-import com.voetsjoeba.nonogram.exception.ConflictingSquareRunException;
-import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
-import com.voetsjoeba.nonogram.exception.InvalidRunConfigurationException;
-import com.voetsjoeba.nonogram.exception.NoIncompleteRunsException;
-import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
 import com.voetsjoeba.nonogram.structure.api.Row;
 import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.api.Square;
@@ -26,25 +19,17 @@ import com.voetsjoeba.nonogram.util.NonogramUtils;
  * 
  * @author Jeroen De Ridder
  */
-public class StandardRow implements Row, SquareRunSetListener, SquareStateSetListener {
+public class StandardRow extends AbstractRow implements SquareRunSetListener, SquareStateSetListener {
 	
-	protected int index;
-	protected Orientation orientation;
-	private int modificationCount = 0;
-	
-	protected int minRunLength;
-	protected int maxRunLength;
-	
-	protected List<Run> runs;
 	protected List<Square> squares;
-	protected RowDecomposition decomposition;
-	
 	protected int knownSquares = 0;
 	
+	// log of the puzzle's changes, if any (see StandardPuzzle#checkpoint())
+	private UndoTrail trail;
+	
 	public StandardRow(Orientation orientation, int index, List<Square> squares, int[] runLengths){
 		
-		this.index = index;
-		this.orientation = orientation;
+		super(orientation, index);
 		this.squares = squares;
 		
 		initListeners();
@@ -62,47 +47,8 @@ public class StandardRow implements Row, SquareRunSetListener, SquareStateSetLis
 		
 	}
 	
-	/**
-	 * @param runLengths
-	 * @throws InvalidRunConfigurationException if the minimum required solution length imposed by the runs exceeds the amount of available squares
-	 */
-	private void initRuns(int[] runLengths){
-		
-		runs = new ArrayList<Run>();
-		
-		for(int i=0; i<runLengths.length; i++){
-			
-			int runLength = runLengths[i];
-			if(runLength <= 0) continue;
-			
-			Run newRun = new StandardRun(this, i, runLength);
-			runs.add(newRun);
-			
-		}
-		
-		if(runs.size() <= 0){
-			
-			// no runs, clear the row
-			try {
-				clearSquares(0, squares.size()-1);
-			}
-			catch(ConflictingSquareStateException e) {
-				// shouldn't happen, no squares should have had their state set yet
-				throw new RuntimeException(e);
-			}
-			
-		} else {
-			validateRuns();
-			calculateMaxMinRunLengths();
-		}
-		
-	}
-	
-	/**
-	 * Recomputes the row decomposition after a (structural) change.
-	 */
-	private void updateDecomposition(){
-		decomposition = new RowDecomposition(this);
+	protected Run createRun(int index, int length){
+		return new StandardRun(this, index, length);
 	}
 	
 	// ---- EVENT LISTENERS ---------------------------------------------------------
@@ -112,6 +58,8 @@ public class StandardRow implements Row, SquareRunSetListener, SquareStateSetLis
 		Run run = e.getRun();
 		Row row = run.getRow();
 		
+		if(trail != null && trail.isRecording()) trail.rowChanged(this, knownSquares);
+		
 		// ensure that the run is contiguous
 		Square firstSquare = run.getFirstKnownSquare();
 		Square lastSquare = run.getLastKnownSquare();
@@ -154,7 +102,12 @@ public class StandardRow implements Row, SquareRunSetListener, SquareStateSetLis
 			
 		}
 		
-		decomposition = null; // invalidate decomposition
+		if(run.isComplete() && row == this){
+			invalidateDecomposition();
+		} else {
+			invalidateDecomposition(getOwnSquareIndex(e.getSource()));
+		}
+		
 		modificationCount++;
 		
 	}
@@ -164,19 +117,33 @@ public class StandardRow implements Row, SquareRunSetListener, SquareStateSetLis
 		Square square = e.getSource();
 		assert square.isStateKnown() : "Received a square set event, but the target square's state appears to be unknown";
 		
+		if(trail != null && trail.isRecording()) trail.rowChanged(this, knownSquares);
+		
 		knownSquares++;
 		
-		decomposition = null; // invalidate decomposition
+		invalidateDecomposition(getOwnSquareIndex(square));
 		modificationCount++;
 		
 	}
 	
-	public int getModificationCount() {
-		return modificationCount;
+	/**
+	 * Returns the index of <tt>square</tt>, which is known to belong to this row, without checking whether it actually does.
+	 */
+	private int getOwnSquareIndex(Square square){
+		return (orientation == Orientation.HORIZONTAL ? square.getColumn() : square.getRow());
+	}
+	
+	void setTrail(UndoTrail trail) {
+		this.trail = trail;
 	}
 	
-	public void resetModificationCount() {
-		modificationCount = 0;
+	/**
+	 * Restores this row's known square count after some of its squares were reverted, and discards everything derived from them. Only to
+	 * be used by the {@link UndoTrail}.
+	 */
+	void revert(int knownSquares){
+		this.knownSquares = knownSquares;
+		invalidateDerivedState();
 	}
 	
 	// ---- INTERFACE IMPLEMENTATION ---------------------------------------------------------
@@ -187,26 +154,13 @@ public class StandardRow implements Row, SquareRunSetListener, SquareStateSetLis
 	
 	public int getSquareIndex(Square square){
 		
-		// TODO: replace this with a numeric check
-		if(!squares.contains(square)){
-			throw new IllegalArgumentException("Row " + this + " does not contain square " + square);
-		}
-		
-		if(orientation == Orientation.HORIZONTAL){
-			return square.getColumn();
-		} else {
-			return square.getRow();
-		}
-		
-	}
-	
-	public int getRunIndex(Run run){
+		int squareIndex = getOwnSquareIndex(square);
 		
-		if(!runs.contains(run)){
-			throw new IllegalArgumentException("Row " + this + " does not contain run " + run);
+		if(squareIndex < 0 || squareIndex >= squares.size() || squares.get(squareIndex) != square){
+			throw new IllegalArgumentException("Row " + this + " does not contain square " + square);
 		}
 		
-		return run.getIndex();
+		return squareIndex;
 		
 	}
 	
@@ -214,68 +168,6 @@ public class StandardRow implements Row, SquareRunSetListener, SquareStateSetLis
 		return squares.size();
 	}
 	
-	public List<Run> getRuns(){
-		return runs;
-	}
-	
-	public Run getRun(int index){
-		return runs.get(index);
-	}
-	
-	public Run getFirstRun(){
-		return getRun(0);
-	}
-	
-	public Run getLastRun(){
-		return getRun(runs.size()-1);
-	}
-	
-	public RowDecomposition getDecomposition() {
-		if(decomposition == null) updateDecomposition();
-		return decomposition;
-	}
-	
-	/**
-	 * Ensures that a fit of this row's runs to its squares can exist.
-	 * @throws InvalidRunConfigurationException if the minimum required solution length imposed by the runs exceeds the amount of available squares
-	 */
-	private void validateRuns() throws InvalidRunConfigurationException {
-		
-		int minLength = getMinimumSolutionLength();
-		
-		if(minLength > squares.size()){
-			throw new InvalidRunConfigurationException("Minimum required run length "+minLength+" exceeds row length "+squares.size());
-		}
-		
-	}
-	
-	/**
-	 * Calculates and saves the maximum and minimum lengths of the runs present in this row.
-	 */
-	private void calculateMaxMinRunLengths(){
-		
-		maxRunLength = 0;
-		minRunLength = 0;
-		
-		for(Run run : runs){
-			
-			int runLength = run.getLength();
-			
-			if(runLength > maxRunLength){
-				maxRunLength = runLength;
-			}
-			
-			if(minRunLength <= 0){
-				// first value
-				minRunLength = runLength;
-			} else if(runLength < minRunLength){
-				minRunLength = runLength;
-			}
-			
-		}
-		
-	}
-	
 	/*private void updateActiveArea(){
 		
 		List<Run> uncompletedRuns = getIncompleteRuns();
@@ -352,10 +244,6 @@ public class StandardRow implements Row, SquareRunSetListener, SquareStateSetLis
 		
 	}*/
 	
-	public int getMinimumSolutionLength(){
-		return NonogramUtils.getMinimumRunAssignmentLength(runs);
-	}
-	
 	public boolean isCompleted(){
 		
 		/*for(Square square : squares){
@@ -368,68 +256,6 @@ public class StandardRow implements Row, SquareRunSetListener, SquareStateSetLis
 		
 	}
 	
-	public int getIndex() {
-		return index;
-	}
-	
-	public Orientation getOrientation() {
-		return orientation;
-	}
-	
-	/**
-	 * Compares two squares in this row by their index.
-	 * @throws IllegalArgumentException if either square does not belong to this row.
-	 */
-	public int compare(Square square1, Square square2) {
-		
-		int square1Index = getSquareIndex(square1);
-		int square2Index = getSquareIndex(square2);
-		return Integer.valueOf(square1Index).compareTo(square2Index);
-		
-	}
-	
-	public int getMaximumRunLength(){
-		return maxRunLength;
-	}
-	
-	public int getMinimumRunLength(){
-		return minRunLength;
-	}
-	
-	public int getMaximumIncompleteRunLength() {
-		
-		List<Run> incompleteRuns = getIncompleteRuns();
-		if(incompleteRuns.size() <= 0) throw new NoIncompleteRunsException("Cannot take maximum incomplete run length; no incomplete runs");
-		
-		int maxIncompleteRunLength = 0;
-		for(Run run : getIncompleteRuns()){
-			
-			int runLength = run.getLength();
-			if(runLength > maxIncompleteRunLength) maxIncompleteRunLength = runLength;
-			
-		}
-		
-		return maxIncompleteRunLength;
-		
-	}
-	
-	public int getMinimumIncompleteRunLength() {
-		
-		List<Run> incompleteRuns = getIncompleteRuns();
-		if(incompleteRuns.size() <= 0) throw new NoIncompleteRunsException("Cannot take minimum incomplete run length; no incomplete runs");
-		
-		int minIncompleteRunLength = -1; // marker value indicating "no value set yet" (assuming that no runs exist with negative lengths)
-		for(Run run : getIncompleteRuns()){
-			
-			int runLength = run.getLength();
-			if(minIncompleteRunLength == -1 || runLength < minIncompleteRunLength) minIncompleteRunLength = runLength;
-			
-		}
-		
-		return minIncompleteRunLength;
-		
-	}
-	
 	public int getKnownSquareCount() {
 		
 		int knownSquareCount = 0;
@@ -442,92 +268,4 @@ public class StandardRow implements Row, SquareRunSetListener, SquareStateSetLis
 		
 	}
 	
-	public List<Run> getRuns(int from, int to){
-		return runs.subList(from, to + 1); // subList's "to" argument is exclusive
-	}
-	
-	public int getRunCount(){
-		return runs.size();
-	}
-	
-	public List<Run> getRunsBefore(int runIndex){
-		return getRunsBefore(runIndex, false);
-	}
-	
-	public List<Run> getRunsBefore(int runIndex, boolean inclusive){
-		return getRuns(0, inclusive ? runIndex : runIndex - 1);
-	}
-	
-	public List<Run> getRunsAfter(int runIndex){
-		return getRunsAfter(runIndex, false);
-	}
-	
-	public List<Run> getRunsAfter(int runIndex, boolean inclusive){
-		return getRuns(inclusive ? runIndex : runIndex + 1, runs.size() - 1);
-	}
-	
-	public List<Run> getIncompleteRuns(int minLength){
-		
-		List<Run> incompleteRuns = new LinkedList<Run>();
-		
-		for(Run run : runs){
-			if(!run.isComplete() && run.getLength() >= minLength) incompleteRuns.add(run);
-		}
-		
-		return incompleteRuns;
-		
-	}
-	
-	public List<Run> getIncompleteRuns(){
-		return getIncompleteRuns(0);
-	}
-	
-	public List<Run> getUnknownRuns(int minLength){
-		
-		List<Run> unknownRuns = new LinkedList<Run>();
-		
-		for(Run run : runs){
-			if(!run.hasKnownSquares() && run.getLength() >= minLength) unknownRuns.add(run);
-		}
-		
-		return unknownRuns;
-		
-	}
-	
-	public List<Run> getUnknownRuns(){
-		return getUnknownRuns(0);
-	}
-	
-	public String toString() {
-		return "("+index+","+orientation+")";
-	}
-	
-	public void clearSquares(int startIndex, int endIndex) throws ConflictingSquareStateException {
-		setSquareStates(startIndex, endIndex, SquareState.CLEAR);
-	}
-	
-	public void fillSquares(int startIndex, int endIndex) throws ConflictingSquareStateException {
-		setSquareStates(startIndex, endIndex, SquareState.FILLED);
-	}
-	
-	/**
-	 * Helper method; sets all squares from <tt>startIndex</tt> up to and including <tt>endIndex</tt> to state <tt>squareState</tt>. Does not assign a run to any of the filled squares.
-	 * 
-	 * @throws ConflictingSquareStateException if filling the squares causes any of them to raise an {@link ConflictingSquareStateException}.
-	 */
-	protected void setSquareStates(int startIndex, int endIndex, SquareState squareState) throws ConflictingSquareStateException {
-		for(int c = startIndex; c <= endIndex; c++){
-			getSquare(c).setState(squareState);
-		}
-	}
-	
-	public void fillSquares(int startIndex, int endIndex, Run run) throws ConflictingSquareStateException, ConflictingSquareRunException, RunLengthExceededException {
-		
-		for(int c=startIndex; c<=endIndex; c++){
-			getSquare(c).setState(SquareState.FILLED);
-			getSquare(c).setRun(run);
-		}
-		
-	}
-	
-}
+}
\ No newline at end of file
@@ -2,10 +2,7 @@ package com.voetsjoeba.nonogram.structure;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 import com.voetsjoeba.nonogram.exception.NoKnownSquaresException;
 import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
@@ -16,23 +13,26 @@ import com.voetsjoeba.nonogram.structure.api.Sequence;
 import com.voetsjoeba.nonogram.structure.api.Square;
 
 /**
- * Default {@link Run} implementation.
+ * Default {@link Run} implementation. Rather than a set of squares, only the amount of known squares and the interval they span within the 
+ * row are tracked; since the row makes sure its runs are contiguous (see {@link StandardRow}), the interval normally contains exactly the 
+ * known squares.
  * 
  * @author Jeroen De Ridder
  */
 public final class StandardRun implements Run {
 	
-	private final SortedSet<Square> squares;
-	
 	private final int length;
 	private final int index;
 	private final Row row;
 	
+	private int knownSquareCount = 0;
+	private int firstKnownIndex = -1;
+	private int lastKnownIndex = -1;
+	
 	public StandardRun(Row row, int index, int length) {
 		this.row = row;
 		this.index = index;
 		this.length = length;
-		this.squares = new TreeSet<Square>(row);
 	}
 	
 	public final int getLength() {
@@ -57,56 +57,74 @@ public final class StandardRun implements Run {
 			throw new RunLengthExceededException("Run length of " + length + " exceeded.");
 		}
 		
-		squares.add(square);
+		int squareIndex = row.getSquareIndex(square);
+		
+		UndoTrail trail = square.getTrail();
+		if(trail != null && trail.isRecording()) trail.runChanged(this, knownSquareCount, firstKnownIndex, lastKnownIndex);
+		
+		if(knownSquareCount == 0 || squareIndex < firstKnownIndex) firstKnownIndex = squareIndex;
+		if(knownSquareCount == 0 || squareIndex > lastKnownIndex) lastKnownIndex = squareIndex;
+		
+		knownSquareCount++;
 		
 	}
 	
+	/**
+	 * Restores this run's known squares to an earlier state. Only to be used by the {@link UndoTrail}.
+	 */
+	void revert(int knownSquareCount, int firstKnownIndex, int lastKnownIndex){
+		this.knownSquareCount = knownSquareCount;
+		this.firstKnownIndex = firstKnownIndex;
+		this.lastKnownIndex = lastKnownIndex;
+	}
+	
 	public boolean containsSquare(Square square){
-		return squares.contains(square);
+		return (square.getRun(getOrientation()) == this);
 	}
 	
 	public Square getFirstKnownSquare() throws NoKnownSquaresException {
-		if(getKnownSquareCount() <= 0) throw new NoKnownSquaresException("No known squares in " + this);
-		return squares.first();
+		if(knownSquareCount <= 0) throw new NoKnownSquaresException("No known squares in " + this);
+		return row.getSquare(firstKnownIndex);
 	}
 	
 	public List<Square> getKnownSquares(){
-		return Collections.unmodifiableList(new ArrayList<Square>(squares));
+		
+		List<Square> knownSquares = new ArrayList<Square>(knownSquareCount);
+		if(knownSquareCount <= 0) return Collections.unmodifiableList(knownSquares);
+		
+		// the interval can only contain squares of other runs while this run is being made contiguous
+		for(int i=firstKnownIndex; i<=lastKnownIndex; i++){
+			Square square = row.getSquare(i);
+			if(square.getRun(getOrientation()) == this) knownSquares.add(square);
+		}
+		
+		return Collections.unmodifiableList(knownSquares);
+		
 	}
 	
 	public Square getLastKnownSquare() throws NoKnownSquaresException {
-		if(getKnownSquareCount() <= 0) throw new NoKnownSquaresException("No known squares in " + this);
-		return squares.last();
+		if(knownSquareCount <= 0) throw new NoKnownSquaresException("No known squares in " + this);
+		return row.getSquare(lastKnownIndex);
 	}
 	
 	// TODO: link to "row" object becomes obsolete as soon as a StandardPuzzleRow creates a PuzzleRowView as activeArea
 	
 	public int getKnownSquareCount(){
-		return squares.size();
+		return knownSquareCount;
 	}
 	
 	public boolean hasKnownSquares() {
-		return (getKnownSquareCount() > 0);
+		return (knownSquareCount > 0);
 	}
-
+	
 	public boolean isComplete(){
 		return (getKnownSquareCount() == length);
 	}
 	
 	public boolean isContiguous(){
 		
-		if(!hasKnownSquares()) return true;
-		
-		try {
-			int firstSquareIndex = getRow().getSquareIndex(getFirstKnownSquare());
-			int lastSquareIndex = getRow().getSquareIndex(getLastKnownSquare());
-			int knownSquaresIntervalLength = (lastSquareIndex - firstSquareIndex) + 1;
-			
-			return (knownSquaresIntervalLength == getKnownSquareCount());
-		}
-		catch(NoKnownSquaresException e) {
-			throw new RuntimeException(e); // this shouldn't happen
-		}
+		if(knownSquareCount <= 0) return true;
+		return (lastKnownIndex - firstKnownIndex + 1 == knownSquareCount);
 		
 	}
 	
@@ -116,21 +134,7 @@ public final class StandardRun implements Run {
 			throw new UncontiguousRunException();
 		}
 		
-		Sequence runSequence = new StandardSequence(row, squares.first());
-		
-		int index = 0;
-		Iterator<Square> iterator = squares.iterator();
-		
-		while(iterator.hasNext()){
-			
-			Square square = iterator.next();
-			if(index++ == 0) continue; // skip the first square
-			
-			runSequence.addSquare(square);
-			
-		}
-		
-		return runSequence;
+		return new StandardSequence(row, firstKnownIndex, lastKnownIndex);
 		
 	}
 	
@@ -1,8 +1,7 @@
 package com.voetsjoeba.nonogram.structure;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 import com.voetsjoeba.nonogram.exception.ConflictingSquareRunException;
@@ -15,14 +14,16 @@ import com.voetsjoeba.nonogram.structure.api.Sequence;
 import com.voetsjoeba.nonogram.structure.api.Square;
 
 /**
- * Default {@link Sequence} implementation.
+ * Default {@link Sequence} implementation. A sequence doesn't hold on to its squares itself; it is a window over the squares from 
+ * <tt>startIndex</tt> up to and including <tt>endIndex</tt> in its row, so looking up a square by index takes constant time.
  * 
  * @author Jeroen De Ridder
  */
 public class StandardSequence implements Sequence {
 	
 	private final Row row;
-	private LinkedList<Square> squares;
+	private int startIndex;
+	private int endIndex;
 	
 	/**
 	 * Constructs a new sequence consisting of a single square.
@@ -46,13 +47,19 @@ public class StandardSequence implements Sequence {
 	}
 	
 	private void init(Square startingSquare){
-		squares = new LinkedList<Square>();
-		squares.add(startingSquare);
+		startIndex = row.getSquareIndex(startingSquare);
+		endIndex = startIndex;
 	}
 	
 	private void init(int startIndex, int endIndex){
-		init(row.getSquare(startIndex));
-		for(int i=startIndex+1; i<=endIndex; i++) addSquare(row.getSquare(i));
+		
+		if(startIndex < 0 || endIndex >= row.getLength() || endIndex < startIndex){
+			throw new IndexOutOfBoundsException("Invalid sequence bounds [" + startIndex + "," + endIndex + "] in row " + row + " of length " + row.getLength());
+		}
+		
+		this.startIndex = startIndex;
+		this.endIndex = endIndex;
+		
 	}
 	
 	public Row getRow() {
@@ -60,19 +67,25 @@ public class StandardSequence implements Sequence {
 	}
 	
 	public int getLength(){
-		return squares.size();
+		return endIndex - startIndex + 1;
 	}
 	
 	public Square getFirstSquare(){
-		return squares.getFirst();
+		return row.getSquare(startIndex);
 	}
 	
 	public Square getLastSquare(){
-		return squares.getLast();
+		return row.getSquare(endIndex);
 	}
 	
 	public Square getSquare(int index) {
-		return squares.get(index);
+		
+		if(index < 0 || index > endIndex - startIndex){
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds in sequence of length " + getLength());
+		}
+		
+		return row.getSquare(startIndex + index);
+		
 	}
 	
 	// TODO: in Run, the get...RowIndex() methods are evil because the runs keep their reference to the original StandardPuzzleRow instead of switching to their row's active area;
@@ -80,47 +93,47 @@ public class StandardSequence implements Sequence {
 	// so either figure out a way to use the most specific active area from a row (ie. update the references) or just remove the link to the row entirely
 	
 	public int getFirstSquareRowIndex(){
-		return row.getSquareIndex(getFirstSquare());
+		return startIndex;
 	}
 	
 	public int getLastSquareRowIndex(){
-		return row.getSquareIndex(getLastSquare());
+		return endIndex;
 	}
 	
 	public int getFirstFilledSquareIndex() throws NoSuchSquareException {
 		
-		int squareIndex = 0;
-		while(squareIndex < squares.size() && !squares.get(squareIndex).isFilled()) squareIndex++;
+		int squareIndex = startIndex;
+		while(squareIndex <= endIndex && !row.getSquare(squareIndex).isFilled()) squareIndex++;
 		
-		if(squareIndex >= squares.size()){
+		if(squareIndex > endIndex){
 			throw new NoSuchSquareException("No filled squares exist within this sequence");
 		}
 		
-		return squareIndex;
+		return squareIndex - startIndex;
 		
 	}
 	
 	public int getLastFilledSquareIndex() throws NoSuchSquareException {
 		
-		int squareIndex = getLength() - 1;
-		while(squareIndex >= 0 && !squares.get(squareIndex).isFilled()) squareIndex--;
+		int squareIndex = endIndex;
+		while(squareIndex >= startIndex && !row.getSquare(squareIndex).isFilled()) squareIndex--;
 		
-		if(squareIndex < 0){
+		if(squareIndex < startIndex){
 			throw new NoSuchSquareException("No filled squares exist within this sequence");
 		}
 		
-		return squareIndex;
+		return squareIndex - startIndex;
 		
 	}
 	
 	public void clear() throws ConflictingSquareStateException {
-		row.clearSquares(getFirstSquareRowIndex(), getLastSquareRowIndex());
+		row.clearSquares(startIndex, endIndex);
 	}
 	
 	public boolean isCleared(){
 		
-		for(Square square : squares){
-			if(!square.isCleared()) return false;
+		for(int i=startIndex; i<=endIndex; i++){
+			if(!row.getSquare(i).isCleared()) return false;
 		}
 		
 		return true;
@@ -129,8 +142,8 @@ public class StandardSequence implements Sequence {
 	
 	public boolean isFilled(){
 		
-		for(Square square : squares){
-			if(!square.isFilled()) return false;
+		for(int i=startIndex; i<=endIndex; i++){
+			if(!row.getSquare(i).isFilled()) return false;
 		}
 		
 		return true;
@@ -138,7 +151,20 @@ public class StandardSequence implements Sequence {
 	}
 	
 	public List<Square> getSquares(){
-		return Collections.unmodifiableList(squares);
+		
+		// unmodifiable view onto the row's squares
+		return new AbstractList<Square>(){
+			
+			public Square get(int index) {
+				return getSquare(index);
+			}
+			
+			public int size() {
+				return getLength();
+			}
+			
+		};
+		
 	}
 	
 	public void addSquare(Square square){
@@ -146,33 +172,31 @@ public class StandardSequence implements Sequence {
 		// make sure the provided square contiguously extends the sequence
 		
 		int newSquareIndex = row.getSquareIndex(square);
-		int firstSquareRowIndex = getFirstSquareRowIndex();
-		int lastSquareRowIndex = getLastSquareRowIndex();
 		
-		boolean extendsFront = (newSquareIndex == firstSquareRowIndex - 1);
-		boolean extendsBack = (newSquareIndex == lastSquareRowIndex + 1);
+		boolean extendsFront = (newSquareIndex == startIndex - 1);
+		boolean extendsBack = (newSquareIndex == endIndex + 1);
 		if(!(extendsFront || extendsBack)){
-			throw new IllegalArgumentException("Provided square" + square + " does not extend sequence [" + firstSquareRowIndex + "," + lastSquareRowIndex + "]");
+			throw new IllegalArgumentException("Provided square" + square + " does not extend sequence [" + startIndex + "," + endIndex + "]");
 		}
 		
 		if(extendsFront){
-			squares.addFirst(square);
+			startIndex--;
 		} else if(extendsBack) {
-			squares.addLast(square);
+			endIndex++;
 		}
 		
 	}
 	
 	public void assignRun(Run run) throws RunLengthExceededException, ConflictingSquareRunException {
-		for(Square square : squares){
-			square.setRun(run);
+		for(int i=startIndex; i<=endIndex; i++){
+			row.getSquare(i).setRun(run);
 		}
 	}
 	
 	public boolean containsKnownSquares() {
 		
-		for(Square square : squares){
-			if(square.isStateKnown()) return true;
+		for(int i=startIndex; i<=endIndex; i++){
+			if(row.getSquare(i).isStateKnown()) return true;
 		}
 		
 		return false;
@@ -238,8 +262,8 @@ public class StandardSequence implements Sequence {
 	
 	public boolean containsFilledSquares() {
 		
-		for(Square square : squares){
-			if(square.isFilled()) return true;
+		for(int i=startIndex; i<=endIndex; i++){
+			if(row.getSquare(i).isFilled()) return true;
 		}
 		
 		return false;
@@ -249,26 +273,22 @@ public class StandardSequence implements Sequence {
 	public int getKnownSquareCount() {
 		
 		int count = 0;
-		for(Square square : squares){
-			if(square.isStateKnown()) count++;
+		for(int i=startIndex; i<=endIndex; i++){
+			if(row.getSquare(i).isStateKnown()) count++;
 		}
 		return count;
 		
 	}
 	
 	public boolean contains(Square square){
-		return squares.contains(square);
+		return (getOwnSquareIndex(square) >= 0);
 	}
 	
 	public int getSquareIndex(Square square) throws NoSuchSquareException {
 		
-		int result = 0;
-		
-		while(squares.get(result) != square){
-			result++;
-		}
+		int result = getOwnSquareIndex(square);
 		
-		if(result >= squares.size()){
+		if(result < 0){
 			throw new NoSuchSquareException("Cannot return square index; square " + square + " does not exist within this sequence");
 		}
 		
@@ -276,32 +296,38 @@ public class StandardSequence implements Sequence {
 		
 	}
 	
+	/**
+	 * Returns the index of <tt>square</tt> within this sequence, or -1 if it is not part of it.
+	 */
+	private int getOwnSquareIndex(Square square){
+		
+		int rowIndex = (row.getOrientation() == Orientation.HORIZONTAL ? square.getColumn() : square.getRow());
+		if(rowIndex < startIndex || rowIndex > endIndex || row.getSquare(rowIndex) != square) return -1;
+		
+		return rowIndex - startIndex;
+		
+	}
+	
 	public String toString(){
-		return squares.toString();
+		return getSquares().toString();
 	}
 	
 	public void trimLeft() throws ConflictingSquareStateException {
 		
-		int squareIndex = 0;
-		while(squareIndex < squares.size() && !squares.get(squareIndex).isStateKnown()){
-			squares.get(squareIndex).setState(SquareState.CLEAR);
-			squareIndex++;
+		while(startIndex <= endIndex && !row.getSquare(startIndex).isStateKnown()){
+			row.getSquare(startIndex).setState(SquareState.CLEAR);
+			startIndex++;
 		}
 		
-		squares = new LinkedList<Square>(squares.subList(squareIndex, squares.size())); // TODO: the new LinkedList is retarded, find a way to do this more elegantly
-		
 	}
 	
 	public void trimRight() throws ConflictingSquareStateException {
 		
-		int squareIndex = squares.size() - 1;
-		while(squareIndex >= 0 && !squares.get(squareIndex).isStateKnown()){
-			squares.get(squareIndex).setState(SquareState.CLEAR);
-			squareIndex--;
+		while(endIndex >= startIndex && !row.getSquare(endIndex).isStateKnown()){
+			row.getSquare(endIndex).setState(SquareState.CLEAR);
+			endIndex--;
 		}
 		
-		squares = new LinkedList<Square>(squares.subList(0, squareIndex + 1));
-		
 	}
 	
 }
@@ -1,10 +1,11 @@
 package com.voetsjoeba.nonogram.structure;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-import javax.swing.event.EventListenerList;
-
 import com.voetsjoeba.nonogram.event.SquareRunSetEvent;
 import com.voetsjoeba.nonogram.event.SquareRunSetListener;
 import com.voetsjoeba.nonogram.event.SquareStateSetEvent;
@@ -23,12 +24,22 @@ import com.voetsjoeba.nonogram.structure.api.Square;
  */
 public class StandardSquare implements Square {
 	
+	private static final SquareStateSetListener[] NO_STATE_SET_LISTENERS = new SquareStateSetListener[0];
+	private static final SquareRunSetListener[] NO_RUN_SET_LISTENERS = new SquareRunSetListener[0];
+	
 	private SquareState state;
 	private final int row;
 	private final int column;
 	
 	private Map<Orientation, Run> runs;
-	private EventListenerList eventListeners;
+	
+	// listeners are notified in reverse order of registration. the arrays are replaced rather than modified when listeners are (un)registered, 
+	// so that firing an event needn't take a snapshot of them
+	private SquareStateSetListener[] stateSetListeners;
+	private SquareRunSetListener[] runSetListeners;
+	
+	// log of the puzzle's changes, if any (see StandardPuzzle#checkpoint())
+	private UndoTrail trail;
 	
 	public StandardSquare(int row, int column){
 		this.row = row;
@@ -39,13 +50,14 @@ public class StandardSquare implements Square {
 	private void init(){
 		state = null;
 		runs = new HashMap<Orientation, Run>();
-		eventListeners = new EventListenerList();
+		stateSetListeners = NO_STATE_SET_LISTENERS;
+		runSetListeners = NO_RUN_SET_LISTENERS;
 	}
-
+	
 	public int getRow() {
 		return row;
 	}
-
+	
 	public int getColumn() {
 		return column;
 	}
@@ -82,12 +94,14 @@ public class StandardSquare implements Square {
 			if(state == newState){
 				return; // ok, no change
 			} else {
-				throw new ConflictingSquareStateException("Could not change square("+column+","+row+")'s status to " + newState + ", was already set to " + this.state);
+				throw new ConflictingSquareStateException("Could not change square("+column+","+row+")'s status to " + newState + ", was already set to " + this.state, column, row);
 			}
 			
 		}
 		
 		state = newState;
+		if(trail != null && trail.isRecording()) trail.squareStateSet(this);
+		
 		fireStateSet();
 		
 	}
@@ -100,31 +114,71 @@ public class StandardSquare implements Square {
 	}
 	
 	private void fireStateSet(){
-		for(SquareStateSetListener listener : eventListeners.getListeners(SquareStateSetListener.class)){
-			listener.squareStateSet(new SquareStateSetEvent(this));
+		
+		SquareStateSetListener[] listeners = stateSetListeners;
+		if(listeners.length == 0) return;
+		
+		SquareStateSetEvent event = new SquareStateSetEvent(this);
+		for(int i=listeners.length-1; i>=0; i--){
+			listeners[i].squareStateSet(event);
 		}
+		
 	}
 	
 	private void fireRunSet(Orientation orientation){
-		for(SquareRunSetListener listener : eventListeners.getListeners(SquareRunSetListener.class)){
-			listener.runSet(new SquareRunSetEvent(this, orientation));
+		
+		SquareRunSetListener[] listeners = runSetListeners;
+		if(listeners.length == 0) return;
+		
+		SquareRunSetEvent event = new SquareRunSetEvent(this, orientation);
+		for(int i=listeners.length-1; i>=0; i--){
+			listeners[i].runSet(event);
 		}
+		
 	}
 	
 	public void addStateSetListener(SquareStateSetListener listener){
-		eventListeners.add(SquareStateSetListener.class, listener);
+		
+		if(listener == null) return;
+		
+		List<SquareStateSetListener> newListeners = new ArrayList<SquareStateSetListener>(Arrays.asList(stateSetListeners));
+		newListeners.add(listener);
+		stateSetListeners = newListeners.toArray(NO_STATE_SET_LISTENERS);
+		
 	}
 	
 	public void addRunSetListener(SquareRunSetListener listener){
-		eventListeners.add(SquareRunSetListener.class, listener);
+		
+		if(listener == null) return;
+		
+		List<SquareRunSetListener> newListeners = new ArrayList<SquareRunSetListener>(Arrays.asList(runSetListeners));
+		newListeners.add(listener);
+		runSetListeners = newListeners.toArray(NO_RUN_SET_LISTENERS);
+		
 	}
 	
 	public void removeRunSetListener(SquareRunSetListener listener) {
-		eventListeners.remove(SquareRunSetListener.class, listener);
+		
+		List<SquareRunSetListener> newListeners = new ArrayList<SquareRunSetListener>(Arrays.asList(runSetListeners));
+		
+		int index = newListeners.lastIndexOf(listener);
+		if(index < 0) return;
+		
+		newListeners.remove(index);
+		runSetListeners = newListeners.toArray(NO_RUN_SET_LISTENERS);
+		
 	}
 	
 	public void removeStateSetListener(SquareStateSetListener listener) {
-		eventListeners.remove(SquareStateSetListener.class, listener);
+		
+		List<SquareStateSetListener> newListeners = new ArrayList<SquareStateSetListener>(Arrays.asList(stateSetListeners));
+		
+		int index = newListeners.lastIndexOf(listener);
+		if(index < 0) return;
+		
+		newListeners.remove(index);
+		stateSetListeners = newListeners.toArray(NO_STATE_SET_LISTENERS);
+		
 	}
 	
 	/**
@@ -152,6 +206,8 @@ public class StandardSquare implements Square {
 			
 		}
 		
+		if(trail != null && trail.isRecording()) trail.squareRunSet(this, run.getOrientation());
+		
 		runs.put(run.getOrientation(), run);
 		run.addSquare(this);
 		
@@ -167,4 +223,26 @@ public class StandardSquare implements Square {
 		return runs.containsKey(orientation);
 	}
 	
+	UndoTrail getTrail() {
+		return trail;
+	}
+	
+	void setTrail(UndoTrail trail) {
+		this.trail = trail;
+	}
+	
+	/**
+	 * Makes this square's state unknown again, without notifying any listeners. Only to be used by the {@link UndoTrail}.
+	 */
+	void revertState(){
+		state = null;
+	}
+	
+	/**
+	 * Unassigns this square's run of the provided orientation, without notifying any listeners. Only to be used by the {@link UndoTrail}.
+	 */
+	void revertRun(Orientation orientation){
+		runs.remove(orientation);
+	}
+	
 }
@@ -0,0 +1,198 @@
+package com.voetsjoeba.nonogram.structure;
+
+/**
+ * Log of the changes made to the squares, runs and rows of a {@link StandardPuzzle} since one or more checkpoints, from which the puzzle
+ * can be restored to any of those checkpoints in time proportional to the amount of changes made since (see
+ * {@link StandardPuzzle#checkpoint()}).
+ * 
+ * <p>Changes are only logged while there is at least one checkpoint. Each change is logged as an entry holding the changed object and
+ * whatever is needed to revert it; entries are kept in parallel arrays rather than as separate objects, as the solver makes lots of
+ * changes.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+class UndoTrail {
+	
+	// a square's state was set
+	private static final byte SQUARE_STATE = 0;
+	// a square was assigned a run; data holds the run's orientation
+	private static final byte SQUARE_RUN = 1;
+	// a square was added to a run; data holds the run's known square count and interval before the change
+	private static final byte RUN = 2;
+	// a row was notified of a change to one of its squares; data holds its known square count before the change
+	private static final byte ROW = 3;
+	
+	private static final int DATA_SIZE = 3;
+	
+	private byte[] kinds;
+	private Object[] subjects;
+	private int[] data;
+	private int size = 0;
+	
+	// trail sizes at each checkpoint, in the order they were made
+	private int[] checkpoints;
+	private int checkpointCount = 0;
+	
+	public UndoTrail(){
+		
+		kinds = new byte[256];
+		subjects = new Object[256];
+		data = new int[256 * DATA_SIZE];
+		checkpoints = new int[8];
+		
+	}
+	
+	/**
+	 * Returns whether changes are currently being logged, i.e. whether there are any checkpoints.
+	 */
+	public boolean isRecording(){
+		return (checkpointCount > 0);
+	}
+	
+	/**
+	 * Makes a new checkpoint and returns it.
+	 */
+	public int checkpoint(){
+		
+		if(checkpointCount == checkpoints.length){
+			int[] newCheckpoints = new int[2 * checkpoints.length];
+			System.arraycopy(checkpoints, 0, newCheckpoints, 0, checkpointCount);
+			checkpoints = newCheckpoints;
+		}
+		
+		checkpoints[checkpointCount++] = size;
+		return size;
+		
+	}
+	
+	/**
+	 * Reverts all changes made since the provided checkpoint. The checkpoint remains valid, but any checkpoints made after it are discarded.
+	 * @throws IllegalArgumentException if the checkpoint is not valid.
+	 */
+	public void restore(int checkpoint){
+		
+		int checkpointIndex = indexOf(checkpoint);
+		
+		while(size > checkpoint){
+			
+			size--;
+			
+			Object subject = subjects[size];
+			int offset = size * DATA_SIZE;
+			
+			switch(kinds[size]){
+				
+				case SQUARE_STATE:
+					((StandardSquare) subject).revertState();
+					break;
+				
+				case SQUARE_RUN:
+					((StandardSquare) subject).revertRun(Orientation.values()[data[offset]]);
+					break;
+				
+				case RUN:
+					((StandardRun) subject).revert(data[offset], data[offset + 1], data[offset + 2]);
+					break;
+				
+				case ROW:
+					((StandardRow) subject).revert(data[offset]);
+					break;
+				
+			}
+			
+			subjects[size] = null;
+			
+		}
+		
+		checkpointCount = checkpointIndex + 1;
+		
+	}
+	
+	/**
+	 * Discards the provided checkpoint and any checkpoints made after it, keeping all changes made since. Once there are no checkpoints
+	 * left, the log is cleared and changes are no longer logged.
+	 * @throws IllegalArgumentException if the checkpoint is not valid.
+	 */
+	public void release(int checkpoint){
+		
+		checkpointCount = indexOf(checkpoint);
+		
+		if(checkpointCount == 0){
+			for(int i=0; i<size; i++) subjects[i] = null;
+			size = 0;
+		}
+		
+	}
+	
+	/**
+	 * Returns the position of the last checkpoint made at the provided trail size.
+	 */
+	private int indexOf(int checkpoint){
+		
+		for(int i=checkpointCount-1; i>=0; i--){
+			if(checkpoints[i] == checkpoint) return i;
+			if(checkpoints[i] < checkpoint) break;
+		}
+		
+		throw new IllegalArgumentException("Invalid checkpoint " + checkpoint);
+		
+	}
+	
+	/**
+	 * Returns the amount of changes logged.
+	 */
+	public int size(){
+		return size;
+	}
+	
+	void squareStateSet(StandardSquare square){
+		add(SQUARE_STATE, square, 0, 0, 0);
+	}
+	
+	void squareRunSet(StandardSquare square, Orientation orientation){
+		add(SQUARE_RUN, square, orientation.ordinal(), 0, 0);
+	}
+	
+	void runChanged(StandardRun run, int knownSquareCount, int firstKnownIndex, int lastKnownIndex){
+		add(RUN, run, knownSquareCount, firstKnownIndex, lastKnownIndex);
+	}
+	
+	void rowChanged(StandardRow row, int knownSquares){
+		add(ROW, row, knownSquares, 0, 0);
+	}
+	
+	private void add(byte kind, Object subject, int data0, int data1, int data2){
+		
+		if(size == kinds.length) grow();
+		
+		kinds[size] = kind;
+		subjects[size] = subject;
+		
+		int offset = size * DATA_SIZE;
+		data[offset] = data0;
+		data[offset + 1] = data1;
+		data[offset + 2] = data2;
+		
+		size++;
+		
+	}
+	
+	private void grow(){
+		
+		int capacity = 2 * kinds.length;
+		
+		byte[] newKinds = new byte[capacity];
+		Object[] newSubjects = new Object[capacity];
+		int[] newData = new int[capacity * DATA_SIZE];
+		
+		System.arraycopy(kinds, 0, newKinds, 0, size);
+		System.arraycopy(subjects, 0, newSubjects, 0, size);
+		System.arraycopy(data, 0, newData, 0, size * DATA_SIZE);
+		
+		kinds = newKinds;
+		subjects = newSubjects;
+		data = newData;
+		
+	}
+	
+}
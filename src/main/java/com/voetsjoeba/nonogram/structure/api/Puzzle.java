@@ -61,4 +61,10 @@ public interface Puzzle {
 	 */
 	public boolean isComplete();
 	
+	/**
+	 * Returns an independent copy of this puzzle, including the states and runs of all squares that are currently known.
+	 * Changes made to the copy do not affect this puzzle and vice versa.
+	 */
+	public Puzzle copy();
+	
 }
\ No newline at end of file
@@ -85,7 +85,8 @@ public interface Row extends Comparator<Square>, RunContainer {
 	public List<Run> getIncompleteRuns(int minLength);
 	
 	/**
-	 * Returns a list of runs whose amount of known squares does not equal their length.
+	 * Returns a list of runs whose amount of known squares does not equal their length. The returned list is unmodifiable and is not
+	 * updated afterwards; it can be shared between calls for as long as none of its runs are completed.
 	 */
 	public List<Run> getIncompleteRuns();
 	
@@ -95,7 +96,8 @@ public interface Row extends Comparator<Square>, RunContainer {
 	public List<Run> getUnknownRuns(int minLength);
 	
 	/**
-	 * Returns a list of runs for which no squares are known (in order of position within this row).
+	 * Returns a list of runs for which no squares are known (in order of position within this row). Like {@link #getIncompleteRuns()}, 
+	 * the returned list is unmodifiable and can be shared between calls.
 	 */
 	public List<Run> getUnknownRuns();
 	
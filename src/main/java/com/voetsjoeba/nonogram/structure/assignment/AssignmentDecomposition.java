@@ -1,8 +1,7 @@
 package com.voetsjoeba.nonogram.structure.assignment;
 
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 
@@ -15,24 +14,94 @@ import com.voetsjoeba.nonogram.structure.RowDecomposition;
 import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.api.Sequence;
 import com.voetsjoeba.nonogram.structure.api.Square;
-import com.voetsjoeba.nonogram.util.NonogramUtils;
 
 /**
  * Working decomposition for use with run assignment generation.
  * 
+ * <p>The slots of the decomposition are stored flat, by global index: the index (see {@link Run#getIndex()}) of the run assigned to each
+ * slot and of the run it is fixed to (or -1), and bitsets of the fixed and valid slots. The sequence and offset of each global index are
+ * looked up in precomputed tables, so assigning, unassigning and validating runs doesn't allocate anything.</p>
+ * 
  * @author Jeroen De Ridder
  */
 public class AssignmentDecomposition extends AbstractDecomposition {
 	
-	protected AssignmentSlot[][] slots;
 	protected final RowDecomposition rowDecomposition;
+	protected final Run[] runs; // runs of the row, by index
 	
 	// TODO: code duplication of RowDecomposition
 	protected int totalLength;
 	
+	protected int[] sequenceLengths;
+	protected int[] sequenceIndices; // index of the sequence containing each slot
+	protected int[] sequenceOffsets; // offset of each slot within its sequence
+	
+	protected int[] assignedRuns; // index of the run assigned to each slot, or -1
+	protected int[] fixedRuns; // index of the run each slot is fixed to, or -1
+	protected BitSet fixed; // slots that are known to be filled
+	protected BitSet valid; // slots that assignments may still use validly (by whatever definition of valid you choose)
+	
+	/**
+	 * Returned by {@link #tryAssign(Run, int)} if the run could not be assigned.
+	 */
+	public static final int NOT_ASSIGNED = -1;
+	
+	/**
+	 * Returned by {@link #tryAssign(Run, int)} if the run was assigned without filling up its sequence.
+	 */
+	public static final int ASSIGNED = 0;
+	
+	/**
+	 * Returned by {@link #tryAssign(Run, int)} if the run was assigned and completely filled up its sequence.
+	 */
+	public static final int ASSIGNED_FILLING_SEQUENCE = 1;
+	
+	// outcomes of checkAssignment
+	private static final int ASSIGNABLE = 0;
+	private static final int INSUFFICIENT_ROOM = 1;
+	private static final int KNOWN_SQUARES_EXCLUDED = 2;
+	private static final int BORDER_TOUCHED = 3;
+	private static final int FIXED_RUN_CONFLICT = 4;
+	private static final int SLOT_OCCUPIED = 5;
+	
+	// per run: the amount of slots fixed to it, and the first and last of them
+	protected int[] fixedRunSlotCounts;
+	protected int[] firstFixedRunSlots;
+	protected int[] lastFixedRunSlots;
+	
 	public AssignmentDecomposition(RowDecomposition decomposition){
+		
 		this.rowDecomposition = decomposition;
+		
+		List<Run> rowRuns = decomposition.getRow().getRuns();
+		this.runs = rowRuns.toArray(new Run[rowRuns.size()]);
+		
 		initSlots(decomposition);
+		
+	}
+	
+	/**
+	 * Copy constructor; the copy starts out with the same assigned runs and valid slots as <tt>assignment</tt>.
+	 */
+	public AssignmentDecomposition(AssignmentDecomposition assignment){
+		
+		this.rowDecomposition = assignment.rowDecomposition;
+		this.runs = assignment.runs;
+		this.totalLength = assignment.totalLength;
+		
+		// lookup tables never change, so they can be shared
+		this.sequenceLengths = assignment.sequenceLengths;
+		this.sequenceIndices = assignment.sequenceIndices;
+		this.sequenceOffsets = assignment.sequenceOffsets;
+		this.fixedRuns = assignment.fixedRuns;
+		this.fixed = assignment.fixed;
+		this.fixedRunSlotCounts = assignment.fixedRunSlotCounts;
+		this.firstFixedRunSlots = assignment.firstFixedRunSlots;
+		this.lastFixedRunSlots = assignment.lastFixedRunSlots;
+		
+		this.assignedRuns = assignment.assignedRuns.clone();
+		this.valid = (BitSet) assignment.valid.clone();
+		
 	}
 	
 	/**
@@ -45,32 +114,61 @@ public class AssignmentDecomposition extends AbstractDecomposition {
 		List<Sequence> sequences = rowDecomposition.getSequences();
 		int sequenceCount = sequences.size();
 		
-		slots = new AssignmentSlot[sequenceCount][];
+		totalLength = 0;
+		for(Sequence sequence : sequences) totalLength += sequence.getLength();
+		
+		sequenceLengths = new int[sequenceCount];
+		sequenceIndices = new int[totalLength];
+		sequenceOffsets = new int[totalLength];
+		
+		assignedRuns = new int[totalLength];
+		fixedRuns = new int[totalLength];
+		fixed = new BitSet(totalLength);
+		valid = new BitSet(totalLength);
+		valid.set(0, totalLength);
+		
+		fixedRunSlotCounts = new int[runs.length];
+		firstFixedRunSlots = new int[runs.length];
+		lastFixedRunSlots = new int[runs.length];
+		
+		int globalIndex = 0;
 		
 		for(int i=0; i<sequenceCount; i++){
 			
 			Sequence sequence = sequences.get(i);
 			int sequenceLength = sequence.getLength();
 			
-			slots[i] = new AssignmentSlot[sequenceLength];
+			sequenceLengths[i] = sequenceLength;
 			
 			for(int j=0; j<sequenceLength; j++){
 				
 				Square square = sequence.getSquare(j);
 				
+				sequenceIndices[globalIndex] = i;
+				sequenceOffsets[globalIndex] = j;
+				
 				assert !square.isCleared(); // square state must be either filled or unknown -- cleared is impossible due to the nature of the row decomposition
-				slots[i][j] = new AssignmentSlot();
-				slots[i][j].setFixed(square.isFilled());
+				assignedRuns[globalIndex] = -1;
+				fixedRuns[globalIndex] = -1;
+				fixed.set(globalIndex, square.isFilled());
 				
 				if(square.hasRun(rowOrientation)){
+					
 					assert square.isFilled();
-					slots[i][j].setFixedRun(square.getRun(rowOrientation));
+					
+					int runIndex = square.getRun(rowOrientation).getIndex();
+					fixedRuns[globalIndex] = runIndex;
+					
+					if(fixedRunSlotCounts[runIndex] == 0) firstFixedRunSlots[runIndex] = globalIndex;
+					lastFixedRunSlots[runIndex] = globalIndex;
+					fixedRunSlotCounts[runIndex]++;
+					
 				}
 				
+				globalIndex++;
+				
 			}
 			
-			totalLength += sequenceLength;
-			
 		}
 		
 	}
@@ -78,11 +176,22 @@ public class AssignmentDecomposition extends AbstractDecomposition {
 	// -- Decomposition interface -----------------------------------------
 	
 	public int getSequenceCount() {
-		return slots.length;
+		return sequenceLengths.length;
 	}
 	
 	public int getSequenceLength(int i) {
-		return slots[i].length;
+		return sequenceLengths[i];
+	}
+	
+	@Override
+	public LocalDecompositionIndex globalToLocal(int globalIndex) {
+		
+		if(globalIndex < 0 || globalIndex >= totalLength){
+			throw new IllegalArgumentException("Invalid global index '" + globalIndex + "'; must range between 0 and " + (totalLength - 1));
+		}
+		
+		return new LocalDecompositionIndex(sequenceIndices[globalIndex], sequenceOffsets[globalIndex]);
+		
 	}
 	
 	// --------------------------------------------------------------------
@@ -92,102 +201,119 @@ public class AssignmentDecomposition extends AbstractDecomposition {
 	 * 
 	 * @param run
 	 * @param globalIndex The global decomposition index indicating the first square of the assigned run
-	 * @return Whether the assigned run has completely filled the sequence to which it was assigned, i.e. whether the last 
-	 * square of the assigned run is also the last square of the enclosing sequence. See also the comments in {@link NonogramUtils#generateAssignmentsRecursive(List, AssignmentDecomposition, int, List)}'s body.
+	 * @return Whether the assigned run has completely filled the sequence to which it was assigned, i.e. whether the last
+	 * square of the assigned run is also the last square of the enclosing sequence. See also the comments in the body of
+	 * {@link com.voetsjoeba.nonogram.algorithm.AssignmentGenerator#generateAssignmentsRecursive(List, AssignmentDecomposition, int, AssignmentGenerationCallback)}.
 	 * 
 	 * @throws SequenceLengthExceededException if the run cannot be assigned because it would exceed its enclosing sequence size
 	 * @throws InvalidRunConfigurationException
-	 * @throws ConflictingSquareRunException 
+	 * @throws ConflictingSquareRunException
 	 */
 	public boolean assign(Run run, int globalIndex) throws SequenceLengthExceededException, InvalidRunConfigurationException, ConflictingSquareRunException {
 		
-		// try to assign the run to the sequence of squares starting at globalIndex, throw an error if a run is already
+		switch(checkAssignment(run, globalIndex)){
+			
+			case INSUFFICIENT_ROOM:
+				throw new SequenceLengthExceededException("Cannot assign run; insufficient room for run of length " + run.getLength() + " at offset " + sequenceOffsets[globalIndex] + " in sequence with length " + sequenceLengths[sequenceIndices[globalIndex]]);
+			case KNOWN_SQUARES_EXCLUDED:
+				throw new InvalidRunConfigurationException("Cannot assign run; target location does not include known squares " + run.getKnownSquares());
+			case BORDER_TOUCHED:
+				throw new InvalidRunConfigurationException("Cannot assign run; border touches with previously assigned run or fixed slot");
+			case FIXED_RUN_CONFLICT:
+				throw new ConflictingSquareRunException("Cannot assign run " + run + "; a square is fixed to another run");
+			case SLOT_OCCUPIED:
+				throw new InvalidRunConfigurationException("Cannot assign run " + run + " at offset " + sequenceOffsets[globalIndex] + " in sequence " + sequenceIndices[globalIndex] + "; a run is already assigned there");
+			
+		}
+		
+		return setRun(run, globalIndex);
+		
+	}
+	
+	/**
+	 * Allocates <tt>run</tt> at the specified global square index in the decomposition, if possible. Does the same as 
+	 * {@link #assign(Run, int)}, but signals failure through its return value rather than by an exception.
+	 * 
+	 * @return {@link #NOT_ASSIGNED} if the run could not be assigned; otherwise {@link #ASSIGNED_FILLING_SEQUENCE} if the assigned run 
+	 * has completely filled the sequence to which it was assigned, or {@link #ASSIGNED} if it hasn't.
+	 */
+	public int tryAssign(Run run, int globalIndex){
+		
+		if(checkAssignment(run, globalIndex) != ASSIGNABLE) return NOT_ASSIGNED;
+		return (setRun(run, globalIndex) ? ASSIGNED_FILLING_SEQUENCE : ASSIGNED);
+		
+	}
+	
+	/**
+	 * Checks whether <tt>run</tt> can be assigned at the specified global square index, and returns {@link #ASSIGNABLE} if it can, or the reason
+	 * why it can't.
+	 */
+	private int checkAssignment(Run run, int globalIndex){
+		
+		// try to assign the run to the sequence of squares starting at globalIndex, fail if a run is already
 		// assigned to any of the squares
 		
-		// make sure there is room for the run
-		LocalDecompositionIndex startIndexLocal = globalToLocal(globalIndex);
+		int runIndex = run.getIndex();
+		int runLength = run.getLength();
+		int endIndex = globalIndex + runLength; // exclusive
 		
-		AssignmentSlot[] sequence = slots[startIndexLocal.sequenceIndex];
-		int sequenceLengthRemaining = sequence.length - startIndexLocal.sequenceOffset;
+		assert runs[runIndex] == run;
 		
-		if(sequenceLengthRemaining < run.getLength()){
-			throw new SequenceLengthExceededException("Cannot assign run; insufficient room for run of length " + run.getLength() + " at offset " + startIndexLocal.sequenceOffset + " in sequence with length " + slots[startIndexLocal.sequenceIndex].length);
-		}
+		// make sure there is room for the run
+		int sequenceLengthRemaining = sequenceLengths[sequenceIndices[globalIndex]] - sequenceOffsets[globalIndex];
+		if(sequenceLengthRemaining < runLength) return INSUFFICIENT_ROOM;
 		
-		// make sure the requested assignment contains all the known squares of this run (if any)
-		if(run.hasKnownSquares()){
+		// make sure the requested assignment contains all the known squares of this run (if any), i.e. that all of them are in the
+		// decomposition and lie within the target location
+		int knownSquareCount = run.getKnownSquareCount();
+		if(knownSquareCount > 0){
 			
-			// build set of squares that will contain the assigned run
-			Set<Square> targetSquares = new HashSet<Square>();
-			for(int i=globalIndex; i < globalIndex + run.getLength(); i++){
-				Square square = rowDecomposition.getSquare(i);
-				targetSquares.add(square);
-			}
-			
-			// ensure that all known squares are in the targetSquares set
-			if(!targetSquares.containsAll(run.getKnownSquares())){
-				throw new InvalidRunConfigurationException("Cannot assign run; target location does not include known squares " + run.getKnownSquares());
+			if(fixedRunSlotCounts[runIndex] != knownSquareCount || firstFixedRunSlots[runIndex] < globalIndex || lastFixedRunSlots[runIndex] >= endIndex){
+				return KNOWN_SQUARES_EXCLUDED;
 			}
 			
 		}
 		
-		
 		// ensure that the squares on either side of the would-be-assigned run (if they exist) are free
-		if(startIndexLocal.sequenceOffset > 0){
-			
-			AssignmentSlot leftBorderSlot = sequence[startIndexLocal.sequenceOffset - 1];
-			if(leftBorderSlot.getRun() != null) throw new InvalidRunConfigurationException("Cannot assign run; left border touches with previously assigned or fixed run " + leftBorderSlot.getRun());
-			if(leftBorderSlot.isFixed()) throw new InvalidRunConfigurationException("Cannot assign run; left border touches with fixed slot");
-			
-			
+		if(sequenceOffsets[globalIndex] > 0){
+			int leftBorderIndex = globalIndex - 1;
+			if(assignedRuns[leftBorderIndex] >= 0 || fixed.get(leftBorderIndex)) return BORDER_TOUCHED;
 		}
 		
-		if(startIndexLocal.sequenceOffset + run.getLength() < sequence.length){
-			
-			AssignmentSlot rightBorderSlot = sequence[startIndexLocal.sequenceOffset + run.getLength()];
-			if(rightBorderSlot.getRun() != null) throw new InvalidRunConfigurationException("Cannot assign run; right border touches with previously assigned run " + rightBorderSlot.getRun());
-			if(rightBorderSlot.isFixed()) throw new InvalidRunConfigurationException("Cannot assign run; right border touches with fixed slot");
-			
+		if(sequenceLengthRemaining > runLength){
+			int rightBorderIndex = endIndex;
+			if(assignedRuns[rightBorderIndex] >= 0 || fixed.get(rightBorderIndex)) return BORDER_TOUCHED;
 		}
 		
-		// check whether the squares are free (or already set to the run that is to be assigned; this is needed 
+		// check whether the squares are free (or already set to the run that is to be assigned; this is needed
 		// so that runs can be positioned over any fixed squares that have already been assigned that run)
-		for(int i=globalIndex; i < globalIndex + run.getLength(); i++){
+		for(int i=globalIndex; i < endIndex; i++){
 			
-			LocalDecompositionIndex localIndex = globalToLocal(i);
-			AssignmentSlot slot = sequence[localIndex.sequenceOffset];
-			
-			if(slot.getFixedRun() != null){
-				
-				// the run we're going to set must equal the fixed run
-				if(run != slot.getFixedRun()){
-					throw new ConflictingSquareRunException("Cannot assign run; square is fixed to run " + slot.getFixedRun());
-				}
-				
-			}
+			// the run we're going to set must equal the fixed run
+			if(fixedRuns[i] >= 0 && fixedRuns[i] != runIndex) return FIXED_RUN_CONFLICT;
 			
 			// the slot whose run we're going to set must not yet have a run assigned
-			if(slot.getRun() != null){
-				throw new InvalidRunConfigurationException("Cannot assign run " + run + " at offset " + startIndexLocal.sequenceOffset + " in sequence " + startIndexLocal.sequenceIndex + "; a run is already assigned at index " + localIndex.sequenceOffset + "("+slot.getRun()+")");
-			}
-			
-			//Run assignedRun = sequence[localIndex.sequenceOffset].getRun();
-			
-			/*if(assignedRun != null && assignedRun != run){
-				throw new InvalidRunConfigurationException("Cannot assign run " + run + " at offset " + startIndexLocal.sequenceOffset + " in sequence " + startIndexLocal.sequenceIndex + "; a run is already assigned at index " + localIndex.sequenceOffset + "("+assignedRun+")");
-			}*/
+			if(assignedRuns[i] >= 0) return SLOT_OCCUPIED;
 			
 		}
 		
-		// assign the run
-		for(int i=globalIndex; i < globalIndex + run.getLength(); i++){
-			
-			LocalDecompositionIndex localIndex = globalToLocal(i);
-			sequence[localIndex.sequenceOffset].setRun(run);
-			
+		return ASSIGNABLE;
+		
+	}
+	
+	/**
+	 * Sets <tt>run</tt> at the squares starting at the specified global index, and returns whether it completely fills its sequence.
+	 */
+	private boolean setRun(Run run, int globalIndex){
+		
+		int runIndex = run.getIndex();
+		int endIndex = globalIndex + run.getLength(); // exclusive
+		
+		for(int i=globalIndex; i < endIndex; i++){
+			assignedRuns[i] = runIndex;
 		}
 		
-		return (sequenceLengthRemaining == run.getLength());
+		return (sequenceOffsets[globalIndex] + run.getLength() == sequenceLengths[sequenceIndices[globalIndex]]);
 		
 	}
 	
@@ -200,37 +326,30 @@ public class AssignmentDecomposition extends AbstractDecomposition {
 	 */
 	public void unassign(Run run, int globalIndex) throws InvalidRunConfigurationException {
 		
-		LocalDecompositionIndex startIndexLocal = globalToLocal(globalIndex);
+		int runIndex = run.getIndex();
+		int endIndex = globalIndex + run.getLength(); // exclusive
 		
 		// ensure that all squares that are to be cleared are set to the specified run
 		// due to the validation performed by the assign method, we need not explicitly perform any sanity checks here
 		// because only valid placements are allowed
 		
-		for(int i=globalIndex; i < globalIndex + run.getLength(); i++){
+		for(int i=globalIndex; i < endIndex; i++){
 			
-			LocalDecompositionIndex localIndex = globalToLocal(i);
-			if(slots[localIndex.sequenceIndex][localIndex.sequenceOffset].getRun() != run){
-				throw new InvalidRunConfigurationException("Cannot undo assignment of run " + run + " at offset " + startIndexLocal.sequenceOffset + " in sequence " + startIndexLocal.sequenceIndex + "; not all squares are set to the to-be-removed run");
+			if(assignedRuns[i] != runIndex){
+				throw new InvalidRunConfigurationException("Cannot undo assignment of run " + run + " at offset " + sequenceOffsets[globalIndex] + " in sequence " + sequenceIndices[globalIndex] + "; not all squares are set to the to-be-removed run");
 			}
 			
 		}
 		
 		// undo assignment
-		
-		for(int i=globalIndex; i < globalIndex + run.getLength(); i++){
-			
-			LocalDecompositionIndex localIndex = globalToLocal(i);
-			AssignmentSlot slot = slots[localIndex.sequenceIndex][localIndex.sequenceOffset];
-			
-			// remove run registration
-			slot.setRun(null);
-			
+		for(int i=globalIndex; i < endIndex; i++){
+			assignedRuns[i] = -1;
 		}
 		
 	}
 	
 	/**
-	 * Ensures that fixed slots 
+	 * Ensures that fixed slots
 	 */
 	public void validateFixedSlots() throws InvalidRunConfigurationException {
 		validateFixedSlots(0, totalLength);
@@ -238,29 +357,40 @@ public class AssignmentDecomposition extends AbstractDecomposition {
 	
 	public void validateFixedSlots(int startIndex, int endIndex) throws InvalidRunConfigurationException {
 		
+		int globalIndex = findInvalidFixedSlot(startIndex, endIndex);
+		if(globalIndex < 0) return;
+		
+		if(assignedRuns[globalIndex] < 0){
+			throw new InvalidRunConfigurationException("No run configured for fixed slot " + globalIndex);
+		} else {
+			throw new InvalidRunConfigurationException("Invalid run configured for fixed run slot " + globalIndex + "; expected " + runs[fixedRuns[globalIndex]] + ", found " + runs[assignedRuns[globalIndex]]);
+		}
+		
+	}
+	
+	/**
+	 * Returns the global index of the first fixed slot within [<tt>startIndex</tt>, <tt>endIndex</tt>[ that doesn't have a run assigned, or that has 
+	 * a run assigned other than the one it is fixed to; or -1 if there is none. Does the same as {@link #validateFixedSlots(int, int)}, but signals 
+	 * failure through its return value rather than by an exception.
+	 */
+	public int findInvalidFixedSlot(int startIndex, int endIndex){
+		
 		// make sure that, within the range [startIndex, endIndex[:
 		// 1) each fixed slot has a run assigned
 		// 2) each fixed run slot has the right run assigned
 		
-		for(int globalIndex = startIndex; globalIndex < endIndex; globalIndex++){
-			
-			LocalDecompositionIndex localIndex = globalToLocal(globalIndex);
-			AssignmentSlot slot = slots[localIndex.sequenceIndex][localIndex.sequenceOffset];
-			if(!slot.isFixed()) continue;
+		for(int globalIndex = fixed.nextSetBit(startIndex); globalIndex >= 0 && globalIndex < endIndex; globalIndex = fixed.nextSetBit(globalIndex + 1)){
 			
-			Run assignedRun = slot.getRun();
-			Run fixedRun = slot.getFixedRun();
+			int assignedRun = assignedRuns[globalIndex];
+			int fixedRun = fixedRuns[globalIndex];
 			
-			if(assignedRun == null){
-				throw new InvalidRunConfigurationException("No run configured for fixed slot " + slot);
-			}
-			
-			if(fixedRun != null && assignedRun != fixedRun){
-				throw new InvalidRunConfigurationException("Invalid run configured for fixed run slot " + slot + "; expected " + slot.getFixedRun() + ", found " + assignedRun);
+			if(assignedRun < 0 || (fixedRun >= 0 && assignedRun != fixedRun)){
+				return globalIndex;
 			}
 			
 		}
 		
+		return -1;
 		
 	}
 	
@@ -273,27 +403,37 @@ public class AssignmentDecomposition extends AbstractDecomposition {
 	 * @param globalIndex
 	 * @return
 	 */
-	/*public Run getRunAt(int globalIndex){
-		LocalDecompositionIndex localIndex = globalToLocal(globalIndex);
-		return slots[localIndex.sequenceIndex][localIndex.sequenceOffset].getRun();
-	}*/
+	public Run getRunAt(int globalIndex){
+		int runIndex = assignedRuns[globalIndex];
+		return (runIndex < 0 ? null : runs[runIndex]);
+	}
 	
 	/**
 	 * Returns the fixed run (if any) at <tt>globalIndex</tt>, or null if no such fixed run exists.
 	 * @param globalIndex
 	 * @return
 	 */
-	/*public Run getFixedRunAt(int globalIndex){
-		LocalDecompositionIndex localIndex = globalToLocal(globalIndex);
-		return slots[localIndex.sequenceIndex][localIndex.sequenceOffset].getFixedRun();
-	}*/
+	public Run getFixedRunAt(int globalIndex){
+		int runIndex = fixedRuns[globalIndex];
+		return (runIndex < 0 ? null : runs[runIndex]);
+	}
+	
+	/**
+	 * Returns whether the square at <tt>globalIndex</tt> is known to be filled.
+	 */
+	public boolean isFixed(int globalIndex){
+		return fixed.get(globalIndex);
+	}
 	
 	/**
-	 * Returns the assignment slot at <tt>globalIndex</tt>.
+	 * Returns whether assignments that use the slot at <tt>globalIndex</tt> are valid (by whatever definition of valid you choose).
 	 */
-	public AssignmentSlot getSlotAt(int globalIndex){
-		LocalDecompositionIndex localIndex = globalToLocal(globalIndex);
-		return slots[localIndex.sequenceIndex][localIndex.sequenceOffset];
+	public boolean isValid(int globalIndex){
+		return valid.get(globalIndex);
+	}
+	
+	public void setValid(int globalIndex, boolean valid){
+		this.valid.set(globalIndex, valid);
 	}
 	
 	public String toString(){
@@ -301,50 +441,30 @@ public class AssignmentDecomposition extends AbstractDecomposition {
 		StringBuffer sb = new StringBuffer();
 		
 		// runs
-		List<Run> runs = rowDecomposition.getRow().getRuns();
-		int runCount = runs.size();
+		int runCount = runs.length;
 		
 		for(int i=0; i<runCount; i++){
-			sb.append(runs.get(i).getLength());
+			sb.append(runs[i].getLength());
 			if(i < runCount - 1) sb.append(",");
 		}
 		
 		int runStringLength = sb.length();
 		sb.append("|");
-		/*for(Run run : rowDecomposition.getRow().getRuns()){
-			sb.append("")
-		}*/
 		
 		// squares
 		
-		for(int i=0; i<slots.length; i++){
-			
-			for(int j=0; j<slots[i].length; j++){
-				
-				Run run = slots[i][j].getRun();
-				sb.append(run == null ? "." : "x");
-				
-			}
-			
-			if(i < slots.length - 1) sb.append(" ");
-			
+		for(int i=0; i<totalLength; i++){
+			if(i > 0 && sequenceOffsets[i] == 0) sb.append(" ");
+			sb.append(assignedRuns[i] < 0 ? "." : "x");
 		}
 		
 		sb.append("\n");
 		sb.append(StringUtils.repeat(" ", runStringLength + 1));
 		
 		// add second row of consistency markers
-		for(int i=0; i<slots.length; i++){
-			
-			for(int j=0; j<slots[i].length; j++){
-				
-				boolean valid = slots[i][j].isValid();
-				sb.append(valid ? " " : "I");
-				
-			}
-			
-			if(i < slots.length - 1) sb.append(" ");
-			
+		for(int i=0; i<totalLength; i++){
+			if(i > 0 && sequenceOffsets[i] == 0) sb.append(" ");
+			sb.append(valid.get(i) ? " " : "I");
 		}
 		
 		
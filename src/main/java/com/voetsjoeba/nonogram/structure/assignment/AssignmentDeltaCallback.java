@@ -0,0 +1,57 @@
+package com.voetsjoeba.nonogram.structure.assignment;
+
+import com.voetsjoeba.nonogram.structure.api.Run;
+
+/**
+ * Lower-level counterpart of {@link AssignmentGenerationCallback} that is told how the assignment changes rather than handed the working
+ * assignment. As the generator places its runs, it reports each change as an event; consecutive assignments typically differ in the position of
+ * a single run, so a callback that keeps track of the runs at each square itself only has to update what changed.
+ * 
+ * <p>Run indices refer to the list of runs the generator was given; square indices are global indices into the row decomposition. Runs are
+ * placed in order, and a run is always removed before any run preceding it is moved or removed.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public interface AssignmentDeltaCallback {
+	
+	/**
+	 * Called when a run is placed at <tt>offset</tt>, starting a new partial assignment.
+	 */
+	public void runAssigned(int runIndex, Run run, int offset);
+	
+	/**
+	 * Called when a run that is already placed is moved from <tt>oldOffset</tt> to <tt>newOffset</tt>. Any runs following it have been removed
+	 * beforehand.
+	 */
+	public void runMoved(int runIndex, Run run, int oldOffset, int newOffset);
+	
+	/**
+	 * Called when a run is removed from <tt>offset</tt>.
+	 */
+	public void runUnassigned(int runIndex, Run run, int offset);
+	
+	/**
+	 * Called when the runs placed so far form a complete assignment.
+	 */
+	public void receiveGeneratedAssignment();
+	
+	/**
+	 * Called when the generator stops building the current assignment because all squares from <tt>endIndex</tt> onwards are inconsistent (see
+	 * {@link #isConsistent(int)}), to update the consistency information of squares up to <tt>endIndex</tt> (exclusive) with the runs placed so far.
+	 * See also {@link AssignmentGenerationCallback#receivePartialAssignment(AssignmentDecomposition, int, int)}.
+	 */
+	public void receivePartialAssignment(int endIndex);
+	
+	/**
+	 * Returns whether further assignments that place a run over the square at <tt>squareIndex</tt> may still yield information. Once every square
+	 * to the right of a run is inconsistent, the generator stops placing runs there.
+	 */
+	public boolean isConsistent(int squareIndex);
+	
+	/**
+	 * Returns whether the generator should stop generating assignments, e.g. because no further assignment can yield any information. Checked
+	 * after each complete or partial assignment; the removal of the runs still placed is reported before the generator returns.
+	 */
+	public boolean isCancelled();
+	
+}
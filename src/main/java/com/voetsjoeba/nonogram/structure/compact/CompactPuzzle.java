@@ -0,0 +1,463 @@
+package com.voetsjoeba.nonogram.structure.compact;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.event.SquareRunSetEvent;
+import com.voetsjoeba.nonogram.event.SquareRunSetListener;
+import com.voetsjoeba.nonogram.event.SquareStateSetEvent;
+import com.voetsjoeba.nonogram.event.SquareStateSetListener;
+import com.voetsjoeba.nonogram.exception.ConflictingSquareRunException;
+import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
+import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
+import com.voetsjoeba.nonogram.structure.Orientation;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.StandardPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+
+/**
+ * {@link Puzzle} implementation that keeps the state of all of its squares in a handful of flat arrays instead of in a separate object
+ * per square (as {@link StandardPuzzle} does).
+ * 
+ * <p>The state of each line is stored as two bitmasks, one for the squares known to be filled and one for the squares known to be clear,
+ * each taking up a whole number of <tt>long</tt>s. Rows and columns each have their own set of masks, so that the squares of any line
+ * can be read from consecutive words. The runs assigned to squares are kept as indices into the run list of the square's row and column
+ * in two <tt>int</tt> arrays.</p>
+ * 
+ * <p>{@link Square} objects are thin views onto these arrays, created on first access and cached from then on so that the same square
+ * is always represented by the same object. Square listeners are kept at puzzle level: a listener registered on any square is notified
+ * of changes to all squares of the puzzle (and is only registered once, no matter how many squares it is added to).</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class CompactPuzzle implements Puzzle {
+	
+	private static final SquareStateSetListener[] NO_STATE_SET_LISTENERS = new SquareStateSetListener[0];
+	private static final SquareRunSetListener[] NO_RUN_SET_LISTENERS = new SquareRunSetListener[0];
+	
+	private final int[][] rowRuns;
+	private final int[][] columnRuns;
+	
+	private final int width;
+	private final int height;
+	private final int rowWords;    // amount of longs per row mask
+	private final int columnWords; // amount of longs per column mask
+	
+	// row r occupies words [r*rowWords, (r+1)*rowWords[ of the row masks; bit c of the row holds column c (and vice versa for columns)
+	private long[] rowFilled;
+	private long[] rowCleared;
+	private long[] columnFilled;
+	private long[] columnCleared;
+	
+	// position of the assigned run within the run list of the square's row (resp. column), or -1 if unknown; indexed by row*width + column
+	private int[] horizontalRuns;
+	private int[] verticalRuns;
+	
+	private List<Row> rows;
+	private List<Row> columns;
+	private CompactSquare[] squares;
+	
+	private SquareStateSetListener[] stateSetListeners = NO_STATE_SET_LISTENERS;
+	private SquareRunSetListener[] runSetListeners = NO_RUN_SET_LISTENERS;
+	
+	public CompactPuzzle(int[][] rowRuns, int[][] columnRuns){
+		
+		this.rowRuns = rowRuns;
+		this.columnRuns = columnRuns;
+		
+		width = columnRuns.length;
+		height = rowRuns.length;
+		rowWords = (width + 63) >>> 6;
+		columnWords = (height + 63) >>> 6;
+		
+		rowFilled = new long[height * rowWords];
+		rowCleared = new long[height * rowWords];
+		columnFilled = new long[width * columnWords];
+		columnCleared = new long[width * columnWords];
+		
+		horizontalRuns = new int[width * height];
+		verticalRuns = new int[width * height];
+		Arrays.fill(horizontalRuns, -1);
+		Arrays.fill(verticalRuns, -1);
+		
+		squares = new CompactSquare[width * height];
+		
+		initPuzzle();
+		
+	}
+	
+	/**
+	 * Creates a copy of the provided puzzle (see {@link #copy()}).
+	 */
+	private CompactPuzzle(CompactPuzzle source){
+		
+		rowRuns = source.rowRuns;
+		columnRuns = source.columnRuns;
+		
+		width = source.width;
+		height = source.height;
+		rowWords = source.rowWords;
+		columnWords = source.columnWords;
+		
+		rowFilled = source.rowFilled.clone();
+		rowCleared = source.rowCleared.clone();
+		columnFilled = source.columnFilled.clone();
+		columnCleared = source.columnCleared.clone();
+		
+		horizontalRuns = source.horizontalRuns.clone();
+		verticalRuns = source.verticalRuns.clone();
+		
+		squares = new CompactSquare[width * height];
+		
+		initPuzzle();
+		
+		for(int i=0; i<height; i++) getCompactRow(i).copyState(source.getCompactRow(i));
+		for(int i=0; i<width; i++) getCompactColumn(i).copyState(source.getCompactColumn(i));
+		
+	}
+	
+	private void initPuzzle(){
+		
+		rows = new ArrayList<Row>(height);
+		for(int i=0; i<height; i++){
+			rows.add(new CompactRow(this, Orientation.HORIZONTAL, i, width));
+		}
+		
+		columns = new ArrayList<Row>(width);
+		for(int i=0; i<width; i++){
+			columns.add(new CompactRow(this, Orientation.VERTICAL, i, height));
+		}
+		
+		// runs can only be initialized once all lines exist, since clearing an empty line updates the crossing lines as well
+		for(int i=0; i<height; i++) getCompactRow(i).init(rowRuns[i]);
+		for(int i=0; i<width; i++) getCompactColumn(i).init(columnRuns[i]);
+		
+	}
+	
+	// ---- SQUARE STATE ---------------------------------------------------------
+	
+	SquareState getState(int row, int column){
+		
+		int word = row * rowWords + (column >>> 6);
+		long bit = 1L << column; // shift distance is taken modulo 64
+		
+		if((rowFilled[word] & bit) != 0) return SquareState.FILLED;
+		if((rowCleared[word] & bit) != 0) return SquareState.CLEAR;
+		
+		return null;
+		
+	}
+	
+	void setState(CompactSquare square, SquareState newState) throws ConflictingSquareStateException {
+		
+		if(newState == null){
+			throw new IllegalArgumentException("Cannot set the state of square " + square + " to null");
+		}
+		
+		int row = square.getRow();
+		int column = square.getColumn();
+		SquareState state = getState(row, column);
+		
+		if(state != null){
+			
+			if(state == newState){
+				return; // ok, no change
+			} else {
+				throw new ConflictingSquareStateException("Could not change square("+column+","+row+")'s status to " + newState + ", was already set to " + state, column, row);
+			}
+			
+		}
+		
+		int rowWord = row * rowWords + (column >>> 6);
+		int columnWord = column * columnWords + (row >>> 6);
+		
+		if(newState == SquareState.FILLED){
+			rowFilled[rowWord] |= 1L << column;
+			columnFilled[columnWord] |= 1L << row;
+		} else {
+			rowCleared[rowWord] |= 1L << column;
+			columnCleared[columnWord] |= 1L << row;
+		}
+		
+		getCompactRow(row).squareStateSet(column);
+		getCompactColumn(column).squareStateSet(row);
+		
+		fireStateSet(square);
+		
+	}
+	
+	// ---- SQUARE RUNS ---------------------------------------------------------
+	
+	Run getRun(int row, int column, Orientation orientation){
+		
+		if(orientation == Orientation.HORIZONTAL){
+			int position = horizontalRuns[row * width + column];
+			return (position < 0 ? null : rows.get(row).getRun(position));
+		} else {
+			int position = verticalRuns[row * width + column];
+			return (position < 0 ? null : columns.get(column).getRun(position));
+		}
+		
+	}
+	
+	boolean hasRun(int row, int column, Orientation orientation){
+		int[] assignedRuns = (orientation == Orientation.HORIZONTAL ? horizontalRuns : verticalRuns);
+		return (assignedRuns[row * width + column] >= 0);
+	}
+	
+	void setRun(CompactSquare square, Run run) throws RunLengthExceededException, ConflictingSquareRunException {
+		
+		if(run == null) return;
+		
+		int row = square.getRow();
+		int column = square.getColumn();
+		SquareState state = getState(row, column);
+		
+		if(state != SquareState.FILLED){
+			throw new IllegalStateException("Cannot register " + run.getOrientation() + " run " + run + " for square(" + row + "," + column + ") with state " + state + "; state must be " + SquareState.FILLED);
+		}
+		
+		Orientation orientation = run.getOrientation();
+		CompactRow line = (orientation == Orientation.HORIZONTAL ? getCompactRow(row) : getCompactColumn(column));
+		
+		if(run.getRow() != line){
+			throw new IllegalArgumentException("Run " + run + " does not belong to " + line + " of square " + square);
+		}
+		
+		CompactRun compactRun = (CompactRun) run;
+		int[] assignedRuns = (orientation == Orientation.HORIZONTAL ? horizontalRuns : verticalRuns);
+		int squareIndex = row * width + column;
+		
+		int existingPosition = assignedRuns[squareIndex];
+		if(existingPosition >= 0){
+			
+			if(existingPosition == compactRun.getPosition()){
+				return; // ok, no change
+			} else {
+				throw new ConflictingSquareRunException("Cannot register " + orientation + " run " + run + " for square(" + row + "," + column + ") with state " + state + "; a different run is already assigned");
+			}
+			
+		}
+		
+		if(compactRun.isComplete()){
+			throw new RunLengthExceededException("Run length of " + run.getLength() + " exceeded.");
+		}
+		
+		assignedRuns[squareIndex] = compactRun.getPosition();
+		compactRun.squareAdded(orientation == Orientation.HORIZONTAL ? column : row);
+		
+		line.runSet(compactRun);
+		getCompactRow(row).squareRunSet(column, run);
+		getCompactColumn(column).squareRunSet(row, run);
+		
+		fireRunSet(square, orientation);
+		
+	}
+	
+	// ---- LISTENERS ---------------------------------------------------------
+	
+	void addStateSetListener(SquareStateSetListener listener){
+		
+		for(SquareStateSetListener existing : stateSetListeners){
+			if(existing == listener) return;
+		}
+		
+		SquareStateSetListener[] newListeners = new SquareStateSetListener[stateSetListeners.length + 1];
+		System.arraycopy(stateSetListeners, 0, newListeners, 0, stateSetListeners.length);
+		newListeners[stateSetListeners.length] = listener;
+		
+		stateSetListeners = newListeners; // replaced rather than modified, so that events being fired are unaffected
+		
+	}
+	
+	void removeStateSetListener(SquareStateSetListener listener){
+		
+		List<SquareStateSetListener> newListeners = new ArrayList<SquareStateSetListener>(Arrays.asList(stateSetListeners));
+		if(newListeners.remove(listener)) stateSetListeners = newListeners.toArray(NO_STATE_SET_LISTENERS);
+		
+	}
+	
+	void addRunSetListener(SquareRunSetListener listener){
+		
+		for(SquareRunSetListener existing : runSetListeners){
+			if(existing == listener) return;
+		}
+		
+		SquareRunSetListener[] newListeners = new SquareRunSetListener[runSetListeners.length + 1];
+		System.arraycopy(runSetListeners, 0, newListeners, 0, runSetListeners.length);
+		newListeners[runSetListeners.length] = listener;
+		
+		runSetListeners = newListeners;
+		
+	}
+	
+	void removeRunSetListener(SquareRunSetListener listener){
+		
+		List<SquareRunSetListener> newListeners = new ArrayList<SquareRunSetListener>(Arrays.asList(runSetListeners));
+		if(newListeners.remove(listener)) runSetListeners = newListeners.toArray(NO_RUN_SET_LISTENERS);
+		
+	}
+	
+	private void fireStateSet(Square square){
+		
+		SquareStateSetListener[] listeners = stateSetListeners;
+		if(listeners.length == 0) return;
+		
+		SquareStateSetEvent event = new SquareStateSetEvent(square);
+		for(SquareStateSetListener listener : listeners){
+			listener.squareStateSet(event);
+		}
+		
+	}
+	
+	private void fireRunSet(Square square, Orientation orientation){
+		
+		SquareRunSetListener[] listeners = runSetListeners;
+		if(listeners.length == 0) return;
+		
+		SquareRunSetEvent event = new SquareRunSetEvent(square, orientation);
+		for(SquareRunSetListener listener : listeners){
+			listener.runSet(event);
+		}
+		
+	}
+	
+	// ---- INTERFACE IMPLEMENTATION ---------------------------------------------------------
+	
+	public List<Row> getRows() {
+		return Collections.unmodifiableList(rows);
+	}
+	
+	public List<Row> getColumns() {
+		return Collections.unmodifiableList(columns);
+	}
+	
+	public Row getRow(int index){
+		return rows.get(index);
+	}
+	
+	public Row getColumn(int index){
+		return columns.get(index);
+	}
+	
+	CompactRow getCompactRow(int index){
+		return (CompactRow) rows.get(index);
+	}
+	
+	CompactRow getCompactColumn(int index){
+		return (CompactRow) columns.get(index);
+	}
+	
+	public Square getSquare(int column, int row){
+		
+		if(column < 0 || column >= width || row < 0 || row >= height){
+			throw new IndexOutOfBoundsException("Square (" + column + "," + row + ") lies outside of the puzzle");
+		}
+		
+		int squareIndex = row * width + column;
+		
+		CompactSquare square = squares[squareIndex];
+		if(square == null){
+			square = new CompactSquare(this, row, column);
+			squares[squareIndex] = square;
+		}
+		
+		return square;
+		
+	}
+	
+	/**
+	 * Returns whether the provided square belongs to this puzzle.
+	 */
+	boolean containsSquare(Square square){
+		return (square instanceof CompactSquare && ((CompactSquare) square).getPuzzle() == this);
+	}
+	
+	public int getMaxRowRunCount(){
+		
+		int maxRowRunCount = 0;
+		
+		for(Row row : rows){
+			int runCount = row.getRuns().size();
+			if(runCount > maxRowRunCount) maxRowRunCount = runCount;
+		}
+		
+		return maxRowRunCount;
+		
+	}
+	
+	public int getMaxColumnRunCount(){
+		
+		int maxColumnRunCount = 0;
+		
+		for(Row column : columns){
+			int runCount = column.getRuns().size();
+			if(runCount > maxColumnRunCount) maxColumnRunCount = runCount;
+		}
+		
+		return maxColumnRunCount;
+		
+	}
+	
+	public int getKnownSquareCount() {
+		
+		int knownSquareCount = 0;
+		
+		for(int i=0; i<rowFilled.length; i++){
+			knownSquareCount += Long.bitCount(rowFilled[i] | rowCleared[i]);
+		}
+		
+		return knownSquareCount;
+		
+	}
+	
+	public int getSquareCount() {
+		return (width * height);
+	}
+	
+	public boolean isComplete(){
+		return (getKnownSquareCount() == getSquareCount());
+	}
+	
+	public Puzzle copy() {
+		return new CompactPuzzle(this);
+	}
+	
+	/**
+	 * Returns the run lengths of each row, as provided at construction time.
+	 */
+	public int[][] getRowRuns() {
+		return rowRuns;
+	}
+	
+	/**
+	 * Returns the run lengths of each column, as provided at construction time.
+	 */
+	public int[][] getColumnRuns() {
+		return columnRuns;
+	}
+	
+	public String toString(){
+		
+		StringBuffer stringBuffer = new StringBuffer();
+		
+		for(int i=0; i<height; i++){
+			
+			for(int j=0; j<width; j++){
+				stringBuffer.append(getSquare(j, i).toString() + " ");
+			}
+			
+			stringBuffer.append("\n");
+			
+		}
+		
+		return stringBuffer.toString();
+		
+	}
+	
+}
@@ -0,0 +1,151 @@
+package com.voetsjoeba.nonogram.structure.compact;
+
+import com.voetsjoeba.nonogram.structure.AbstractRow;
+import com.voetsjoeba.nonogram.structure.Orientation;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+/**
+ * Row or column of a {@link CompactPuzzle}. Squares are looked up in the enclosing puzzle by index; the row itself only keeps track of
+ * its runs and of the bookkeeping needed by the solvers (known square count, modification count and decomposition).
+ * 
+ * <p>Like {@link com.voetsjoeba.nonogram.structure.StandardRow}, runs in this row are guaranteed to always be contiguous.</p>
+ * 
+ * @author Jeroen De Ridder
+ */
+public class CompactRow extends AbstractRow {
+	
+	private final CompactPuzzle puzzle;
+	private final int length;
+	
+	private int knownSquares = 0;
+	private boolean joiningRun = false;
+	
+	CompactRow(CompactPuzzle puzzle, Orientation orientation, int index, int length){
+		super(orientation, index);
+		this.puzzle = puzzle;
+		this.length = length;
+	}
+	
+	void init(int[] runLengths){
+		initRuns(runLengths);
+	}
+	
+	protected Run createRun(int index, int length){
+		return new CompactRun(this, index, runs.size(), length);
+	}
+	
+	/**
+	 * Takes over the bookkeeping and the known squares of the runs of the corresponding row in a copied puzzle.
+	 */
+	void copyState(CompactRow source){
+		
+		knownSquares = source.knownSquares;
+		modificationCount = source.modificationCount;
+		
+		for(int i=0; i<runs.size(); i++){
+			((CompactRun) runs.get(i)).copyState((CompactRun) source.runs.get(i));
+		}
+		
+	}
+	
+	/**
+	 * Called by the puzzle when the state of the square at <tt>squareIndex</tt> in this row has been set.
+	 */
+	void squareStateSet(int squareIndex){
+		
+		knownSquares++;
+		
+		invalidateDecomposition(squareIndex);
+		modificationCount++;
+		
+	}
+	
+	/**
+	 * Called by the puzzle when a run (of either orientation) has been assigned to the square at <tt>squareIndex</tt> in this row.
+	 */
+	void squareRunSet(int squareIndex, Run run){
+		
+		if(run.isComplete() && run.getRow() == this){
+			invalidateDecomposition();
+		} else {
+			invalidateDecomposition(squareIndex);
+		}
+		
+		modificationCount++;
+		
+	}
+	
+	/**
+	 * Called by the puzzle when a square has been added to one of this row's runs; ensures that the run remains contiguous.
+	 */
+	void runSet(CompactRun run){
+		
+		if(joiningRun || run.isContiguous()) return;
+		
+		// assign the run to all squares inbetween (the nested calls back into this method can be skipped)
+		joiningRun = true;
+		
+		try {
+			for(int i=run.getFirstKnownIndex(); i <= run.getLastKnownIndex(); i++){
+				NonogramUtils.setSquareState(getSquare(i), SquareState.FILLED, run);
+			}
+		}
+		finally {
+			joiningRun = false;
+		}
+		
+		assert run.isContiguous() : "Run " + run + " remains uncontiguous after adding a square";
+		
+	}
+	
+	public Square getSquare(int index){
+		
+		if(index < 0 || index >= length){
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds in row " + this + " of length " + length);
+		}
+		
+		if(orientation == Orientation.HORIZONTAL){
+			return puzzle.getSquare(index, this.index);
+		} else {
+			return puzzle.getSquare(this.index, index);
+		}
+		
+	}
+	
+	public int getSquareIndex(Square square){
+		
+		int squareIndex;
+		int lineIndex;
+		
+		if(orientation == Orientation.HORIZONTAL){
+			squareIndex = square.getColumn();
+			lineIndex = square.getRow();
+		} else {
+			squareIndex = square.getRow();
+			lineIndex = square.getColumn();
+		}
+		
+		if(lineIndex != index || !puzzle.containsSquare(square)){
+			throw new IllegalArgumentException("Row " + this + " does not contain square " + square);
+		}
+		
+		return squareIndex;
+		
+	}
+	
+	public int getLength(){
+		return length;
+	}
+	
+	public boolean isCompleted(){
+		return (knownSquares == length);
+	}
+	
+	public int getKnownSquareCount() {
+		return knownSquares;
+	}
+	
+}
@@ -0,0 +1,166 @@
+package com.voetsjoeba.nonogram.structure.compact;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.voetsjoeba.nonogram.exception.NoKnownSquaresException;
+import com.voetsjoeba.nonogram.exception.UncontiguousRunException;
+import com.voetsjoeba.nonogram.structure.Orientation;
+import com.voetsjoeba.nonogram.structure.StandardSequence;
+import com.voetsjoeba.nonogram.structure.StandardSquare;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Sequence;
+import com.voetsjoeba.nonogram.structure.api.Square;
+
+/**
+ * {@link Run} of a {@link CompactRow}. Rather than a set of squares, only the amount of known squares and the interval they span
+ * within the row are tracked; which squares belong to the run is recorded by the enclosing {@link CompactPuzzle}.
+ * 
+ * @author Jeroen De Ridder
+ */
+public final class CompactRun implements Run {
+	
+	private final CompactRow row;
+	private final int index;
+	private final int position;
+	private final int length;
+	
+	private int knownSquareCount = 0;
+	private int firstKnownIndex = -1;
+	private int lastKnownIndex = -1;
+	
+	/**
+	 * @param row The row this run belongs to.
+	 * @param index The index of this run amongst the run lengths of its row (see {@link Run#getIndex()}).
+	 * @param position The position of this run in its row's run list.
+	 * @param length The length of this run.
+	 */
+	CompactRun(CompactRow row, int index, int position, int length){
+		this.row = row;
+		this.index = index;
+		this.position = position;
+		this.length = length;
+	}
+	
+	/**
+	 * Not supported; squares of a {@link CompactPuzzle} are added to a run by calling {@link Square#setRun(Run)}.
+	 * @throws UnsupportedOperationException always
+	 */
+	public void addSquare(StandardSquare square) {
+		throw new UnsupportedOperationException("Squares of a compact puzzle are added to runs through Square.setRun");
+	}
+	
+	/**
+	 * Records that the square at <tt>squareIndex</tt> within the row has been assigned to this run.
+	 */
+	void squareAdded(int squareIndex){
+		
+		if(knownSquareCount == 0 || squareIndex < firstKnownIndex) firstKnownIndex = squareIndex;
+		if(knownSquareCount == 0 || squareIndex > lastKnownIndex) lastKnownIndex = squareIndex;
+		
+		knownSquareCount++;
+		
+	}
+	
+	/**
+	 * Takes over the known squares of the corresponding run in a copied puzzle.
+	 */
+	void copyState(CompactRun source){
+		knownSquareCount = source.knownSquareCount;
+		firstKnownIndex = source.firstKnownIndex;
+		lastKnownIndex = source.lastKnownIndex;
+	}
+	
+	int getPosition(){
+		return position;
+	}
+	
+	/**
+	 * Returns the index within the row of the first known square of this run, or -1 if no squares are known.
+	 */
+	int getFirstKnownIndex(){
+		return firstKnownIndex;
+	}
+	
+	/**
+	 * Returns the index within the row of the last known square of this run, or -1 if no squares are known.
+	 */
+	int getLastKnownIndex(){
+		return lastKnownIndex;
+	}
+	
+	public final int getLength() {
+		return length;
+	}
+	
+	public final Row getRow() {
+		return row;
+	}
+	
+	public final int getIndex(){
+		return index;
+	}
+	
+	public final Orientation getOrientation(){
+		return row.getOrientation();
+	}
+	
+	public Square getFirstKnownSquare() throws NoKnownSquaresException {
+		if(knownSquareCount <= 0) throw new NoKnownSquaresException("No known squares in " + this);
+		return row.getSquare(firstKnownIndex);
+	}
+	
+	public Square getLastKnownSquare() throws NoKnownSquaresException {
+		if(knownSquareCount <= 0) throw new NoKnownSquaresException("No known squares in " + this);
+		return row.getSquare(lastKnownIndex);
+	}
+	
+	public List<Square> getKnownSquares(){
+		
+		List<Square> knownSquares = new ArrayList<Square>(knownSquareCount);
+		if(knownSquareCount <= 0) return Collections.unmodifiableList(knownSquares);
+		
+		// the interval can only contain squares of other runs while this run is being made contiguous
+		for(int i=firstKnownIndex; i<=lastKnownIndex; i++){
+			Square square = row.getSquare(i);
+			if(square.getRun(getOrientation()) == this) knownSquares.add(square);
+		}
+		
+		return Collections.unmodifiableList(knownSquares);
+		
+	}
+	
+	public int getKnownSquareCount(){
+		return knownSquareCount;
+	}
+	
+	public boolean hasKnownSquares() {
+		return (knownSquareCount > 0);
+	}
+	
+	public boolean isComplete(){
+		return (knownSquareCount == length);
+	}
+	
+	public boolean isContiguous(){
+		if(knownSquareCount <= 0) return true;
+		return (lastKnownIndex - firstKnownIndex + 1 == knownSquareCount);
+	}
+	
+	public Sequence toSequence() throws UncontiguousRunException {
+		
+		if(!isContiguous()){
+			throw new UncontiguousRunException();
+		}
+		
+		return new StandardSequence(row, firstKnownIndex, lastKnownIndex);
+		
+	}
+	
+	public String toString(){
+		return "("+index+",length="+length+")";
+	}
+	
+}
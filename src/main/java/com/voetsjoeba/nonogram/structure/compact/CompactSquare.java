@@ -0,0 +1,100 @@
+package com.voetsjoeba.nonogram.structure.compact;
+
+import com.voetsjoeba.nonogram.event.SquareRunSetListener;
+import com.voetsjoeba.nonogram.event.SquareStateSetListener;
+import com.voetsjoeba.nonogram.exception.ConflictingSquareRunException;
+import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
+import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
+import com.voetsjoeba.nonogram.structure.Orientation;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+
+/**
+ * {@link Square} of a {@link CompactPuzzle}. Holds no state of its own; all reads and writes go straight to the puzzle's arrays.
+ * 
+ * @author Jeroen De Ridder
+ */
+public class CompactSquare implements Square {
+	
+	private final CompactPuzzle puzzle;
+	private final int row;
+	private final int column;
+	
+	CompactSquare(CompactPuzzle puzzle, int row, int column){
+		this.puzzle = puzzle;
+		this.row = row;
+		this.column = column;
+	}
+	
+	CompactPuzzle getPuzzle(){
+		return puzzle;
+	}
+	
+	public int getRow() {
+		return row;
+	}
+	
+	public int getColumn() {
+		return column;
+	}
+	
+	public boolean isStateKnown(){
+		return (puzzle.getState(row, column) != null);
+	}
+	
+	public boolean isFilled(){
+		return (puzzle.getState(row, column) == SquareState.FILLED);
+	}
+	
+	public boolean isCleared(){
+		return (puzzle.getState(row, column) == SquareState.CLEAR);
+	}
+	
+	public SquareState getState(){
+		return puzzle.getState(row, column);
+	}
+	
+	public void setState(SquareState newState) throws ConflictingSquareStateException {
+		puzzle.setState(this, newState);
+	}
+	
+	public void setRun(Run run) throws RunLengthExceededException, ConflictingSquareRunException {
+		puzzle.setRun(this, run);
+	}
+	
+	public Run getRun(Orientation orientation){
+		return puzzle.getRun(row, column, orientation);
+	}
+	
+	public boolean hasRun(Orientation orientation){
+		return puzzle.hasRun(row, column, orientation);
+	}
+	
+	/**
+	 * Registers the listener with the enclosing puzzle; it will be notified of state changes to any of the puzzle's squares.
+	 */
+	public void addStateSetListener(SquareStateSetListener listener){
+		puzzle.addStateSetListener(listener);
+	}
+	
+	/**
+	 * Registers the listener with the enclosing puzzle; it will be notified of run changes to any of the puzzle's squares.
+	 */
+	public void addRunSetListener(SquareRunSetListener listener){
+		puzzle.addRunSetListener(listener);
+	}
+	
+	public void removeStateSetListener(SquareStateSetListener listener){
+		puzzle.removeStateSetListener(listener);
+	}
+	
+	public void removeRunSetListener(SquareRunSetListener listener){
+		puzzle.removeRunSetListener(listener);
+	}
+	
+	public String toString() {
+		return "("+column+","+row+";"+getState()+")";
+	}
+	
+}
@@ -22,7 +22,7 @@ import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.api.Square;
 
 
-public class StandardUiField extends JPanel implements MouseMotionListener, MouseListener {
+public class StandardUiField extends JPanel implements UiField, MouseMotionListener, MouseListener {
 	
 	private Puzzle puzzle;
 	
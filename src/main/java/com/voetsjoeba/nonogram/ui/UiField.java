@@ -0,0 +1,23 @@
+package com.voetsjoeba.nonogram.ui;
+
+import com.voetsjoeba.nonogram.structure.api.Row;
+
+/**
+ * Display of a puzzle that is kept up to date by the {@link com.voetsjoeba.nonogram.algorithm.Solver} while it progresses. Kept free
+ * of any AWT/Swing types so that the solver can be run without loading any GUI classes.
+ * 
+ * @author Jeroen De Ridder
+ */
+public interface UiField {
+	
+	/**
+	 * Highlights the row that the solver is currently working on, or removes the highlight if row is null.
+	 */
+	public void setHighlightedRow(Row row);
+	
+	/**
+	 * Redraws the puzzle to reflect the current state of its squares.
+	 */
+	public void repaint();
+	
+}
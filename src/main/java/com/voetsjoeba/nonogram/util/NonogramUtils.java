@@ -10,6 +10,7 @@ import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
 import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
 import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
 import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
 import com.voetsjoeba.nonogram.structure.api.Row;
 import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.api.Sequence;
@@ -369,4 +370,95 @@ public class NonogramUtils {
 	}
 	
 	
+	/**
+	 * Checks whether the squares of the provided row form a valid solution to it, i.e. whether all of its squares are known and the filled
+	 * squares form exactly the row's runs, in order. Returns true if so, false otherwise.
+	 */
+	public static boolean isSolved(Row row){
+		
+		List<Run> runs = row.getRuns();
+		int runIndex = 0;
+		int currentLength = 0;
+		
+		for(int i=0; i<=row.getLength(); i++){
+			
+			if(i < row.getLength()){
+				
+				Square square = row.getSquare(i);
+				if(!square.isStateKnown()) return false;
+				
+				if(square.isFilled()){
+					currentLength++;
+					continue;
+				}
+				
+			}
+			
+			// end of a block of filled squares (or of the row)
+			if(currentLength > 0){
+				
+				if(runIndex >= runs.size() || runs.get(runIndex).getLength() != currentLength) return false;
+				
+				runIndex++;
+				currentLength = 0;
+				
+			}
+			
+		}
+		
+		return (runIndex == runs.size());
+		
+	}
+	
+	/**
+	 * Checks whether the squares of the provided puzzle form a valid solution to it, i.e. whether all of its rows and columns are solved
+	 * (see {@link #isSolved(Row)}). Returns true if so, false otherwise.
+	 */
+	public static boolean isSolved(Puzzle puzzle){
+		
+		for(Row row : puzzle.getRows()){
+			if(!isSolved(row)) return false;
+		}
+		
+		for(Row column : puzzle.getColumns()){
+			if(!isSolved(column)) return false;
+		}
+		
+		return true;
+		
+	}
+	
+	/**
+	 * Checks the runs of the provided puzzle for inconsistencies that don't require any solving to detect: the runs of the rows must fill
+	 * as many squares as the runs of the columns. Runs that don't fit their row are already rejected when the row is constructed. Takes time
+	 * proportional to the amount of runs.
+	 * 
+	 * @throws UnsolvablePuzzleException if the runs are inconsistent.
+	 */
+	public static void checkRuns(Puzzle puzzle) throws UnsolvablePuzzleException {
+		
+		int rowSquares = getRunSquareCount(puzzle.getRows());
+		int columnSquares = getRunSquareCount(puzzle.getColumns());
+		
+		if(rowSquares != columnSquares){
+			throw new UnsolvablePuzzleException("Runs of the rows fill " + rowSquares + " squares, but runs of the columns fill " + columnSquares);
+		}
+		
+	}
+	
+	/**
+	 * Returns the amount of squares the runs of the provided rows fill in total.
+	 */
+	private static int getRunSquareCount(List<Row> rows){
+		
+		int filledSquares = 0;
+		
+		for(Row row : rows){
+			for(Run run : row.getRuns()) filledSquares += run.getLength();
+		}
+		
+		return filledSquares;
+		
+	}
+	
 }
@@ -90,7 +90,7 @@ public class Assert extends org.junit.Assert {
 			LocalDecompositionIndex localIndex = runAssignment.globalToLocal(currentAssignmentIndex);
 			assertEquals(currentSequenceIndex, localIndex.sequenceIndex);
 			
-			Run run = runAssignment.getSlotAt(currentAssignmentIndex).getRun();
+			Run run = runAssignment.getRunAt(currentAssignmentIndex);
 			
 			switch(currentChar){
 				
@@ -1,5 +1,6 @@
 package com.voetsjoeba.nonogram;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
@@ -9,7 +10,9 @@ import org.slf4j.LoggerFactory;
 
 import com.voetsjoeba.nonogram.algorithm.AssignmentGenerator;
 import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.assignment.AssignmentDecomposition;
+import com.voetsjoeba.nonogram.structure.assignment.AssignmentDeltaCallback;
 import com.voetsjoeba.nonogram.structure.assignment.AssignmentList;
 import com.voetsjoeba.nonogram.structure.assignment.AssignmentListCallback;
 import com.voetsjoeba.nonogram.util.TestUtils;
@@ -122,6 +125,137 @@ public class AssignmentGenerationTest {
 		
 	}
 	
+	/**
+	 * Replaying the changes reported to a delta callback yields the same assignments, in the same order, as those handed to a regular callback.
+	 */
+	@Test
+	public void testDeltaCallback(){
+		
+		String[] rows = {
+			"1,2,4|....--....-....",
+			"1,3,1,1|..... .x... .....",
+			"3,4,1|....x xx..x .....",
+			"1,2,4|.x$1..-....-....",
+			"1,2,4|...x$1-....-....",
+		};
+		
+		for(String rowString : rows){
+			
+			Row row = TestUtils.buildRow(rowString);
+			
+			List<String> expected = new ArrayList<String>();
+			for(AssignmentDecomposition assignment : generateAssignmentList(row)){
+				
+				StringBuffer stringBuffer = new StringBuffer();
+				for(int i=0; i<assignment.getTotalLength(); i++){
+					Run run = assignment.getRunAt(i);
+					stringBuffer.append(run == null ? "." : String.valueOf(row.getRuns().indexOf(run)));
+				}
+				
+				expected.add(stringBuffer.toString());
+				
+			}
+			
+			DeltaListCallback deltaCallback = new DeltaListCallback(row);
+			(new AssignmentGenerator()).generateAssignments(row, deltaCallback);
+			
+			Assert.assertEquals(expected, deltaCallback.assignments);
+			
+		}
+		
+	}
+	
+	/**
+	 * Generation stops once the callback is cancelled, after reporting the removal of the runs still placed.
+	 */
+	@Test
+	public void testCancellation(){
+		
+		Row row = TestUtils.buildRow("1,2,4|....--....-....");
+		
+		DeltaListCallback deltaCallback = new DeltaListCallback(row){
+			public boolean isCancelled() {
+				return (assignments.size() == 2);
+			}
+		};
+		
+		(new AssignmentGenerator()).generateAssignments(row, deltaCallback);
+		
+		Assert.assertEquals(2, deltaCallback.assignments.size());
+		Assert.assertEquals(StringUtils.repeat(".", deltaCallback.squares.length), new String(deltaCallback.squares));
+		
+	}
+	
+	/**
+	 * Keeps track of the run index at each square from the reported changes, and records it for each complete assignment.
+	 */
+	protected static class DeltaListCallback implements AssignmentDeltaCallback {
+		
+		protected char[] squares;
+		protected List<String> assignments = new ArrayList<String>();
+		
+		public DeltaListCallback(Row row){
+			squares = StringUtils.repeat(".", row.getDecomposition().getTotalLength()).toCharArray();
+		}
+		
+		protected void set(int runIndex, Run run, int offset, char c){
+			for(int i=offset; i<offset + run.getLength(); i++) squares[i] = c;
+		}
+		
+		public void runAssigned(int runIndex, Run run, int offset) {
+			set(runIndex, run, offset, Character.forDigit(runIndex, 10));
+		}
+		
+		public void runMoved(int runIndex, Run run, int oldOffset, int newOffset) {
+			Assert.assertTrue(newOffset > oldOffset);
+			set(runIndex, run, oldOffset, '.');
+			set(runIndex, run, newOffset, Character.forDigit(runIndex, 10));
+		}
+		
+		public void runUnassigned(int runIndex, Run run, int offset) {
+			set(runIndex, run, offset, '.');
+		}
+		
+		public void receiveGeneratedAssignment() {
+			assignments.add(new String(squares));
+		}
+		
+		public void receivePartialAssignment(int endIndex) {
+			// does not apply
+		}
+		
+		public boolean isConsistent(int squareIndex) {
+			return true;
+		}
+		
+		public boolean isCancelled() {
+			return false;
+		}
+		
+	}
+	
+	@Test
+	public void testTryAssign() throws Exception {
+		
+		Row row = TestUtils.buildRow("2,1|....-...");
+		Run first = row.getRuns().get(0);
+		Run second = row.getRuns().get(1);
+		
+		AssignmentDecomposition assignment = new AssignmentDecomposition(row.getDecomposition());
+		
+		Assert.assertEquals(AssignmentDecomposition.NOT_ASSIGNED, assignment.tryAssign(first, 3)); // would exceed the first sequence
+		Assert.assertEquals(AssignmentDecomposition.ASSIGNED_FILLING_SEQUENCE, assignment.tryAssign(first, 2));
+		Assert.assertEquals(AssignmentDecomposition.NOT_ASSIGNED, assignment.tryAssign(second, 1)); // touches the first run
+		Assert.assertEquals(AssignmentDecomposition.ASSIGNED, assignment.tryAssign(second, 4));
+		
+		AssignmentDecomposition copy = new AssignmentDecomposition(assignment);
+		assignment.unassign(second, 4);
+		
+		Assert.assertAssignmentDecomposition("2,1|..xx x..", copy);
+		Assert.assertAssignmentDecomposition("2,1|..xx ...", assignment);
+		
+	}
+	
 	@Test
 	public void testCalculateEndOffsetRegression(){
 		
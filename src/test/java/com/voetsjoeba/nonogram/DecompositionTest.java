@@ -3,6 +3,7 @@ package com.voetsjoeba.nonogram;
 import org.junit.Test;
 
 import com.voetsjoeba.nonogram.structure.RowDecomposition;
+import com.voetsjoeba.nonogram.structure.SquareState;
 import com.voetsjoeba.nonogram.structure.api.Row;
 import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.util.TestUtils;
@@ -165,6 +166,60 @@ public class DecompositionTest {
 		
 	}
 	
+	/**
+	 * Ensures that decompositions derived from a previous decomposition after a change are identical to freshly built ones, and that
+	 * the previous decomposition remains unchanged.
+	 */
+	@Test
+	public void testIncrementalUpdate() throws Exception {
+		
+		Row row = TestUtils.buildRow("3,12,7,2,1,4|.............................................");
+		RowDecomposition previous = row.getDecomposition();
+		
+		row.getSquare(16).setState(SquareState.CLEAR);
+		RowDecomposition decomposition = row.getDecomposition();
+		
+		Assert.assertNotSame(previous, decomposition);
+		Assert.assertEquals(1, previous.getSequenceCount());
+		Assert.assertEquals(45, previous.getTotalLength());
+		assertSameDecomposition(TestUtils.buildRow("3,12,7,2,1,4|................-............................"), decomposition);
+		
+		row.getSquare(40).setState(SquareState.CLEAR);
+		row.getSquare(41).setState(SquareState.FILLED);
+		row.getSquare(41).setRun(row.getRun(5));
+		assertSameDecomposition(TestUtils.buildRow("3,12,7,2,1,4|................-.......................-x$6..."), row.getDecomposition());
+		
+		row.getSquare(2).setState(SquareState.FILLED);
+		assertSameDecomposition(TestUtils.buildRow("3,12,7,2,1,4|..x.............-.......................-x$6..."), row.getDecomposition());
+		
+	}
+	
+	/**
+	 * Asserts that the decomposition of <tt>expected</tt> has the same sequences and run information as <tt>actual</tt>.
+	 */
+	private void assertSameDecomposition(Row expected, RowDecomposition actual){
+		
+		RowDecomposition decomposition = expected.getDecomposition();
+		
+		Assert.assertEquals(decomposition.getTotalLength(), actual.getTotalLength());
+		Assert.assertEquals(decomposition.getSequenceCount(), actual.getSequenceCount());
+		
+		for(int i=0; i<decomposition.getSequenceCount(); i++){
+			Assert.assertEquals(decomposition.getSequence(i).getFirstSquareRowIndex(), actual.getSequence(i).getFirstSquareRowIndex());
+			Assert.assertEquals(decomposition.getSequenceLength(i), actual.getSequenceLength(i));
+		}
+		
+		for(Run run : expected.getIncompleteRuns()){
+			
+			Run actualRun = actual.getRow().getRun(run.getIndex());
+			
+			Assert.assertEquals(decomposition.getRunInfo(run).leftmostStartOffset, actual.getRunInfo(actualRun).leftmostStartOffset);
+			Assert.assertEquals(decomposition.getRunInfo(run).rightmostStartOffset, actual.getRunInfo(actualRun).rightmostStartOffset);
+			
+		}
+		
+	}
+	
 	/**
 	 * Helper method for easy validation of rightmost run start offsets within a decomposition. 
 	 * @param formatString format string to construct the testing row; see {@link TestUtils#buildRow(String)}.
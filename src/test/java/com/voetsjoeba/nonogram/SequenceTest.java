@@ -2,7 +2,9 @@ package com.voetsjoeba.nonogram;
 
 import org.junit.Test;
 
+import com.voetsjoeba.nonogram.exception.NoSuchSquareException;
 import com.voetsjoeba.nonogram.structure.RowDecomposition;
+import com.voetsjoeba.nonogram.structure.StandardSequence;
 import com.voetsjoeba.nonogram.structure.api.Row;
 import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.api.Sequence;
@@ -60,4 +62,42 @@ public class SequenceTest {
 		
 	}
 	
+	@Test
+	public void testSquareIndices() throws Exception {
+		
+		Row row = TestUtils.buildRow("2,1|..x.-..x..");
+		Sequence sequence = new StandardSequence(row, 1, 3);
+		
+		Assert.assertEquals(3, sequence.getLength());
+		Assert.assertEquals(1, sequence.getFirstSquareRowIndex());
+		Assert.assertEquals(3, sequence.getLastSquareRowIndex());
+		Assert.assertSame(row.getSquare(2), sequence.getSquare(1));
+		Assert.assertEquals(1, sequence.getSquareIndex(row.getSquare(2)));
+		Assert.assertEquals(1, sequence.getFirstFilledSquareIndex());
+		Assert.assertEquals(3, sequence.getSquares().size());
+		Assert.assertFalse(sequence.contains(row.getSquare(0)));
+		
+		try {
+			sequence.getSquareIndex(row.getSquare(4));
+			Assert.fail("Square outside of the sequence was found in it");
+		}
+		catch(NoSuchSquareException nssex){
+			
+		}
+		
+		sequence.addSquare(row.getSquare(0));
+		Assert.assertEquals(4, sequence.getLength());
+		Assert.assertSame(row.getSquare(0), sequence.getFirstSquare());
+		
+		// trimming clears the unknown squares on either side of the known ones
+		sequence.trimLeft();
+		sequence.trimRight();
+		
+		Assert.assertEquals(1, sequence.getLength());
+		Assert.assertSame(row.getSquare(2), sequence.getFirstSquare());
+		Assert.assertTrue(row.getSquare(1).isCleared());
+		Assert.assertTrue(row.getSquare(3).isCleared());
+		
+	}
+	
 }
@@ -1,5 +1,6 @@
 package com.voetsjoeba.nonogram;
 
+import com.voetsjoeba.nonogram.puzzle.webpbn.BucksPuzzle;
 import com.voetsjoeba.nonogram.puzzle.webpbn.SkidPuzzle;
 
 public class WebPbnPuzzleRegressionTest extends PuzzleTestCase {
@@ -8,4 +9,8 @@ public class WebPbnPuzzleRegressionTest extends PuzzleTestCase {
 		solvePuzzle(new SkidPuzzle());
 	}
 	
+	public void testBucks() throws Exception {
+		solvePuzzle(new BucksPuzzle());
+	}
+	
 }
@@ -0,0 +1,67 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.puzzle.logicart3.DandyPuzzle;
+import com.voetsjoeba.nonogram.puzzle.logicart47.TirPuzzle;
+import com.voetsjoeba.nonogram.puzzle.webpbn.SkidPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+public class AdaptivePipelineTest {
+	
+	@Test
+	public void testSkipAndReorder() {
+		
+		AdaptivePipeline pipeline = new AdaptivePipeline(3);
+		int lineClass = 0;
+		
+		Assert.assertArrayEquals(new int[]{0, 1, 2}, pipeline.getOrder(lineClass));
+		
+		// solver 0 never deduces anything, solver 1 is slow, solver 2 is fast
+		for(int i=0; i<32; i++){
+			
+			// until they've been tried often enough, all solvers are run
+			if(i < 16){
+				for(int solver=0; solver<3; solver++) Assert.assertTrue(pipeline.shouldRun(lineClass, solver));
+			}
+			
+			pipeline.record(lineClass, 0, 0, 1000);
+			pipeline.record(lineClass, 1, 1, 1000);
+			pipeline.record(lineClass, 2, 1, 10);
+			
+		}
+		
+		Assert.assertArrayEquals(new int[]{2, 1, 0}, pipeline.getOrder(lineClass));
+		Assert.assertTrue(pipeline.shouldRun(lineClass, 1));
+		
+		// solver 0 is skipped, but still gets an occasional try
+		int runs = 0;
+		for(int i=0; i<64; i++) if(pipeline.shouldRun(lineClass, 0)) runs++;
+		Assert.assertEquals(2, runs);
+		
+		pipeline.reset();
+		Assert.assertTrue(pipeline.shouldRun(lineClass, 0));
+		Assert.assertArrayEquals(new int[]{0, 1, 2}, pipeline.getOrder(lineClass));
+		
+	}
+	
+	@Test
+	public void testSolve() throws Exception {
+		
+		Puzzle[] puzzles = new Puzzle[]{new DandyPuzzle(), new SkidPuzzle(), new TirPuzzle()};
+		
+		for(Puzzle puzzle : puzzles){
+			
+			Solver solver = new Solver(puzzle);
+			solver.setAdaptivePipelineEnabled(true);
+			solver.solve();
+			
+			Assert.assertTrue(solver.isAdaptivePipelineEnabled());
+			Assert.assertTrue(puzzle.isComplete());
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,51 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.puzzle.logicart3.DandyPuzzle;
+import com.voetsjoeba.nonogram.puzzle.logicart3.MezzoBustoPuzzle;
+import com.voetsjoeba.nonogram.puzzle.logicart3.MonumentiNaturaliPuzzle;
+import com.voetsjoeba.nonogram.puzzle.logicart3.SalperaPuzzle;
+import com.voetsjoeba.nonogram.puzzle.webpbn.SkidPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+public class BatchSolverTest {
+	
+	@Test
+	public void testBatch() throws Exception {
+		
+		List<Puzzle> puzzles = new ArrayList<Puzzle>();
+		puzzles.add(new DandyPuzzle());
+		puzzles.add(new MonumentiNaturaliPuzzle()); // inconsistent clues, fails
+		puzzles.add(new MezzoBustoPuzzle());
+		puzzles.add(new SalperaPuzzle());
+		puzzles.add(new SkidPuzzle());
+		
+		List<BatchSolverResult> results = new BatchSolver(3).solve(puzzles);
+		
+		Assert.assertEquals(puzzles.size(), results.size());
+		
+		for(int i=0; i<puzzles.size(); i++){
+			
+			BatchSolverResult result = results.get(i);
+			Assert.assertSame(puzzles.get(i), result.getPuzzle());
+			
+			if(i == 1){
+				Assert.assertTrue(result.isFailed());
+				Assert.assertTrue(result.getException() instanceof UnsolvablePuzzleException);
+			} else {
+				Assert.assertFalse(result.isFailed());
+				Assert.assertTrue(result.isCompleted());
+				Assert.assertTrue(result.getRowsChecked() > 0);
+			}
+			
+		}
+		
+	}
+	
+}
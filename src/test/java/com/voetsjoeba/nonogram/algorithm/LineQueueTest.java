@@ -0,0 +1,57 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+
+public class LineQueueTest {
+	
+	@Test
+	public void testOrdering() {
+		
+		LineQueue queue = new LineQueue(6);
+		queue.offer(0, 1, 5);
+		queue.offer(1, 3, 9);
+		queue.offer(2, 1, 2);
+		queue.offer(3, 0, 0);
+		queue.offer(4, 3, 4);
+		
+		Assert.assertEquals(5, queue.size());
+		Assert.assertFalse(queue.contains(5));
+		
+		Assert.assertEquals(4, queue.poll());
+		Assert.assertEquals(1, queue.poll());
+		Assert.assertEquals(2, queue.poll());
+		Assert.assertEquals(0, queue.poll());
+		Assert.assertEquals(3, queue.poll());
+		Assert.assertEquals(-1, queue.poll());
+		Assert.assertTrue(queue.isEmpty());
+		
+	}
+	
+	@Test
+	public void testUpdatePriority() {
+		
+		LineQueue queue = new LineQueue(4);
+		queue.offer(0, 2, 0);
+		queue.offer(1, 1, 0);
+		queue.offer(2, 0, 0);
+		
+		// offering a queued line again updates its priority rather than adding it twice
+		queue.offer(2, 5, 0);
+		queue.offer(0, 0, 1);
+		
+		Assert.assertEquals(3, queue.size());
+		Assert.assertEquals(2, queue.poll());
+		Assert.assertEquals(1, queue.poll());
+		Assert.assertEquals(0, queue.poll());
+		
+		queue.offer(3, 0, 0);
+		queue.clear();
+		
+		Assert.assertTrue(queue.isEmpty());
+		Assert.assertFalse(queue.contains(3));
+		
+	}
+	
+}
@@ -0,0 +1,77 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.puzzle.webpbn.BucksPuzzle;
+import com.voetsjoeba.nonogram.puzzle.webpbn.EdgePuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+public class ProberTest {
+	
+	/**
+	 * Solves the provided puzzle with probing but without search, and checks that the puzzle is solved.
+	 */
+	protected void assertSolvedByProbing(Puzzle puzzle, int threadCount) throws Exception {
+		
+		Solver solver = new Solver(puzzle);
+		solver.setSearchEnabled(false);
+		solver.setProbingEnabled(true);
+		solver.setProbingThreadCount(threadCount);
+		solver.solve();
+		
+		Assert.assertTrue(solver.getProbeCount() > 0);
+		Assert.assertTrue(puzzle.isComplete());
+		Assert.assertTrue(NonogramUtils.isSolved(puzzle));
+		
+	}
+	
+	@Test
+	public void testProbing() throws Exception {
+		
+		// neither can be solved by line logic alone
+		assertSolvedByProbing(new BucksPuzzle(), 1);
+		assertSolvedByProbing(new EdgePuzzle(), 1);
+		
+	}
+	
+	@Test
+	public void testParallelProbing() throws Exception {
+		assertSolvedByProbing(new BucksPuzzle(), 3);
+		assertSolvedByProbing(new EdgePuzzle(), 3);
+	}
+	
+	/**
+	 * Probing leaves only the squares it resolved on the puzzle, and a prober can still be used after it has been shut down.
+	 */
+	@Test
+	public void testRepeatedProbing() throws Exception {
+		
+		for(int threadCount=1; threadCount<=2; threadCount++){
+			
+			Puzzle puzzle = new EdgePuzzle();
+			Prober prober = new Prober(puzzle, threadCount);
+			
+			int firstResolvedCount = prober.probe();
+			Assert.assertTrue(firstResolvedCount > 0);
+			Assert.assertEquals(firstResolvedCount, puzzle.getKnownSquareCount());
+			
+			prober.shutdown();
+			
+			int secondResolvedCount = prober.probe();
+			Assert.assertTrue(secondResolvedCount > 0);
+			Assert.assertEquals(firstResolvedCount + secondResolvedCount, puzzle.getKnownSquareCount());
+			
+			prober.shutdown();
+			
+		}
+		
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidThreadCount() {
+		new Prober(new BucksPuzzle(), 0);
+	}
+	
+}
@@ -0,0 +1,68 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.puzzle.logicart3.DandyPuzzle;
+import com.voetsjoeba.nonogram.structure.StandardPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+public class SolutionCounterTest {
+	
+	@Test
+	public void testUniqueSolution() throws Exception {
+		
+		Puzzle puzzle = new DandyPuzzle();
+		SolutionCount count = SolutionCounter.countSolutions(puzzle, 2);
+		
+		Assert.assertEquals(1, count.getCount());
+		Assert.assertTrue(count.isUnique());
+		Assert.assertTrue(NonogramUtils.isSolved(count.getSolutions().get(0)));
+		
+		// the puzzle itself is left untouched
+		Assert.assertEquals(0, puzzle.getKnownSquareCount());
+		
+	}
+	
+	/**
+	 * Either diagonal of a 2x2 grid satisfies its runs.
+	 */
+	@Test
+	public void testAmbiguousSolution() throws Exception {
+		
+		Puzzle puzzle = new StandardPuzzle(new int[][]{{1},{1}}, new int[][]{{1},{1}});
+		SolutionCount count = SolutionCounter.countSolutions(puzzle, 3);
+		
+		Assert.assertEquals(2, count.getCount());
+		Assert.assertFalse(count.isUnique());
+		Assert.assertFalse(count.isLimitReached());
+		Assert.assertEquals(2, count.getSolutions().size());
+		
+		Puzzle first = count.getSolutions().get(0);
+		Puzzle second = count.getSolutions().get(1);
+		
+		Assert.assertTrue(NonogramUtils.isSolved(first));
+		Assert.assertTrue(NonogramUtils.isSolved(second));
+		Assert.assertTrue(first.getSquare(0, 0).getState() != second.getSquare(0, 0).getState());
+		
+	}
+	
+	@Test
+	public void testLimit() throws Exception {
+		
+		Puzzle puzzle = new StandardPuzzle(new int[][]{{1},{1}}, new int[][]{{1},{1}});
+		SolutionCount count = SolutionCounter.countSolutions(puzzle, 1);
+		
+		Assert.assertEquals(1, count.getCount());
+		Assert.assertTrue(count.isLimitReached());
+		Assert.assertFalse(count.isUnique());
+		
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidLimit() throws Exception {
+		SolutionCounter.countSolutions(new DandyPuzzle(), 0);
+	}
+	
+}
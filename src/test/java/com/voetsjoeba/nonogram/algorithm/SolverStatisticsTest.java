@@ -0,0 +1,76 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.puzzle.webpbn.SkidPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+
+public class SolverStatisticsTest {
+	
+	@Test
+	public void testStatistics() throws Exception {
+		
+		Puzzle puzzle = new SkidPuzzle();
+		int squaresKnownBefore = puzzle.getKnownSquareCount();
+		
+		Solver solver = new Solver(puzzle);
+		solver.setStatisticsEnabled(true);
+		solver.solve();
+		
+		Assert.assertTrue(puzzle.isComplete());
+		
+		List<RowSolverStatistics> statistics = solver.getStatistics();
+		long invocations = 0;
+		long squaresDeduced = 0;
+		
+		for(RowSolverStatistics solverStatistics : statistics){
+			
+			invocations += solverStatistics.getInvocations();
+			squaresDeduced += solverStatistics.getSquaresDeduced();
+			
+			Assert.assertEquals(0, solverStatistics.getConflicts());
+			Assert.assertTrue(solverStatistics.getWallTime() >= 0);
+			
+		}
+		
+		// the first row solver is run on each row that is checked and not yet completed; squares set by the search aren't attributed
+		// to any row solver
+		Assert.assertTrue(statistics.get(0).getInvocations() > 0);
+		Assert.assertTrue(statistics.get(0).getInvocations() <= solver.getRowsChecked());
+		Assert.assertTrue(invocations >= statistics.get(0).getInvocations());
+		Assert.assertTrue(squaresDeduced > 0);
+		Assert.assertTrue(squaresDeduced <= puzzle.getSquareCount() - squaresKnownBefore);
+		
+	}
+	
+	@Test
+	public void testMBeans() throws Exception {
+		
+		Solver solver = new Solver(new SkidPuzzle());
+		solver.setStatisticsEnabled(true);
+		
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		List<ObjectName> names = solver.registerStatisticsMBeans(server, "skid");
+		
+		try {
+			
+			solver.solve();
+			
+			Assert.assertEquals(solver.getStatistics().size(), names.size());
+			Assert.assertEquals(solver.getStatistics().get(0).getInvocations(), server.getAttribute(names.get(0), "Invocations"));
+			
+		}
+		finally {
+			for(ObjectName name : names) server.unregisterMBean(name);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,99 @@
+package com.voetsjoeba.nonogram.algorithm;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.puzzle.logicart3.DandyPuzzle;
+import com.voetsjoeba.nonogram.structure.StandardPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+public class ValidationTest {
+	
+	/**
+	 * Solves the provided puzzle with validation enabled, and returns the explanation of the conflict it is expected to run into.
+	 */
+	protected ConflictExplanation solveInvalid(Puzzle puzzle) throws Exception {
+		
+		Solver solver = new Solver(puzzle);
+		solver.setValidationEnabled(true);
+		
+		try {
+			solver.solve();
+		}
+		catch(UnsolvablePuzzleException e) {
+			return solver.getConflictExplanation();
+		}
+		
+		Assert.fail("Expected puzzle to be unsolvable");
+		return null;
+		
+	}
+	
+	@Test(expected=UnsolvablePuzzleException.class)
+	public void testFilledSquareCountMismatch() throws Exception {
+		NonogramUtils.checkRuns(new StandardPuzzle(new int[][]{{1},{1}}, new int[][]{{2},{1}}));
+	}
+	
+	/**
+	 * Runs that fail the quick checks are rejected before any solving is done.
+	 */
+	@Test
+	public void testInvalidRuns() throws Exception {
+		
+		Puzzle puzzle = new StandardPuzzle(new int[][]{{1},{1}}, new int[][]{{2},{1}});
+		
+		Assert.assertNull(solveInvalid(puzzle));
+		Assert.assertEquals(0, puzzle.getKnownSquareCount());
+		
+	}
+	
+	/**
+	 * The second row fills the first three columns, which leaves no room for the runs of the last row.
+	 */
+	@Test
+	public void testConflictExplanation() throws Exception {
+		
+		Puzzle puzzle = new StandardPuzzle(new int[][]{{1},{3},{1},{1,1}}, new int[][]{{2},{1,2},{2},{0}});
+		ConflictExplanation explanation = solveInvalid(puzzle);
+		
+		Assert.assertNotNull(explanation);
+		Assert.assertFalse(explanation.getDeductions().isEmpty());
+		
+		// every deduction is one of the squares known at the time of the conflict, in the state it had; the empty last column is given
+		for(ConflictExplanation.Deduction deduction : explanation.getDeductions()){
+			Assert.assertEquals(puzzle.getSquare(deduction.getColumn(), deduction.getRow()).getState(), deduction.getState());
+			Assert.assertTrue(deduction.getSolver() != null || deduction.getColumn() == 3);
+		}
+		
+	}
+	
+	/**
+	 * The empty first and third rows clear the first column, which leaves no room for its run of length 2 as soon as its decomposition is built.
+	 */
+	@Test
+	public void testDecompositionConflict() throws Exception {
+		
+		Puzzle puzzle = new StandardPuzzle(new int[][]{{0},{1},{0},{1}}, new int[][]{{2},{0}});
+		ConflictExplanation explanation = solveInvalid(puzzle);
+		
+		Assert.assertNotNull(explanation);
+		
+	}
+	
+	@Test
+	public void testValidPuzzle() throws Exception {
+		
+		Puzzle puzzle = new DandyPuzzle();
+		
+		Solver solver = new Solver(puzzle);
+		solver.setValidationEnabled(true);
+		solver.solve();
+		
+		Assert.assertTrue(NonogramUtils.isSolved(puzzle));
+		Assert.assertNull(solver.getConflictExplanation());
+		
+	}
+	
+}
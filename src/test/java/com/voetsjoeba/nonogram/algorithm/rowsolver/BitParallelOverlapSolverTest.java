@@ -0,0 +1,139 @@
+package com.voetsjoeba.nonogram.algorithm.rowsolver;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.structure.Orientation;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.TestUtils;
+
+public class BitParallelOverlapSolverTest {
+	
+	/**
+	 * Solves the row described by <tt>formatString</tt> with the {@link OverlappingRowSolver}, the {@link BitParallelOverlapSolver} and
+	 * the {@link DynamicProgrammingRowSolver}, and checks that the bit-parallel solver deduces at least what the overlapping solver deduces,
+	 * and nothing that the dynamic programming solver (which deduces everything there is to deduce) doesn't.
+	 */
+	protected void assertDeductions(String formatString) throws Exception {
+		
+		Row overlappingRow = TestUtils.buildRow(formatString);
+		Row bitParallelRow = TestUtils.buildRow(formatString);
+		Row dynamicRow = TestUtils.buildRow(formatString);
+		
+		overlappingRow.resetModificationCount();
+		bitParallelRow.resetModificationCount();
+		dynamicRow.resetModificationCount();
+		
+		new OverlappingRowSolver().solve(overlappingRow);
+		new BitParallelOverlapSolver().solve(bitParallelRow);
+		new DynamicProgrammingRowSolver().solve(dynamicRow);
+		
+		for(int i=0; i<bitParallelRow.getLength(); i++){
+			
+			Square overlappingSquare = overlappingRow.getSquare(i);
+			Square bitParallelSquare = bitParallelRow.getSquare(i);
+			Square dynamicSquare = dynamicRow.getSquare(i);
+			
+			if(overlappingSquare.isStateKnown()){
+				Assert.assertEquals("State of square " + i + " in " + formatString, overlappingSquare.getState(), bitParallelSquare.getState());
+			}
+			
+			if(bitParallelSquare.isStateKnown()){
+				Assert.assertEquals("State of square " + i + " in " + formatString, dynamicSquare.getState(), bitParallelSquare.getState());
+			}
+			
+			Run bitParallelRun = bitParallelSquare.getRun(Orientation.HORIZONTAL);
+			if(bitParallelRun != null){
+				Run dynamicRun = dynamicSquare.getRun(Orientation.HORIZONTAL);
+				Assert.assertNotNull("Run of square " + i + " in " + formatString, dynamicRun);
+				Assert.assertEquals("Run of square " + i + " in " + formatString, dynamicRow.getRuns().indexOf(dynamicRun), bitParallelRow.getRuns().indexOf(bitParallelRun));
+			}
+			
+		}
+		
+	}
+	
+	@Test
+	public void testDeductions() throws Exception {
+		
+		assertDeductions("3|.....");
+		assertDeductions("2,2|.....");
+		assertDeductions("1,1,1|.....");
+		assertDeductions("4|..x......");
+		assertDeductions("1,3|..-.x.....");
+		assertDeductions("2,1|.x...x.");
+		assertDeductions("3,1,2|...x..-..x..x");
+		assertDeductions("1,7,5,7|.....xx.x.............-xxxxxxx$4");
+		assertDeductions("5,5,5|...x....................-.........x...");
+		
+	}
+	
+	/**
+	 * The filled square at the end can only be covered by the last run, which pulls it to the right of the decomposition's leftmost position.
+	 */
+	@Test
+	public void testFilledSquaresCovered() throws Exception {
+		
+		Row row = TestUtils.buildRow("2,2|........x");
+		row.resetModificationCount();
+		
+		new BitParallelOverlapSolver().solve(row);
+		
+		Assert.assertTrue(row.getSquare(7).isFilled());
+		Assert.assertSame(row.getRun(1), row.getSquare(7).getRun(Orientation.HORIZONTAL));
+		Assert.assertTrue(row.getSquare(6).isCleared());
+		
+	}
+	
+	/**
+	 * Squares assigned to a run can only be covered by that run; here the first run has to precede the second run directly.
+	 */
+	@Test
+	public void testAssignedRun() throws Exception {
+		
+		Row row = TestUtils.buildRow("1,2,1|..xx$2......");
+		row.resetModificationCount();
+		
+		new BitParallelOverlapSolver().solve(row);
+		
+		Assert.assertTrue(row.getSquare(0).isFilled());
+		Assert.assertSame(row.getRun(0), row.getSquare(0).getRun(Orientation.HORIZONTAL));
+		Assert.assertTrue(row.getSquare(1).isCleared());
+		Assert.assertTrue(row.getSquare(4).isCleared());
+		
+	}
+	
+	@Test(expected=UnsolvablePuzzleException.class)
+	public void testNoSolution() throws Exception {
+		
+		Row row = TestUtils.buildRow("3|..-..-x.-");
+		row.resetModificationCount();
+		
+		new BitParallelOverlapSolver().solve(row);
+		
+	}
+	
+	/**
+	 * Rows longer than 64 squares are left to the fallback solver.
+	 */
+	@Test
+	public void testLongRow() throws Exception {
+		
+		StringBuilder formatString = new StringBuilder("60,5|");
+		for(int i=0; i<70; i++) formatString.append('.');
+		
+		Row row = TestUtils.buildRow(formatString.toString());
+		row.resetModificationCount();
+		
+		new BitParallelOverlapSolver().solve(row);
+		
+		Assert.assertTrue(row.getSquare(4).isFilled());
+		Assert.assertTrue(row.getSquare(59).isFilled());
+		Assert.assertFalse(row.getSquare(3).isStateKnown());
+		
+	}
+	
+}
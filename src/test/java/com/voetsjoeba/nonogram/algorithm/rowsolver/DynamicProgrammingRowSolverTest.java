@@ -0,0 +1,93 @@
+package com.voetsjoeba.nonogram.algorithm.rowsolver;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.algorithm.Solver;
+import com.voetsjoeba.nonogram.exception.UnsolvablePuzzleException;
+import com.voetsjoeba.nonogram.puzzle.logicart3.DandyPuzzle;
+import com.voetsjoeba.nonogram.puzzle.webpbn.SkidPuzzle;
+import com.voetsjoeba.nonogram.structure.Orientation;
+import com.voetsjoeba.nonogram.structure.StandardPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.util.TestUtils;
+
+public class DynamicProgrammingRowSolverTest {
+	
+	/**
+	 * Solves the row described by <tt>formatString</tt> with both the {@link ExhaustiveRowSolver} and the {@link DynamicProgrammingRowSolver},
+	 * and checks that both deduce the same square states and runs.
+	 */
+	protected void assertSameDeductions(String formatString) throws Exception {
+		TestUtils.assertSameDeductions(new ExhaustiveRowSolver(), new DynamicProgrammingRowSolver(), formatString);
+	}
+	
+	@Test
+	public void testSameDeductions() throws Exception {
+		
+		assertSameDeductions("3|.....");
+		assertSameDeductions("2,2|.....");
+		assertSameDeductions("1,1,1|.....");
+		assertSameDeductions("4|..x......");
+		assertSameDeductions("1,3|..-.x.....");
+		assertSameDeductions("2,1|.x...x.");
+		assertSameDeductions("3,1,2|...x..-..x..x");
+		assertSameDeductions("2,3|x.....-...");
+		assertSameDeductions("1,7,5,7|.....xx.x.............-xxxxxxx$4");
+		
+	}
+	
+	/**
+	 * Runs assigned to squares restrict where the other runs can go; here the first run has to precede the second run directly.
+	 */
+	@Test
+	public void testAssignedRun() throws Exception {
+		
+		Row row = TestUtils.buildRow("1,2,1|..xx$2......");
+		row.resetModificationCount();
+		
+		new DynamicProgrammingRowSolver().solve(row);
+		
+		Assert.assertTrue(row.getSquare(0).isFilled());
+		Assert.assertSame(row.getRun(0), row.getSquare(0).getRun(Orientation.HORIZONTAL));
+		Assert.assertTrue(row.getSquare(1).isCleared());
+		Assert.assertTrue(row.getSquare(4).isCleared());
+		
+	}
+	
+	@Test(expected=UnsolvablePuzzleException.class)
+	public void testNoSolution() throws Exception {
+		
+		Row row = TestUtils.buildRow("3|..-..-x.-");
+		row.resetModificationCount();
+		
+		new DynamicProgrammingRowSolver().solve(row);
+		
+	}
+	
+	/**
+	 * Checks that the solver ends up with the same solution regardless of which of both exhaustive solvers it resorts to.
+	 */
+	protected void assertSameSolution(StandardPuzzle exhaustivePuzzle, StandardPuzzle dynamicPuzzle) throws Exception {
+		
+		Solver exhaustiveSolver = new Solver(exhaustivePuzzle);
+		exhaustiveSolver.setExhaustiveSolver(new ExhaustiveRowSolver());
+		exhaustiveSolver.solve();
+		
+		new Solver(dynamicPuzzle).solve();
+		
+		for(int i=0; i<exhaustivePuzzle.getRows().size(); i++){
+			for(int j=0; j<exhaustivePuzzle.getColumns().size(); j++){
+				Assert.assertEquals(exhaustivePuzzle.getSquare(j, i).getState(), dynamicPuzzle.getSquare(j, i).getState());
+			}
+		}
+		
+	}
+	
+	@Test
+	public void testSameSolution() throws Exception {
+		assertSameSolution(new DandyPuzzle(), new DandyPuzzle());
+		assertSameSolution(new SkidPuzzle(), new SkidPuzzle());
+	}
+	
+}
@@ -0,0 +1,87 @@
+package com.voetsjoeba.nonogram.algorithm.rowsolver;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.algorithm.Solver;
+import com.voetsjoeba.nonogram.puzzle.webpbn.BucksPuzzle;
+import com.voetsjoeba.nonogram.structure.StandardPuzzle;
+import com.voetsjoeba.nonogram.util.TestUtils;
+
+public class LineSolutionCacheTest {
+	
+	@Test
+	public void testEviction() throws Exception {
+		
+		LineSolutionCache cache = new LineSolutionCache(2);
+		
+		cache.put("a", new char[]{1});
+		cache.put("b", new char[]{2});
+		Assert.assertNotNull(cache.get("a")); // makes b the least recently used
+		cache.put("c", new char[]{3});
+		
+		Assert.assertEquals(2, cache.size());
+		Assert.assertNotNull(cache.get("a"));
+		Assert.assertNull(cache.get("b"));
+		Assert.assertNotNull(cache.get("c"));
+		
+		Assert.assertEquals(3, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+		
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidCapacity() throws Exception {
+		new LineSolutionCache(0);
+	}
+	
+	/**
+	 * Solving the same row again with a cache takes its outcome from the cache, and both outcomes match what the solver deduces without a cache.
+	 */
+	@Test
+	public void testCachedRow() throws Exception {
+		
+		String formatString = "1,2,1|..xx$2......";
+		DynamicProgrammingRowSolver cachedSolver = new DynamicProgrammingRowSolver(new LineSolutionCache(16));
+		
+		TestUtils.assertSameDeductions(new DynamicProgrammingRowSolver(), cachedSolver, formatString);
+		Assert.assertEquals(0, cachedSolver.getCachedRowsSolved());
+		
+		TestUtils.assertSameDeductions(new DynamicProgrammingRowSolver(), cachedSolver, formatString);
+		Assert.assertEquals(1, cachedSolver.getCachedRowsSolved());
+		
+	}
+	
+	/**
+	 * Solving the same puzzle again with a shared cache takes every line outcome from the cache, and yields the same solution.
+	 */
+	@Test
+	public void testSharedCache() throws Exception {
+		
+		LineSolutionCache cache = new LineSolutionCache(1024);
+		StandardPuzzle firstPuzzle = new BucksPuzzle();
+		StandardPuzzle secondPuzzle = new BucksPuzzle();
+		
+		Solver firstSolver = new Solver(firstPuzzle);
+		firstSolver.setLineSolutionCache(cache);
+		firstSolver.solve();
+		
+		long missCount = cache.getMissCount();
+		Assert.assertTrue(missCount > 0);
+		
+		Solver secondSolver = new Solver(secondPuzzle);
+		secondSolver.setLineSolutionCache(cache);
+		secondSolver.solve();
+		
+		Assert.assertEquals(missCount, cache.getMissCount());
+		Assert.assertTrue(cache.getHitCount() > 0);
+		
+		for(int i=0; i<firstPuzzle.getRows().size(); i++){
+			for(int j=0; j<firstPuzzle.getColumns().size(); j++){
+				Assert.assertEquals(firstPuzzle.getSquare(j, i).getState(), secondPuzzle.getSquare(j, i).getState());
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,92 @@
+package com.voetsjoeba.nonogram.algorithm.trace;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.algorithm.Solver;
+import com.voetsjoeba.nonogram.puzzle.logicart3.DandyPuzzle;
+import com.voetsjoeba.nonogram.puzzle.webpbn.SkidPuzzle;
+import com.voetsjoeba.nonogram.structure.Orientation;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+
+public class TraceTest {
+	
+	/**
+	 * Solves <tt>solvedPuzzle</tt> while recording a trace, replays the trace onto <tt>replayedPuzzle</tt>, and checks that both end up
+	 * in the same state.
+	 */
+	protected void assertSameReplay(Puzzle solvedPuzzle, Puzzle replayedPuzzle) throws Exception {
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TraceWriter traceWriter = new TraceWriter(Channels.newChannel(out));
+		
+		Solver solver = new Solver(solvedPuzzle);
+		solver.setTraceWriter(traceWriter);
+		solver.solve();
+		traceWriter.close();
+		
+		Assert.assertTrue(traceWriter.getRecordCount() > 0);
+		
+		TraceReader traceReader = new TraceReader(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+		Assert.assertEquals(solvedPuzzle.getColumns().size(), traceReader.getWidth());
+		Assert.assertEquals(solvedPuzzle.getRows().size(), traceReader.getHeight());
+		
+		TraceReplayer replayer = new TraceReplayer(replayedPuzzle);
+		Assert.assertEquals(traceWriter.getRecordCount(), replayer.replay(traceReader));
+		Assert.assertTrue(replayedPuzzle.isComplete());
+		
+		for(int i=0; i<solvedPuzzle.getRows().size(); i++){
+			for(int j=0; j<solvedPuzzle.getColumns().size(); j++){
+				
+				Square solvedSquare = solvedPuzzle.getSquare(j, i);
+				Square replayedSquare = replayedPuzzle.getSquare(j, i);
+				
+				Assert.assertEquals(solvedSquare.getState(), replayedSquare.getState());
+				
+				for(Orientation orientation : Orientation.values()){
+					
+					Run solvedRun = solvedSquare.getRun(orientation);
+					Run replayedRun = replayedSquare.getRun(orientation);
+					
+					Assert.assertEquals(solvedRun == null ? -1 : solvedRun.getIndex(), replayedRun == null ? -1 : replayedRun.getIndex());
+					
+				}
+				
+			}
+		}
+		
+	}
+	
+	@Test
+	public void testReplay() throws Exception {
+		assertSameReplay(new DandyPuzzle(), new DandyPuzzle());
+		assertSameReplay(new SkidPuzzle(), new SkidPuzzle());
+	}
+	
+	@Test(expected=IOException.class)
+	public void testInvalidTrace() throws Exception {
+		new TraceReader(Channels.newChannel(new ByteArrayInputStream("not a trace at all".getBytes("UTF-8"))));
+	}
+	
+	@Test(expected=IOException.class)
+	public void testMismatchingPuzzle() throws Exception {
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TraceWriter traceWriter = new TraceWriter(Channels.newChannel(out));
+		traceWriter.start(3, 4, new String[]{"SomeSolver"});
+		traceWriter.record(0, 0, 1, null, -1);
+		traceWriter.close();
+		
+		TraceReader traceReader = new TraceReader(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+		new TraceReplayer(new DandyPuzzle()).replay(traceReader);
+		
+	}
+	
+}
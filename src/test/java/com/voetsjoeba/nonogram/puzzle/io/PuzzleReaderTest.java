@@ -0,0 +1,263 @@
+package com.voetsjoeba.nonogram.puzzle.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.algorithm.Solver;
+import com.voetsjoeba.nonogram.exception.PuzzleFormatException;
+import com.voetsjoeba.nonogram.puzzle.webpbn.SkidPuzzle;
+import com.voetsjoeba.nonogram.structure.StandardPuzzle;
+
+public class PuzzleReaderTest {
+	
+	// example puzzle:
+	//   XX.X.
+	//   .XXX.
+	//   .....
+	//   X..X.
+	
+	private static final String NON_PUZZLE = 
+		"catalogue \"example\"\n" +
+		"title \"Example\"\n" +
+		"width 5\n" +
+		"height 4\n" +
+		"\n" +
+		"rows\n" +
+		"2,1\n" +
+		"3\n" +
+		"0\n" +
+		"1,1\n" +
+		"\n" +
+		"columns\n" +
+		"1,1\n" +
+		"2\n" +
+		"1\n" +
+		"2,1\n" +
+		"\n" +
+		"goal \"11010011100000010010\"\n";
+	
+	private static final String CWD_PUZZLE = 
+		"4\n" +
+		"5\n" +
+		"2 1\n" +
+		"3\n" +
+		"0\n" +
+		"1 1\n" +
+		"\n" +
+		"1 1\n" +
+		"2\n" +
+		"1\n" +
+		"2 1\n" +
+		"0\n";
+	
+	private static final String XML_PUZZLES = 
+		"<?xml version=\"1.0\"?>\n" +
+		"<!DOCTYPE pbn SYSTEM \"http://webpbn.com/pbn-0.3.dtd\">\n" +
+		"<puzzleset>\n" +
+		"<puzzle type=\"grid\" defaultcolor=\"black\">\n" +
+		"<id>#1</id>\n" +
+		"<title>Example</title>\n" +
+		"<color name=\"white\" char=\".\">fff</color>\n" +
+		"<color name=\"black\" char=\"X\">000</color>\n" +
+		"<clue type=\"columns\">\n" +
+		"<line><count>1</count><count>1</count></line>\n" +
+		"<line><count>2</count></line>\n" +
+		"<line><count>1</count></line>\n" +
+		"<line><count>2</count><count>1</count></line>\n" +
+		"<line></line>\n" +
+		"</clue>\n" +
+		"<clue type=\"rows\">\n" +
+		"<line><count>2</count><count>1</count></line>\n" +
+		"<line><count>3</count></line>\n" +
+		"<line></line>\n" +
+		"<line><count>1</count><count>1</count></line>\n" +
+		"</clue>\n" +
+		"</puzzle>\n" +
+		"<puzzle>\n" +
+		"<id>#2</id>\n" +
+		"<clue type=\"rows\"><line><count>1</count></line></clue>\n" +
+		"<clue type=\"columns\"><line><count>1</count></line></clue>\n" +
+		"</puzzle>\n" +
+		"</puzzleset>\n";
+	
+	/**
+	 * Callback that collects all puzzles read.
+	 */
+	private static class ListCallback implements PuzzleReaderCallback {
+		
+		private List<PuzzleDefinition> definitions = new ArrayList<PuzzleDefinition>();
+		
+		public void puzzleRead(PuzzleDefinition definition) {
+			definitions.add(definition);
+		}
+		
+	}
+	
+	protected List<PuzzleDefinition> read(PuzzleReader reader, String input) throws IOException {
+		return read(reader, input.getBytes("UTF-8"));
+	}
+	
+	protected List<PuzzleDefinition> read(PuzzleReader reader, byte[] input) throws IOException {
+		
+		ListCallback callback = new ListCallback();
+		reader.read(new ByteArrayInputStream(input), "test", callback);
+		
+		return callback.definitions;
+		
+	}
+	
+	/**
+	 * Checks that the provided definition holds the example puzzle that appears in all of the test inputs.
+	 */
+	protected void assertExample(PuzzleDefinition definition){
+		
+		Assert.assertEquals(5, definition.getWidth());
+		Assert.assertEquals(4, definition.getHeight());
+		
+		Assert.assertArrayEquals(new int[]{2, 1}, definition.getRowRuns()[0]);
+		Assert.assertArrayEquals(new int[0], definition.getRowRuns()[2]);
+		Assert.assertArrayEquals(new int[]{1, 1}, definition.getRowRuns()[3]);
+		Assert.assertArrayEquals(new int[]{2, 1}, definition.getColumnRuns()[3]);
+		Assert.assertArrayEquals(new int[0], definition.getColumnRuns()[4]);
+		
+		StandardPuzzle puzzle = definition.toStandardPuzzle();
+		new Solver(puzzle).solve();
+		
+		Assert.assertTrue(puzzle.isComplete());
+		Assert.assertTrue(puzzle.getSquare(3, 1).isFilled());
+		Assert.assertTrue(puzzle.getSquare(0, 1).isCleared());
+		
+	}
+	
+	@Test
+	public void testNon() throws Exception {
+		
+		List<PuzzleDefinition> definitions = read(new NonPuzzleReader(), NON_PUZZLE);
+		
+		Assert.assertEquals(1, definitions.size());
+		Assert.assertEquals("Example", definitions.get(0).getName());
+		assertExample(definitions.get(0));
+		
+	}
+	
+	@Test
+	public void testCwd() throws Exception {
+		
+		List<PuzzleDefinition> definitions = read(new CwdPuzzleReader(), CWD_PUZZLE);
+		
+		Assert.assertEquals(1, definitions.size());
+		assertExample(definitions.get(0));
+		
+	}
+	
+	@Test
+	public void testXml() throws Exception {
+		
+		List<PuzzleDefinition> definitions = read(new XmlPuzzleReader(), XML_PUZZLES);
+		
+		Assert.assertEquals(2, definitions.size());
+		Assert.assertEquals("Example", definitions.get(0).getName());
+		Assert.assertEquals("#2", definitions.get(1).getName());
+		assertExample(definitions.get(0));
+		
+	}
+	
+	@Test
+	public void testZip() throws Exception {
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ZipOutputStream zip = new ZipOutputStream(bytes);
+		
+		String[] entryNames = {"a.non", "readme.txt", "b.cwd", "c.xml"};
+		String[] entryContents = {NON_PUZZLE, "not a puzzle", CWD_PUZZLE, XML_PUZZLES};
+		
+		for(int i=0; i<entryNames.length; i++){
+			zip.putNextEntry(new ZipEntry(entryNames[i]));
+			zip.write(entryContents[i].getBytes("UTF-8"));
+			zip.closeEntry();
+		}
+		
+		zip.close();
+		
+		List<PuzzleDefinition> definitions = read(new ZipPuzzleReader(), bytes.toByteArray());
+		
+		Assert.assertEquals(4, definitions.size());
+		Assert.assertEquals("test!b.cwd", definitions.get(1).getName());
+		
+		assertExample(definitions.get(0));
+		assertExample(definitions.get(1));
+		assertExample(definitions.get(2));
+		
+	}
+	
+	/**
+	 * Writes an existing puzzle in the .non format and reads it back.
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		
+		StandardPuzzle original = new SkidPuzzle();
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append("width " + original.getColumnRuns().length + "\n");
+		sb.append("height " + original.getRowRuns().length + "\n");
+		
+		sb.append("rows\n");
+		for(int[] runs : original.getRowRuns()) sb.append(toClue(runs) + "\n");
+		
+		sb.append("columns\n");
+		for(int[] runs : original.getColumnRuns()) sb.append(toClue(runs) + "\n");
+		
+		PuzzleDefinition definition = read(new NonPuzzleReader(), sb.toString()).get(0);
+		
+		StandardPuzzle puzzle = definition.toStandardPuzzle();
+		new Solver(puzzle).solve();
+		new Solver(original).solve();
+		
+		Assert.assertTrue(puzzle.isComplete());
+		
+		for(int i=0; i<puzzle.getRows().size(); i++){
+			for(int j=0; j<puzzle.getColumns().size(); j++){
+				Assert.assertEquals(original.getSquare(j, i).getState(), puzzle.getSquare(j, i).getState());
+			}
+		}
+		
+	}
+	
+	private String toClue(int[] runs){
+		
+		StringBuilder sb = new StringBuilder();
+		
+		for(int i=0; i<runs.length; i++){
+			if(i > 0) sb.append(",");
+			sb.append(runs[i]);
+		}
+		
+		return sb.toString();
+		
+	}
+	
+	@Test(expected=PuzzleFormatException.class)
+	public void testInvalidRunLength() throws Exception {
+		read(new CwdPuzzleReader(), "1\n1\nx\n1\n");
+	}
+	
+	@Test(expected=PuzzleFormatException.class)
+	public void testMissingClues() throws Exception {
+		read(new NonPuzzleReader(), "width 1\nheight 1\nrows\n1\n");
+	}
+	
+	@Test(expected=PuzzleFormatException.class)
+	public void testMultiColored() throws Exception {
+		read(new XmlPuzzleReader(), "<puzzleset><puzzle><clue type=\"rows\"><line><count color=\"red\">1</count></line></clue></puzzle></puzzleset>");
+	}
+	
+}
@@ -0,0 +1,135 @@
+package com.voetsjoeba.nonogram.structure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.algorithm.Solver;
+import com.voetsjoeba.nonogram.puzzle.logicart3.DandyPuzzle;
+import com.voetsjoeba.nonogram.puzzle.webpbn.SkidPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+public class StandardPuzzleTest {
+	
+	/**
+	 * Checks that the squares, runs and rows of both puzzles are in the same state.
+	 */
+	protected void assertSameState(Puzzle expected, Puzzle actual){
+		
+		for(int i=0; i<expected.getRows().size(); i++){
+			for(int j=0; j<expected.getColumns().size(); j++){
+				
+				Square expectedSquare = expected.getSquare(j, i);
+				Square actualSquare = actual.getSquare(j, i);
+				
+				Assert.assertEquals(expectedSquare.getState(), actualSquare.getState());
+				
+				for(Orientation orientation : Orientation.values()){
+					Run expectedRun = expectedSquare.getRun(orientation);
+					Run actualRun = actualSquare.getRun(orientation);
+					Assert.assertEquals(expectedRun == null ? -1 : expectedRun.getIndex(), actualRun == null ? -1 : actualRun.getIndex());
+				}
+				
+			}
+		}
+		
+		List<Row> expectedLines = new ArrayList<Row>(expected.getRows());
+		expectedLines.addAll(expected.getColumns());
+		List<Row> actualLines = new ArrayList<Row>(actual.getRows());
+		actualLines.addAll(actual.getColumns());
+		
+		for(int i=0; i<expectedLines.size(); i++){
+			
+			Row expectedLine = expectedLines.get(i);
+			Row actualLine = actualLines.get(i);
+			
+			Assert.assertEquals(expectedLine.isCompleted(), actualLine.isCompleted());
+			Assert.assertEquals(expectedLine.getKnownSquareCount(), actualLine.getKnownSquareCount());
+			Assert.assertEquals(expectedLine.getIncompleteRuns().size(), actualLine.getIncompleteRuns().size());
+			Assert.assertEquals(expectedLine.getUnknownRuns().size(), actualLine.getUnknownRuns().size());
+			Assert.assertEquals(expectedLine.getDecomposition().toString(), actualLine.getDecomposition().toString());
+			
+			for(int r=0; r<expectedLine.getRunCount(); r++){
+				
+				Run expectedRun = expectedLine.getRun(r);
+				Run actualRun = actualLine.getRun(r);
+				
+				Assert.assertEquals(expectedRun.getKnownSquareCount(), actualRun.getKnownSquareCount());
+				if(expectedRun.hasKnownSquares()){
+					Assert.assertSame(actualLine.getSquare(expectedLine.getSquareIndex(expectedRun.getFirstKnownSquare())), actualRun.getFirstKnownSquare());
+					Assert.assertSame(actualLine.getSquare(expectedLine.getSquareIndex(expectedRun.getLastKnownSquare())), actualRun.getLastKnownSquare());
+				}
+				
+			}
+			
+		}
+		
+	}
+	
+	@Test
+	public void testRestore() throws Exception {
+		
+		StandardPuzzle puzzle = new SkidPuzzle();
+		
+		int checkpoint = puzzle.checkpoint();
+		new Solver(puzzle).solve();
+		Assert.assertTrue(puzzle.isComplete());
+		
+		puzzle.restore(checkpoint);
+		assertSameState(new SkidPuzzle(), puzzle);
+		
+		// the restored puzzle can be solved again
+		new Solver(puzzle).solve();
+		Assert.assertTrue(puzzle.isComplete());
+		Assert.assertTrue(NonogramUtils.isSolved(puzzle));
+		
+		puzzle.release(checkpoint);
+		
+	}
+	
+	@Test
+	public void testNestedCheckpoints() throws Exception {
+		
+		StandardPuzzle puzzle = new DandyPuzzle();
+		Row row = puzzle.getRow(0);
+		
+		int outer = puzzle.checkpoint();
+		row.getSquare(0).setState(SquareState.CLEAR);
+		
+		Puzzle expected = puzzle.copy();
+		
+		int inner = puzzle.checkpoint();
+		row.fillSquares(1, 2, row.getRun(0));
+		
+		Assert.assertTrue(row.getRun(0).hasKnownSquares());
+		
+		puzzle.restore(inner);
+		assertSameState(expected, puzzle);
+		
+		// the inner checkpoint can be restored again after making other changes
+		row.getSquare(3).setState(SquareState.CLEAR);
+		puzzle.restore(inner);
+		assertSameState(expected, puzzle);
+		
+		puzzle.restore(outer);
+		assertSameState(new DandyPuzzle(), puzzle);
+		
+		puzzle.release(outer);
+		
+		try {
+			puzzle.restore(outer);
+			Assert.fail("Released checkpoint could still be restored");
+		}
+		catch(IllegalArgumentException iaex){
+			// expected
+		}
+		
+	}
+	
+}
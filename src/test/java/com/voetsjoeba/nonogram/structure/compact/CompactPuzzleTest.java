@@ -0,0 +1,112 @@
+package com.voetsjoeba.nonogram.structure.compact;
+
+import org.junit.Test;
+
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.algorithm.Solver;
+import com.voetsjoeba.nonogram.puzzle.logicart3.DandyPuzzle;
+import com.voetsjoeba.nonogram.puzzle.logicart47.PianistaPuzzle;
+import com.voetsjoeba.nonogram.puzzle.webpbn.BucksPuzzle;
+import com.voetsjoeba.nonogram.puzzle.webpbn.SkidPuzzle;
+import com.voetsjoeba.nonogram.structure.SquareState;
+import com.voetsjoeba.nonogram.structure.StandardPuzzle;
+import com.voetsjoeba.nonogram.structure.api.Puzzle;
+import com.voetsjoeba.nonogram.structure.api.Square;
+import com.voetsjoeba.nonogram.util.NonogramUtils;
+
+public class CompactPuzzleTest {
+	
+	/**
+	 * Solves the provided puzzle both as-is and as a {@link CompactPuzzle}, and checks that both end up with the same solution.
+	 */
+	protected void assertSameSolution(StandardPuzzle standardPuzzle) throws Exception {
+		
+		CompactPuzzle compactPuzzle = new CompactPuzzle(standardPuzzle.getRowRuns(), standardPuzzle.getColumnRuns());
+		
+		new Solver(standardPuzzle).solve();
+		new Solver(compactPuzzle).solve();
+		
+		Assert.assertTrue(compactPuzzle.isComplete());
+		Assert.assertTrue(NonogramUtils.isSolved(compactPuzzle));
+		
+		for(int i=0; i<standardPuzzle.getRows().size(); i++){
+			for(int j=0; j<standardPuzzle.getColumns().size(); j++){
+				Assert.assertEquals(standardPuzzle.getSquare(j, i).getState(), compactPuzzle.getSquare(j, i).getState());
+			}
+		}
+		
+	}
+	
+	@Test
+	public void testSolve() throws Exception {
+		assertSameSolution(new DandyPuzzle());
+		assertSameSolution(new PianistaPuzzle());
+		assertSameSolution(new SkidPuzzle());
+	}
+	
+	@Test
+	public void testSearch() throws Exception {
+		assertSameSolution(new BucksPuzzle());
+	}
+	
+	@Test
+	public void testRefutedGuess() throws Exception {
+		// guessing wrong on this puzzle leaves a row without room for its runs while its decomposition is being built
+		assertSameSolution(new StandardPuzzle(new int[][]{{1, 1}, {1, 2}}, new int[][]{{1}, {}, {}, {1}, {1}, {1}, {1}}));
+	}
+	
+	@Test
+	public void testSquareIdentity(){
+		
+		CompactPuzzle puzzle = new CompactPuzzle(new int[][]{{1}, {1}}, new int[][]{{1}, {1}});
+		
+		Assert.assertSame(puzzle.getSquare(1, 0), puzzle.getRow(0).getSquare(1));
+		Assert.assertSame(puzzle.getSquare(1, 0), puzzle.getColumn(1).getSquare(0));
+		Assert.assertEquals(1, puzzle.getColumn(1).getSquareIndex(puzzle.getSquare(1, 1)));
+		
+	}
+	
+	@Test
+	public void testRunsAreContiguous() throws Exception {
+		
+		// 70 columns, so that the row spans two words of its masks
+		int[][] columnRuns = new int[70][];
+		for(int i=0; i<columnRuns.length; i++) columnRuns[i] = new int[]{1};
+		
+		CompactPuzzle puzzle = new CompactPuzzle(new int[][]{{70}}, columnRuns);
+		
+		Square first = puzzle.getSquare(60, 0);
+		Square last = puzzle.getSquare(66, 0);
+		
+		NonogramUtils.setSquareState(first, SquareState.FILLED, puzzle.getRow(0).getRun(0));
+		NonogramUtils.setSquareState(last, SquareState.FILLED, puzzle.getRow(0).getRun(0));
+		
+		Assert.assertEquals(7, puzzle.getRow(0).getRun(0).getKnownSquareCount());
+		Assert.assertEquals(7, puzzle.getKnownSquareCount());
+		Assert.assertSame(first, puzzle.getRow(0).getRun(0).getFirstKnownSquare());
+		Assert.assertSame(last, puzzle.getRow(0).getRun(0).getLastKnownSquare());
+		
+		for(int i=60; i<=66; i++){
+			Assert.assertTrue(puzzle.getSquare(i, 0).isFilled());
+			Assert.assertTrue(puzzle.getColumn(i).isCompleted());
+		}
+		
+	}
+	
+	@Test
+	public void testCopy() throws Exception {
+		
+		Puzzle puzzle = new CompactPuzzle(new int[][]{{2}, {1}}, new int[][]{{2}, {1}});
+		NonogramUtils.setSquareState(puzzle.getSquare(0, 0), SquareState.FILLED, puzzle.getRow(0).getRun(0));
+		
+		Puzzle copy = puzzle.copy();
+		NonogramUtils.setSquareState(copy.getSquare(1, 1), SquareState.CLEAR, null);
+		
+		Assert.assertTrue(copy.getSquare(0, 0).isFilled());
+		Assert.assertSame(copy.getRow(0).getRun(0), copy.getSquare(0, 0).getRun(puzzle.getRow(0).getOrientation()));
+		Assert.assertEquals(1, copy.getRow(0).getRun(0).getKnownSquareCount());
+		Assert.assertFalse(puzzle.getSquare(1, 1).isStateKnown());
+		
+	}
+	
+}
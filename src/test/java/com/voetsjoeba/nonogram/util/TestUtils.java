@@ -5,6 +5,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.voetsjoeba.nonogram.Assert;
+import com.voetsjoeba.nonogram.algorithm.rowsolver.RowSolver;
 import com.voetsjoeba.nonogram.exception.ConflictingSquareRunException;
 import com.voetsjoeba.nonogram.exception.ConflictingSquareStateException;
 import com.voetsjoeba.nonogram.exception.RunLengthExceededException;
@@ -13,6 +15,7 @@ import com.voetsjoeba.nonogram.structure.SquareState;
 import com.voetsjoeba.nonogram.structure.StandardRow;
 import com.voetsjoeba.nonogram.structure.StandardSquare;
 import com.voetsjoeba.nonogram.structure.api.Row;
+import com.voetsjoeba.nonogram.structure.api.Run;
 import com.voetsjoeba.nonogram.structure.api.Square;
 
 public class TestUtils {
@@ -138,4 +141,33 @@ public class TestUtils {
 		
 	}
 	
+	/**
+	 * Solves the row described by <tt>formatString</tt> with both provided row solvers, and checks that both deduce the same square states and runs.
+	 */
+	public static void assertSameDeductions(RowSolver expectedSolver, RowSolver solver, String formatString) throws Exception {
+		
+		Row expectedRow = buildRow(formatString);
+		Row row = buildRow(formatString);
+		
+		expectedRow.resetModificationCount();
+		row.resetModificationCount();
+		
+		expectedSolver.solve(expectedRow);
+		solver.solve(row);
+		
+		for(int i=0; i<expectedRow.getLength(); i++){
+			
+			Assert.assertEquals("State of square " + i + " in " + formatString, expectedRow.getSquare(i).getState(), row.getSquare(i).getState());
+			
+			Run expectedRun = expectedRow.getSquare(i).getRun(Orientation.HORIZONTAL);
+			Run run = row.getSquare(i).getRun(Orientation.HORIZONTAL);
+			
+			Assert.assertEquals("Run of square " + i + " in " + formatString,
+				(expectedRun == null ? -1 : expectedRow.getRuns().indexOf(expectedRun)),
+				(run == null ? -1 : row.getRuns().indexOf(run)));
+			
+		}
+		
+	}
+	
 }